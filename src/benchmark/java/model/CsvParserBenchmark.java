@@ -0,0 +1,151 @@
+package model;
+
+import org.junit.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * JMH benchmark comparing the row parsing used by CSV import before and after the
+ * {@link CsvTokenizer}: splitting with {@link Calendar#parseCSVLine} and parsing dates and
+ * times with {@link Calendar#parseDate} and {@link Calendar#parseTime}, against tokenizing
+ * in place and reading dates and times with {@link IsoDateTimeParser}. Events are not built,
+ * so only the parsing is measured. Scores are rows parsed per second. Run it with
+ * {@code mvn -Pbenchmark test}, which runs the JUnit test below, or with JMH's own runner.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CsvParserBenchmark {
+  private static final int ROWS = 10_000;
+
+  private String csv;
+
+  /**
+   * Builds CSV text with a header and {@link #ROWS} event rows.
+   */
+  @Setup
+  public void buildCsv() {
+    StringBuilder text = new StringBuilder("Subject,Start Date,Start Time,End Date,"
+        + "End Time,All Day Event,Description,Location,Private\n");
+    LocalDateTime start = LocalDateTime.of(2025, 1, 1, 0, 0);
+    for (int i = 0; i < ROWS; i++) {
+      LocalDateTime end = start.plusMinutes(45);
+      text.append("\"Event, ").append(i).append("\",").append(start.toLocalDate())
+          .append(',').append(start.toLocalTime()).append(":00,").append(end.toLocalDate())
+          .append(',').append(end.toLocalTime()).append(":00,false,Benchmark row,Room ")
+          .append(i % 20).append(",false\n");
+      start = start.plusHours(1);
+    }
+    csv = text.toString();
+  }
+
+  /**
+   * Parses every data row the way import did before the tokenizer.
+   *
+   * @return a checksum of the parsed values
+   * @throws IOException never, since the text is read from memory
+   */
+  @Benchmark
+  @OperationsPerInvocation(ROWS)
+  public long parseCsvLine() throws IOException {
+    long sum = 0;
+    BufferedReader reader = new BufferedReader(new StringReader(csv));
+    reader.readLine();
+    String line;
+    while ((line = reader.readLine()) != null) {
+      String[] fields = Calendar.parseCSVLine(line);
+      LocalDate startDate = Calendar.parseDate(fields[1]);
+      LocalTime startTime = Calendar.parseTime(fields[2]);
+      LocalDate endDate = Calendar.parseDate(fields[3]);
+      LocalTime endTime = Calendar.parseTime(fields[4]);
+      boolean allDay = Boolean.parseBoolean(fields[5].trim());
+      boolean isPrivate = Boolean.parseBoolean(fields[8].trim());
+      sum += startDate.toEpochDay() + startTime.toNanoOfDay() + endDate.toEpochDay()
+          + endTime.toNanoOfDay() + fields[0].length() + fields[6].length()
+          + fields[7].length() + (allDay ? 1 : 0) + (isPrivate ? 2 : 0);
+    }
+    return sum;
+  }
+
+  /**
+   * Parses every data row with the tokenizer and the in-place date and time parsers.
+   *
+   * @return a checksum of the parsed values
+   * @throws IOException never, since the text is read from memory
+   */
+  @Benchmark
+  @OperationsPerInvocation(ROWS)
+  public long csvTokenizer() throws IOException {
+    long sum = 0;
+    CsvTokenizer row = new CsvTokenizer(new StringReader(csv));
+    row.nextLine();
+    while (row.nextLine()) {
+      char[] chars = row.chars();
+      int startDate = IsoDateTimeParser.parseDate(chars, row.trimmedStart(1),
+          row.trimmedEnd(1));
+      long startTime = IsoDateTimeParser.parseTime(chars, row.trimmedStart(2),
+          row.trimmedEnd(2));
+      int endDate = IsoDateTimeParser.parseDate(chars, row.trimmedStart(3),
+          row.trimmedEnd(3));
+      long endTime = IsoDateTimeParser.parseTime(chars, row.trimmedStart(4),
+          row.trimmedEnd(4));
+      boolean allDay = row.fieldEqualsIgnoreCase(5, "true");
+      boolean isPrivate = row.fieldEqualsIgnoreCase(8, "true");
+      sum += epochDay(startDate) + startTime + epochDay(endDate) + endTime
+          + (row.trimmedEnd(0) - row.trimmedStart(0)) + (row.trimmedEnd(6)
+          - row.trimmedStart(6)) + (row.trimmedEnd(7) - row.trimmedStart(7))
+          + (allDay ? 1 : 0) + (isPrivate ? 2 : 0);
+    }
+    return sum;
+  }
+
+  @Test
+  public void testTokenizerParsesMoreRowsPerSecond() throws IOException, RunnerException {
+    buildCsv();
+    assertEquals(parseCsvLine(), csvTokenizer());
+
+    Map<String, Double> rowsPerSecond = new HashMap<>();
+    for (RunResult result : new Runner(new OptionsBuilder()
+        .include(CsvParserBenchmark.class.getName() + "\\.")
+        .build()).run()) {
+      rowsPerSecond.put(result.getParams().getBenchmark(),
+          result.getPrimaryResult().getScore());
+    }
+    double before = rowsPerSecond.get(CsvParserBenchmark.class.getName() + ".parseCsvLine");
+    double after = rowsPerSecond.get(CsvParserBenchmark.class.getName() + ".csvTokenizer");
+    System.out.printf("parseCSVLine %,.0f rows/s, CsvTokenizer %,.0f rows/s (x%.2f)%n",
+        before, after, after / before);
+    assertTrue(after > before);
+  }
+
+  private static long epochDay(int packed) {
+    return LocalDate.of(IsoDateTimeParser.year(packed), IsoDateTimeParser.month(packed),
+        IsoDateTimeParser.day(packed)).toEpochDay();
+  }
+}
@@ -11,7 +11,10 @@ import controller.HeadlessController;
 import controller.InteractiveController;
 import controller.MVCCommandController;
 import model.CalendarManager;
+import model.CalendarSession;
 import model.ICalendarManager;
+import model.Journal;
+import model.JournaledCalendarManager;
 import view.CalendarView;
 import view.IView;
 
@@ -21,21 +24,31 @@ import view.IView;
 public class CalendarApp {
 
   /**
-   * Main method for starting the application. Initializes the controller.
+   * Main method for starting the application. Initializes the controller. Any mode may be
+   * given {@code --snapshot <file>}: the calendars are loaded from that file if it exists,
+   * and saved back to it when the application exits. Any mode may also be given
+   * {@code --journal <file>}, optionally with {@code --durability async|group|sync}: every
+   * change is recorded in that file as it is made, and replayed from it on the next start.
    * @param args - User input from when main method is called.
    */
   public static void main(String[] args) throws IOException {
 
     List<String> parseInputArr = new ArrayList<>(Arrays.asList(args));
+    String snapshot = takeOption(parseInputArr, "--snapshot");
+    String journal = takeOption(parseInputArr, "--journal");
+    String durability = takeOption(parseInputArr, "--durability");
     parseInputArr.replaceAll(String::toLowerCase);
 
     IController controller;
-    ICalendarManager model = new CalendarManager();
+    ICalendarManager model = openModel(snapshot, journal, durability);
+    // The session keeps the calendar in use, which is the one the snapshot remembers.
+    CalendarSession session = new CalendarSession(model);
+    saveOnExit(model, session, snapshot);
 
     // Run interactive mode.
     if (parseInputArr.size() == 2) {
       if (parseInputArr.get(0).equals("--mode") && parseInputArr.get(1).equals("interactive")) {
-        controller = new InteractiveController(System.in, System.out, model);
+        controller = new InteractiveController(System.in, System.out, session);
         controller.controllerGo();
       }
     }
@@ -51,7 +64,7 @@ public class CalendarApp {
         PrintWriter a = new PrintWriter(System.out, true);
 
         try {
-          new HeadlessController(r, System.out, model, f).controllerGo();
+          new HeadlessController(r, System.out, session, f).controllerGo();
         }
         catch (Exception e) {
           e.printStackTrace(a);
@@ -66,8 +79,111 @@ public class CalendarApp {
     }
     else if (parseInputArr.isEmpty()) {
       IView view = new CalendarView();
-      controller = new MVCCommandController(model, view);
+      controller = new MVCCommandController(session, view);
       controller.controllerGo();
     }
   }
+
+  /**
+   * Removes an option and its value from the arguments, keeping the value as typed since
+   * file names are case sensitive.
+   * @param args - The arguments, changed in place.
+   * @param name - The option, such as "--snapshot".
+   * @return The option's value, or null if the option was not given.
+   */
+  private static String takeOption(List<String> args, String name) {
+    for (int i = 0; i < args.size() - 1; i++) {
+      if (args.get(i).equalsIgnoreCase(name)) {
+        String value = args.get(i + 1);
+        args.subList(i, i + 2).clear();
+        return value;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Creates the model, loading it from the snapshot file and replaying the journal when they
+   * are given.
+   * @param snapshot - The snapshot path, or null.
+   * @param journal - The journal path, or null.
+   * @param durability - The journal's durability mode, or null for group commits.
+   * @return The model.
+   */
+  private static ICalendarManager openModel(String snapshot, String journal,
+                                            String durability) throws IOException {
+    CalendarManager base = snapshot != null && new File(snapshot).isFile()
+        ? CalendarManager.loadSnapshot(snapshot) : new CalendarManager();
+    if (journal == null) {
+      return base;
+    }
+    Journal.Durability mode = durability == null ? Journal.Durability.GROUP
+        : Journal.Durability.valueOf(durability.toUpperCase());
+    return JournaledCalendarManager.open(base, journal, mode);
+  }
+
+  /**
+   * Arranges for the model to be saved to the snapshot file, and its journal closed, on
+   * exit. The snapshot remembers the calendar the session has in use.
+   * @param model - The model made by openModel.
+   * @param session - The session the controller works in.
+   * @param snapshot - The snapshot path, or null.
+   */
+  private static void saveOnExit(ICalendarManager model, CalendarSession session,
+                                 String snapshot) {
+    // The GUI keeps running after main returns, so save when the JVM shuts down.
+    if (model instanceof JournaledCalendarManager) {
+      JournaledCalendarManager journaled = (JournaledCalendarManager) model;
+      onExit(() -> {
+        try {
+          if (snapshot != null) {
+            journaled.checkpoint(snapshot, currentName(session));
+          }
+        }
+        finally {
+          journaled.close();
+        }
+      });
+    }
+    else if (snapshot != null) {
+      CalendarManager base = (CalendarManager) model;
+      onExit(() -> base.saveSnapshot(snapshot, currentName(session)));
+    }
+  }
+
+  /**
+   * Returns the name of the calendar a session has in use.
+   * @param session - The session.
+   * @return The calendar's name, or null if none is in use.
+   */
+  private static String currentName(CalendarSession session) {
+    return session.getCurrentCalendar() == null ? null
+        : session.getCurrentCalendar().getName();
+  }
+
+  /**
+   * Runs a task when the JVM shuts down, reporting rather than throwing any I/O error.
+   * @param task - The task.
+   */
+  private static void onExit(ExitTask task) {
+    Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+      try {
+        task.run();
+      }
+      catch (IOException e) {
+        System.err.println("Could not save calendars: " + e.getMessage());
+      }
+    }));
+  }
+
+  /**
+   * Work to do on exit that may fail with an I/O error.
+   */
+  private interface ExitTask {
+    /**
+     * Runs the task.
+     * @throws IOException - If the calendars cannot be saved.
+     */
+    void run() throws IOException;
+  }
 }
@@ -6,6 +6,7 @@ import java.io.FileReader;
 import java.io.IOException;
 
 import controller.commands.Command;
+import model.CalendarSession;
 import model.ICalendarManager;
 
 /**
@@ -16,6 +17,8 @@ public class HeadlessController implements IController {
   final Readable in;
   final Appendable out;
   ICalendarManager calendarManager;
+  // the calendar in use for this controller's commands
+  CalendarSession session;
   File f;
 
   /**
@@ -26,7 +29,20 @@ public class HeadlessController implements IController {
    * @param f - File name.
    */
   public HeadlessController(Readable in, Appendable out, ICalendarManager calManager, File f) {
-    this.calendarManager = calManager;
+    this(in, out, new CalendarSession(calManager), f);
+  }
+
+  /**
+   * Constructor method for Headless Controller working in a given session, so that the
+   * caller can see which calendar is in use.
+   * @param in - Readable in.
+   * @param out - Apendable out.
+   * @param session - The session on the model.
+   * @param f - File name.
+   */
+  public HeadlessController(Readable in, Appendable out, CalendarSession session, File f) {
+    this.calendarManager = session.getManager();
+    this.session = session;
     this.f = f;
     this.in = in;
     this.out = out;
@@ -41,7 +57,7 @@ public class HeadlessController implements IController {
         // Execute command.
         try {
           Command c = new Command(line);
-          c.execute(this.calendarManager);
+          c.execute(this.session);
         }
         catch (IllegalArgumentException | IllegalStateException e) {
           return;
@@ -7,6 +7,7 @@ import java.util.Objects;
 import java.util.Scanner;
 
 import controller.commands.Command;
+import model.CalendarSession;
 import model.ICalendarManager;
 
 /**
@@ -17,6 +18,8 @@ public class InteractiveController implements IController {
   final InputStream in;
   final PrintStream out;
   ICalendarManager calendarManager;
+  // the calendar in use for this controller's commands
+  CalendarSession session;
 
   /**
    * Constructor method for Interactive controller. Initializes model and IO.
@@ -25,7 +28,19 @@ public class InteractiveController implements IController {
    * @param calManager - The model.
    */
   public InteractiveController(InputStream in, PrintStream out, ICalendarManager calManager) {
-    this.calendarManager = calManager;
+    this(in, out, new CalendarSession(calManager));
+  }
+
+  /**
+   * Constructor method for Interactive controller working in a given session, so that the
+   * caller can see which calendar is in use.
+   * @param in - InputStream in.
+   * @param out - PrintStream out.
+   * @param session - The session on the model.
+   */
+  public InteractiveController(InputStream in, PrintStream out, CalendarSession session) {
+    this.calendarManager = session.getManager();
+    this.session = session;
     this.in = in;
     this.out = out;
   }
@@ -49,7 +64,7 @@ public class InteractiveController implements IController {
       try {
         Command c = new Command(command);
 
-        c.execute(this.calendarManager);
+        c.execute(this.session);
 
         System.out.println("Please enter a command.");
       }
@@ -19,6 +19,7 @@ import java.util.Map;
 import java.util.Set;
 
 import model.Calendar;
+import model.CalendarSession;
 import model.Event;
 import model.ICalendarManager;
 import model.RecurringEvent;
@@ -30,6 +31,8 @@ import view.IView;
  */
 public class MVCCommandController implements IController, ActionListener {
   private ICalendarManager model;
+  // the calendar in use for this view, kept out of the shared model
+  private CalendarSession session;
   private IView view;
 
   /**
@@ -38,17 +41,28 @@ public class MVCCommandController implements IController, ActionListener {
    * @param view - View of the application.
    */
   public MVCCommandController(ICalendarManager model, IView view) {
-    this.model = model;
+    this(new CalendarSession(model), view);
+  }
+
+  /**
+   * Constructor method for controller working in a given session, so that the caller can see
+   * which calendar is in use. Will initialize default calendar.
+   * @param session - Session on the model of the application.
+   * @param view - View of the application.
+   */
+  public MVCCommandController(CalendarSession session, IView view) {
+    this.model = session.getManager();
+    this.session = session;
     this.view = view;
 
     // Initialize default calendar.
     try {
-      model.createCalendar("default", ZoneId.systemDefault().toString());
-      model.useCalendar("default");
+      session.createCalendar("default", ZoneId.systemDefault().toString());
+      session.useCalendar("default");
     } catch (Exception e) {
       e.printStackTrace();
     }
-    view.setCalendars(model.getAllCalendarsMap(), model.getCurrentCalendar().getName());
+    view.setCalendars(model.getAllCalendarsMap(), session.getCurrentCalendar().getName());
     view.setAllCalendarEvents(new HashMap<String, List<EventDetails>>());
   }
 
@@ -66,7 +80,7 @@ public class MVCCommandController implements IController, ActionListener {
 
     // Preliminary setup.
     String activeCal = view.getActiveCalendar();
-    model.useCalendar(activeCal);
+    session.useCalendar(activeCal);
     LocalDate date = view.getActiveDate();
     String status;
 
@@ -107,7 +121,7 @@ public class MVCCommandController implements IController, ActionListener {
       }
 
       view.setAllCalendarEvents(eventDetailsMap);
-      view.setCalendars(model.getAllCalendarsMap(), model.getCurrentCalendar().getName());
+      view.setCalendars(model.getAllCalendarsMap(), session.getCurrentCalendar().getName());
       view.refresh();
     } catch (Exception ex) {
       view.showErrorMessage(ex.getMessage());
@@ -130,12 +144,13 @@ public class MVCCommandController implements IController, ActionListener {
       String fileName = view.showExportPopup();
       if (fileName != null && !fileName.trim().isEmpty()) {
         // Add .csv extension if not already present
-        if (!fileName.toLowerCase().endsWith(".csv")) {
+        String lowerName = fileName.toLowerCase();
+        if (!lowerName.endsWith(".csv") && !lowerName.endsWith(".csv.gz")) {
           fileName = fileName + ".csv";
         }
 
         // Export the calendar
-        String exportedFile = model.getCurrentCalendar().exportToCSV(fileName);
+        String exportedFile = session.getCurrentCalendar().exportToCSV(fileName);
 
         message = "Calendar successfully exported to: " + exportedFile + ".csv";
       }
@@ -152,7 +167,7 @@ public class MVCCommandController implements IController, ActionListener {
         }
 
         // Import the calendar.
-        int count = model.getCurrentCalendar().importFromCSV(f.getAbsolutePath());
+        int count = session.getCurrentCalendar().importFromCSV(f.getAbsolutePath());
         message = "Successfully imported " + count + " events.";
       }
     }
@@ -180,7 +195,7 @@ public class MVCCommandController implements IController, ActionListener {
 
         Event event = new Event(command.get(1), startDateTime, endDateTime, command.get(5),
             command.get(6), isPublic);
-        model.getCurrentCalendar().addEvent(event, true);
+        session.getCurrentCalendar().addEvent(event, true);
 
         message = "Creating Event " + command.get(1) + " on " + command.get(4) + " from "
             + command.get(2) + " to " + command.get(3);
@@ -198,7 +213,7 @@ public class MVCCommandController implements IController, ActionListener {
 
         Event allDayEvent = new Event(command.get(1), localDateTime, command.get(3),
             command.get(4), isPublic);
-        model.getCurrentCalendar().addEvent(allDayEvent, true);
+        session.getCurrentCalendar().addEvent(allDayEvent, true);
 
         message = "Creating All Day Event " + command.get(1) +
             " on " + command.get(2);
@@ -242,7 +257,7 @@ public class MVCCommandController implements IController, ActionListener {
         RecurringEvent recurringEvent = new RecurringEvent(command.get(1), startDateTimeRec,
             endDateTimeRec, command.get(7), command.get(8), isPublic, recurrenceDays, num);
 
-        model.getCurrentCalendar().addRecurringEvent(recurringEvent, true);
+        session.getCurrentCalendar().addRecurringEvent(recurringEvent, true);
 
         message = "Creating Recurring Event " + command.get(1) + " on " + command.get(4)
             + " over " + command.get(5) + " times.";
@@ -260,7 +275,8 @@ public class MVCCommandController implements IController, ActionListener {
         LocalDateTime to = buildDateTimeFromString(command.get(6), command.get(4));
         String newValue = command.get(5);
 
-        boolean ok = model.getCurrentCalendar().editEvent(property, eventName, from, to, newValue);
+        boolean ok = session.getCurrentCalendar().editEvent(property, eventName, from, to,
+            newValue);
 
         message = "Edited event " + eventName + " Property: " + property + " to "
             + newValue + ".";
@@ -277,7 +293,8 @@ public class MVCCommandController implements IController, ActionListener {
         LocalDateTime dt = buildDateTimeFromString(command.get(4), command.get(5));
 
         String newValue = command.get(3);
-        boolean ok = model.getCurrentCalendar().editEvents(property, eventName, dt, command.get(3));
+        boolean ok = session.getCurrentCalendar().editEvents(property, eventName, dt,
+            command.get(3));
 
         message = "Editing All Events " + eventName +
             " Property: " + property + " to value: "
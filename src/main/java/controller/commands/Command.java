@@ -4,7 +4,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
-import model.ICalendarManager;
+import model.CalendarSession;
 
 /**
  * A class to parse commands. This class will take in an input from the user and call a command
@@ -28,10 +28,10 @@ public class Command {
 
   /**
    * This method will execute a command based on whichever ICommand extending class is initialized.
-   * @param calendarManager - The calendar from main.
+   * @param session - The session running the command.
    */
-  public void execute(ICalendarManager calendarManager) {
-    command.executeCommand(calendarManager);
+  public void execute(CalendarSession session) {
+    command.executeCommand(session);
   }
 
   /**
@@ -2,7 +2,7 @@ package controller.commands;
 
 import java.util.List;
 
-import model.ICalendarManager;
+import model.CalendarSession;
 
 /**
  * CommandCopy class represents a copy command. Can use this class to copy events to other
@@ -60,21 +60,21 @@ public class CommandCopy extends ICommand {
   }
 
   @Override
-  void executeCommand(ICalendarManager calManager) {
+  void executeCommand(CalendarSession session) {
     boolean success = true;
     switch (this.type) {
       case COPY_EVENT:
-        success = calManager.copyEvent(this.eventName, this.onDateTime.getDt(),
+        success = session.copyEvent(this.eventName, this.onDateTime.getDt(),
             this.targetCal, this.toDateTime.getDt());
         break;
 
       case COPY_ALL_EVENT:
-        success = calManager.copyEventsOn(this.onDateTime.getD(),
+        success = session.copyEventsOn(this.onDateTime.getD(),
                 this.targetCal, this.toDateTime.getD());
         break;
 
       case COPY_ALL_EVENT_INTERVAL:
-        success = calManager.copyEventsBetween(this.betweenStart.getD(),
+        success = session.copyEventsBetween(this.betweenStart.getD(),
             this.betweenEnd.getD(), this.targetCal, this.toDateTime.getD());
         break;
 
@@ -9,9 +9,9 @@ import java.util.List;
 import java.util.Set;
 
 import model.AbstractEvent;
+import model.CalendarSession;
 import model.Event;
 import model.ICalendar;
-import model.ICalendarManager;
 import model.RecurringEvent;
 
 /**
@@ -172,10 +172,10 @@ public class CommandCreate extends ICommand {
 
   /**
    * Method to execute a create command based on the user inputs.
-   * @param calManager - Calendar from main app.
+   * @param session - The session running the command.
    */
   @Override
-  public void executeCommand(ICalendarManager calManager) {
+  public void executeCommand(CalendarSession session) {
     List<LocalDateTime> range;
     AbstractEvent event = null;
 
@@ -225,7 +225,7 @@ public class CommandCreate extends ICommand {
           break;
 
         case CREATE_CAL:
-          success = calManager.createCalendar(this.calName, this.timezone.toString());
+          success = session.createCalendar(this.calName, this.timezone.toString());
           break;
 
         default:
@@ -237,7 +237,7 @@ public class CommandCreate extends ICommand {
       throw new IllegalArgumentException(e.getMessage());
     }
 
-    ICalendar cal = calManager.getCurrentCalendar();
+    ICalendar cal = session.getCurrentCalendar();
 
     if (cal == null) {
       throw new IllegalStateException("Calendar not created and/or set.");
@@ -4,8 +4,8 @@ import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 
+import model.CalendarSession;
 import model.ICalendar;
-import model.ICalendarManager;
 
 /**
  * This class represents a Edit Command. It is desiggned to be executed based on user input onto
@@ -84,12 +84,12 @@ public class CommandEdit extends ICommand {
 
   /**
    * Method to execute different command based on what kind of edit is input.
-   * @param calManager - The initialized calendar.
+   * @param session - The session running the command.
    */
   @Override
-  void executeCommand(ICalendarManager calManager) {
+  void executeCommand(CalendarSession session) {
 
-    ICalendar cal = calManager.getCurrentCalendar();
+    ICalendar cal = session.getCurrentCalendar();
     if (cal == null) {
       throw new IllegalStateException("No calendar found.");
     }
@@ -113,7 +113,8 @@ public class CommandEdit extends ICommand {
         break;
 
       case EDIT_CAL:
-        success = calManager.editCalendar(this.calName, this.property, this.newPropertyValue);
+        success = session.getManager().editCalendar(this.calName, this.property,
+            this.newPropertyValue);
         break;
 
       default:
@@ -3,8 +3,8 @@ package controller.commands;
 import java.io.IOException;
 import java.util.List;
 
+import model.CalendarSession;
 import model.ICalendar;
-import model.ICalendarManager;
 
 /**
  * Class for the Export command. Designed to take user input and execute a certain function.
@@ -28,12 +28,12 @@ public class CommandExport extends ICommand {
 
   /**
    * Function to export the calendar to csv.
-   * @param calendarManager - calendar manager.
+   * @param session - The session running the command.
    */
   @Override
-  public void executeCommand(ICalendarManager calendarManager) {
+  public void executeCommand(CalendarSession session) {
 
-    ICalendar cal = calendarManager.getCurrentCalendar();
+    ICalendar cal = session.getCurrentCalendar();
     if (cal == null) {
       throw new IllegalStateException("No calendar found.");
     }
@@ -48,7 +48,7 @@ public class CommandExport extends ICommand {
 
   /**
    * Method to validate the inputs for an Export command.
-   * Sample command: export cal fileName.csv.
+   * Sample command: export cal fileName.csv, or fileName.csv.gz for a compressed file.
    * @param inputs - The user's inputs
    * @return - Boolean if valid or not.
    */
@@ -59,7 +59,7 @@ public class CommandExport extends ICommand {
     }
 
     return inputs.get(0).equals("export") && inputs.get(1).equals("cal")
-        && inputs.get(2).endsWith(".csv");
+        && (inputs.get(2).endsWith(".csv") || inputs.get(2).endsWith(".csv.gz"));
   }
 
 }
@@ -4,8 +4,8 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 import model.AbstractEvent;
+import model.CalendarSession;
 import model.ICalendar;
-import model.ICalendarManager;
 
 /**
  * This class represents a Print command. When called, it will print the desired outputs.
@@ -37,12 +37,12 @@ public class CommandPrint extends ICommand {
 
   /**
    * Prints a bulleted list of all event(s).
-   * @param calendarManager - Calendar manager from main function.
+   * @param session - The session running the command.
    */
   @Override
-  public void executeCommand(ICalendarManager calendarManager) {
+  public void executeCommand(CalendarSession session) {
 
-    ICalendar cal = calendarManager.getCurrentCalendar();
+    ICalendar cal = session.getCurrentCalendar();
     if (cal == null) {
       throw new IllegalStateException("No calendar found.");
     }
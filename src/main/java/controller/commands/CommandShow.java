@@ -4,8 +4,8 @@ import java.time.LocalDateTime;
 import java.time.temporal.Temporal;
 import java.util.List;
 
+import model.CalendarSession;
 import model.ICalendar;
-import model.ICalendarManager;
 
 /**
  * Show command class. When called, this class will be used to show events.
@@ -28,12 +28,12 @@ public class CommandShow extends ICommand {
 
   /**
    * Method to determine if a user is busy at the given time.
-   * @param calendarManager - The calendar from main.
+   * @param session - The session running the command.
    */
   @Override
-  void executeCommand(ICalendarManager calendarManager) {
+  void executeCommand(CalendarSession session) {
 
-    ICalendar cal = calendarManager.getCurrentCalendar();
+    ICalendar cal = session.getCurrentCalendar();
     if (cal == null) {
       throw new IllegalStateException("No calendar found.");
     }
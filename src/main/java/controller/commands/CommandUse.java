@@ -2,7 +2,7 @@ package controller.commands;
 
 import java.util.List;
 
-import model.ICalendarManager;
+import model.CalendarSession;
 
 /**
  * Class for the use command. The use command is for selecting which calendar to use.
@@ -24,9 +24,9 @@ public class CommandUse extends ICommand {
   }
 
   @Override
-  void executeCommand(ICalendarManager calManager) {
+  void executeCommand(CalendarSession session) {
     if (this.type == UseType.USE_CAL) {
-      boolean exists = calManager.useCalendar(this.calName);
+      boolean exists = session.useCalendar(this.calName);
 
       if (!exists) {
         throw new IllegalArgumentException("The calendar does not exist.");
@@ -5,7 +5,7 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeParseException;
 import java.time.temporal.Temporal;
 
-import model.ICalendarManager;
+import model.CalendarSession;
 
 /**
  * Abstract class for Commands. This is the template for all commands in the project.
@@ -14,9 +14,9 @@ public abstract class ICommand {
 
   /**
    * Method to execute a command. Will execute a command based on the type of class implementing it.
-   * @param calManager - Calendar from main method.
+   * @param session - The session running the command, which holds its calendar in use.
    */
-  abstract void executeCommand(ICalendarManager calManager);
+  abstract void executeCommand(CalendarSession session);
 
   /**
    * Method to check if a user input date string is valid or not.
@@ -1,6 +1,8 @@
 package model;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.temporal.Temporal;
 
 /**
@@ -15,6 +17,11 @@ public abstract class AbstractEvent {
   protected String description;
   protected String location;
   protected boolean isPublic;
+  // set once the event is stored in a calendar; its times are then read in the calendar's
+  // timezone
+  CalendarZone zone;
+  // the timezone the stored local times are written in, while the event is in a calendar
+  ZoneId localZone;
 
   /**
    * Constructs an AbstractEvent with the specified details.
@@ -52,7 +59,7 @@ public abstract class AbstractEvent {
    * @return the start time of the event
    */
   public LocalDateTime getStart() {
-    return (LocalDateTime) start;
+    return toLocal(start);
   }
 
   /**
@@ -101,9 +108,78 @@ public abstract class AbstractEvent {
    * @param start the new start time for the event
    */
   public void setStart(LocalDateTime start) {
+    rebase();
     this.start = start;
   }
 
+  /**
+   * Ties the event to a calendar's timezone. Its times are kept as the local times they
+   * are, written in that zone, and are converted only once the calendar's zone changes. A
+   * local time skipped by a daylight saving change therefore reads back as it was given.
+   *
+   * @param zone the timezone of the calendar storing the event
+   */
+  void attach(CalendarZone zone) {
+    if (this.zone == zone) {
+      return;
+    }
+    this.zone = zone;
+    this.localZone = zone.get();
+  }
+
+  /**
+   * Returns the start of an event stored in a calendar as an instant.
+   *
+   * @return the start instant
+   */
+  Instant getStartInstant() {
+    return toInstant(start);
+  }
+
+  /**
+   * Reads a stored time as a local date-time in the calendar's timezone. It is returned as
+   * is unless the calendar's zone has changed since it was written.
+   *
+   * @param time the stored time
+   * @return the local date-time, or {@code null} if there is none
+   */
+  protected LocalDateTime toLocal(Temporal time) {
+    LocalDateTime local = (LocalDateTime) time;
+    if (local == null || zone == null || zone.get().equals(localZone)) {
+      return local;
+    }
+    return local.atZone(localZone).withZoneSameInstant(zone.get()).toLocalDateTime();
+  }
+
+  /**
+   * Returns the instant a stored time stands for.
+   *
+   * @param time the stored time
+   * @return the instant, or {@code null} if there is none
+   */
+  protected Instant toInstant(Temporal time) {
+    return time == null ? null : ((LocalDateTime) time).atZone(localZone).toInstant();
+  }
+
+  /**
+   * Rewrites the stored times in the calendar's current timezone if it has changed since
+   * they were written, so that a time set next is read in that zone.
+   */
+  protected void rebase() {
+    if (zone != null && !zone.get().equals(localZone)) {
+      rebaseTimes();
+      localZone = zone.get();
+    }
+  }
+
+  /**
+   * Converts the stored times to the calendar's current timezone, as part of
+   * {@link #rebase}.
+   */
+  protected void rebaseTimes() {
+    start = toLocal(start);
+  }
+
   /**
    * Sets the description of the event.
    *
@@ -149,8 +225,8 @@ public abstract class AbstractEvent {
    * If an event has a null end time, it is treated as an all-day event (spanning one day).
    */
   public boolean conflictsWith(AbstractEvent other) {
-    LocalDateTime otherStart = (LocalDateTime) other.start;
-    LocalDateTime thisStart = (LocalDateTime) this.start;
+    LocalDateTime otherStart = other.getStart();
+    LocalDateTime thisStart = this.getStart();
 
     // Get the end times, treating all-day events as ending at the end of their day
     LocalDateTime end1 = this.getEnd() != null
@@ -177,14 +253,14 @@ public abstract class AbstractEvent {
    */
   @Override
   public String toString() {
-    String info = "Event: " + title + " at " + start;
+    String info = "Event: " + getTitle() + " at " + getStart();
     if (getEnd() != null) {
       info += " to " + getEnd();
     } else {
       info += " (All Day)";
     }
-    if (location != null && !location.isEmpty()) {
-      info += ", Location: " + location;
+    if (getLocation() != null && !getLocation().isEmpty()) {
+      info += ", Location: " + getLocation();
     }
     return info;
   }
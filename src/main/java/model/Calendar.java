@@ -1,23 +1,119 @@
 package model;
 
-import java.io.FileWriter;
 import java.io.IOException;
-import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.function.BiPredicate;
 
 /**
  * Manages a collection of events and provides functionality to add, query,
  * edit, and export events.
  */
 public class Calendar implements ICalendar {
+  private static final long SECONDS_PER_DAY = 86_400L;
+  private static final long NANOS_PER_DAY = SECONDS_PER_DAY * 1_000_000_000L;
+  // whether an event covers a time; shared by every isBusyAt query, so none allocates one
+  static final BiPredicate<Event, LocalDateTime> BUSY_AT = Calendar::isBusyAt;
+  // how far past its start an all-day event is indexed; a day plus any zone transition
+  private static final Duration ALL_DAY_SPAN = Duration.ofDays(2);
+  // events spanning more days than this are kept out of the per-day buckets
+  private static final long MAX_BUCKET_SPAN_DAYS = 366;
+
   private String name;
   private ZoneId timezone;
+  // shared with stored events, which read their local times in this zone
+  private final CalendarZone calendarZone;
   private List<Event> events;
+  // time index over every event by instant, kept in step with the events list
+  private IntervalTree<Event> timeIndex;
+  // per-day buckets keyed by UTC epoch day; very long events go to longEvents instead
+  private Map<Long, List<Event>> dayIndex;
+  private List<Event> longEvents;
+  private Map<Event, IndexEntry> indexEntries;
+  // events keyed by title and start instant, for exact-match lookups
+  private Map<EventKey, List<Event>> keyIndex;
+  // the same buckets grouped by title and sorted by start, for per-title scans
+  private Map<String, NavigableMap<Instant, List<Event>>> titleIndex;
+  // recurring events kept as rules, indexed by the span their occurrences can cover
+  private List<RecurringSeries> series;
+  private IntervalTree<RecurringSeries> seriesIndex;
+  private Map<String, List<RecurringSeries>> seriesByTitle;
+  // shared copies of the titles, descriptions and locations of stored events and series
+  private final StringPool strings;
+  // events queued since beginBatch, or null when no batch is open; a set bit marks an
+  // event added with auto-decline
+  private List<Event> pending;
+  private BitSet pendingChecks;
+  // with snapshot reads enabled, keeps the next view up to date as the calendar changes
+  private CalendarView.Builder viewBuilder;
+  // the latest view, read without locking by the time queries and export, or null
+  private volatile CalendarView view;
+
+  /**
+   * Records where an event was placed in the indexes, so it can be removed again even
+   * after its times have changed.
+   */
+  private static final class IndexEntry {
+    private final IntervalTree.Node<Event> node;
+    private final long firstBucket;
+    private final long lastBucket;
+    private final EventKey key;
+
+    private IndexEntry(IntervalTree.Node<Event> node, long firstBucket, long lastBucket,
+                       EventKey key) {
+      this.node = node;
+      this.firstBucket = firstBucket;
+      this.lastBucket = lastBucket;
+      this.key = key;
+    }
+  }
+
+  /**
+   * The title and start instant of an event, used as a hash key for exact-match lookups.
+   */
+  private static final class EventKey {
+    private final String title;
+    private final Instant start;
+
+    private EventKey(String title, Instant start) {
+      this.title = title;
+      this.start = start;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof EventKey)) {
+        return false;
+      }
+      EventKey other = (EventKey) o;
+      return Objects.equals(title, other.title) && Objects.equals(start, other.start);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(title, start);
+    }
+  }
 
   /**
    * Constructs a Calendar with the given unique name and timezone.
@@ -28,7 +124,18 @@ public class Calendar implements ICalendar {
   public Calendar(String name, String tzString) {
     this.name = name;
     this.timezone = ZoneId.of(tzString);
+    this.calendarZone = new CalendarZone(timezone);
     events = new ArrayList<>();
+    timeIndex = new IntervalTree<>();
+    dayIndex = new HashMap<>();
+    longEvents = new ArrayList<>();
+    indexEntries = new IdentityHashMap<>();
+    keyIndex = new HashMap<>();
+    titleIndex = new HashMap<>();
+    series = new ArrayList<>();
+    seriesIndex = new IntervalTree<>();
+    seriesByTitle = new HashMap<>();
+    strings = new StringPool();
   }
 
   /**
@@ -53,16 +160,51 @@ public class Calendar implements ICalendar {
     return timezone;
   }
 
+  /**
+   * Relabels the calendar with a new timezone. Unlike a timezone change made through the
+   * calendar manager, events keep their wall-clock times.
+   *
+   * @param tzString timezone in IANA format (e.g., "America/New_York")
+   */
   public void setTimezone(String tzString) {
-    this.timezone = ZoneId.of(tzString);
+    ZoneId newZone = ZoneId.of(tzString);
+    List<LocalDateTime> starts = new ArrayList<>(events.size());
+    List<LocalDateTime> ends = new ArrayList<>(events.size());
+    for (Event event : events) {
+      starts.add(event.getStart());
+      ends.add(event.getEnd());
+    }
+    for (RecurringSeries recurring : series) {
+      if (recurring.getZone().equals(timezone)) {
+        recurring.setZone(newZone);
+      }
+    }
+    this.timezone = newZone;
+    calendarZone.set(newZone);
+    for (int i = 0; i < events.size(); i++) {
+      events.get(i).setStart(starts.get(i));
+      events.get(i).setEnd(ends.get(i));
+    }
+    rebuildIndex();
   }
 
+  /**
+   * Returns every event in the calendar. Occurrences of recurring events are generated for
+   * this call, so changing them does not change the calendar.
+   *
+   * @return all events, followed by the occurrences of each recurring event
+   */
   public List<Event> getAllEventsList() {
-    return this.events;
+    List<Event> all = new ArrayList<>(events);
+    for (RecurringSeries recurring : series) {
+      all.addAll(recurring.allOccurrences(timezone));
+    }
+    return all;
   }
 
   /**
-   * Adds an event to the calendar, optionally auto-declining if conflicts exist.
+   * Adds an event to the calendar, optionally auto-declining if conflicts exist. While a
+   * batch is open the event is only queued, and is checked and stored by {@link #commit}.
    *
    * @param event       the event to add (must be a concrete {@link Event})
    * @param autoDecline if {@code true}, skips adding conflicting events
@@ -71,86 +213,340 @@ public class Calendar implements ICalendar {
   public void addEvent(AbstractEvent event, boolean autoDecline)
       throws IllegalStateException {
     if (event instanceof Event) {
-      Event singleEvent = (Event) event;
-      boolean conflictExists = false;
-      for (Event existing : events) {
-        if (existing.conflictsWith(singleEvent)) {
-          conflictExists = true;
-          break;
-        }
+      Event singleEvent = own((Event) event);
+      if (pending != null) {
+        pendingChecks.set(pending.size(), autoDecline);
+        pending.add(singleEvent);
+        return;
       }
       // If a conflict exists and autoDecline is requested, do not add the event.
-      if (conflictExists && autoDecline) {
+      if (autoDecline && findConflict(singleEvent) != null) {
         throw new IllegalStateException("Event conflict detected");
       }
       // Otherwise, add the event (even if it conflicts).
       events.add(singleEvent);
+      pool(singleEvent);
+      indexEvent(singleEvent);
+      publish();
+    }
+  }
+
+  /**
+   * Adds several events at once: all of them, or none if auto-decline is requested and any
+   * of them conflicts with a stored event or with one before it in the collection. The
+   * events are checked in a single sweep and then indexed together. While a batch is open
+   * they are queued like {@link #addEvent} instead.
+   *
+   * @param events      the events to add, in the order they should be stored
+   * @param autoDecline if {@code true}, declines the whole collection on any conflict
+   * @throws IllegalStateException if an event conflicts; nothing is added then
+   */
+  @Override
+  public void addEvents(Collection<AbstractEvent> events, boolean autoDecline)
+      throws IllegalStateException {
+    if (pending != null) {
+      for (AbstractEvent event : events) {
+        addEvent(event, autoDecline);
+      }
+      return;
+    }
+    List<Event> batch = new ArrayList<>(events.size());
+    for (AbstractEvent event : events) {
+      if (event instanceof Event) {
+        batch.add(own((Event) event));
+      }
+    }
+    BitSet checks = new BitSet(batch.size());
+    if (autoDecline) {
+      checks.set(0, batch.size());
+    }
+    addBatch(batch, checks);
+  }
+
+  /**
+   * Returns the event to store for one being added. An event already stored in another
+   * calendar is copied, so that it stays tied to that calendar's timezone; any other event
+   * is stored as it is.
+   *
+   * @param event the event being added
+   * @return the event to store
+   */
+  private Event own(Event event) {
+    if (event.zone == null || event.zone == calendarZone) {
+      return event;
+    }
+    return CalendarManager.copyOf(event, event.getStart());
+  }
+
+  /**
+   * Opens a batch: events added from now on are queued, and are neither checked for
+   * conflicts nor indexed until {@link #commit}. Queries only see the events committed so
+   * far, and other changes are refused until the batch is committed.
+   *
+   * @throws IllegalStateException if a batch is already open
+   */
+  @Override
+  public void beginBatch() throws IllegalStateException {
+    if (pending != null) {
+      throw new IllegalStateException("A batch is already open");
+    }
+    pending = new ArrayList<>();
+    pendingChecks = new BitSet();
+  }
+
+  /**
+   * Closes the open batch and adds the events queued in it. The result is the same as
+   * adding them one at a time, except that a conflict with an event added with auto-decline
+   * declines the whole batch rather than that event alone.
+   *
+   * @throws IllegalStateException if no batch is open, or a queued event added with
+   *                               auto-decline conflicts; nothing is added then
+   */
+  @Override
+  public void commit() throws IllegalStateException {
+    if (pending == null) {
+      throw new IllegalStateException("No batch is open");
+    }
+    List<Event> batch = pending;
+    BitSet checks = pendingChecks;
+    pending = null;
+    pendingChecks = null;
+    addBatch(batch, checks);
+  }
+
+  /**
+   * Refuses a change that cannot be queued while a batch is open.
+   *
+   * @throws IllegalStateException if a batch is open
+   */
+  private void checkNoBatch() throws IllegalStateException {
+    if (pending != null) {
+      throw new IllegalStateException("Commit the open batch first");
     }
   }
 
   /**
-   * Adds all generated instances of a recurring event to the calendar.
+   * Adds a recurring event to the calendar. The recurrence rule is stored as is and its
+   * instances are generated whenever a query needs them; only instances that are later
+   * edited individually are stored as separate events.
    *
-   * @param recurringEvent the recurring event to expand
-   * @param autoDecline    if {@code true}, skips adding conflicting instances
+   * @param recurringEvent the recurring event to add
+   * @param autoDecline    if {@code true}, declines the whole series if any instance conflicts
    */
   @Override
   public void addRecurringEvent(RecurringEvent recurringEvent,
                                 boolean autoDecline)
       throws IllegalStateException {
-    List<Event> generatedEvents = recurringEvent.generateEvents();
+    checkNoBatch();
+    RecurringSeries added = new RecurringSeries(recurringEvent, timezone);
+    if (added.isEmpty()) {
+      return;
+    }
 
     // First check for conflicts across all instances
     if (autoDecline) {
-      for (Event event : generatedEvents) {
-        for (Event existing : events) {
-          if (existing.conflictsWith(event)) {
-            throw new IllegalStateException("Recurring event conflicts with existing event: " +
-                existing.getTitle() + " at " + existing.getStart());
-          }
-        }
+      Event existing = findSeriesConflict(new ArrayList<>(added.allOccurrences(timezone)));
+      if (existing != null) {
+        throw new IllegalStateException("Recurring event conflicts with existing event: " +
+            existing.getTitle() + " at " + existing.getStart());
       }
     }
 
-    // If no conflicts, add all events
-    for (Event event : generatedEvents) {
-      // Use false for autoDecline since we've already checked for conflicts
-      addEvent(event, false);
+    pool(added.getRule());
+    series.add(added);
+    seriesIndex.insert(toKey(added.getEarliestStart()), toKey(added.getLatestEnd()), added);
+    seriesByTitle.computeIfAbsent(added.getRule().getTitle(), k -> new ArrayList<>())
+        .add(added);
+    seriesChanged();
+    publish();
+  }
+
+  /**
+   * Switches the calendar to snapshot reads: from now on, every change publishes an
+   * immutable view of the calendar, and {@link #getEventsOnDate}, {@link #getEventsBetween},
+   * {@link #isBusyAt} and {@link #exportToCSV} read the latest view without locking. They
+   * may then run on other threads alongside changes, and see each change whole or not at
+   * all. Events they return are read-only copies. Changes cost an extra O(log n) per event,
+   * and a timezone change copies every event again.
+   */
+  public void enableSnapshotReads() {
+    if (viewBuilder == null) {
+      viewBuilder = new CalendarView.Builder();
+      refillView();
+      publish();
+    }
+  }
+
+  /**
+   * Puts every stored event into the view builder afresh.
+   */
+  private void refillView() {
+    viewBuilder.clear();
+    for (Event event : events) {
+      IntervalTree.Node<Event> node = indexEntries.get(event).node;
+      viewBuilder.put(event, node.low, node.high);
+    }
+  }
+
+  /**
+   * Notes that a recurring series was added or changed, for the next view.
+   */
+  private void seriesChanged() {
+    if (viewBuilder != null) {
+      viewBuilder.seriesChanged();
+    }
+  }
+
+  /**
+   * Publishes a view of the calendar as it is now, if snapshot reads are enabled. Called
+   * once a change is complete, so readers never see half of one.
+   */
+  private void publish() {
+    if (viewBuilder != null) {
+      view = viewBuilder.build(timezone, series);
     }
   }
 
+  /**
+   * Returns the events stored individually, in the order they were added. Recurring series
+   * are not included; see {@link #storedSeries}.
+   *
+   * @return the stored events, as a read-only view
+   */
+  List<Event> storedEvents() {
+    return Collections.unmodifiableList(events);
+  }
+
+  /**
+   * Returns the recurring series stored as rules, in the order they were added.
+   *
+   * @return the stored series, as a read-only view
+   */
+  List<RecurringSeries> storedSeries() {
+    return Collections.unmodifiableList(series);
+  }
+
+  /**
+   * Stores an event from the local times it was saved with, without checking for
+   * conflicts. Used when a calendar is read back from a snapshot. The event is not indexed,
+   * so that many can be indexed together; {@link #rebuildIndex} must be called once they
+   * have all been restored.
+   *
+   * @param title       the title of the event
+   * @param start       the start time
+   * @param end         the end time, or {@code null} for an all-day event
+   * @param description a description of the event
+   * @param location    where the event will take place
+   * @param isPublic    {@code true} if the event is publicly visible
+   */
+  void restoreEvent(String title, LocalDateTime start, LocalDateTime end, String description,
+                    String location, boolean isPublic) {
+    Event event = new Event(title, start, end, description, location, isPublic);
+    events.add(event);
+    pool(event);
+  }
+
+  /**
+   * Stores a recurring series from the rule it was saved with, without checking for
+   * conflicts. Used when a calendar is read back from a snapshot.
+   *
+   * @param rule     the recurrence rule
+   * @param zone     the timezone the rule's times are expressed in
+   * @param excluded the dates whose occurrences are stored as separate events
+   */
+  void restoreSeries(RecurringEvent rule, ZoneId zone, Collection<LocalDate> excluded) {
+    RecurringSeries restored = new RecurringSeries(rule, zone);
+    if (restored.isEmpty()) {
+      return;
+    }
+    for (LocalDate date : excluded) {
+      restored.exclude(date);
+    }
+    pool(restored.getRule());
+    series.add(restored);
+    seriesIndex.insert(toKey(restored.getEarliestStart()), toKey(restored.getLatestEnd()),
+        restored);
+    seriesByTitle.computeIfAbsent(restored.getRule().getTitle(), k -> new ArrayList<>())
+        .add(restored);
+    seriesChanged();
+  }
+
   /**
    * Retrieves events occurring on a specific date, including multi-day events spanning the date.
+   * Events are looked up in the few per-day buckets around the date, so the cost does not
+   * depend on calendar size.
    *
    * @param date the date to query
-   * @return a list of events active on the specified date
+   * @return a list of events active on the specified date, ordered by start time
    */
   @Override
   public List<AbstractEvent> getEventsOnDate(LocalDate date) {
+    CalendarView current = view;
+    if (current != null) {
+      return current.getEventsOnDate(date);
+    }
+    long day = date.toEpochDay();
+    long firstBucket = bucketOf(lowerKey(date.atStartOfDay()));
+    long lastBucket = bucketOf(upperKey(date.plusDays(1).atStartOfDay()));
     List<AbstractEvent> result = new ArrayList<>();
-    for (Event event : events) {
-      LocalDateTime eventEnd = event.getEnd()
-          != null ? event.getEnd() : event.getStart().plusDays(1);
-      if ((event.getStart().toLocalDate().equals(date)) ||
-          (event.getStart().toLocalDate().isBefore(date)
-              && eventEnd.toLocalDate().isAfter(date))) {
+    for (long bucket = firstBucket; bucket <= lastBucket; bucket++) {
+      for (Event event : dayIndex.getOrDefault(bucket, Collections.emptyList())) {
+        // An event in several of the buckets is only taken from the first one.
+        if (bucket == Math.max(indexEntries.get(event).firstBucket, firstBucket)
+            && firstDayOf(event) <= day && day <= lastDayOf(event)) {
+          result.add(event);
+        }
+      }
+    }
+    for (Event event : longEvents) {
+      if (firstDayOf(event) <= day && day <= lastDayOf(event)) {
         result.add(event);
       }
     }
+    for (Event occurrence : occurrencesBetween(date.atStartOfDay(),
+        date.plusDays(1).atStartOfDay())) {
+      if (firstDayOf(occurrence) <= day && day <= lastDayOf(occurrence)) {
+        result.add(occurrence);
+      }
+    }
+    result.sort(Comparator.comparing(AbstractEvent::getStart));
     return result;
   }
 
   /**
-   * Retrieves events overlapping with a specified time range.
+   * Retrieves events overlapping with a specified time range. Candidates come from the
+   * time index, so the cost grows with the number of matches rather than calendar size.
    *
    * @param start the start of the time range (inclusive)
    * @param end   the end of the time range (inclusive)
-   * @return a list of events overlapping the range
+   * @return a list of events overlapping the range, ordered by start time
    */
   @Override
   public List<AbstractEvent> getEventsBetween(LocalDateTime start, LocalDateTime end) {
+    CalendarView current = view;
+    if (current != null) {
+      return current.getEventsBetween(start, end);
+    }
+    List<Event> candidates = new ArrayList<>();
+    timeIndex.query(lowerKey(start), upperKey(end), candidates);
+    candidates.addAll(occurrencesBetween(start, end));
+    return overlapping(candidates, start, end);
+  }
+
+  /**
+   * Picks the events that overlap a time range out of a list of candidates.
+   *
+   * @param candidates the events that may overlap the range; sorted in place
+   * @param start      the start of the time range (inclusive)
+   * @param end        the end of the time range (inclusive)
+   * @return the overlapping events, ordered by start time
+   */
+  static List<AbstractEvent> overlapping(List<Event> candidates, LocalDateTime start,
+                                         LocalDateTime end) {
+    candidates.sort(Comparator.comparing(Event::getStart));
+
     List<AbstractEvent> result = new ArrayList<>();
-    for (Event event : events) {
+    for (Event event : candidates) {
       // Handle regular events with datetime range.
       if (event.getEnd() != null) {
         if (!event.getStart().isAfter(end) && !event.getEnd().isBefore(start)) {
@@ -175,18 +571,94 @@ public class Calendar implements ICalendar {
    */
   @Override
   public boolean isBusyAt(LocalDateTime time) {
-    for (Event event : events) {
-      LocalDateTime eventEnd = event.getEnd()
-          != null ? event.getEnd() : event.getStart().plusDays(1);
-      if (!event.getStart().isAfter(time) && !eventEnd.isBefore(time)) {
-        return true;
+    CalendarView current = view;
+    if (current != null) {
+      return current.isBusyAt(time);
+    }
+    if (timeIndex.findFirst(lowerKey(time), upperKey(time), time, BUSY_AT) != null) {
+      return true;
+    }
+    long key = toKey(time);
+    return seriesIndex.findFirst(key, key, recurring -> recurring.isBusyAt(time, timezone))
+        != null;
+  }
+
+  /**
+   * Finds an event by its exact title and start time. Stored events are looked up by hash,
+   * and recurring events only have the occurrence at that time generated.
+   *
+   * @param eventName the title of the event
+   * @param startTime the start time of the event
+   * @return the first matching event, or {@code null} if there is none
+   */
+  @Override
+  public AbstractEvent findEvent(String eventName, LocalDateTime startTime) {
+    List<Event> sameKey = eventsWithKey(eventName, startTime);
+    if (!sameKey.isEmpty()) {
+      return sameKey.get(0);
+    }
+    for (Event occurrence : occurrencesBetween(startTime, startTime)) {
+      if (occurrence.getTitle().equals(eventName) && occurrence.getStart().equals(startTime)) {
+        return occurrence;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Collects the stored events with the given title that start at the given local time. A
+   * local time repeated by a daylight saving change can stand for two instants, so both are
+   * looked up.
+   *
+   * @param eventName the title of the events
+   * @param startTime the local start time of the events
+   * @return the matching events
+   */
+  private List<Event> eventsWithKey(String eventName, LocalDateTime startTime) {
+    ZonedDateTime zoned = startTime.atZone(timezone);
+    Instant earlier = zoned.withEarlierOffsetAtOverlap().toInstant();
+    Instant later = zoned.withLaterOffsetAtOverlap().toInstant();
+    List<Event> result = new ArrayList<>();
+    for (Event event : keyIndex.getOrDefault(new EventKey(eventName, earlier),
+        Collections.emptyList())) {
+      // A local time skipped by a daylight saving change has no events of its own.
+      if (event.getStart().equals(startTime)) {
+        result.add(event);
       }
     }
-    return false;
+    if (!later.equals(earlier)) {
+      result.addAll(keyIndex.getOrDefault(new EventKey(eventName, later),
+          Collections.emptyList()));
+    }
+    return result;
   }
 
   /**
-   * Exports all events to a CSV file in the specified format.
+   * Checks whether a single event covers a specific time. All-day events cover the day
+   * following their start.
+   *
+   * @param event the event to check
+   * @param time  the timestamp to check
+   * @return {@code true} if the event covers the time
+   */
+  static boolean isBusyAt(Event event, LocalDateTime time) {
+    LocalDateTime start = event.getStart();
+    if (start.isAfter(time)) {
+      return false;
+    }
+    LocalDateTime end = event.getEnd();
+    if (end != null) {
+      return !end.isBefore(time);
+    }
+    // Compared in seconds, so that no end time is built for the all-day event.
+    long seconds = time.toEpochSecond(ZoneOffset.UTC) - start.toEpochSecond(ZoneOffset.UTC);
+    return seconds < SECONDS_PER_DAY
+        || seconds == SECONDS_PER_DAY && time.getNano() <= start.getNano();
+  }
+
+  /**
+   * Exports all events to a CSV file in the specified format. Events are written one at a
+   * time, and names ending in {@code .csv.gz} produce a gzip-compressed file.
    *
    * @param filename the output file path
    * @return the filename of the generated CSV
@@ -194,29 +666,20 @@ public class Calendar implements ICalendar {
    */
   @Override
   public String exportToCSV(String filename) throws IOException {
-    StringBuilder csv = new StringBuilder("Subject, Start Date, Start Time, End Date, " +
-        "End Time, All Day Event, Description, Location, Private\n");
-    for (Event event : events) {
-      boolean isAllDay = (event.getEnd() == null);
-      LocalDate endDate = null;
-      LocalTime endTime = null;
-      LocalDateTime end = event.getEnd();
-      if (end != null) {
-        endDate = end.toLocalDate();
-        endTime = end.toLocalTime();
-      }
-      csv.append(event.getTitle()).append(",")
-          .append(event.getStart().toLocalDate()).append(",")
-          .append(event.getStart().toLocalTime()).append(",")
-          .append((endDate != null ? endDate : "")).append(",")
-          .append((endTime != null ? endTime : "")).append(",")
-          .append(isAllDay).append(",")
-          .append(event.getDescription()).append(",")
-          .append(event.getLocation()).append(",")
-          .append(!event.isPublic()).append("\n");
-    }
-    try (FileWriter writer = new FileWriter(Paths.get(filename).toFile())) {
-      writer.write(csv.toString());
+    CalendarView current = view;
+    try (CsvExport csv = new CsvExport(filename)) {
+      if (current != null) {
+        current.export(csv);
+        return filename;
+      }
+      for (Event event : events) {
+        csv.write(event);
+      }
+      for (RecurringSeries recurring : series) {
+        for (Event occurrence : recurring.allOccurrences(timezone)) {
+          csv.write(occurrence);
+        }
+      }
     }
     return filename;
   }
@@ -231,86 +694,25 @@ public class Calendar implements ICalendar {
    */
   @Override
   public int importFromCSV(String filename) throws IOException, IllegalArgumentException {
-    List<String> lines = java.nio.file.Files.readAllLines(Paths.get(filename));
-
-    // Verify CSV has header row
-    if (lines.isEmpty()) {
-      throw new IllegalArgumentException("CSV file is empty");
-    }
-
-    // Process header row to identify column indices
-    String headerLine = lines.get(0);
-    String[] headers = parseCSVLine(headerLine);
-
-    // Map column indices
-    int subjectIdx = findColumnIndex(headers, "Subject");
-    int startDateIdx = findColumnIndex(headers, "Start Date");
-    int startTimeIdx = findColumnIndex(headers, "Start Time");
-    int endDateIdx = findColumnIndex(headers, "End Date");
-    int endTimeIdx = findColumnIndex(headers, "End Time");
-    int allDayIdx = findColumnIndex(headers, "All Day Event");
-    int descriptionIdx = findColumnIndex(headers, "Description");
-    int locationIdx = findColumnIndex(headers, "Location");
-    int privateIdx = findColumnIndex(headers, "Private");
-
-    // Verify essential columns exist
-    if (subjectIdx == -1 || startDateIdx == -1) {
-      throw new IllegalArgumentException("CSV file missing required columns (Subject, Start Date)");
-    }
-
-    // Skip header row and process data rows
-    int importedCount = 0;
-
-    for (int i = 1; i < lines.size(); i++) {
-      String line = lines.get(i);
-      if (line.trim().isEmpty()) {
-        continue;
-      }
-
-      // Parse CSV line
-      String[] fields = parseCSVLine(line);
-
-      try {
-        String title = getFieldValue(fields, subjectIdx, "");
-        String startDateStr = getFieldValue(fields, startDateIdx, "");
-        String startTimeStr = getFieldValue(fields, startTimeIdx, "00:00:00");
-        String endDateStr = getFieldValue(fields, endDateIdx, startDateStr);
-        String endTimeStr = getFieldValue(fields, endTimeIdx, "23:59:59");
-        String allDayStr = getFieldValue(fields, allDayIdx, "FALSE");
-        String description = getFieldValue(fields, descriptionIdx, "");
-        String location = getFieldValue(fields, locationIdx, "");
-        String privateStr = getFieldValue(fields, privateIdx, "FALSE");
-
-        // Parse boolean fields
-        boolean isAllDay = Boolean.parseBoolean(allDayStr.trim());
-        boolean isPrivate = Boolean.parseBoolean(privateStr.trim());
-        boolean isPublic = !isPrivate;
-
-        // Parse date/time fields
-        LocalDate startDate = parseDate(startDateStr);
-        LocalTime startTime = parseTime(startTimeStr);
-        LocalDateTime start = LocalDateTime.of(startDate, startTime);
-
-        // Create appropriate event
-        Event event;
-        if (isAllDay) {
-          event = new Event(title, start, description, location, isPublic);
-        } else {
-          LocalDate endDate = parseDate(endDateStr);
-          LocalTime endTime = parseTime(endTimeStr);
-          LocalDateTime end = LocalDateTime.of(endDate, endTime);
-
-          event = new Event(title, start, end, description, location, isPublic);
-        }
-
-        addEvent(event, true);
-        importedCount++;
-      } catch (Exception e) {
-        System.err.println("Error parsing event at line " + (i + 1) + ": " + e.getMessage());
-      }
-    }
+    checkNoBatch();
+    return CsvImport.importEvents(this, filename, null);
+  }
 
-    return importedCount;
+  /**
+   * Imports events from a CSV file in Google Calendar format, reporting progress as rows
+   * are read.
+   *
+   * @param filename the input file path
+   * @param progress receives progress reports
+   * @return the number of events successfully imported
+   * @throws IOException              if an I/O error occurs during reading
+   * @throws IllegalArgumentException if the file format is invalid
+   */
+  @Override
+  public int importFromCSV(String filename, ImportProgress progress)
+      throws IOException, IllegalArgumentException {
+    checkNoBatch();
+    return CsvImport.importEvents(this, filename, progress);
   }
 
   /**
@@ -320,7 +722,7 @@ public class Calendar implements ICalendar {
    * @param columnName Name of column to find
    * @return Index of column or -1 if not found
    */
-  private int findColumnIndex(String[] headers, String columnName) {
+  static int findColumnIndex(String[] headers, String columnName) {
     for (int i = 0; i < headers.length; i++) {
       if (headers[i].trim().equalsIgnoreCase(columnName)) {
         return i;
@@ -337,7 +739,7 @@ public class Calendar implements ICalendar {
    * @param defaultValue Default value if index is out of bounds
    * @return Field value or default
    */
-  private String getFieldValue(String[] fields, int index, String defaultValue) {
+  static String getFieldValue(String[] fields, int index, String defaultValue) {
     if (index >= 0 && index < fields.length) {
       return fields[index];
     }
@@ -350,7 +752,7 @@ public class Calendar implements ICalendar {
    * @param dateStr Date string to parse
    * @return LocalDate object
    */
-  private LocalDate parseDate(String dateStr) {
+  static LocalDate parseDate(String dateStr) {
     dateStr = dateStr.trim();
     try {
       // Try standard ISO format (yyyy-MM-dd)
@@ -392,7 +794,7 @@ public class Calendar implements ICalendar {
    * @param timeStr Time string to parse
    * @return LocalTime object
    */
-  private LocalTime parseTime(String timeStr) {
+  static LocalTime parseTime(String timeStr) {
     timeStr = timeStr.trim();
     try {
       // Try standard ISO format (HH:mm:ss)
@@ -436,7 +838,7 @@ public class Calendar implements ICalendar {
    * @param line The CSV line to parse
    * @return Array of field values
    */
-  private String[] parseCSVLine(String line) {
+  static String[] parseCSVLine(String line) {
     List<String> fields = new ArrayList<>();
     StringBuilder currentField = new StringBuilder();
     boolean inQuotes = false;
@@ -475,36 +877,32 @@ public class Calendar implements ICalendar {
                            LocalDateTime startTime,
                            LocalDateTime endTime,
                            String newValue) {
-    for (Event event : events) {
-      if (event.getTitle().equals(eventName)
-          && event.getStart().equals(startTime)
-          && ((event.getEnd() == null && endTime == null) || (event.getEnd() != null
-          && event.getEnd().equals(endTime)))) {
-
-        String temp = newValue;
-
-        // Handle start and end times for each recurring event.
-        if (property.equals("start")) {
-          LocalDateTime currentStartDT = event.getStart();
-          LocalDate currentStartDate = currentStartDT.toLocalDate();
-
-          LocalTime newTime = LocalTime.parse(temp);
-          LocalDateTime newDateTime = LocalDateTime.of(currentStartDate, newTime);
-          temp = newDateTime.toString();
-        } else if (property.equals("end")) {
-          LocalDateTime currentEndDT = event.getEnd();
-          LocalDate currentEndDate = currentEndDT.toLocalDate();
-
-          LocalTime newTime = LocalTime.parse(temp);
-          LocalDateTime newDateTime = LocalDateTime.of(currentEndDate, newTime);
-          temp = newDateTime.toString();
+    checkNoBatch();
+    try {
+      Event target = null;
+      for (Event event : eventsWithKey(eventName, startTime)) {
+        if (isExactMatch(event, eventName, startTime, endTime)) {
+          target = event;
+          break;
+        }
+      }
+      if (target == null) {
+        for (Event occurrence : occurrencesBetween(startTime, startTime)) {
+          if (isExactMatch(occurrence, eventName, startTime, endTime)) {
+            target = materialize((RecurringSeries.Occurrence) occurrence);
+            break;
+          }
         }
-
-        applyEdit(event, property, temp);
-        return true;
       }
+      if (target == null) {
+        return false;
+      }
+
+      applyEdit(target, property, resolveEditValue(target, property, newValue));
+      return true;
+    } finally {
+      publish();
     }
-    return false;
   }
 
   /**
@@ -519,41 +917,60 @@ public class Calendar implements ICalendar {
   @Override
   public boolean editEvents(String property, String eventName,
                             LocalDateTime startTime, String newValue) {
-    // edit events subject event2R from 2025-03-03T10:07 with newSubject
-    boolean modified = false;
-    LocalTime initialEventStart = startTime.toLocalTime();
-
-
-    for (Event event : events) {
-      LocalTime targetStart = event.getStart().toLocalTime();
-
-      if (event.getTitle().equals(eventName) && targetStart.equals(initialEventStart)
-          && startTime.isBefore(event.getStart()) || startTime.isEqual(event.getStart())) {
-
-        String temp = newValue;
-
-        // Handle start and end times for each recurring event.
-        if (property.equals("start")) {
-          LocalDateTime currentStartDT = event.getStart();
-          LocalDate currentStartDate = currentStartDT.toLocalDate();
-
-          LocalTime newTime = LocalTime.parse(temp);
-          LocalDateTime newDateTime = LocalDateTime.of(currentStartDate, newTime);
-          temp = newDateTime.toString();
-        } else if (property.equals("end")) {
-          LocalDateTime currentEndDT = event.getEnd();
-          LocalDate currentEndDate = currentEndDT.toLocalDate();
+    checkNoBatch();
+    try {
+      // edit events subject event2R from 2025-03-03T10:07 with newSubject
+      List<Event> targets = new ArrayList<>();
+      // Events with the title after startTime, in start order.
+      NavigableMap<Instant, List<Event>> byStart = titleIndex.get(eventName);
+      if (byStart != null) {
+        Instant from = startTime.atZone(timezone).withEarlierOffsetAtOverlap().toInstant();
+        for (List<Event> sameKey : byStart.tailMap(from, true).values()) {
+          for (Event event : sameKey) {
+            if (event.getStart().isAfter(startTime)
+                && isSeriesMatch(event, eventName, startTime)) {
+              targets.add(event);
+            }
+          }
+        }
+      }
+      // Events of any title starting exactly at startTime.
+      List<Event> atStart = new ArrayList<>();
+      timeIndex.query(lowerKey(startTime), upperKey(startTime), atStart);
+      for (Event event : atStart) {
+        if (event.getStart().isEqual(startTime)) {
+          targets.add(event);
+        }
+      }
 
-          LocalTime newTime = LocalTime.parse(temp);
-          LocalDateTime newDateTime = LocalDateTime.of(currentEndDate, newTime);
-          temp = newDateTime.toString();
+      List<RecurringSeries> named = seriesByTitle.getOrDefault(eventName,
+          Collections.emptyList());
+      for (RecurringSeries recurring : named) {
+        for (Event occurrence : recurring.occurrencesBetween(startTime,
+            recurring.getLatestEnd(), timezone)) {
+          if (isSeriesMatch(occurrence, eventName, startTime)) {
+            targets.add(occurrence);
+          }
+        }
+      }
+      // Occurrences of other series can only match by starting exactly at startTime.
+      for (Event occurrence : occurrencesBetween(startTime, startTime)) {
+        if (!named.contains(((RecurringSeries.Occurrence) occurrence).getSeries())
+            && occurrence.getStart().isEqual(startTime)) {
+          targets.add(occurrence);
         }
+      }
 
-        applyEdit(event, property, temp);
-        modified = true;
+      for (Event target : targets) {
+        if (target instanceof RecurringSeries.Occurrence) {
+          target = materialize((RecurringSeries.Occurrence) target);
+        }
+        applyEdit(target, property, resolveEditValue(target, property, newValue));
       }
+      return !targets.isEmpty();
+    } finally {
+      publish();
     }
-    return modified;
   }
 
   /**
@@ -566,14 +983,159 @@ public class Calendar implements ICalendar {
    */
   @Override
   public boolean editAllEvents(String property, String eventName, String newValue) {
-    boolean modified = false;
-    for (Event event : events) {
-      if (event.getTitle().equals(eventName)) {
+    checkNoBatch();
+    try {
+      boolean modified = false;
+      List<Event> targets = new ArrayList<>();
+      NavigableMap<Instant, List<Event>> byStart = titleIndex.get(eventName);
+      if (byStart != null) {
+        for (List<Event> sameKey : byStart.values()) {
+          targets.addAll(sameKey);
+        }
+      }
+      for (Event event : targets) {
         applyEdit(event, property, newValue);
         modified = true;
       }
+
+      List<RecurringSeries> named = seriesByTitle.remove(eventName);
+      if (named == null) {
+        return modified;
+      }
+      try {
+        for (RecurringSeries recurring : named) {
+          // Edits that apply to every occurrence alike change the rule itself; time edits
+          // need each occurrence stored separately.
+          if (!applyPooledRuleEdit(recurring.getRule(), property, newValue)) {
+            for (RecurringSeries.Occurrence occurrence : recurring.allOccurrences(timezone)) {
+              applyEdit(materialize(occurrence), property, newValue);
+            }
+          }
+        }
+      } finally {
+        for (RecurringSeries recurring : named) {
+          seriesByTitle.computeIfAbsent(recurring.getRule().getTitle(), k -> new ArrayList<>())
+              .add(recurring);
+        }
+      }
+      return true;
+    } finally {
+      publish();
     }
-    return modified;
+  }
+
+  /**
+   * Checks whether an event has exactly the given title, start time and end time.
+   *
+   * @param event     the event to check
+   * @param eventName the expected title
+   * @param startTime the expected start time
+   * @param endTime   the expected end time, or {@code null} for all-day events
+   * @return {@code true} if the event matches
+   */
+  static boolean isExactMatch(Event event, String eventName,
+                              LocalDateTime startTime, LocalDateTime endTime) {
+    return event.getTitle().equals(eventName)
+        && event.getStart().equals(startTime)
+        && ((event.getEnd() == null && endTime == null) || (event.getEnd() != null
+        && event.getEnd().equals(endTime)));
+  }
+
+  /**
+   * Checks whether an event is selected by {@link #editEvents}: it has the given title and
+   * starts at the same time of day after the given start time, or it starts exactly at it.
+   *
+   * @param event     the event to check
+   * @param eventName the title of the events to edit
+   * @param startTime the start time of the events to edit
+   * @return {@code true} if the event is selected
+   */
+  static boolean isSeriesMatch(Event event, String eventName,
+                               LocalDateTime startTime) {
+    LocalTime targetStart = event.getStart().toLocalTime();
+    return event.getTitle().equals(eventName) && targetStart.equals(startTime.toLocalTime())
+        && startTime.isBefore(event.getStart()) || startTime.isEqual(event.getStart());
+  }
+
+  /**
+   * Turns the "start" and "end" values of a per-event edit, given as a time of day, into a
+   * date-time on the event's own start or end date.
+   *
+   * @param event    the event being edited
+   * @param property the property being edited
+   * @param newValue the new value as given by the caller
+   * @return the value to apply to the event
+   */
+  static String resolveEditValue(Event event, String property, String newValue) {
+    String temp = newValue;
+
+    // Handle start and end times for each recurring event.
+    if (property.equals("start")) {
+      LocalDateTime currentStartDT = event.getStart();
+      LocalDate currentStartDate = currentStartDT.toLocalDate();
+
+      LocalTime newTime = LocalTime.parse(temp);
+      LocalDateTime newDateTime = LocalDateTime.of(currentStartDate, newTime);
+      temp = newDateTime.toString();
+    } else if (property.equals("end")) {
+      LocalDateTime currentEndDT = event.getEnd();
+      LocalDate currentEndDate = currentEndDT.toLocalDate();
+
+      LocalTime newTime = LocalTime.parse(temp);
+      LocalDateTime newDateTime = LocalDateTime.of(currentEndDate, newTime);
+      temp = newDateTime.toString();
+    }
+    return temp;
+  }
+
+  /**
+   * Applies an edit to the rule of a recurring series when the edit affects every
+   * occurrence in the same way.
+   *
+   * @param rule     the recurrence rule
+   * @param property the property to update
+   * @param newValue the new value for the property
+   * @return {@code true} if the rule was edited, {@code false} if the edit must be applied
+   *         to each occurrence instead
+   */
+  private static boolean applyRuleEdit(RecurringEvent rule, String property, String newValue) {
+    switch (property.toLowerCase()) {
+      case "subject":
+        rule.setTitle(newValue);
+        return true;
+      case "description":
+        rule.setDescription(newValue);
+        return true;
+      case "location":
+        rule.setLocation(newValue);
+        return true;
+      case "ispublic":
+        rule.setPublic(Boolean.parseBoolean(newValue));
+        return true;
+      case "start":
+      case "end":
+        return false;
+      default:
+        throw new IllegalArgumentException("Invalid property: " + property);
+    }
+  }
+
+  /**
+   * Stores a generated occurrence as a separate event, so it can be edited without changing
+   * the rest of its series.
+   *
+   * @param occurrence the occurrence to store
+   * @return the stored event
+   */
+  private Event materialize(RecurringSeries.Occurrence occurrence) {
+    occurrence.getSeries().exclude(occurrence.getDate());
+    seriesChanged();
+    Event event = new Event(occurrence.getTitle(), occurrence.getStart(), occurrence.getEnd(),
+        occurrence.getDescription(), occurrence.getLocation(), occurrence.isPublic());
+    events.add(event);
+    pool(event);
+    indexEvent(event);
+    return event;
   }
 
   /**
@@ -585,6 +1147,69 @@ public class Calendar implements ICalendar {
    * @throws IllegalArgumentException for invalid property names or values
    */
   private void applyEdit(Event event, String property, String newValue) {
+    // The event's times may change, so take it out of the time index while editing.
+    unindexEvent(event);
+    unpool(event);
+    try {
+      applyProperty(event, property, newValue);
+    } finally {
+      pool(event);
+      indexEvent(event);
+    }
+  }
+
+  /**
+   * Edits the rule of a recurring series through {@link #applyRuleEdit}, keeping the string
+   * pool in step with the rule's new values.
+   *
+   * @param rule     the recurrence rule
+   * @param property the property to update
+   * @param newValue the new value for the property
+   * @return {@code true} if the rule was edited
+   */
+  private boolean applyPooledRuleEdit(RecurringEvent rule, String property, String newValue) {
+    seriesChanged();
+    unpool(rule);
+    try {
+      return applyRuleEdit(rule, property, newValue);
+    } finally {
+      pool(rule);
+    }
+  }
+
+  /**
+   * Replaces an event's title, description and location with their shared copies from the
+   * string pool.
+   *
+   * @param event the event being stored or re-stored after an edit
+   */
+  private void pool(AbstractEvent event) {
+    event.setTitle(strings.acquire(event.getTitle()));
+    event.setDescription(strings.acquire(event.getDescription()));
+    event.setLocation(strings.acquire(event.getLocation()));
+  }
+
+  /**
+   * Releases an event's title, description and location from the string pool, before they
+   * are edited.
+   *
+   * @param event the event being edited
+   */
+  private void unpool(AbstractEvent event) {
+    strings.release(event.getTitle());
+    strings.release(event.getDescription());
+    strings.release(event.getLocation());
+  }
+
+  /**
+   * Sets a single property on an event, validating the new value.
+   *
+   * @param event    the event to modify
+   * @param property the property to update
+   * @param newValue the new value for the property
+   * @throws IllegalArgumentException for invalid property names or values
+   */
+  static void applyProperty(Event event, String property, String newValue) {
     switch (property.toLowerCase()) {
       case "subject":
         event.setTitle(newValue);
@@ -636,4 +1261,591 @@ public class Calendar implements ICalendar {
         throw new IllegalArgumentException("Invalid property: " + property);
     }
   }
+
+  /**
+   * Finds a stored event that conflicts with the given one, probing the time index so only
+   * events near the new event's time range are compared.
+   *
+   * @param event the event to check
+   * @return a conflicting event, or {@code null} if there is none
+   */
+  private Event findConflict(AbstractEvent event) {
+    Event conflict = timeIndex.findFirst(lowKey(event), highKey(event),
+        existing -> existing.conflictsWith(event));
+    if (conflict == null) {
+      for (Event occurrence : occurrencesBetween(lowTime(event), highTime(event))) {
+        if (occurrence.conflictsWith(event)) {
+          return occurrence;
+        }
+      }
+    }
+    return conflict;
+  }
+
+  /**
+   * Finds a stored event that conflicts with any of a batch of new events. Both sides are
+   * walked in start order in a single sweep: stored events enter the active set once a new
+   * event reaches their start, and leave it once the sweep has passed their end, so each new
+   * event is only compared with the stored events around it.
+   *
+   * @param added the new events to check
+   * @return the earliest-starting stored event that conflicts with the earliest conflicting
+   *         new event, or {@code null} if there is no conflict
+   */
+  private Event findSeriesConflict(List<Event> added) {
+    if (added.isEmpty()) {
+      return null;
+    }
+    List<Event> incoming = new ArrayList<>(added);
+    incoming.sort(Comparator.comparingLong(this::lowKey));
+    LocalDateTime spanStart = lowTime(incoming.get(0));
+    LocalDateTime spanEnd = highTime(incoming.get(0));
+    for (Event event : incoming) {
+      if (highTime(event).isAfter(spanEnd)) {
+        spanEnd = highTime(event);
+      }
+    }
+
+    // Stored events that can reach the batch, in start order.
+    List<Event> existing = new ArrayList<>();
+    timeIndex.query(lowerKey(spanStart), upperKey(spanEnd), existing);
+    existing.addAll(occurrencesBetween(spanStart, spanEnd));
+    existing.sort(Comparator.comparingLong(this::lowKey));
+
+    PriorityQueue<Event> active = new PriorityQueue<>(
+        Comparator.comparingLong(this::highKey));
+    int next = 0;
+    for (Event event : incoming) {
+      long eventHigh = highKey(event);
+      while (next < existing.size() && lowKey(existing.get(next)) <= eventHigh) {
+        active.add(existing.get(next++));
+      }
+      // Later new events start no earlier than this one, so stored events that end before
+      // it can never conflict again.
+      while (!active.isEmpty() && highKey(active.peek()) < lowKey(event)) {
+        active.poll();
+      }
+
+      Event conflict = null;
+      for (Event candidate : active) {
+        if (candidate.conflictsWith(event)
+            && (conflict == null || candidate.getStart().isBefore(conflict.getStart()))) {
+          conflict = candidate;
+        }
+      }
+      if (conflict != null) {
+        return conflict;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Adds a batch of events copied from another calendar: all of them, or none if any would
+   * conflict. Each copy is checked as if the batch were added one event at a time in list
+   * order, with {@link #isBusyAt(LocalDateTime)} at its start and {@link #addEvent} with
+   * auto-decline: it conflicts with a stored event, or with a copy before it in the list, if
+   * their spans overlap or that event is busy at the copy's start. Copies are not queued in
+   * an open batch, since they are checked by a different rule than queued events.
+   *
+   * @param copies the events to add, in the order they should be stored
+   * @throws IllegalStateException if a batch is open, or a copy conflicts; nothing is added
+   *                               then
+   */
+  @Override
+  public void addCopies(List<Event> copies) throws IllegalStateException {
+    checkNoBatch();
+    BitSet checks = new BitSet(copies.size());
+    checks.set(0, copies.size());
+    Event conflict = findBatchConflict(copies, checks, Calendar::blocks);
+    if (conflict != null) {
+      throw new IllegalStateException("Copied event conflicts with existing event: "
+          + conflict.getTitle() + " at " + conflict.getStart());
+    }
+    store(copies);
+  }
+
+  /**
+   * Adds a batch of events, or none of them if one that asks for auto-decline conflicts
+   * with a stored event or with one before it in the batch.
+   *
+   * @param batch  the events to add, in the order they should be stored
+   * @param checks the positions in the batch of the events added with auto-decline
+   * @throws IllegalStateException if an event conflicts; nothing is added then
+   */
+  private void addBatch(List<Event> batch, BitSet checks) throws IllegalStateException {
+    if (!checks.isEmpty()) {
+      Event conflict = findBatchConflict(batch, checks, Event::conflictsWith);
+      if (conflict != null) {
+        throw new IllegalStateException("Event conflict detected: "
+            + conflict.getTitle() + " at " + conflict.getStart());
+      }
+    }
+    store(batch);
+  }
+
+  /**
+   * Finds the first conflict in a batch of new events, as if they were added one at a time
+   * in list order. Only the events whose position is set in {@code checks} are checked,
+   * against the stored events and against every event before them in the batch. The batch
+   * and the stored events near it are compared in a single sweep in start order, so each
+   * new event is only compared with the events around it.
+   *
+   * @param batch     the new events, in the order they are added
+   * @param checks    the positions of the events to check
+   * @param conflicts tells whether an event already present keeps a later one out
+   * @return the event that a checked new event conflicts with, or {@code null} if there is
+   *         no conflict
+   */
+  private Event findBatchConflict(List<Event> batch, BitSet checks,
+                                  BiPredicate<Event, Event> conflicts) {
+    int count = batch.size();
+    if (count == 0) {
+      return null;
+    }
+    // Keys are worked out once, since each takes a timezone conversion.
+    long[] batchLow = new long[count];
+    long[] batchHigh = new long[count];
+    long spanLow = Long.MAX_VALUE;
+    long spanHigh = Long.MIN_VALUE;
+    for (int i = 0; i < count; i++) {
+      batchLow[i] = lowKey(batch.get(i));
+      batchHigh[i] = highKey(batch.get(i));
+      spanLow = Math.min(spanLow, batchLow[i]);
+      spanHigh = Math.max(spanHigh, batchHigh[i]);
+    }
+    Integer[] order = new Integer[count];
+    for (int i = 0; i < count; i++) {
+      order[i] = i;
+    }
+    Arrays.sort(order, Comparator.comparingLong(i -> batchLow[i]));
+
+    // Stored events that can reach the batch, in start order.
+    List<Event> existing = new ArrayList<>();
+    timeIndex.query(spanLow, spanHigh, existing);
+    LocalDateTime spanStart = lowTime(batch.get(order[0]));
+    LocalDateTime spanEnd = spanStart;
+    for (Event event : batch) {
+      if (highTime(event).isAfter(spanEnd)) {
+        spanEnd = highTime(event);
+      }
+    }
+    existing.addAll(occurrencesBetween(spanStart, spanEnd));
+    int stored = existing.size();
+    long[] storedLow = new long[stored];
+    long[] storedHigh = new long[stored];
+    Integer[] storedOrder = new Integer[stored];
+    for (int i = 0; i < stored; i++) {
+      storedLow[i] = lowKey(existing.get(i));
+      storedHigh[i] = highKey(existing.get(i));
+      storedOrder[i] = i;
+    }
+    Arrays.sort(storedOrder, Comparator.comparingLong(i -> storedLow[i]));
+
+    PriorityQueue<Integer> activeStored = new PriorityQueue<>(
+        Comparator.comparingLong(i -> storedHigh[i]));
+    PriorityQueue<Integer> activeBatch = new PriorityQueue<>(
+        Comparator.comparingLong(i -> batchHigh[i]));
+    int next = 0;
+    for (int index : order) {
+      Event event = batch.get(index);
+      while (next < stored && storedLow[storedOrder[next]] <= batchHigh[index]) {
+        activeStored.add(storedOrder[next++]);
+      }
+      // Later events start no earlier than this one, so events that end before it can
+      // never conflict again.
+      while (!activeStored.isEmpty() && storedHigh[activeStored.peek()] < batchLow[index]) {
+        activeStored.poll();
+      }
+      while (!activeBatch.isEmpty() && batchHigh[activeBatch.peek()] < batchLow[index]) {
+        activeBatch.poll();
+      }
+
+      if (checks.get(index)) {
+        for (int other : activeStored) {
+          if (conflicts.test(existing.get(other), event)) {
+            return existing.get(other);
+          }
+        }
+      }
+      for (int other : activeBatch) {
+        int later = Math.max(index, other);
+        if (checks.get(later)) {
+          Event earlier = batch.get(Math.min(index, other));
+          if (conflicts.test(earlier, batch.get(later))) {
+            return earlier;
+          }
+        }
+      }
+      activeBatch.add(index);
+    }
+    return null;
+  }
+
+  /**
+   * Stores and indexes a batch of events that has already been checked. A batch at least as
+   * large as the calendar is indexed by rebuilding the indexes in one pass, which groups the
+   * inserts by title; a smaller one is indexed event by event.
+   *
+   * @param batch the events to add, in the order they should be stored
+   */
+  private void store(List<Event> batch) {
+    boolean rebuild = batch.size() >= events.size();
+    for (Event event : batch) {
+      events.add(event);
+      pool(event);
+      if (!rebuild) {
+        indexEvent(event);
+      }
+    }
+    if (rebuild && !batch.isEmpty()) {
+      rebuildIndex();
+    }
+    publish();
+  }
+
+  /**
+   * Checks whether an event already in the calendar keeps a new one from being copied in:
+   * it is busy when the new event starts, or their spans overlap.
+   *
+   * @param present the event added first
+   * @param added   the event added after it
+   * @return {@code true} if the new event conflicts
+   */
+  private static boolean blocks(Event present, Event added) {
+    return isBusyAt(present, added.getStart()) || present.conflictsWith(added);
+  }
+
+  /**
+   * Switches the calendar to a new timezone. Stored events keep their instants and are read
+   * in the new zone from now on, so nothing is rewritten or re-indexed. Recurring series keep
+   * their rule and have their occurrences converted as they are generated.
+   *
+   * @param newZone the new timezone
+   */
+  void convertTimezone(ZoneId newZone) {
+    this.timezone = newZone;
+    calendarZone.set(newZone);
+    if (viewBuilder != null) {
+      // The copies in the view hold local times, so they all have to be taken again.
+      refillView();
+      publish();
+    }
+  }
+
+  /**
+   * Rebuilds the time index and day buckets from scratch. Must be called after event
+   * instants have been changed outside the edit methods.
+   */
+  void rebuildIndex() {
+    timeIndex.clear();
+    dayIndex.clear();
+    longEvents.clear();
+    // Sized up front, so that rebuilding a large calendar does not keep rehashing.
+    indexEntries = new IdentityHashMap<>(events.size());
+    keyIndex = new HashMap<>(events.size() * 4 / 3 + 1);
+    titleIndex.clear();
+    // Index times in calendar order, then titles one title at a time, so that consecutive
+    // inserts into the per-title maps walk the same, already cached, path.
+    Map<String, List<Event>> eventsByTitle = new HashMap<>();
+    Map<String, List<EventKey>> keysByTitle = new HashMap<>();
+    for (Event event : events) {
+      EventKey key = indexTimes(event);
+      eventsByTitle.computeIfAbsent(key.title, k -> new ArrayList<>()).add(event);
+      keysByTitle.computeIfAbsent(key.title, k -> new ArrayList<>()).add(key);
+    }
+    for (Map.Entry<String, List<Event>> sameTitle : eventsByTitle.entrySet()) {
+      List<EventKey> keys = keysByTitle.get(sameTitle.getKey());
+      for (int i = 0; i < keys.size(); i++) {
+        indexKey(sameTitle.getValue().get(i), keys.get(i));
+      }
+    }
+    if (viewBuilder != null) {
+      refillView();
+      publish();
+    }
+  }
+
+  /**
+   * Ties an event to the calendar's timezone and adds it to the indexes. The indexes work on
+   * instants, so they stay valid when the timezone changes. The indexed interval runs from
+   * the event's start to its end, or past the end of its day for all-day events, which
+   * covers every notion of "overlap" used by the queries in this class.
+   *
+   * @param event the event to index
+   */
+  private void indexEvent(Event event) {
+    indexKey(event, indexTimes(event));
+    if (viewBuilder != null) {
+      IntervalTree.Node<Event> node = indexEntries.get(event).node;
+      viewBuilder.put(event, node.low, node.high);
+    }
+  }
+
+  /**
+   * Ties an event to the calendar's timezone and adds it to the time index and day buckets,
+   * the part of {@link #indexEvent} that does not depend on its title.
+   *
+   * @param event the event to index
+   * @return the key to index the event under by title and start
+   */
+  private EventKey indexTimes(Event event) {
+    event.attach(calendarZone);
+    Instant start = event.getStartInstant();
+    Instant end = event.getEndInstant() != null ? event.getEndInstant()
+        : start.plus(ALL_DAY_SPAN);
+    long low = toKey(start.isBefore(end) ? start : end);
+    long high = toKey(start.isBefore(end) ? end : start);
+    IntervalTree.Node<Event> node = timeIndex.insert(low, high, event);
+
+    long firstBucket = bucketOf(low);
+    long lastBucket = bucketOf(high);
+    if (lastBucket - firstBucket > MAX_BUCKET_SPAN_DAYS) {
+      longEvents.add(event);
+    } else {
+      for (long bucket = firstBucket; bucket <= lastBucket; bucket++) {
+        dayIndex.computeIfAbsent(bucket, k -> new ArrayList<>()).add(event);
+      }
+    }
+    EventKey key = new EventKey(event.getTitle(), start);
+    indexEntries.put(event, new IndexEntry(node, firstBucket, lastBucket, key));
+    return key;
+  }
+
+  /**
+   * Adds an event to the exact-match and per-title indexes, the part of
+   * {@link #indexEvent} that depends on its title.
+   *
+   * @param event the event to index
+   * @param key   its title and start instant
+   */
+  private void indexKey(Event event, EventKey key) {
+    List<Event> sameKey = keyIndex.get(key);
+    if (sameKey == null) {
+      sameKey = new ArrayList<>(1);
+      keyIndex.put(key, sameKey);
+      titleIndex.computeIfAbsent(key.title, k -> new TreeMap<>()).put(key.start, sameKey);
+    }
+    sameKey.add(event);
+  }
+
+  /**
+   * Removes an event from the time index and the day buckets, if present.
+   *
+   * @param event the event to remove
+   */
+  private void unindexEvent(Event event) {
+    IndexEntry entry = indexEntries.remove(event);
+    if (entry == null) {
+      return;
+    }
+    if (viewBuilder != null) {
+      viewBuilder.remove(event);
+    }
+    timeIndex.remove(entry.node);
+    List<Event> sameKey = keyIndex.get(entry.key);
+    sameKey.remove(event);
+    if (sameKey.isEmpty()) {
+      keyIndex.remove(entry.key);
+      NavigableMap<Instant, List<Event>> byStart = titleIndex.get(entry.key.title);
+      byStart.remove(entry.key.start);
+      if (byStart.isEmpty()) {
+        titleIndex.remove(entry.key.title);
+      }
+    }
+    if (entry.lastBucket - entry.firstBucket > MAX_BUCKET_SPAN_DAYS) {
+      longEvents.remove(event);
+      return;
+    }
+    for (long bucket = entry.firstBucket; bucket <= entry.lastBucket; bucket++) {
+      List<Event> sameDay = dayIndex.get(bucket);
+      sameDay.remove(event);
+      if (sameDay.isEmpty()) {
+        dayIndex.remove(bucket);
+      }
+    }
+  }
+
+  /**
+   * Returns the day bucket of a time index key: its UTC epoch day.
+   *
+   * @param key the time index key
+   * @return the bucket number
+   */
+  private static long bucketOf(long key) {
+    return Math.floorDiv(key, NANOS_PER_DAY);
+  }
+
+  /**
+   * Returns the epoch day on which an event starts.
+   *
+   * @param event the event
+   * @return the epoch day of the event's start
+   */
+  static long firstDayOf(AbstractEvent event) {
+    return event.getStart().toLocalDate().toEpochDay();
+  }
+
+  /**
+   * Returns the last epoch day on which an event is listed. An event is listed on its start
+   * date and on every date strictly between its start and end dates; all-day events are
+   * treated as ending one day after they start.
+   *
+   * @param event the event
+   * @return the epoch day of the last date the event is active on
+   */
+  static long lastDayOf(AbstractEvent event) {
+    LocalDateTime end = event.getEnd() != null ? event.getEnd() : event.getStart().plusDays(1);
+    return Math.max(firstDayOf(event), end.toLocalDate().toEpochDay() - 1);
+  }
+
+  /**
+   * Returns a time index key no later than any instant an event's span can start at in the
+   * calendar's timezone.
+   *
+   * @param event the event
+   * @return the low time index key
+   */
+  private long lowKey(AbstractEvent event) {
+    return lowerKey(lowTime(event));
+  }
+
+  /**
+   * Returns a time index key no earlier than any instant an event's span can end at in the
+   * calendar's timezone.
+   *
+   * @param event the event
+   * @return the high time index key
+   */
+  private long highKey(AbstractEvent event) {
+    return upperKey(highTime(event));
+  }
+
+  /**
+   * Returns the time index key of the earliest instant a local time can stand for in the
+   * calendar's timezone.
+   *
+   * @param time the local time
+   * @return the time index key
+   */
+  private long lowerKey(LocalDateTime time) {
+    return lowerKey(time, timezone);
+  }
+
+  /**
+   * Returns the time index key of the earliest instant a local time can stand for in a
+   * timezone.
+   *
+   * @param time the local time
+   * @param zone the timezone
+   * @return the time index key
+   */
+  static long lowerKey(LocalDateTime time, ZoneId zone) {
+    return toKey(time.atZone(zone).withEarlierOffsetAtOverlap().toInstant());
+  }
+
+  /**
+   * Returns the time index key of the latest instant a local time can stand for in the
+   * calendar's timezone.
+   *
+   * @param time the local time
+   * @return the time index key
+   */
+  private long upperKey(LocalDateTime time) {
+    return upperKey(time, timezone);
+  }
+
+  /**
+   * Returns the time index key of the latest instant a local time can stand for in a
+   * timezone.
+   *
+   * @param time the local time
+   * @param zone the timezone
+   * @return the time index key
+   */
+  static long upperKey(LocalDateTime time, ZoneId zone) {
+    return toKey(time.atZone(zone).withLaterOffsetAtOverlap().toInstant());
+  }
+
+  /**
+   * Returns the earlier end of the span an event is indexed under: its start, or its end if
+   * that is earlier.
+   *
+   * @param event the event
+   * @return the start of the indexed span
+   */
+  static LocalDateTime lowTime(AbstractEvent event) {
+    LocalDateTime start = event.getStart();
+    return event.getEnd() != null && event.getEnd().isBefore(start) ? event.getEnd() : start;
+  }
+
+  /**
+   * Returns the later end of the span an event is indexed under: its end, or one day after
+   * its start for all-day events.
+   *
+   * @param event the event
+   * @return the end of the indexed span
+   */
+  static LocalDateTime highTime(AbstractEvent event) {
+    LocalDateTime start = event.getStart();
+    LocalDateTime end = event.getEnd() != null ? event.getEnd() : start.plusDays(1);
+    return end.isBefore(start) ? start : end;
+  }
+
+  /**
+   * Generates the occurrences of stored recurring events whose span touches [from, to].
+   *
+   * @param from the start of the range (inclusive)
+   * @param to   the end of the range (inclusive)
+   * @return the occurrences, grouped by series and in start order within each series
+   */
+  private List<Event> occurrencesBetween(LocalDateTime from, LocalDateTime to) {
+    List<RecurringSeries> candidates = new ArrayList<>();
+    seriesIndex.query(toKey(from), toKey(to), candidates);
+    List<Event> result = new ArrayList<>();
+    for (RecurringSeries recurring : candidates) {
+      result.addAll(recurring.occurrencesBetween(from, to, timezone));
+    }
+    return result;
+  }
+
+  /**
+   * Converts a local date-time to a series index key, reading it as if it were UTC. Series
+   * are indexed by local time with a margin, so the index holds for any calendar timezone.
+   *
+   * @param time the date-time to convert
+   * @return the index key
+   */
+  static long toKey(LocalDateTime time) {
+    return toKey(time.toEpochSecond(ZoneOffset.UTC), time.getNano());
+  }
+
+  /**
+   * Converts an instant to a time index key.
+   *
+   * @param time the instant to convert
+   * @return the index key
+   */
+  private static long toKey(Instant time) {
+    return toKey(time.getEpochSecond(), time.getNano());
+  }
+
+  /**
+   * Converts a point in time to an index key: nanoseconds since the epoch. Keys saturate
+   * outside the roughly 1678-2262 range a {@code long} can hold, which keeps them a safe
+   * over-approximation for the index.
+   *
+   * @param seconds seconds since the epoch
+   * @param nanos   nanosecond of the second
+   * @return the index key
+   */
+  private static long toKey(long seconds, int nanos) {
+    if (seconds >= Long.MAX_VALUE / 1_000_000_000L) {
+      return Long.MAX_VALUE;
+    }
+    if (seconds <= Long.MIN_VALUE / 1_000_000_000L) {
+      return Long.MIN_VALUE;
+    }
+    return seconds * 1_000_000_000L + nanos;
+  }
 }
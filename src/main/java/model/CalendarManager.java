@@ -1,5 +1,7 @@
 package model;
 
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
@@ -92,28 +94,8 @@ public class CalendarManager implements ICalendarManager {
         throw new IllegalArgumentException("Invalid timezone: " + newValue, e);
       }
 
-      ZoneId currZone = cal.getTimezone();
-
-      ((Calendar) cal).setTimezone(newValue);
-
       // Swap all the current events datetime to the new timezone.
-      List<Event> eventList = cal.getAllEventsList();
-
-      for (Event e : eventList) {
-        LocalDateTime newEventDateTime = e.getStart().atZone(currZone)
-            .withZoneSameInstant(newZoneId)
-            .toLocalDateTime();
-
-        LocalDateTime newEnd = null;
-        if (e.getEnd() != null) {
-          long durationSeconds = java.time.Duration.between(e.getStart(),
-              e.getEnd()).getSeconds();
-          newEnd = newEventDateTime.plusSeconds(durationSeconds);
-        }
-
-        e.setStart(newEventDateTime);
-        e.setEnd(newEnd);
-      }
+      ((Calendar) cal).convertTimezone(newZoneId);
 
       return true;
     }
@@ -189,49 +171,53 @@ public class CalendarManager implements ICalendarManager {
    */
   public boolean copyEvent(String eventName, LocalDateTime eventStart, String targetCalendarName,
                            LocalDateTime newTargetStart) {
-    if (currentCalendar == null) {
-      throw new IllegalStateException("No current calendar selected");
-    }
+    return copyEvent(current(), eventName, eventStart, targetCalendarName, newTargetStart);
+  }
+
+  /**
+   * Copies a single event from the named calendar to the target calendar, as
+   * {@link #copyEvent(String, LocalDateTime, String, LocalDateTime)} does from the current
+   * one.
+   *
+   * @param sourceCalendarName the name of the calendar to copy from.
+   * @param eventName          the event title to copy.
+   * @param eventStart         the start time of the event in the source calendar's local time.
+   * @param targetCalendarName the name of the target calendar.
+   * @param newTargetStart     the desired start time in the target calendar's local time.
+   * @return true if event was successfully copied.
+   */
+  public boolean copyEvent(String sourceCalendarName, String eventName, LocalDateTime eventStart,
+                           String targetCalendarName, LocalDateTime newTargetStart) {
+    return copyEvent(source(sourceCalendarName), eventName, eventStart, targetCalendarName,
+        newTargetStart);
+  }
+
+  /**
+   * Copies a single event from a calendar to the target calendar.
+   *
+   * @param sourceCal          the calendar to copy from.
+   * @param eventName          the event title to copy.
+   * @param eventStart         the start time of the event in the source calendar's local time.
+   * @param targetCalendarName the name of the target calendar.
+   * @param newTargetStart     the desired start time in the target calendar's local time.
+   * @return true if event was successfully copied.
+   */
+  private boolean copyEvent(ICalendar sourceCal, String eventName, LocalDateTime eventStart,
+                            String targetCalendarName, LocalDateTime newTargetStart) {
     ICalendar targetCal = calendars.get(targetCalendarName);
     if (targetCal == null) {
       throw new IllegalArgumentException("Target calendar not found: " + targetCalendarName);
     }
 
-    // Find the event in the current calendar.
-    AbstractEvent toCopy = null;
-    for (AbstractEvent event : currentCalendar.getEventsBetween(eventStart, eventStart)) {
-      if (event.getTitle().equals(eventName) && event.getStart().equals(eventStart)) {
-        toCopy = event;
-        break;
-      }
-    }
+    // Find the event in the source calendar.
+    AbstractEvent toCopy = sourceCal.findEvent(eventName, eventStart);
     if (toCopy == null) {
       throw new IllegalArgumentException("Event not found: " + eventName + " at " + eventStart);
     }
 
-    // Convert times if necessary.
-    ZoneId sourceZone = currentCalendar.getTimezone();
-    ZoneId targetZone = targetCal.getTimezone();
-
-    // Calculate the difference between original event start and end (if end exists).
+    // Create a new event instance in target calendar, keeping the event's length.
     LocalDateTime newStart = newTargetStart;
-
-    LocalDateTime newEnd = null;
-    if (toCopy.getEnd() != null) {
-      long durationSeconds = java.time.Duration.between(toCopy.getStart(),
-          toCopy.getEnd()).getSeconds();
-      newEnd = newStart.plusSeconds(durationSeconds);
-    }
-
-    // Create a new event instance in target calendar.
-    Event copiedEvent;
-    if (newEnd == null) {
-      copiedEvent = new Event(toCopy.getTitle(), newStart, toCopy.getDescription(),
-          toCopy.getLocation(), toCopy.isPublic());
-    } else {
-      copiedEvent = new Event(toCopy.getTitle(), newStart, newEnd, toCopy.getDescription(),
-          toCopy.getLocation(), toCopy.isPublic());
-    }
+    Event copiedEvent = copyOf(toCopy, newStart);
 
     // Check for conflict in target calendar.
     if (targetCal.isBusyAt(newStart)) {
@@ -247,6 +233,7 @@ public class CalendarManager implements ICalendarManager {
    * Copies all events scheduled on a given date from
    * the current calendar to the target calendar.
    * The times are adjusted to the target calendar's timezone.
+   * Either every event is copied or, if any would conflict, none is.
    *
    * @param sourceDate         the date (in current calendar's local time) whose events
    *                           are to be copied.
@@ -258,38 +245,42 @@ public class CalendarManager implements ICalendarManager {
    */
   public boolean copyEventsOn(LocalDate sourceDate, String targetCalendarName,
                               LocalDate targetDate) {
-    if (currentCalendar == null) {
-      throw new IllegalStateException("No current calendar selected");
-    }
+    return copyEventsOn(current(), sourceDate, targetCalendarName, targetDate);
+  }
+
+  /**
+   * Copies all events scheduled on a given date from the named calendar to the target
+   * calendar, as {@link #copyEventsOn(LocalDate, String, LocalDate)} does from the current
+   * one.
+   *
+   * @param sourceCalendarName the name of the calendar to copy from.
+   * @param sourceDate         the date whose events are to be copied.
+   * @param targetCalendarName the target calendar name.
+   * @param targetDate         the date in the target calendar matching the source date.
+   * @return true if at least one event was copied successfully.
+   */
+  public boolean copyEventsOn(String sourceCalendarName, LocalDate sourceDate,
+                              String targetCalendarName, LocalDate targetDate) {
+    return copyEventsOn(source(sourceCalendarName), sourceDate, targetCalendarName,
+        targetDate);
+  }
+
+  /**
+   * Copies all events scheduled on a given date from a calendar to the target calendar.
+   *
+   * @param sourceCal          the calendar to copy from.
+   * @param sourceDate         the date whose events are to be copied.
+   * @param targetCalendarName the target calendar name.
+   * @param targetDate         the date in the target calendar matching the source date.
+   * @return true if at least one event was copied successfully.
+   */
+  private boolean copyEventsOn(ICalendar sourceCal, LocalDate sourceDate,
+                               String targetCalendarName, LocalDate targetDate) {
     ICalendar targetCal = calendars.get(targetCalendarName);
     if (targetCal == null) {
       throw new IllegalArgumentException("Target calendar not found: " + targetCalendarName);
     }
-    boolean copiedAtLeastOne = false;
-    for (AbstractEvent event : currentCalendar.getEventsOnDate(sourceDate)) {
-
-      // Calculate the time difference between event start and the source date start.
-      LocalDateTime eventStart = event.getStart();
-
-      // Calculate the new time in the new timezone.
-      ZoneId currZone = currentCalendar.getTimezone();
-      ZoneId newZone = targetCal.getTimezone();
-
-      LocalDateTime newEventDateTime = event.getStart().atZone(currZone)
-          .withZoneSameInstant(newZone)
-          .toLocalDateTime();
-
-      // Add the time to the date.
-      LocalDateTime newStart = LocalDateTime.of(targetDate,
-          newEventDateTime.toLocalTime());
-
-      boolean success = copyEvent(event.getTitle(), eventStart,
-          targetCalendarName, newStart);
-      if (success) {
-        copiedAtLeastOne = true;
-      }
-    }
-    if (!copiedAtLeastOne) {
+    if (copyDays(sourceCal, sourceDate, sourceDate, targetCal, targetDate) == 0) {
       throw new IllegalStateException("Failed to copy any events from "
           + sourceDate + " to " + targetDate);
     }
@@ -301,6 +292,7 @@ public class CalendarManager implements ICalendarManager {
    * to the target calendar.
    * The events are shifted so that the interval
    * in the target calendar starts at targetStartDate.
+   * Either every event is copied or, if any would conflict, none is.
    *
    * @param sourceStartDate    the start date of the source interval.
    * @param sourceEndDate      the end date of the source interval.
@@ -313,10 +305,48 @@ public class CalendarManager implements ICalendarManager {
                                    LocalDate sourceEndDate,
                                    String targetCalendarName,
                                    LocalDate targetStartDate) {
-    if (currentCalendar == null) {
-      throw new IllegalStateException("No current calendar selected");
-    }
+    return copyEventsBetween(current(), sourceStartDate, sourceEndDate, targetCalendarName,
+        targetStartDate);
+  }
+
+  /**
+   * Copies all events between two dates (inclusive) from the named calendar to the target
+   * calendar, as {@link #copyEventsBetween(LocalDate, LocalDate, String, LocalDate)} does
+   * from the current one.
+   *
+   * @param sourceCalendarName the name of the calendar to copy from.
+   * @param sourceStartDate    the start date of the source interval.
+   * @param sourceEndDate      the end date of the source interval.
+   * @param targetCalendarName the target calendar name.
+   * @param targetStartDate    the date in the target calendar that corresponds
+   *                           to the start of the interval.
+   * @return true if at least one event was copied successfully.
+   */
+  public boolean copyEventsBetween(String sourceCalendarName,
+                                   LocalDate sourceStartDate,
+                                   LocalDate sourceEndDate,
+                                   String targetCalendarName,
+                                   LocalDate targetStartDate) {
+    return copyEventsBetween(source(sourceCalendarName), sourceStartDate, sourceEndDate,
+        targetCalendarName, targetStartDate);
+  }
 
+  /**
+   * Copies all events between two dates (inclusive) from a calendar to the target calendar.
+   *
+   * @param sourceCal          the calendar to copy from.
+   * @param sourceStartDate    the start date of the source interval.
+   * @param sourceEndDate      the end date of the source interval.
+   * @param targetCalendarName the target calendar name.
+   * @param targetStartDate    the date in the target calendar that corresponds
+   *                           to the start of the interval.
+   * @return true if at least one event was copied successfully.
+   */
+  private boolean copyEventsBetween(ICalendar sourceCal,
+                                    LocalDate sourceStartDate,
+                                    LocalDate sourceEndDate,
+                                    String targetCalendarName,
+                                    LocalDate targetStartDate) {
     // Check if dates are out of order
     if (sourceStartDate.isAfter(sourceEndDate)) {
       throw new IllegalArgumentException("Source start date" +
@@ -329,26 +359,159 @@ public class CalendarManager implements ICalendarManager {
           + targetCalendarName);
     }
 
-    boolean copiedAtLeastOne = false;
-    // For simplicity, assume we copy each day individually.
-    LocalDate date = sourceStartDate;
-    while (!date.isAfter(sourceEndDate)) {
-      boolean success = copyEventsOn(date, targetCalendarName,
-          targetStartDate.plusDays(date.toEpochDay()
-              - sourceStartDate.toEpochDay()));
-      if (success) {
-        copiedAtLeastOne = true;
-      }
-      date = date.plusDays(1);
-
-    }
-    if (!copiedAtLeastOne) {
+    if (copyDays(sourceCal, sourceStartDate, sourceEndDate, targetCal, targetStartDate) == 0) {
       throw new IllegalStateException("Failed to copy any events between " +
           sourceStartDate + " and " + sourceEndDate);
     }
     return true;
   }
 
+  /**
+   * Returns the current calendar, to copy events from.
+   *
+   * @return the current calendar.
+   * @throws IllegalStateException if no calendar is selected.
+   */
+  private ICalendar current() {
+    if (currentCalendar == null) {
+      throw new IllegalStateException("No current calendar selected");
+    }
+    return currentCalendar;
+  }
+
+  /**
+   * Looks up a calendar to copy events from.
+   *
+   * @param name the calendar's name.
+   * @return the calendar.
+   * @throws IllegalArgumentException if there is no such calendar.
+   */
+  private ICalendar source(String name) {
+    ICalendar cal = calendars.get(name);
+    if (cal == null) {
+      throw new IllegalArgumentException("Calendar not found: " + name);
+    }
+    return cal;
+  }
+
+  /**
+   * Copies the events listed on a range of dates in one calendar to another calendar in
+   * one pass. The copies are made by {@link #copiesOfDays}, then checked for conflicts
+   * together and added together.
+   *
+   * @param sourceCal       the calendar to copy from
+   * @param sourceStartDate the first source date
+   * @param sourceEndDate   the last source date
+   * @param targetCal       the calendar to copy to
+   * @param targetStartDate the target date matching the first source date
+   * @return the number of events copied
+   * @throws IllegalStateException if a copy would conflict; nothing is copied then
+   */
+  private int copyDays(ICalendar sourceCal, LocalDate sourceStartDate, LocalDate sourceEndDate,
+                       ICalendar targetCal, LocalDate targetStartDate) {
+    List<Event> copies = copiesOfDays(sourceCal, sourceStartDate, sourceEndDate,
+        targetCal.getTimezone(), targetStartDate);
+    targetCal.addCopies(copies);
+    return copies.size();
+  }
+
+  /**
+   * Makes copies of the events listed on a range of dates in a calendar, for another
+   * calendar. The source is queried once for the whole range, and each event is copied
+   * once, onto the target date matching the first source date it is listed on. Its start
+   * time is converted to the target timezone and its length is kept, as {@link #copyEvent}
+   * does.
+   *
+   * @param source          the calendar to copy from
+   * @param sourceStartDate the first source date
+   * @param sourceEndDate   the last source date
+   * @param targetZone      the timezone of the calendar to copy to
+   * @param targetStartDate the target date matching the first source date
+   * @return the copies, in the order the source lists the events
+   */
+  static List<Event> copiesOfDays(ICalendar source, LocalDate sourceStartDate,
+                                  LocalDate sourceEndDate, ZoneId targetZone,
+                                  LocalDate targetStartDate) {
+    ZoneId sourceZone = source.getTimezone();
+    long firstDay = sourceStartDate.toEpochDay();
+    long lastDay = sourceEndDate.toEpochDay();
+
+    List<Event> copies = new ArrayList<>();
+    for (AbstractEvent event : source.getEventsBetween(
+        sourceStartDate.atStartOfDay(), sourceEndDate.plusDays(1).atStartOfDay())) {
+      // Keep the events getEventsOnDate lists on one of the dates.
+      if (Calendar.firstDayOf(event) > lastDay || Calendar.lastDayOf(event) < firstDay) {
+        continue;
+      }
+      long copyDay = Math.max(Calendar.firstDayOf(event), firstDay);
+      LocalDateTime newStart = LocalDateTime.of(targetStartDate.plusDays(copyDay - firstDay),
+          event.getStart().atZone(sourceZone).withZoneSameInstant(targetZone)
+              .toLocalTime());
+      copies.add(copyOf(event, newStart));
+    }
+    return copies;
+  }
+
+  /**
+   * Makes a copy of an event that starts at a new time and keeps its length.
+   *
+   * @param event    the event to copy
+   * @param newStart the start of the copy
+   * @return the copy
+   */
+  static Event copyOf(AbstractEvent event, LocalDateTime newStart) {
+    if (event.getEnd() == null) {
+      return new Event(event.getTitle(), newStart, event.getDescription(),
+          event.getLocation(), event.isPublic());
+    }
+    long durationSeconds = java.time.Duration.between(event.getStart(),
+        event.getEnd()).getSeconds();
+    return new Event(event.getTitle(), newStart, newStart.plusSeconds(durationSeconds),
+        event.getDescription(), event.getLocation(), event.isPublic());
+  }
+
+  /**
+   * Saves every calendar, with its timezone, events and recurring events, to a binary
+   * snapshot file that {@link #loadSnapshot} reads back. The calendar in use is remembered
+   * too.
+   *
+   * @param filename the snapshot file to write; an existing file is replaced
+   * @throws IOException if the file cannot be written
+   */
+  public void saveSnapshot(String filename) throws IOException {
+    CalendarSnapshot.write(this, Paths.get(filename), currentCalendar);
+  }
+
+  /**
+   * Saves a snapshot as {@link #saveSnapshot(String)} does, but remembers the given calendar
+   * as the one in use rather than this manager's. Used to save the calendar a
+   * {@link CalendarSession} has in use.
+   *
+   * @param filename            the snapshot file to write; an existing file is replaced
+   * @param currentCalendarName the calendar to remember as in use, or null for none
+   * @throws IOException              if the file cannot be written
+   * @throws IllegalArgumentException if there is no such calendar
+   */
+  public void saveSnapshot(String filename, String currentCalendarName) throws IOException {
+    ICalendar current = null;
+    if (currentCalendarName != null) {
+      current = source(currentCalendarName);
+    }
+    CalendarSnapshot.write(this, Paths.get(filename), current);
+  }
+
+  /**
+   * Reads a snapshot written by {@link #saveSnapshot} into a new calendar manager.
+   *
+   * @param filename the snapshot file to read
+   * @return a manager holding the saved calendars
+   * @throws IOException              if the file cannot be read
+   * @throws IllegalArgumentException if the file is not a snapshot this version can read
+   */
+  public static CalendarManager loadSnapshot(String filename) throws IOException {
+    return CalendarSnapshot.read(Paths.get(filename));
+  }
+
   /**
    * Function to return each event associated with a calendar name key.
    *
@@ -0,0 +1,150 @@
+package model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * One client's use of a shared {@link ICalendarManager}. The session keeps the client's
+ * calendar in use, so that several clients can work against one manager without selecting
+ * calendars for each other. A session starts on the manager's current calendar, if it has
+ * one (for example the one restored from a snapshot), but never changes it. Copies name the
+ * session's calendar as their source explicitly.
+ *
+ * <p>A session belongs to a single client and is not meant to be shared between threads.
+ * Whether the manager itself may be used from many threads at once depends on the manager;
+ * see {@link ConcurrentCalendarManager}.
+ */
+public class CalendarSession {
+  private final ICalendarManager manager;
+  private ICalendar currentCalendar;
+
+  /**
+   * Constructs a session on a manager, using the manager's current calendar to begin with.
+   *
+   * @param manager the manager holding the calendars
+   */
+  public CalendarSession(ICalendarManager manager) {
+    if (manager == null) {
+      throw new IllegalArgumentException("Manager must not be null");
+    }
+    this.manager = manager;
+    this.currentCalendar = manager.getCurrentCalendar();
+  }
+
+  /**
+   * Returns the manager the session works on.
+   *
+   * @return the manager
+   */
+  public ICalendarManager getManager() {
+    return manager;
+  }
+
+  /**
+   * Creates a new calendar in the manager. If the session has no calendar in use yet, the
+   * new calendar becomes its calendar in use, as the first calendar created does in
+   * {@link CalendarManager}.
+   *
+   * @param name     unique name for the calendar
+   * @param timezone IANA timezone string (e.g., "America/New_York")
+   * @return true if the calendar was created
+   * @throws IllegalArgumentException if the name is taken or the timezone is invalid
+   */
+  public boolean createCalendar(String name, String timezone) {
+    boolean created = manager.createCalendar(name, timezone);
+    if (created && currentCalendar == null) {
+      currentCalendar = manager.getCalendar(name);
+    }
+    return created;
+  }
+
+  /**
+   * Sets the session's calendar in use.
+   *
+   * @param name name of the calendar to use
+   * @return true if the calendar exists and is set
+   * @throws IllegalArgumentException if there is no such calendar
+   */
+  public boolean useCalendar(String name) {
+    ICalendar cal = manager.getCalendar(name);
+    if (cal == null) {
+      throw new IllegalArgumentException("Calendar not found: " + name);
+    }
+    currentCalendar = cal;
+    return true;
+  }
+
+  /**
+   * Returns the session's calendar in use. The calendar keeps being the one in use if it
+   * is renamed.
+   *
+   * @return the calendar, or null if none is in use
+   */
+  public ICalendar getCurrentCalendar() {
+    return currentCalendar;
+  }
+
+  /**
+   * Copies a single event from the session's calendar in use to another calendar.
+   *
+   * @param eventName          the event title to copy
+   * @param eventStart         the start time of the event in the calendar in use
+   * @param targetCalendarName the name of the target calendar
+   * @param newTargetStart     the start time of the copy in the target calendar
+   * @return true if the event was copied
+   * @throws IllegalStateException if no calendar is in use
+   * @see ICalendarManager#copyEvent(String, String, LocalDateTime, String, LocalDateTime)
+   */
+  public boolean copyEvent(String eventName, LocalDateTime eventStart,
+                           String targetCalendarName, LocalDateTime newTargetStart) {
+    return manager.copyEvent(current().getName(), eventName, eventStart, targetCalendarName,
+        newTargetStart);
+  }
+
+  /**
+   * Copies all events on a date from the session's calendar in use to another calendar.
+   *
+   * @param sourceDate         the date whose events are copied
+   * @param targetCalendarName the target calendar name
+   * @param targetDate         the date in the target calendar matching the source date
+   * @return true if at least one event was copied
+   * @throws IllegalStateException if no calendar is in use
+   * @see ICalendarManager#copyEventsOn(String, LocalDate, String, LocalDate)
+   */
+  public boolean copyEventsOn(LocalDate sourceDate, String targetCalendarName,
+                              LocalDate targetDate) {
+    return manager.copyEventsOn(current().getName(), sourceDate, targetCalendarName,
+        targetDate);
+  }
+
+  /**
+   * Copies all events between two dates from the session's calendar in use to another
+   * calendar.
+   *
+   * @param sourceStartDate    the start date of the source interval
+   * @param sourceEndDate      the end date of the source interval
+   * @param targetCalendarName the target calendar name
+   * @param targetStartDate    the date in the target calendar matching the start date
+   * @return true if at least one event was copied
+   * @throws IllegalStateException if no calendar is in use
+   * @see ICalendarManager#copyEventsBetween(String, LocalDate, LocalDate, String, LocalDate)
+   */
+  public boolean copyEventsBetween(LocalDate sourceStartDate, LocalDate sourceEndDate,
+                                   String targetCalendarName, LocalDate targetStartDate) {
+    return manager.copyEventsBetween(current().getName(), sourceStartDate, sourceEndDate,
+        targetCalendarName, targetStartDate);
+  }
+
+  /**
+   * Returns the session's calendar in use, to copy events from.
+   *
+   * @return the calendar
+   * @throws IllegalStateException if no calendar is in use
+   */
+  private ICalendar current() {
+    if (currentCalendar == null) {
+      throw new IllegalStateException("No current calendar selected");
+    }
+    return currentCalendar;
+  }
+}
@@ -0,0 +1,548 @@
+package model;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Saves every calendar of a {@link CalendarManager} to a compact binary file and reads it
+ * back: names, timezones, events and recurring series, along with the calendar in use.
+ * Unlike a CSV export, nothing is lost, and reading needs no parsing or conflict checks.
+ *
+ * <p>The file starts with a magic number and a format version, followed by a dictionary
+ * of every distinct string. Everything after that refers to strings by their position in
+ * the dictionary. Numbers are written as variable-length integers, and each event's start
+ * is written as the difference from the previous event's start, and its end as the
+ * difference from its own start, so the typical event takes a handful of bytes.
+ */
+final class CalendarSnapshot {
+  private static final int MAGIC = 0x43414C53;
+  static final int VERSION = 2;
+
+  // event flags
+  private static final int ALL_DAY = 1;
+  private static final int PUBLIC = 2;
+  // series flags, in addition to PUBLIC
+  private static final int HAS_END = 4;
+  private static final int HAS_OCCURRENCES = 8;
+  private static final int HAS_UNTIL = 16;
+  private static final int HAS_DAYS = 32;
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private CalendarSnapshot() {
+  }
+
+  /**
+   * Writes a snapshot of every calendar in a manager. The file is written under a temporary
+   * name and then moved into place, so an existing snapshot is only replaced by a complete
+   * one.
+   *
+   * @param manager the calendars to save
+   * @param file    the snapshot file
+   * @param current the calendar to remember as in use, or null for none
+   * @throws IOException if the file cannot be written
+   */
+  static void write(CalendarManager manager, Path file, ICalendar current)
+      throws IOException {
+    Collection<Calendar> calendars = manager.getAllCalendars();
+
+    // Number every distinct string first, so the dictionary can lead the file.
+    Map<String, Integer> ids = new HashMap<>();
+    List<String> dictionary = new ArrayList<>();
+    for (Calendar calendar : calendars) {
+      intern(calendar.getName(), ids, dictionary);
+      intern(calendar.getTimezone().getId(), ids, dictionary);
+      for (Event event : calendar.storedEvents()) {
+        intern(event.getTitle(), ids, dictionary);
+        intern(event.getDescription(), ids, dictionary);
+        intern(event.getLocation(), ids, dictionary);
+      }
+      for (RecurringSeries recurring : calendar.storedSeries()) {
+        RecurringEvent rule = recurring.getRule();
+        intern(rule.getTitle(), ids, dictionary);
+        intern(rule.getDescription(), ids, dictionary);
+        intern(rule.getLocation(), ids, dictionary);
+        intern(recurring.getZone().getId(), ids, dictionary);
+      }
+    }
+
+    Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+    try (Output out = new Output(Files.newOutputStream(temporary))) {
+      out.writeInt(MAGIC);
+      out.writeVarLong(VERSION);
+      out.writeVarLong(dictionary.size());
+      for (String value : dictionary) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeVarLong(bytes.length);
+        out.write(bytes);
+      }
+      out.writeVarLong(current == null ? 0 : ids.get(current.getName()) + 1);
+
+      out.writeVarLong(calendars.size());
+      for (Calendar calendar : calendars) {
+        out.writeVarLong(ids.get(calendar.getName()));
+        out.writeVarLong(ids.get(calendar.getTimezone().getId()));
+        writeEvents(out, calendar.storedEvents(), ids);
+        writeSeries(out, calendar.storedSeries(), ids);
+      }
+    }
+    try {
+      Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    } catch (AtomicMoveNotSupportedException e) {
+      Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+
+  /**
+   * Reads a snapshot into a new calendar manager.
+   *
+   * @param file the snapshot file
+   * @return a manager holding the saved calendars, using the calendar that was in use
+   * @throws IOException              if the file cannot be read
+   * @throws IllegalArgumentException if the file is not a snapshot, has an unsupported
+   *                                  version or is malformed
+   */
+  static CalendarManager read(Path file) throws IOException {
+    try (Input in = new Input(Files.newInputStream(file), Files.size(file))) {
+      if (in.readInt() != MAGIC) {
+        throw new IllegalArgumentException("Not a calendar snapshot: " + file);
+      }
+      long version = in.readVarLong();
+      if (version != VERSION) {
+        throw new IllegalArgumentException("Unsupported calendar snapshot version: " + version);
+      }
+      String[] dictionary = new String[in.readSize()];
+      for (int i = 0; i < dictionary.length; i++) {
+        dictionary[i] = in.readString(in.readSize());
+      }
+      int currentId = in.readCount() - 1;
+
+      CalendarManager manager = new CalendarManager();
+      int calendarCount = in.readCount();
+      for (int i = 0; i < calendarCount; i++) {
+        String name = lookup(dictionary, in.readCount());
+        manager.createCalendar(name, lookup(dictionary, in.readCount()));
+        Calendar calendar = (Calendar) manager.getCalendar(name);
+        readEvents(in, calendar, dictionary);
+        calendar.rebuildIndex();
+        readSeries(in, calendar, dictionary);
+      }
+      if (currentId >= 0) {
+        manager.useCalendar(lookup(dictionary, currentId));
+      }
+      return manager;
+    }
+  }
+
+  /**
+   * Writes the events stored individually in a calendar, as local times in its timezone, so
+   * that a time skipped by a daylight saving change reads back as it was given.
+   *
+   * @param out    the snapshot being written
+   * @param events the events, in the order they were added
+   * @param ids    the dictionary positions of all strings
+   * @throws IOException if the file cannot be written
+   */
+  private static void writeEvents(Output out, List<Event> events, Map<String, Integer> ids)
+      throws IOException {
+    out.writeVarLong(events.size());
+    long previousStart = 0;
+    for (Event event : events) {
+      LocalDateTime start = event.getStart();
+      LocalDateTime end = event.getEnd();
+      out.writeByte((end == null ? ALL_DAY : 0) | (event.isPublic() ? PUBLIC : 0));
+      writeString(out, event.getTitle(), ids);
+      writeString(out, event.getDescription(), ids);
+      writeString(out, event.getLocation(), ids);
+      long startSecond = start.toEpochSecond(ZoneOffset.UTC);
+      out.writeSignedVarLong(startSecond - previousStart);
+      out.writeVarLong(start.getNano());
+      if (end != null) {
+        out.writeSignedVarLong(end.toEpochSecond(ZoneOffset.UTC) - startSecond);
+        out.writeVarLong(end.getNano());
+      }
+      previousStart = startSecond;
+    }
+  }
+
+  /**
+   * Reads the events stored individually in a calendar and adds them to it.
+   *
+   * @param in         the snapshot being read
+   * @param calendar   the calendar to restore the events to
+   * @param dictionary the snapshot's strings
+   * @throws IOException if the file cannot be read
+   */
+  private static void readEvents(Input in, Calendar calendar, String[] dictionary)
+      throws IOException {
+    int count = in.readCount();
+    long previousStart = 0;
+    for (int i = 0; i < count; i++) {
+      int flags = in.readByte();
+      String title = readString(in, dictionary);
+      String description = readString(in, dictionary);
+      String location = readString(in, dictionary);
+      long startSecond = previousStart + in.readSignedVarLong();
+      LocalDateTime start = LocalDateTime.ofEpochSecond(startSecond, (int) in.readVarLong(),
+          ZoneOffset.UTC);
+      LocalDateTime end = null;
+      if ((flags & ALL_DAY) == 0) {
+        end = LocalDateTime.ofEpochSecond(startSecond + in.readSignedVarLong(),
+            (int) in.readVarLong(), ZoneOffset.UTC);
+      }
+      calendar.restoreEvent(title, start, end, description, location, (flags & PUBLIC) != 0);
+      previousStart = startSecond;
+    }
+  }
+
+  /**
+   * Writes the recurring series of a calendar: each rule, its timezone and the dates whose
+   * occurrences are stored as separate events.
+   *
+   * @param out    the snapshot being written
+   * @param series the series, in the order they were added
+   * @param ids    the dictionary positions of all strings
+   * @throws IOException if the file cannot be written
+   */
+  private static void writeSeries(Output out, List<RecurringSeries> series,
+                                  Map<String, Integer> ids) throws IOException {
+    out.writeVarLong(series.size());
+    for (RecurringSeries recurring : series) {
+      RecurringEvent rule = recurring.getRule();
+      LocalDateTime start = rule.getStart();
+      LocalDateTime end = rule.getEnd();
+      Set<DayOfWeek> days = rule.getRecurrenceDays();
+      out.writeByte((rule.isPublic() ? PUBLIC : 0) | (end != null ? HAS_END : 0)
+          | (rule.getOccurrences() != null ? HAS_OCCURRENCES : 0)
+          | (rule.getUntil() != null ? HAS_UNTIL : 0) | (days != null ? HAS_DAYS : 0));
+      writeString(out, rule.getTitle(), ids);
+      writeString(out, rule.getDescription(), ids);
+      writeString(out, rule.getLocation(), ids);
+      out.writeVarLong(ids.get(recurring.getZone().getId()));
+      // Rule times are wall-clock times in the series' zone, written as if they were UTC.
+      long startSecond = start.toEpochSecond(ZoneOffset.UTC);
+      out.writeSignedVarLong(startSecond);
+      out.writeVarLong(start.getNano());
+      if (end != null) {
+        out.writeSignedVarLong(end.toEpochSecond(ZoneOffset.UTC) - startSecond);
+        out.writeVarLong(end.getNano());
+      }
+      if (days != null) {
+        int mask = 0;
+        for (DayOfWeek day : days) {
+          mask |= 1 << (day.getValue() - 1);
+        }
+        out.writeByte(mask);
+      }
+      if (rule.getOccurrences() != null) {
+        out.writeVarLong(rule.getOccurrences());
+      }
+      if (rule.getUntil() != null) {
+        out.writeSignedVarLong(rule.getUntil().toEpochDay());
+      }
+      List<LocalDate> excluded = new ArrayList<>(recurring.getExcluded());
+      excluded.sort(null);
+      out.writeVarLong(excluded.size());
+      long previousDay = 0;
+      for (LocalDate date : excluded) {
+        out.writeSignedVarLong(date.toEpochDay() - previousDay);
+        previousDay = date.toEpochDay();
+      }
+    }
+  }
+
+  /**
+   * Reads the recurring series of a calendar and adds them to it.
+   *
+   * @param in         the snapshot being read
+   * @param calendar   the calendar to restore the series to
+   * @param dictionary the snapshot's strings
+   * @throws IOException if the file cannot be read
+   */
+  private static void readSeries(Input in, Calendar calendar, String[] dictionary)
+      throws IOException {
+    int count = in.readCount();
+    for (int i = 0; i < count; i++) {
+      int flags = in.readByte();
+      String title = readString(in, dictionary);
+      String description = readString(in, dictionary);
+      String location = readString(in, dictionary);
+      ZoneId zone = ZoneId.of(lookup(dictionary, in.readCount()));
+      long startSecond = in.readSignedVarLong();
+      LocalDateTime start = LocalDateTime.ofEpochSecond(startSecond, (int) in.readVarLong(),
+          ZoneOffset.UTC);
+      LocalDateTime end = null;
+      if ((flags & HAS_END) != 0) {
+        end = LocalDateTime.ofEpochSecond(startSecond + in.readSignedVarLong(),
+            (int) in.readVarLong(), ZoneOffset.UTC);
+      }
+      Set<DayOfWeek> days = null;
+      if ((flags & HAS_DAYS) != 0) {
+        int mask = in.readByte();
+        days = EnumSet.noneOf(DayOfWeek.class);
+        for (DayOfWeek day : DayOfWeek.values()) {
+          if ((mask & (1 << (day.getValue() - 1))) != 0) {
+            days.add(day);
+          }
+        }
+      }
+      Integer occurrences = (flags & HAS_OCCURRENCES) != 0 ? in.readCount() : null;
+      LocalDate until = (flags & HAS_UNTIL) != 0
+          ? LocalDate.ofEpochDay(in.readSignedVarLong()) : null;
+      List<LocalDate> excluded = new ArrayList<>();
+      int excludedCount = in.readCount();
+      long day = 0;
+      for (int j = 0; j < excludedCount; j++) {
+        day += in.readSignedVarLong();
+        excluded.add(LocalDate.ofEpochDay(day));
+      }
+      RecurringEvent rule = new RecurringEvent(title, start, end, description, location,
+          (flags & PUBLIC) != 0, days, occurrences, until);
+      calendar.restoreSeries(rule, zone, excluded);
+    }
+  }
+
+  /**
+   * Gives a string a dictionary position if it does not have one yet.
+   *
+   * @param value      the string, may be {@code null}, which is not stored
+   * @param ids        the positions given so far
+   * @param dictionary the strings in position order
+   */
+  private static void intern(String value, Map<String, Integer> ids, List<String> dictionary) {
+    if (value != null && !ids.containsKey(value)) {
+      ids.put(value, dictionary.size());
+      dictionary.add(value);
+    }
+  }
+
+  /**
+   * Writes a reference to a dictionary string: its position plus one, or 0 for
+   * {@code null}.
+   *
+   * @param out   the snapshot being written
+   * @param value the string, may be {@code null}
+   * @param ids   the dictionary positions of all strings
+   * @throws IOException if the file cannot be written
+   */
+  private static void writeString(Output out, String value, Map<String, Integer> ids)
+      throws IOException {
+    out.writeVarLong(value == null ? 0 : ids.get(value) + 1);
+  }
+
+  /**
+   * Reads a reference written by {@link #writeString}.
+   *
+   * @param in         the snapshot being read
+   * @param dictionary the snapshot's strings
+   * @return the string, or {@code null}
+   * @throws IOException if the file cannot be read
+   */
+  private static String readString(Input in, String[] dictionary) throws IOException {
+    int reference = in.readCount();
+    return reference == 0 ? null : lookup(dictionary, reference - 1);
+  }
+
+  /**
+   * Returns the dictionary string at a position read from the snapshot.
+   *
+   * @param dictionary the snapshot's strings
+   * @param id         the position
+   * @return the string
+   * @throws IllegalArgumentException if the position is past the dictionary
+   */
+  private static String lookup(String[] dictionary, int id) {
+    if (id < 0 || id >= dictionary.length) {
+      throw new IllegalArgumentException("Malformed string reference in calendar snapshot: "
+          + id);
+    }
+    return dictionary[id];
+  }
+
+  /**
+   * Buffers bytes on their way to a file and encodes the numbers of the snapshot format.
+   */
+  private static final class Output implements AutoCloseable {
+    private final OutputStream out;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+
+    private Output(OutputStream out) {
+      this.out = out;
+    }
+
+    private void writeByte(int value) throws IOException {
+      if (position == buffer.length) {
+        flush();
+      }
+      buffer[position++] = (byte) value;
+    }
+
+    private void writeInt(int value) throws IOException {
+      for (int shift = 24; shift >= 0; shift -= 8) {
+        writeByte(value >>> shift);
+      }
+    }
+
+    /**
+     * Writes a non-negative number in 7-bit groups, low group first, with the top bit of
+     * each byte set when more groups follow.
+     */
+    private void writeVarLong(long value) throws IOException {
+      while ((value & ~0x7FL) != 0) {
+        writeByte((int) (value & 0x7F) | 0x80);
+        value >>>= 7;
+      }
+      writeByte((int) value);
+    }
+
+    /**
+     * Writes a number that may be negative, mapping small magnitudes of either sign to
+     * small unsigned numbers first.
+     */
+    private void writeSignedVarLong(long value) throws IOException {
+      writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    private void write(byte[] bytes) throws IOException {
+      if (bytes.length > buffer.length - position) {
+        flush();
+        if (bytes.length > buffer.length) {
+          out.write(bytes);
+          return;
+        }
+      }
+      System.arraycopy(bytes, 0, buffer, position, bytes.length);
+      position += bytes.length;
+    }
+
+    private void flush() throws IOException {
+      out.write(buffer, 0, position);
+      position = 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+      try {
+        flush();
+      } finally {
+        out.close();
+      }
+    }
+  }
+
+  /**
+   * Buffers bytes read from a file and decodes the numbers of the snapshot format.
+   */
+  private static final class Input implements AutoCloseable {
+    private final InputStream in;
+    // the length of the file, which bounds every count of bytes or items in it
+    private final long size;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+    private int limit;
+
+    private Input(InputStream in, long size) {
+      this.in = in;
+      this.size = size;
+    }
+
+    private int readByte() throws IOException {
+      if (position == limit) {
+        limit = in.read(buffer, 0, buffer.length);
+        position = 0;
+        if (limit <= 0) {
+          limit = 0;
+          throw new EOFException("Calendar snapshot is truncated");
+        }
+      }
+      return buffer[position++] & 0xFF;
+    }
+
+    private int readInt() throws IOException {
+      int value = 0;
+      for (int i = 0; i < 4; i++) {
+        value = (value << 8) | readByte();
+      }
+      return value;
+    }
+
+    private long readVarLong() throws IOException {
+      long value = 0;
+      for (int shift = 0; shift < 64; shift += 7) {
+        int b = readByte();
+        value |= (long) (b & 0x7F) << shift;
+        if ((b & 0x80) == 0) {
+          return value;
+        }
+      }
+      throw new IllegalArgumentException("Malformed number in calendar snapshot");
+    }
+
+    private long readSignedVarLong() throws IOException {
+      long value = readVarLong();
+      return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Reads a count or position, which must fit in an {@code int}.
+     */
+    private int readCount() throws IOException {
+      long value = readVarLong();
+      if (value < 0 || value > Integer.MAX_VALUE) {
+        throw new IllegalArgumentException("Malformed number in calendar snapshot");
+      }
+      return (int) value;
+    }
+
+    /**
+     * Reads the number of bytes or items that follow, each taking at least a byte, so that a
+     * corrupt count is refused before anything is allocated for it.
+     */
+    private int readSize() throws IOException {
+      int value = readCount();
+      if (value > size) {
+        throw new IllegalArgumentException("Malformed size in calendar snapshot: " + value);
+      }
+      return value;
+    }
+
+    private String readString(int length) throws IOException {
+      if (length <= limit - position) {
+        String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+      }
+      byte[] bytes = new byte[length];
+      for (int i = 0; i < length; i++) {
+        bytes[i] = (byte) readByte();
+      }
+      return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() throws IOException {
+      in.close();
+    }
+  }
+}
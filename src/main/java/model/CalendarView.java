@@ -0,0 +1,315 @@
+package model;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A read-only picture of a calendar's events at one moment, answering the calendar's time
+ * queries and its export. A view never changes once built, so any number of threads can
+ * read it without locking while the calendar moves on; the calendar publishes a new view
+ * after each change instead.
+ *
+ * <p>Views share almost all of their structure: events are kept in
+ * {@link PersistentIntervalTree}s, so a change to one event costs a view O(log n) new
+ * nodes. The events in a view are frozen copies that cannot be changed. Recurring series
+ * are copied whole whenever one of them changes, as a calendar has few of them.
+ */
+final class CalendarView {
+  private final ZoneId zone;
+  // frozen events by the span of their instants, as in the calendar's time index
+  private final PersistentIntervalTree<Event> byTime;
+  // the same events in the order they were added to the calendar
+  private final PersistentIntervalTree<Event> byOrder;
+  private final List<RecurringSeries> series;
+  // built once per view and never changed after
+  private final IntervalTree<RecurringSeries> seriesIndex;
+
+  private CalendarView(ZoneId zone, PersistentIntervalTree<Event> byTime,
+                       PersistentIntervalTree<Event> byOrder, List<RecurringSeries> series,
+                       IntervalTree<RecurringSeries> seriesIndex) {
+    this.zone = zone;
+    this.byTime = byTime;
+    this.byOrder = byOrder;
+    this.series = series;
+    this.seriesIndex = seriesIndex;
+  }
+
+  /**
+   * An event copied out of a calendar into a view. It cannot be changed, since every
+   * reader of the view shares it.
+   */
+  private static final class FrozenEvent extends Event {
+    private FrozenEvent(Event event) {
+      super(event.getTitle(), event.getStart(), event.getEnd(), event.getDescription(),
+          event.getLocation(), event.isPublic());
+    }
+
+    @Override
+    public void setTitle(String title) {
+      throw new UnsupportedOperationException("Events read from a view cannot be changed");
+    }
+
+    @Override
+    public void setStart(LocalDateTime start) {
+      throw new UnsupportedOperationException("Events read from a view cannot be changed");
+    }
+
+    @Override
+    public void setEnd(LocalDateTime end) {
+      throw new UnsupportedOperationException("Events read from a view cannot be changed");
+    }
+
+    @Override
+    public void setDescription(String description) {
+      throw new UnsupportedOperationException("Events read from a view cannot be changed");
+    }
+
+    @Override
+    public void setLocation(String location) {
+      throw new UnsupportedOperationException("Events read from a view cannot be changed");
+    }
+
+    @Override
+    public void setPublic(boolean isPublic) {
+      throw new UnsupportedOperationException("Events read from a view cannot be changed");
+    }
+  }
+
+  /**
+   * Retrieves the events listed on a date, as {@link Calendar#getEventsOnDate} does.
+   *
+   * @param date the date to query
+   * @return the events active on the date, ordered by start time
+   */
+  List<AbstractEvent> getEventsOnDate(LocalDate date) {
+    long day = date.toEpochDay();
+    LocalDateTime from = date.atStartOfDay();
+    LocalDateTime to = date.plusDays(1).atStartOfDay();
+    List<Event> candidates = new ArrayList<>();
+    byTime.query(Calendar.lowerKey(from, zone), Calendar.upperKey(to, zone), candidates);
+    candidates.addAll(occurrencesBetween(from, to));
+    List<AbstractEvent> result = new ArrayList<>();
+    for (Event event : candidates) {
+      if (Calendar.firstDayOf(event) <= day && day <= Calendar.lastDayOf(event)) {
+        result.add(event);
+      }
+    }
+    result.sort(Comparator.comparing(AbstractEvent::getStart));
+    return result;
+  }
+
+  /**
+   * Retrieves the events overlapping a time range, as {@link Calendar#getEventsBetween}
+   * does.
+   *
+   * @param start the start of the time range (inclusive)
+   * @param end   the end of the time range (inclusive)
+   * @return the events overlapping the range, ordered by start time
+   */
+  List<AbstractEvent> getEventsBetween(LocalDateTime start, LocalDateTime end) {
+    List<Event> candidates = new ArrayList<>();
+    byTime.query(Calendar.lowerKey(start, zone), Calendar.upperKey(end, zone), candidates);
+    candidates.addAll(occurrencesBetween(start, end));
+    return Calendar.overlapping(candidates, start, end);
+  }
+
+  /**
+   * Checks whether any event is scheduled at a time, as {@link Calendar#isBusyAt} does.
+   *
+   * @param time the time to check
+   * @return {@code true} if an event covers the time
+   */
+  boolean isBusyAt(LocalDateTime time) {
+    if (byTime.findFirst(Calendar.lowerKey(time, zone), Calendar.upperKey(time, zone), time,
+        Calendar.BUSY_AT) != null) {
+      return true;
+    }
+    long key = Calendar.toKey(time);
+    return seriesIndex.findFirst(key, key, recurring -> recurring.isBusyAt(time, zone))
+        != null;
+  }
+
+  /**
+   * Writes every event to a CSV file, as {@link Calendar#exportToCSV} does: stored events
+   * in the order they were added, then the occurrences of each recurring series.
+   *
+   * @param csv the file to write to
+   * @throws IOException if the file cannot be written
+   */
+  void export(CsvExport csv) throws IOException {
+    try {
+      byOrder.forEach(event -> {
+        try {
+          csv.write(event);
+        } catch (IOException e) {
+          throw new WriteFailure(e);
+        }
+      });
+    } catch (WriteFailure e) {
+      throw e.getCause();
+    }
+    for (RecurringSeries recurring : series) {
+      for (Event occurrence : recurring.allOccurrences(zone)) {
+        csv.write(occurrence);
+      }
+    }
+  }
+
+  /**
+   * Carries a write error out of the tree walk in {@link #export}.
+   */
+  private static final class WriteFailure extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private WriteFailure(IOException cause) {
+      super(cause);
+    }
+
+    @Override
+    public synchronized IOException getCause() {
+      return (IOException) super.getCause();
+    }
+  }
+
+  /**
+   * Generates the occurrences of the view's recurring series whose span touches a range.
+   *
+   * @param from the start of the range (inclusive)
+   * @param to   the end of the range (inclusive)
+   * @return the occurrences
+   */
+  private List<Event> occurrencesBetween(LocalDateTime from, LocalDateTime to) {
+    List<RecurringSeries> candidates = new ArrayList<>();
+    seriesIndex.query(Calendar.toKey(from), Calendar.toKey(to), candidates);
+    List<Event> result = new ArrayList<>();
+    for (RecurringSeries recurring : candidates) {
+      result.addAll(recurring.occurrencesBetween(from, to, zone));
+    }
+    return result;
+  }
+
+  /**
+   * Keeps the next view of a calendar up to date as the calendar changes, and builds views
+   * from it. Used only by the calendar, under whatever guards the calendar's changes.
+   */
+  static final class Builder {
+    private PersistentIntervalTree<Event> byTime;
+    private PersistentIntervalTree<Event> byOrder;
+    // where each stored event's copy sits in the trees
+    private final Map<Event, Entry> entries;
+    private long nextOrder;
+    // copies of the series for the last view built, or null if they have changed since
+    private List<RecurringSeries> frozenSeries;
+    private IntervalTree<RecurringSeries> frozenSeriesIndex;
+
+    /**
+     * The copy of one stored event and the keys it is filed under.
+     */
+    private static final class Entry {
+      private final long order;
+      private long low;
+      private boolean present;
+
+      private Entry(long order) {
+        this.order = order;
+      }
+    }
+
+    /**
+     * Constructs a builder for a calendar with no events.
+     */
+    Builder() {
+      byTime = PersistentIntervalTree.empty();
+      byOrder = PersistentIntervalTree.empty();
+      entries = new IdentityHashMap<>();
+    }
+
+    /**
+     * Forgets every event, before they are all put back, for example after the calendar's
+     * timezone changed and every copy has to be taken again.
+     */
+    void clear() {
+      byTime = PersistentIntervalTree.empty();
+      byOrder = PersistentIntervalTree.empty();
+      entries.clear();
+      nextOrder = 0;
+      frozenSeries = null;
+    }
+
+    /**
+     * Adds a copy of a stored event, or replaces its copy after it was removed for an edit.
+     * An event keeps its place in the order it was first added.
+     *
+     * @param event the stored event
+     * @param low   the low key it is indexed under in the calendar
+     * @param high  the high key it is indexed under in the calendar
+     */
+    void put(Event event, long low, long high) {
+      Entry entry = entries.get(event);
+      if (entry == null) {
+        entry = new Entry(nextOrder++);
+        entries.put(event, entry);
+      } else if (entry.present) {
+        remove(event);
+      }
+      Event frozen = new FrozenEvent(event);
+      byTime = byTime.insert(low, high, entry.order, frozen);
+      byOrder = byOrder.insert(entry.order, entry.order, entry.order, frozen);
+      entry.low = low;
+      entry.present = true;
+    }
+
+    /**
+     * Removes the copy of a stored event.
+     *
+     * @param event the stored event
+     */
+    void remove(Event event) {
+      Entry entry = entries.get(event);
+      if (entry == null || !entry.present) {
+        return;
+      }
+      byTime = byTime.remove(entry.low, entry.order);
+      byOrder = byOrder.remove(entry.order, entry.order);
+      entry.present = false;
+    }
+
+    /**
+     * Notes that a recurring series was added or changed, so the next view takes new copies.
+     */
+    void seriesChanged() {
+      frozenSeries = null;
+    }
+
+    /**
+     * Builds a view of the events put so far.
+     *
+     * @param zone   the calendar's timezone
+     * @param series the calendar's recurring series
+     * @return the view
+     */
+    CalendarView build(ZoneId zone, List<RecurringSeries> series) {
+      if (frozenSeries == null) {
+        List<RecurringSeries> copies = new ArrayList<>(series.size());
+        IntervalTree<RecurringSeries> index = new IntervalTree<>();
+        for (RecurringSeries recurring : series) {
+          RecurringSeries copy = new RecurringSeries(recurring);
+          copies.add(copy);
+          index.insert(Calendar.toKey(copy.getEarliestStart()),
+              Calendar.toKey(copy.getLatestEnd()), copy);
+        }
+        frozenSeries = Collections.unmodifiableList(copies);
+        frozenSeriesIndex = index;
+      }
+      return new CalendarView(zone, byTime, byOrder, frozenSeries, frozenSeriesIndex);
+    }
+  }
+}
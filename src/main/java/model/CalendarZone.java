@@ -0,0 +1,39 @@
+package model;
+
+import java.time.ZoneId;
+
+/**
+ * The timezone of a calendar, shared with every event stored in it. Stored events keep the
+ * local times they were given along with the zone they were given in, and read them through
+ * this object, so changing the zone here moves all of them at once.
+ */
+final class CalendarZone {
+  private ZoneId zone;
+
+  /**
+   * Constructs a shared timezone.
+   *
+   * @param zone the initial timezone
+   */
+  CalendarZone(ZoneId zone) {
+    this.zone = zone;
+  }
+
+  /**
+   * Returns the current timezone.
+   *
+   * @return the timezone events are read in
+   */
+  ZoneId get() {
+    return zone;
+  }
+
+  /**
+   * Changes the timezone events are read in.
+   *
+   * @param zone the new timezone
+   */
+  void set(ZoneId zone) {
+    this.zone = zone;
+  }
+}
@@ -0,0 +1,417 @@
+package model;
+
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+
+/**
+ * A calendar that keeps its events in parallel primitive arrays instead of one object per
+ * event: start and end as epoch seconds, all-day and public flags in a byte per event, and
+ * title, description and location as ids into a shared string dictionary. Events handed out
+ * by the {@link ICalendar} methods are lightweight views onto a row of those arrays;
+ * changing a view changes the stored event.
+ *
+ * <p>Times are kept to the second. Recurring events are stored as their individual
+ * occurrences.
+ */
+public class ColumnarCalendar extends RowCalendar {
+  private static final int INITIAL_CAPACITY = 16;
+  // pending rows are merged into the sorted order once there are more than this many, or
+  // more than an eighth of the sorted rows
+  private static final int MERGE_THRESHOLD = 1024;
+  // rows spanning longer than this are kept out of the sorted order
+  private static final long MAX_SORTED_SPAN_SECONDS = 2 * 86_400L;
+
+  private static final byte ALL_DAY = 1;
+  private static final byte PUBLIC = 2;
+  private static final byte LONG = 4;
+  private static final byte PENDING = 8;
+  // RowCalendar's skipped bits, shifted past the flags above
+  private static final int SKIPPED_SHIFT = 4;
+  private static final int SKIPPED = (START_SKIPPED | END_SKIPPED) << SKIPPED_SHIFT;
+
+  private final StringDictionary strings;
+
+  private int size;
+  private long[] starts;
+  private long[] ends;
+  private byte[] flags;
+  private int[] titleIds;
+  private int[] descriptionIds;
+  private int[] locationIds;
+  // each row's position in its title's list of rows
+  private int[] titlePositions;
+
+  // the rows of each title, by title id plus one so that null titles have a list too
+  private IntList[] titleRows;
+
+  // rows sorted by start, plus rows added or moved since the last merge, also sorted by start
+  private int[] order;
+  private int orderSize;
+  private final IntList pending;
+  // rows that end before they start or span too long to be found through the order
+  private final IntList longRows;
+  // the longest span of any row in the order or pending
+  private long maxSpan;
+
+  /**
+   * Constructs an empty columnar calendar with the given name and timezone.
+   *
+   * @param name     unique calendar name
+   * @param tzString timezone in IANA format (e.g., "America/New_York")
+   */
+  public ColumnarCalendar(String name, String tzString) {
+    super(name, ZoneId.of(tzString));
+    strings = new StringDictionary();
+    starts = new long[INITIAL_CAPACITY];
+    ends = new long[INITIAL_CAPACITY];
+    flags = new byte[INITIAL_CAPACITY];
+    titleIds = new int[INITIAL_CAPACITY];
+    descriptionIds = new int[INITIAL_CAPACITY];
+    locationIds = new int[INITIAL_CAPACITY];
+    titlePositions = new int[INITIAL_CAPACITY];
+    titleRows = new IntList[INITIAL_CAPACITY];
+    order = new int[INITIAL_CAPACITY];
+    pending = new IntList();
+    longRows = new IntList();
+  }
+
+  /**
+   * A growable list of {@code int} row numbers.
+   */
+  private static final class IntList {
+    private int[] data = new int[INITIAL_CAPACITY];
+    private int size;
+
+    private void add(int value) {
+      insert(size, value);
+    }
+
+    private void insert(int index, int value) {
+      if (size == data.length) {
+        data = Arrays.copyOf(data, size * 2);
+      }
+      System.arraycopy(data, index, data, index + 1, size - index);
+      data[index] = value;
+      size++;
+    }
+
+    private void remove(int value) {
+      for (int i = 0; i < size; i++) {
+        if (data[i] == value) {
+          data[i] = data[--size];
+          return;
+        }
+      }
+    }
+
+    private void removeAt(int index) {
+      System.arraycopy(data, index + 1, data, index, size - index - 1);
+      size--;
+    }
+  }
+
+  @Override
+  int rowCount() {
+    return size;
+  }
+
+  @Override
+  long startAt(int row) {
+    return starts[row];
+  }
+
+  @Override
+  long endAt(int row) {
+    return ends[row];
+  }
+
+  @Override
+  boolean allDayAt(int row) {
+    return (flags[row] & ALL_DAY) != 0;
+  }
+
+  @Override
+  int skippedAt(int row) {
+    return (flags[row] & SKIPPED) >> SKIPPED_SHIFT;
+  }
+
+  @Override
+  boolean publicAt(int row) {
+    return (flags[row] & PUBLIC) != 0;
+  }
+
+  @Override
+  String titleAt(int row) {
+    return strings.get(titleIds[row]);
+  }
+
+  @Override
+  String descriptionAt(int row) {
+    return strings.get(descriptionIds[row]);
+  }
+
+  @Override
+  String locationAt(int row) {
+    return strings.get(locationIds[row]);
+  }
+
+  @Override
+  void storeTitle(int row, String title) {
+    int previous = titleIds[row];
+    removeTitleRow(row);
+    titleIds[row] = strings.intern(title);
+    addTitleRow(row);
+    strings.release(previous);
+  }
+
+  @Override
+  void storeDescription(int row, String description) {
+    int previous = descriptionIds[row];
+    descriptionIds[row] = strings.intern(description);
+    strings.release(previous);
+  }
+
+  @Override
+  void storeLocation(int row, String location) {
+    int previous = locationIds[row];
+    locationIds[row] = strings.intern(location);
+    strings.release(previous);
+  }
+
+  @Override
+  void storePublic(int row, boolean isPublic) {
+    if (isPublic) {
+      flags[row] |= PUBLIC;
+    } else {
+      flags[row] &= ~PUBLIC;
+    }
+  }
+
+  @Override
+  void storeTimes(int row, long start, long end, boolean allDay, int skipped) {
+    unplace(row);
+    starts[row] = start;
+    ends[row] = end;
+    int rowFlags = flags[row] & ~(ALL_DAY | SKIPPED);
+    flags[row] = (byte) (rowFlags | (allDay ? ALL_DAY : 0) | skipped << SKIPPED_SHIFT);
+    place(row);
+  }
+
+  @Override
+  void appendRow(long start, long end, boolean allDay, int skipped, boolean isPublic,
+                 String title, String description, String location) {
+    if (size == starts.length) {
+      int capacity = size + (size >> 1);
+      starts = Arrays.copyOf(starts, capacity);
+      ends = Arrays.copyOf(ends, capacity);
+      flags = Arrays.copyOf(flags, capacity);
+      titleIds = Arrays.copyOf(titleIds, capacity);
+      descriptionIds = Arrays.copyOf(descriptionIds, capacity);
+      locationIds = Arrays.copyOf(locationIds, capacity);
+      titlePositions = Arrays.copyOf(titlePositions, capacity);
+    }
+    int row = size++;
+    starts[row] = start;
+    ends[row] = end;
+    flags[row] = (byte) ((allDay ? ALL_DAY : 0) | (isPublic ? PUBLIC : 0)
+        | skipped << SKIPPED_SHIFT);
+    titleIds[row] = strings.intern(title);
+    descriptionIds[row] = strings.intern(description);
+    locationIds[row] = strings.intern(location);
+    addTitleRow(row);
+    place(row);
+  }
+
+  /**
+   * Passes on the rows that may overlap [from, to]. Rows in the sorted order and pending
+   * rows are both found by binary search; long rows are checked one by one.
+   *
+   * @param from the start of the range in epoch seconds (inclusive)
+   * @param to   the end of the range in epoch seconds (inclusive)
+   * @param rows receives the rows
+   */
+  @Override
+  void collectRows(long from, long to, IntConsumer rows) {
+    // Sorted rows can start at most maxSpan before the range and still reach it.
+    long earliest = from < Long.MIN_VALUE + maxSpan ? Long.MIN_VALUE : from - maxSpan;
+    for (int i = firstAtOrAfter(order, orderSize, earliest);
+         i < orderSize && starts[order[i]] <= to; i++) {
+      rows.accept(order[i]);
+    }
+    int[] added = pending.data;
+    for (int i = firstAtOrAfter(added, pending.size, earliest);
+         i < pending.size && starts[added[i]] <= to; i++) {
+      rows.accept(added[i]);
+    }
+    for (int i = 0; i < longRows.size; i++) {
+      rows.accept(longRows.data[i]);
+    }
+  }
+
+  /**
+   * Passes on the rows with the given title, from the list kept for each title id.
+   *
+   * @param title the title to look for
+   * @param rows  receives the rows
+   */
+  @Override
+  void collectTitled(String title, IntConsumer rows) {
+    int titleId = strings.find(title);
+    if (titleId == StringDictionary.MISSING_ID || titleId + 1 >= titleRows.length
+        || titleRows[titleId + 1] == null) {
+      return;
+    }
+    IntList titled = titleRows[titleId + 1];
+    for (int i = 0; i < titled.size; i++) {
+      rows.accept(titled.data[i]);
+    }
+  }
+
+  /**
+   * Compares title ids, so matching a title never reads the strings themselves.
+   *
+   * @param title the title to look for
+   * @return the test
+   */
+  @Override
+  IntPredicate titleMatcher(String title) {
+    int titleId = strings.find(title);
+    if (titleId == StringDictionary.MISSING_ID) {
+      return row -> false;
+    }
+    return row -> titleIds[row] == titleId;
+  }
+
+  /**
+   * Adds a row to the list of rows with its title.
+   *
+   * @param row the row
+   */
+  private void addTitleRow(int row) {
+    int slot = titleIds[row] + 1;
+    if (slot >= titleRows.length) {
+      titleRows = Arrays.copyOf(titleRows, Math.max(slot + 1, titleRows.length * 2));
+    }
+    if (titleRows[slot] == null) {
+      titleRows[slot] = new IntList();
+    }
+    titlePositions[row] = titleRows[slot].size;
+    titleRows[slot].add(row);
+  }
+
+  /**
+   * Removes a row from the list of rows with its title, before its title changes. The last
+   * row of the list takes its place.
+   *
+   * @param row the row
+   */
+  private void removeTitleRow(int row) {
+    IntList titled = titleRows[titleIds[row] + 1];
+    int position = titlePositions[row];
+    int last = titled.data[--titled.size];
+    titled.data[position] = last;
+    titlePositions[last] = position;
+  }
+
+  /**
+   * Makes a row findable: long or backwards rows go to the long list, all others to the
+   * pending list, kept sorted by start, which is merged into the sorted order once it grows
+   * large enough.
+   *
+   * @param row the row to place
+   */
+  private void place(int row) {
+    long span = highAt(row) - lowAt(row);
+    if (starts[row] != lowAt(row) || span > MAX_SORTED_SPAN_SECONDS) {
+      flags[row] |= LONG;
+      longRows.add(row);
+      return;
+    }
+    maxSpan = Math.max(maxSpan, span);
+    flags[row] |= PENDING;
+    // After every pending row with the same start, so ties stay in the order they came.
+    pending.insert(firstAtOrAfter(pending.data, pending.size, starts[row] + 1), row);
+    if (pending.size > Math.max(MERGE_THRESHOLD, orderSize >> 3)) {
+      mergePending();
+    }
+  }
+
+  /**
+   * Removes a row from wherever {@link #place} put it, before its times change.
+   *
+   * @param row the row to remove
+   */
+  private void unplace(int row) {
+    if ((flags[row] & LONG) != 0) {
+      flags[row] &= ~LONG;
+      longRows.remove(row);
+      return;
+    }
+    if ((flags[row] & PENDING) != 0) {
+      flags[row] &= ~PENDING;
+      for (int i = firstAtOrAfter(pending.data, pending.size, starts[row]); ; i++) {
+        if (pending.data[i] == row) {
+          pending.removeAt(i);
+          return;
+        }
+      }
+    }
+    for (int i = firstAtOrAfter(order, orderSize, starts[row]); i < orderSize; i++) {
+      if (order[i] == row) {
+        System.arraycopy(order, i + 1, order, i, orderSize - i - 1);
+        orderSize--;
+        return;
+      }
+    }
+  }
+
+  /**
+   * Merges the pending rows, already sorted by start, into the sorted order.
+   */
+  private void mergePending() {
+    int[] added = Arrays.copyOf(pending.data, pending.size);
+    int[] merged = new int[Math.max(INITIAL_CAPACITY, orderSize + added.length)];
+    int i = 0;
+    int j = 0;
+    int k = 0;
+    while (i < orderSize || j < added.length) {
+      // Ties keep rows already in the order first.
+      if (j == added.length || (i < orderSize && starts[order[i]] <= starts[added[j]])) {
+        merged[k++] = order[i++];
+      } else {
+        merged[k++] = added[j++];
+      }
+    }
+    for (int row : added) {
+      flags[row] &= ~PENDING;
+    }
+    order = merged;
+    orderSize = k;
+    pending.size = 0;
+  }
+
+  /**
+   * Returns the position of the first row starting at or after a time, in rows sorted by
+   * start.
+   *
+   * @param rows  the sorted rows
+   * @param count the number of rows
+   * @param epoch the time in epoch seconds
+   * @return the position, or {@code count} if every row starts earlier
+   */
+  private int firstAtOrAfter(int[] rows, int count, long epoch) {
+    int lo = 0;
+    int hi = count;
+    while (lo < hi) {
+      int mid = (lo + hi) >>> 1;
+      if (starts[rows[mid]] < epoch) {
+        lo = mid + 1;
+      } else {
+        hi = mid;
+      }
+    }
+    return lo;
+  }
+}
@@ -0,0 +1,741 @@
+package model;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+
+/**
+ * A calendar manager that many threads can use at once. Calendars are kept in a concurrent
+ * map, and each calendar is guarded by its own {@link StampedLock}: changes take the write
+ * lock, while the queries that dominate a shared calendar ({@link ICalendar#getEventsOnDate},
+ * {@link ICalendar#getEventsBetween} and {@link ICalendar#isBusyAt}) first run without any
+ * lock and only take the read lock if a change overlapped them.
+ *
+ * <p>Where queries far outnumber changes, the manager can instead be built with snapshot
+ * reads ({@link Calendar#enableSnapshotReads}): each change then publishes an immutable view
+ * of its calendar, and the time queries and CSV export read the latest view without any
+ * lock, so they neither wait for changes nor hold them up.
+ *
+ * <p>The calendar in use is not shared: each thread has its own, as if each thread were a
+ * separate session. A thread starts with no calendar in use, and the first calendar it
+ * creates becomes its calendar in use, as with {@link CalendarManager}. Clients whose work
+ * moves between threads, such as requests handled by a pool, should each keep a
+ * {@link CalendarSession} instead.
+ *
+ * <p>Calendars reached through {@link #getAllCalendars} and {@link #getAllCalendarsMap} are
+ * the unguarded calendars and are meant for reading while no other thread changes them.
+ * Events returned by the queries are the stored events themselves, as in {@link Calendar};
+ * they must not be changed directly while other threads use the calendar. With snapshot
+ * reads the time queries return read-only copies instead.
+ */
+public class ConcurrentCalendarManager implements ICalendarManager {
+  private final Map<String, LockedCalendar> calendars;
+  // the calendar in use by each thread
+  private final ThreadLocal<LockedCalendar> currentCalendar;
+  private final boolean snapshotReads;
+
+  /**
+   * Constructs a manager with no calendars, whose queries read optimistically.
+   */
+  public ConcurrentCalendarManager() {
+    this(false);
+  }
+
+  /**
+   * Constructs a manager with no calendars.
+   *
+   * @param snapshotReads if {@code true}, calendars publish immutable views that the time
+   *                      queries and export read without locking
+   */
+  public ConcurrentCalendarManager(boolean snapshotReads) {
+    calendars = new ConcurrentHashMap<>();
+    currentCalendar = new ThreadLocal<>();
+    this.snapshotReads = snapshotReads;
+  }
+
+  /**
+   * Creates a new calendar with a unique name and timezone. If the calling thread has no
+   * calendar in use yet, the new calendar becomes its calendar in use.
+   *
+   * @param name     unique name for the calendar
+   * @param timezone IANA timezone string (e.g., "America/New_York")
+   * @return true if the calendar was created
+   * @throws IllegalArgumentException if the name is taken or the timezone is invalid
+   */
+  @Override
+  public boolean createCalendar(String name, String timezone) {
+    try {
+      ZoneId.of(timezone);
+    } catch (Exception e) {
+      throw new IllegalArgumentException(e);
+    }
+    Calendar calendar = new Calendar(name, timezone);
+    if (snapshotReads) {
+      calendar.enableSnapshotReads();
+    }
+    LockedCalendar cal = new LockedCalendar(calendar, snapshotReads);
+    if (calendars.putIfAbsent(name, cal) != null) {
+      throw new IllegalArgumentException("Calendar with the name '" + name + "' already exists.");
+    }
+    if (currentCalendar.get() == null) {
+      currentCalendar.set(cal);
+    }
+    return true;
+  }
+
+  /**
+   * Edits an existing calendar's name or timezone. A timezone change keeps the instants of
+   * the calendar's events, as with {@link CalendarManager#editCalendar}.
+   *
+   * @param calendarName the name of the calendar to edit
+   * @param property     property to edit ("name" or "timezone")
+   * @param newValue     new value for the property
+   * @return true if the calendar was updated; false if the property is unknown
+   * @throws IllegalArgumentException if the calendar does not exist, the new name is taken
+   *                                  or the timezone is invalid
+   */
+  @Override
+  public boolean editCalendar(String calendarName, String property, String newValue) {
+    LockedCalendar cal = calendars.get(calendarName);
+    if (cal == null) {
+      throw new IllegalArgumentException("Calendar not found");
+    }
+
+    if (property.equalsIgnoreCase("name")) {
+      // Holding the calendar's write lock keeps concurrent renames of it in order.
+      long stamp = cal.lock.writeLock();
+      try {
+        if (calendars.get(calendarName) != cal) {
+          throw new IllegalArgumentException("Calendar not found");
+        }
+        if (calendars.putIfAbsent(newValue, cal) != null) {
+          throw new IllegalArgumentException("Calendar with name '" + newValue
+              + "' already exists");
+        }
+        calendars.remove(calendarName);
+        cal.calendar.setName(newValue);
+      } finally {
+        cal.lock.unlockWrite(stamp);
+      }
+      return true;
+    } else if (property.equalsIgnoreCase("timezone")) {
+      ZoneId newZoneId;
+      try {
+        newZoneId = ZoneId.of(newValue);
+      } catch (Exception e) {
+        throw new IllegalArgumentException("Invalid timezone: " + newValue, e);
+      }
+      long stamp = cal.lock.writeLock();
+      try {
+        cal.calendar.convertTimezone(newZoneId);
+      } finally {
+        cal.lock.unlockWrite(stamp);
+      }
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Sets the calling thread's calendar in use.
+   *
+   * @param name name of the calendar to use
+   * @return true if the calendar exists and is set
+   * @throws IllegalArgumentException if there is no such calendar
+   */
+  @Override
+  public boolean useCalendar(String name) {
+    LockedCalendar cal = calendars.get(name);
+    if (cal == null) {
+      throw new IllegalArgumentException("Calendar not found: " + name);
+    }
+    currentCalendar.set(cal);
+    return true;
+  }
+
+  /**
+   * Returns the calling thread's calendar in use.
+   *
+   * @return the calendar, or null if the thread has none
+   */
+  @Override
+  public ICalendar getCurrentCalendar() {
+    return currentCalendar.get();
+  }
+
+  /**
+   * Retrieves a calendar by name.
+   *
+   * @param name the calendar's name
+   * @return the calendar, or null if not found
+   */
+  @Override
+  public ICalendar getCalendar(String name) {
+    return calendars.get(name);
+  }
+
+  /**
+   * Returns the calendars as they are at the time of the call.
+   *
+   * @return the unguarded calendars
+   */
+  @Override
+  public Collection<Calendar> getAllCalendars() {
+    return getAllCalendarsMap().values();
+  }
+
+  /**
+   * Returns the calendars by name as they are at the time of the call.
+   *
+   * @return the unguarded calendars by name, as a read-only map
+   */
+  @Override
+  public Map<String, Calendar> getAllCalendarsMap() {
+    Map<String, Calendar> all = new LinkedHashMap<>();
+    for (Map.Entry<String, LockedCalendar> entry : calendars.entrySet()) {
+      all.put(entry.getKey(), entry.getValue().calendar);
+    }
+    return Collections.unmodifiableMap(all);
+  }
+
+  /**
+   * Copies a single event from the calling thread's calendar in use to another calendar,
+   * as {@link CalendarManager#copyEvent} does. The target is checked and changed under its
+   * write lock, so the copy cannot race another change to it.
+   *
+   * @param eventName          the event title to copy
+   * @param eventStart         the start time of the event in the current calendar
+   * @param targetCalendarName the name of the target calendar
+   * @param newTargetStart     the start time of the copy in the target calendar
+   * @return true if the event was copied
+   * @throws IllegalStateException    if no calendar is in use or the copy would conflict
+   * @throws IllegalArgumentException if the target calendar or the event does not exist
+   */
+  @Override
+  public boolean copyEvent(String eventName, LocalDateTime eventStart,
+                           String targetCalendarName, LocalDateTime newTargetStart) {
+    return copyEvent(current(), eventName, eventStart, targetCalendarName, newTargetStart);
+  }
+
+  /**
+   * Copies a single event from a named calendar to another calendar, as
+   * {@link #copyEvent(String, LocalDateTime, String, LocalDateTime)} does from the calling
+   * thread's calendar in use.
+   *
+   * @param sourceCalendarName the name of the calendar to copy from
+   * @param eventName          the event title to copy
+   * @param eventStart         the start time of the event in the source calendar
+   * @param targetCalendarName the name of the target calendar
+   * @param newTargetStart     the start time of the copy in the target calendar
+   * @return true if the event was copied
+   * @throws IllegalStateException    if the copy would conflict
+   * @throws IllegalArgumentException if either calendar or the event does not exist
+   */
+  @Override
+  public boolean copyEvent(String sourceCalendarName, String eventName, LocalDateTime eventStart,
+                           String targetCalendarName, LocalDateTime newTargetStart) {
+    return copyEvent(source(sourceCalendarName), eventName, eventStart, targetCalendarName,
+        newTargetStart);
+  }
+
+  /**
+   * Copies a single event from one calendar to another, checking and changing the target
+   * under its write lock.
+   *
+   * @param source             the calendar to copy from
+   * @param eventName          the event title to copy
+   * @param eventStart         the start time of the event in the source calendar
+   * @param targetCalendarName the name of the target calendar
+   * @param newTargetStart     the start time of the copy in the target calendar
+   * @return true if the event was copied
+   */
+  private boolean copyEvent(LockedCalendar source, String eventName, LocalDateTime eventStart,
+                            String targetCalendarName, LocalDateTime newTargetStart) {
+    LockedCalendar target = target(targetCalendarName);
+    AbstractEvent toCopy = source.findEvent(eventName, eventStart);
+    if (toCopy == null) {
+      throw new IllegalArgumentException("Event not found: " + eventName + " at " + eventStart);
+    }
+    Event copiedEvent = CalendarManager.copyOf(toCopy, newTargetStart);
+    long stamp = target.lock.writeLock();
+    try {
+      if (target.calendar.isBusyAt(newTargetStart)) {
+        throw new IllegalStateException("The target calendar already "
+            + "has an event at the specified time");
+      }
+      target.calendar.addEvent(copiedEvent, true);
+    } finally {
+      target.lock.unlockWrite(stamp);
+    }
+    return true;
+  }
+
+  /**
+   * Copies all events on a date from the calling thread's calendar in use to another
+   * calendar, as {@link CalendarManager#copyEventsOn} does.
+   *
+   * @param sourceDate         the date whose events are copied
+   * @param targetCalendarName the target calendar name
+   * @param targetDate         the date in the target calendar matching the source date
+   * @return true if at least one event was copied
+   * @throws IllegalStateException    if no calendar is in use, nothing was copied or a copy
+   *                                  would conflict
+   * @throws IllegalArgumentException if the target calendar does not exist
+   */
+  @Override
+  public boolean copyEventsOn(LocalDate sourceDate, String targetCalendarName,
+                              LocalDate targetDate) {
+    return copyEventsOn(current(), sourceDate, targetCalendarName, targetDate);
+  }
+
+  /**
+   * Copies all events on a date from a named calendar to another calendar, as
+   * {@link #copyEventsOn(LocalDate, String, LocalDate)} does from the calling thread's
+   * calendar in use.
+   *
+   * @param sourceCalendarName the name of the calendar to copy from
+   * @param sourceDate         the date whose events are copied
+   * @param targetCalendarName the target calendar name
+   * @param targetDate         the date in the target calendar matching the source date
+   * @return true if at least one event was copied
+   * @throws IllegalStateException    if nothing was copied or a copy would conflict
+   * @throws IllegalArgumentException if either calendar does not exist
+   */
+  @Override
+  public boolean copyEventsOn(String sourceCalendarName, LocalDate sourceDate,
+                              String targetCalendarName, LocalDate targetDate) {
+    return copyEventsOn(source(sourceCalendarName), sourceDate, targetCalendarName,
+        targetDate);
+  }
+
+  /**
+   * Copies all events on a date from one calendar to another.
+   *
+   * @param source             the calendar to copy from
+   * @param sourceDate         the date whose events are copied
+   * @param targetCalendarName the target calendar name
+   * @param targetDate         the date in the target calendar matching the source date
+   * @return true if at least one event was copied
+   */
+  private boolean copyEventsOn(LockedCalendar source, LocalDate sourceDate,
+                               String targetCalendarName, LocalDate targetDate) {
+    LockedCalendar target = target(targetCalendarName);
+    if (copyDays(source, sourceDate, sourceDate, target, targetDate) == 0) {
+      throw new IllegalStateException("Failed to copy any events from "
+          + sourceDate + " to " + targetDate);
+    }
+    return true;
+  }
+
+  /**
+   * Copies all events between two dates from the calling thread's calendar in use to
+   * another calendar, as {@link CalendarManager#copyEventsBetween} does.
+   *
+   * @param sourceStartDate    the start date of the source interval
+   * @param sourceEndDate      the end date of the source interval
+   * @param targetCalendarName the target calendar name
+   * @param targetStartDate    the date in the target calendar matching the start date
+   * @return true if at least one event was copied
+   * @throws IllegalStateException    if no calendar is in use, nothing was copied or a copy
+   *                                  would conflict
+   * @throws IllegalArgumentException if the dates are out of order or the target calendar
+   *                                  does not exist
+   */
+  @Override
+  public boolean copyEventsBetween(LocalDate sourceStartDate, LocalDate sourceEndDate,
+                                   String targetCalendarName, LocalDate targetStartDate) {
+    return copyEventsBetween(current(), sourceStartDate, sourceEndDate, targetCalendarName,
+        targetStartDate);
+  }
+
+  /**
+   * Copies all events between two dates from a named calendar to another calendar, as
+   * {@link #copyEventsBetween(LocalDate, LocalDate, String, LocalDate)} does from the
+   * calling thread's calendar in use.
+   *
+   * @param sourceCalendarName the name of the calendar to copy from
+   * @param sourceStartDate    the start date of the source interval
+   * @param sourceEndDate      the end date of the source interval
+   * @param targetCalendarName the target calendar name
+   * @param targetStartDate    the date in the target calendar matching the start date
+   * @return true if at least one event was copied
+   * @throws IllegalStateException    if nothing was copied or a copy would conflict
+   * @throws IllegalArgumentException if the dates are out of order or either calendar does
+   *                                  not exist
+   */
+  @Override
+  public boolean copyEventsBetween(String sourceCalendarName, LocalDate sourceStartDate,
+                                   LocalDate sourceEndDate, String targetCalendarName,
+                                   LocalDate targetStartDate) {
+    return copyEventsBetween(source(sourceCalendarName), sourceStartDate, sourceEndDate,
+        targetCalendarName, targetStartDate);
+  }
+
+  /**
+   * Copies all events between two dates from one calendar to another.
+   *
+   * @param source             the calendar to copy from
+   * @param sourceStartDate    the start date of the source interval
+   * @param sourceEndDate      the end date of the source interval
+   * @param targetCalendarName the target calendar name
+   * @param targetStartDate    the date in the target calendar matching the start date
+   * @return true if at least one event was copied
+   */
+  private boolean copyEventsBetween(LockedCalendar source, LocalDate sourceStartDate,
+                                    LocalDate sourceEndDate, String targetCalendarName,
+                                    LocalDate targetStartDate) {
+    if (sourceStartDate.isAfter(sourceEndDate)) {
+      throw new IllegalArgumentException("Source start date"
+          + " cannot be after source end date");
+    }
+    LockedCalendar target = target(targetCalendarName);
+    if (copyDays(source, sourceStartDate, sourceEndDate, target, targetStartDate) == 0) {
+      throw new IllegalStateException("Failed to copy any events between "
+          + sourceStartDate + " and " + sourceEndDate);
+    }
+    return true;
+  }
+
+  /**
+   * Copies the events on a range of dates from one calendar to another. The source is read
+   * first, then the copies are checked and added under the target's write lock, so the
+   * source may be the target.
+   *
+   * @param source          the calendar to copy from
+   * @param sourceStartDate the first source date
+   * @param sourceEndDate   the last source date
+   * @param target          the calendar to copy to
+   * @param targetStartDate the target date matching the first source date
+   * @return the number of events copied
+   * @throws IllegalStateException if a copy would conflict; nothing is copied then
+   */
+  private static int copyDays(LockedCalendar source, LocalDate sourceStartDate,
+                              LocalDate sourceEndDate, LockedCalendar target,
+                              LocalDate targetStartDate) {
+    List<Event> copies = CalendarManager.copiesOfDays(source, sourceStartDate, sourceEndDate,
+        target.getTimezone(), targetStartDate);
+    long stamp = target.lock.writeLock();
+    try {
+      target.calendar.addCopies(copies);
+    } finally {
+      target.lock.unlockWrite(stamp);
+    }
+    return copies.size();
+  }
+
+  /**
+   * Returns the calling thread's calendar in use.
+   *
+   * @return the calendar
+   * @throws IllegalStateException if the thread has none
+   */
+  private LockedCalendar current() {
+    LockedCalendar cal = currentCalendar.get();
+    if (cal == null) {
+      throw new IllegalStateException("No current calendar selected");
+    }
+    return cal;
+  }
+
+  /**
+   * Looks up a calendar to copy events from.
+   *
+   * @param name the calendar's name
+   * @return the calendar
+   * @throws IllegalArgumentException if there is no such calendar
+   */
+  private LockedCalendar source(String name) {
+    LockedCalendar cal = calendars.get(name);
+    if (cal == null) {
+      throw new IllegalArgumentException("Calendar not found: " + name);
+    }
+    return cal;
+  }
+
+  /**
+   * Looks up the calendar to copy events to.
+   *
+   * @param name the calendar's name
+   * @return the calendar
+   * @throws IllegalArgumentException if there is no such calendar
+   */
+  private LockedCalendar target(String name) {
+    LockedCalendar cal = calendars.get(name);
+    if (cal == null) {
+      throw new IllegalArgumentException("Target calendar not found: " + name);
+    }
+    return cal;
+  }
+
+  /**
+   * A calendar guarded by a stamped lock. Changes hold the write lock. The time queries
+   * run optimistically: they read without a lock and keep the result if no change started
+   * in the meantime, and otherwise run again under the read lock; with snapshot reads they,
+   * and export, read the calendar's latest view with no lock at all. The other reads take
+   * the read lock directly.
+   *
+   * <p>A batch opened with {@link #beginBatch} belongs to the thread that opened it: its
+   * events are queued here, and handed to the calendar in one go under the write lock when
+   * the thread commits.
+   */
+  private static final class LockedCalendar implements ICalendar {
+    private final Calendar calendar;
+    private final StampedLock lock;
+    // whether the calendar publishes views, so its time queries need no lock
+    private final boolean snapshotReads;
+    // events queued by each thread's open batch, and whether each asked for auto-decline
+    private final ThreadLocal<List<AbstractEvent>> pending;
+    private final ThreadLocal<BitSet> pendingChecks;
+
+    /**
+     * Constructs a guard around a calendar.
+     *
+     * @param calendar      the calendar, used only through this guard from now on
+     * @param snapshotReads whether the calendar has snapshot reads enabled
+     */
+    private LockedCalendar(Calendar calendar, boolean snapshotReads) {
+      this.calendar = calendar;
+      this.snapshotReads = snapshotReads;
+      this.lock = new StampedLock();
+      this.pending = new ThreadLocal<>();
+      this.pendingChecks = new ThreadLocal<>();
+    }
+
+    /**
+     * Runs a query without locking, and again under the read lock if a change overlapped
+     * it. A query that overlaps a change may see the calendar half changed, and fail or
+     * return nonsense; neither is passed on unless the calendar was not changed after all.
+     * With snapshot reads the query reads a published view, so it simply runs.
+     *
+     * @param query the query
+     * @param <T>   the type of its result
+     * @return the result of a query that saw no change
+     */
+    private <T> T optimisticRead(Supplier<T> query) {
+      if (snapshotReads) {
+        return query.get();
+      }
+      long stamp = lock.tryOptimisticRead();
+      if (stamp != 0L) {
+        try {
+          T result = query.get();
+          if (lock.validate(stamp)) {
+            return result;
+          }
+        } catch (RuntimeException | StackOverflowError e) {
+          if (lock.validate(stamp)) {
+            throw e;
+          }
+        }
+      }
+      return read(query);
+    }
+
+    /**
+     * Runs a query under the read lock.
+     *
+     * @param query the query
+     * @param <T>   the type of its result
+     * @return its result
+     */
+    private <T> T read(Supplier<T> query) {
+      long stamp = lock.readLock();
+      try {
+        return query.get();
+      } finally {
+        lock.unlockRead(stamp);
+      }
+    }
+
+    /**
+     * Runs a change under the write lock.
+     *
+     * @param change the change
+     * @param <T>    the type of its result
+     * @return its result
+     */
+    private <T> T write(Supplier<T> change) {
+      long stamp = lock.writeLock();
+      try {
+        return change.get();
+      } finally {
+        lock.unlockWrite(stamp);
+      }
+    }
+
+    /**
+     * Refuses a change that cannot be queued while the calling thread has a batch open.
+     *
+     * @throws IllegalStateException if a batch is open
+     */
+    private void checkNoBatch() {
+      if (pending.get() != null) {
+        throw new IllegalStateException("Commit the open batch first");
+      }
+    }
+
+    @Override
+    public void addEvent(AbstractEvent event, boolean autoDecline) {
+      List<AbstractEvent> queued = pending.get();
+      if (queued != null) {
+        if (event instanceof Event) {
+          pendingChecks.get().set(queued.size(), autoDecline);
+          queued.add(event);
+        }
+        return;
+      }
+      write(() -> {
+        calendar.addEvent(event, autoDecline);
+        return null;
+      });
+    }
+
+    @Override
+    public void addEvents(Collection<AbstractEvent> events, boolean autoDecline) {
+      if (pending.get() != null) {
+        for (AbstractEvent event : events) {
+          addEvent(event, autoDecline);
+        }
+        return;
+      }
+      write(() -> {
+        calendar.addEvents(events, autoDecline);
+        return null;
+      });
+    }
+
+    @Override
+    public void beginBatch() {
+      if (pending.get() != null) {
+        throw new IllegalStateException("A batch is already open");
+      }
+      pending.set(new ArrayList<>());
+      pendingChecks.set(new BitSet());
+    }
+
+    @Override
+    public void commit() {
+      List<AbstractEvent> batch = pending.get();
+      if (batch == null) {
+        throw new IllegalStateException("No batch is open");
+      }
+      BitSet checks = pendingChecks.get();
+      pending.remove();
+      pendingChecks.remove();
+      write(() -> {
+        calendar.beginBatch();
+        for (int i = 0; i < batch.size(); i++) {
+          calendar.addEvent(batch.get(i), checks.get(i));
+        }
+        calendar.commit();
+        return null;
+      });
+    }
+
+    @Override
+    public void addRecurringEvent(RecurringEvent recurringEvent, boolean autoDecline) {
+      checkNoBatch();
+      write(() -> {
+        calendar.addRecurringEvent(recurringEvent, autoDecline);
+        return null;
+      });
+    }
+
+    @Override
+    public List<AbstractEvent> getEventsOnDate(LocalDate date) {
+      return optimisticRead(() -> calendar.getEventsOnDate(date));
+    }
+
+    @Override
+    public List<AbstractEvent> getEventsBetween(LocalDateTime start, LocalDateTime end) {
+      return optimisticRead(() -> calendar.getEventsBetween(start, end));
+    }
+
+    @Override
+    public boolean isBusyAt(LocalDateTime time) {
+      return optimisticRead(() -> calendar.isBusyAt(time));
+    }
+
+    @Override
+    public AbstractEvent findEvent(String eventName, LocalDateTime startTime) {
+      return read(() -> calendar.findEvent(eventName, startTime));
+    }
+
+    @Override
+    public String exportToCSV(String filename) throws IOException {
+      if (snapshotReads) {
+        return calendar.exportToCSV(filename);
+      }
+      long stamp = lock.readLock();
+      try {
+        return calendar.exportToCSV(filename);
+      } finally {
+        lock.unlockRead(stamp);
+      }
+    }
+
+    @Override
+    public int importFromCSV(String filename) throws IOException {
+      return importFromCSV(filename, null);
+    }
+
+    @Override
+    public int importFromCSV(String filename, ImportProgress progress) throws IOException {
+      checkNoBatch();
+      long stamp = lock.writeLock();
+      try {
+        return progress == null ? calendar.importFromCSV(filename)
+            : calendar.importFromCSV(filename, progress);
+      } finally {
+        lock.unlockWrite(stamp);
+      }
+    }
+
+    @Override
+    public boolean editEvent(String property, String eventName, LocalDateTime startTime,
+                             LocalDateTime endTime, String newValue) {
+      checkNoBatch();
+      return write(() -> calendar.editEvent(property, eventName, startTime, endTime,
+          newValue));
+    }
+
+    @Override
+    public boolean editEvents(String property, String eventName, LocalDateTime startTime,
+                              String newValue) {
+      checkNoBatch();
+      return write(() -> calendar.editEvents(property, eventName, startTime, newValue));
+    }
+
+    @Override
+    public boolean editAllEvents(String property, String eventName, String newValue) {
+      checkNoBatch();
+      return write(() -> calendar.editAllEvents(property, eventName, newValue));
+    }
+
+    @Override
+    public ZoneId getTimezone() {
+      return read(calendar::getTimezone);
+    }
+
+    @Override
+    public List<Event> getAllEventsList() {
+      return read(calendar::getAllEventsList);
+    }
+
+    @Override
+    public String getName() {
+      return read(calendar::getName);
+    }
+  }
+}
@@ -0,0 +1,181 @@
+package model;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes events to a CSV file in the format read by {@link CsvImport}, one row at a time.
+ * Rows go straight through a fixed-size buffer to the file, and dates and times are
+ * formatted into a small reusable character buffer, so exporting takes the same memory
+ * however many events there are. Files named {@code .csv.gz} are written gzip-compressed.
+ */
+final class CsvExport implements Closeable {
+  // size of the character buffer in front of the file, and of the gzip buffer
+  static final int BUFFER_SIZE = 64 * 1024;
+  static final String GZIP_SUFFIX = ".gz";
+
+  private static final String HEADER = "Subject, Start Date, Start Time, End Date, "
+      + "End Time, All Day Event, Description, Location, Private\n";
+
+  private final Writer out;
+  // holds one formatted date or time: up to 18 characters for HH:mm:ss.nnnnnnnnn
+  private final char[] scratch;
+
+  /**
+   * Creates the file and writes the header row.
+   *
+   * @param filename the output file path; names ending in {@code .gz} are compressed
+   * @throws IOException if the file cannot be created
+   */
+  CsvExport(String filename) throws IOException {
+    OutputStream file = Files.newOutputStream(Paths.get(filename));
+    if (isCompressed(filename)) {
+      file = new GZIPOutputStream(file, BUFFER_SIZE);
+    }
+    out = new BufferedWriter(new OutputStreamWriter(file, StandardCharsets.UTF_8), BUFFER_SIZE);
+    scratch = new char[32];
+    out.write(HEADER);
+  }
+
+  /**
+   * Indicates whether a file name asks for gzip compression.
+   *
+   * @param filename the file path
+   * @return {@code true} if the name ends in {@code .gz}, ignoring case
+   */
+  static boolean isCompressed(String filename) {
+    return filename.toLowerCase(Locale.ROOT).endsWith(GZIP_SUFFIX);
+  }
+
+  /**
+   * Writes one event as a row.
+   *
+   * @param event the event to write
+   * @throws IOException if the row cannot be written
+   */
+  void write(AbstractEvent event) throws IOException {
+    LocalDateTime start = event.getStart();
+    LocalDateTime end = event.getEnd();
+    boolean isAllDay = (end == null);
+    writeText(event.getTitle());
+    out.write(',');
+    writeDate(start);
+    out.write(',');
+    writeTime(start);
+    out.write(',');
+    if (end != null) {
+      writeDate(end);
+    }
+    out.write(',');
+    if (end != null) {
+      writeTime(end);
+    }
+    out.write(',');
+    out.write(isAllDay ? "true" : "false");
+    out.write(',');
+    writeText(event.getDescription());
+    out.write(',');
+    writeText(event.getLocation());
+    out.write(',');
+    out.write(event.isPublic() ? "false" : "true");
+    out.write('\n');
+  }
+
+  /**
+   * Flushes the remaining rows and closes the file.
+   *
+   * @throws IOException if the rows cannot be written
+   */
+  @Override
+  public void close() throws IOException {
+    out.close();
+  }
+
+  /**
+   * Writes a text field as it is, or {@code null} for a missing value.
+   *
+   * @param text the value, may be {@code null}
+   * @throws IOException if it cannot be written
+   */
+  private void writeText(String text) throws IOException {
+    out.write(text == null ? "null" : text);
+  }
+
+  /**
+   * Writes the date part of a timestamp as {@link java.time.LocalDate#toString} would.
+   *
+   * @param dateTime the timestamp
+   * @throws IOException if it cannot be written
+   */
+  private void writeDate(LocalDateTime dateTime) throws IOException {
+    int year = dateTime.getYear();
+    if (year < 1000 || year > 9999) {
+      // Rare years need a sign or padding; leave those to the library.
+      out.write(dateTime.toLocalDate().toString());
+      return;
+    }
+    int length = digits(year, 4, 0);
+    scratch[length++] = '-';
+    length = digits(dateTime.getMonthValue(), 2, length);
+    scratch[length++] = '-';
+    length = digits(dateTime.getDayOfMonth(), 2, length);
+    out.write(scratch, 0, length);
+  }
+
+  /**
+   * Writes the time part of a timestamp as {@link java.time.LocalTime#toString} would:
+   * seconds only when they are not zero, and a fraction of 3, 6 or 9 digits only when it
+   * is not zero.
+   *
+   * @param dateTime the timestamp
+   * @throws IOException if it cannot be written
+   */
+  private void writeTime(LocalDateTime dateTime) throws IOException {
+    int length = digits(dateTime.getHour(), 2, 0);
+    scratch[length++] = ':';
+    length = digits(dateTime.getMinute(), 2, length);
+    int second = dateTime.getSecond();
+    int nano = dateTime.getNano();
+    if (second > 0 || nano > 0) {
+      scratch[length++] = ':';
+      length = digits(second, 2, length);
+      if (nano > 0) {
+        scratch[length++] = '.';
+        if (nano % 1_000_000 == 0) {
+          length = digits(nano / 1_000_000, 3, length);
+        } else if (nano % 1000 == 0) {
+          length = digits(nano / 1000, 6, length);
+        } else {
+          length = digits(nano, 9, length);
+        }
+      }
+    }
+    out.write(scratch, 0, length);
+  }
+
+  /**
+   * Formats a non-negative number into the scratch buffer with leading zeros.
+   *
+   * @param value  the number
+   * @param width  the number of digits to write
+   * @param offset where to write them
+   * @return the offset just past the digits
+   */
+  private int digits(int value, int width, int offset) {
+    for (int i = offset + width - 1; i >= offset; i--) {
+      scratch[i] = (char) ('0' + value % 10);
+      value /= 10;
+    }
+    return offset + width;
+  }
+}
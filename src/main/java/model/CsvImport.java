@@ -0,0 +1,543 @@
+package model;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Reads events from a CSV file in Google Calendar format into a calendar. Small files are
+ * read and added row by row; large files are split into line-aligned byte ranges that are
+ * parsed in parallel and added in file order as they are parsed. Either way, conflicting
+ * events are declined and rows that cannot be used are reported with their line number.
+ * Rows are split by a {@link CsvTokenizer} and ISO dates and times are read straight from its
+ * buffer, so only the event and its strings are allocated for a typical row.
+ */
+final class CsvImport {
+  // number of lines between progress reports
+  static final long PROGRESS_INTERVAL = 10_000;
+  // files at least this large are parsed in parallel
+  static final long PARALLEL_THRESHOLD = 8L * 1024 * 1024;
+  // byte ranges parsed in parallel per available processor, at least
+  private static final int CHUNKS_PER_PROCESSOR = 4;
+  // largest byte range parsed at once, bounding the parsed rows held in memory
+  private static final long CHUNK_BYTES = 4L * 1024 * 1024;
+  // leading lines read to learn the date layout before the import starts
+  static final int SNIFF_LINES = 1000;
+  private static final long NANOS_PER_SECOND = 1_000_000_000L;
+  // times used when a row has no start or end time column
+  private static final long START_OF_DAY = 0;
+  private static final long END_OF_DAY = ((23 * 60L + 59) * 60 + 59) * NANOS_PER_SECOND;
+
+  private final int subjectIdx;
+  private final int startDateIdx;
+  private final int startTimeIdx;
+  private final int endDateIdx;
+  private final int endTimeIdx;
+  private final int allDayIdx;
+  private final int descriptionIdx;
+  private final int locationIdx;
+  private final int privateIdx;
+
+  /**
+   * Maps the columns named in a header row.
+   *
+   * @param header a tokenizer positioned on the first line of the file
+   * @throws IllegalArgumentException if the required columns are missing
+   */
+  private CsvImport(CsvTokenizer header) {
+    // Process header row to identify column indices
+    String[] headers = new String[header.fieldCount()];
+    for (int i = 0; i < headers.length; i++) {
+      headers[i] = header.field(i);
+    }
+
+    // Map column indices
+    subjectIdx = Calendar.findColumnIndex(headers, "Subject");
+    startDateIdx = Calendar.findColumnIndex(headers, "Start Date");
+    startTimeIdx = Calendar.findColumnIndex(headers, "Start Time");
+    endDateIdx = Calendar.findColumnIndex(headers, "End Date");
+    endTimeIdx = Calendar.findColumnIndex(headers, "End Time");
+    allDayIdx = Calendar.findColumnIndex(headers, "All Day Event");
+    descriptionIdx = Calendar.findColumnIndex(headers, "Description");
+    locationIdx = Calendar.findColumnIndex(headers, "Location");
+    privateIdx = Calendar.findColumnIndex(headers, "Private");
+
+    // Verify essential columns exist
+    if (subjectIdx == -1 || startDateIdx == -1) {
+      throw new IllegalArgumentException(
+          "CSV file missing required columns (Subject, Start Date)");
+    }
+  }
+
+  /**
+   * A data line of a byte range after parsing: the event it describes, or why it could not
+   * be used.
+   */
+  private static final class ParsedRow {
+    // line number counted from the start of the range, starting at 1
+    private final int line;
+    private final Event event;
+    private final String error;
+
+    private ParsedRow(int line, Event event, String error) {
+      this.line = line;
+      this.event = event;
+      this.error = error;
+    }
+  }
+
+  /**
+   * The parsed rows of one byte range and the number of lines it held.
+   */
+  private static final class ParsedChunk {
+    private final List<ParsedRow> rows = new ArrayList<>();
+    private final DateTimeSniffer dates;
+    private int lines;
+
+    private ParsedChunk(DateTimeSniffer dates) {
+      this.dates = dates;
+    }
+  }
+
+  /**
+   * Imports a CSV file into a calendar, parsing it in parallel if it is large. Files named
+   * {@code .gz} are decompressed as they are read, which can only be done serially.
+   *
+   * @param target   the calendar to add the events to
+   * @param filename the input file path
+   * @param progress receives progress reports, may be {@code null}
+   * @return the number of events successfully imported
+   * @throws IOException              if an I/O error occurs during reading
+   * @throws IllegalArgumentException if the file format is invalid
+   */
+  static int importEvents(ICalendar target, String filename, ImportProgress progress)
+      throws IOException, IllegalArgumentException {
+    Path path = Paths.get(filename);
+    int processors = Runtime.getRuntime().availableProcessors();
+    long size = Files.size(path);
+    if (processors > 1 && !CsvExport.isCompressed(filename) && size >= PARALLEL_THRESHOLD) {
+      int chunks = (int) Math.max(processors * CHUNKS_PER_PROCESSOR,
+          Math.min(Integer.MAX_VALUE, size / CHUNK_BYTES + 1));
+      return importParallel(target, path, progress, chunks);
+    }
+    return importSerial(target, path, progress);
+  }
+
+  /**
+   * Reads the file one line at a time and adds each row as soon as it is parsed, so memory
+   * use does not depend on the size of the file. Files named {@code .gz} are decompressed
+   * on the fly.
+   *
+   * @param target   the calendar to add the events to
+   * @param path     the input file
+   * @param progress receives progress reports, may be {@code null}
+   * @return the number of events successfully imported
+   * @throws IOException              if an I/O error occurs during reading
+   * @throws IllegalArgumentException if the file format is invalid
+   */
+  static int importSerial(ICalendar target, Path path, ImportProgress progress)
+      throws IOException, IllegalArgumentException {
+    try (Reader reader = openReader(path)) {
+      // Verify CSV has header row
+      CsvTokenizer tokenizer = new CsvTokenizer(reader);
+      if (!tokenizer.nextLine()) {
+        throw new IllegalArgumentException("CSV file is empty");
+      }
+      CsvImport columns = new CsvImport(tokenizer);
+      DateTimeSniffer dates;
+      try (Reader leading = openReader(path)) {
+        CsvTokenizer prefix = new CsvTokenizer(leading);
+        prefix.nextLine();
+        dates = columns.sniffLayout(prefix).withLearnedLayout();
+      }
+
+      // Process data rows as they are read
+      int importedCount = 0;
+      long lineNumber = 1;
+      while (tokenizer.nextLine()) {
+        lineNumber++;
+        if (progress != null && lineNumber % PROGRESS_INTERVAL == 0) {
+          progress.update(lineNumber, importedCount);
+        }
+        if (tokenizer.isBlank()) {
+          continue;
+        }
+        try {
+          target.addEvent(columns.parseRow(tokenizer, dates), true);
+          importedCount++;
+        } catch (Exception e) {
+          reportError(lineNumber, e.getMessage());
+        }
+      }
+
+      if (progress != null) {
+        progress.formatDetected(dates.dateFormat(), dates.timeFormat());
+        progress.update(lineNumber, importedCount);
+      }
+      return importedCount;
+    }
+  }
+
+  /**
+   * Opens a file for reading as text, decompressing it if its name ends in {@code .gz}.
+   *
+   * @param path the input file
+   * @return a reader over the file's text
+   * @throws IOException if the file cannot be opened
+   */
+  private static Reader openReader(Path path) throws IOException {
+    if (CsvExport.isCompressed(path.toString())) {
+      return new InputStreamReader(new GZIPInputStream(Files.newInputStream(path),
+          CsvExport.BUFFER_SIZE), StandardCharsets.UTF_8);
+    }
+    return Files.newBufferedReader(path);
+  }
+
+  /**
+   * Splits the file into byte ranges that start and end on line boundaries, parses the
+   * ranges on the common fork-join pool, and adds the parsed events to the calendar in file
+   * order as each range is done. Only a few ranges beyond the one being added are parsed
+   * ahead, so the parsed rows held in memory do not grow with the file. Every range starts
+   * with the layout sniffed from the leading lines of the file, and adding the rows in
+   * order on one thread gives the same dates, conflict decisions and error lines as a
+   * serial import, whatever the number of ranges.
+   *
+   * @param target   the calendar to add the events to
+   * @param path     the input file
+   * @param progress receives progress reports, may be {@code null}
+   * @param chunks   the number of byte ranges to split the data rows into
+   * @return the number of events successfully imported
+   * @throws IOException              if an I/O error occurs during reading
+   * @throws IllegalArgumentException if the file format is invalid
+   */
+  static int importParallel(ICalendar target, Path path, ImportProgress progress, int chunks)
+      throws IOException, IllegalArgumentException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      long size = channel.size();
+      if (size == 0) {
+        throw new IllegalArgumentException("CSV file is empty");
+      }
+      long headerEnd = lineEndAfter(channel, 0);
+      CsvImport columns = new CsvImport(readHeader(channel, headerEnd));
+      DateTimeSniffer layout;
+      try (Reader leading = new InputStreamReader(
+          new RangeInputStream(channel, headerEnd, size), StandardCharsets.UTF_8)) {
+        layout = columns.sniffLayout(new CsvTokenizer(leading));
+      }
+
+      // Range i starts at the first line beginning at or after its even share of the data.
+      long[] bounds = new long[chunks + 1];
+      bounds[0] = headerEnd;
+      bounds[chunks] = size;
+      for (int i = 1; i < chunks; i++) {
+        long even = headerEnd + (size - headerEnd) * i / chunks;
+        bounds[i] = Math.max(bounds[i - 1], even <= headerEnd ? headerEnd
+            : lineEndAfter(channel, even - 1));
+      }
+
+      int ahead = ForkJoinPool.getCommonPoolParallelism() + 1;
+      Deque<ForkJoinTask<ParsedChunk>> tasks = new ArrayDeque<>();
+      int submitted = 0;
+      int importedCount = 0;
+      long lineNumber = 1;
+      long nextReport = PROGRESS_INTERVAL;
+      // The last range to see a row reports the layout in use at the end of the file.
+      String dateFormat = null;
+      String timeFormat = null;
+      while (submitted < chunks || !tasks.isEmpty()) {
+        while (submitted < chunks && tasks.size() < ahead) {
+          long from = bounds[submitted];
+          long to = bounds[submitted + 1];
+          DateTimeSniffer dates = layout.withLearnedLayout();
+          tasks.add(ForkJoinPool.commonPool().submit(
+              () -> columns.parseRange(channel, from, to, dates)));
+          submitted++;
+        }
+        ParsedChunk chunk;
+        try {
+          chunk = tasks.poll().join();
+        } catch (RuntimeException e) {
+          // The pool may rethrow a copy of the failure, so look for the I/O error itself.
+          for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof IOException) {
+              throw (IOException) cause;
+            }
+          }
+          throw e;
+        }
+        if (chunk.dates.dateFormat() != null) {
+          dateFormat = chunk.dates.dateFormat();
+        }
+        if (chunk.dates.timeFormat() != null) {
+          timeFormat = chunk.dates.timeFormat();
+        }
+        for (ParsedRow row : chunk.rows) {
+          long rowLine = lineNumber + row.line;
+          while (progress != null && rowLine >= nextReport) {
+            progress.update(nextReport, importedCount);
+            nextReport += PROGRESS_INTERVAL;
+          }
+          if (row.error != null) {
+            reportError(rowLine, row.error);
+            continue;
+          }
+          try {
+            target.addEvent(row.event, true);
+            importedCount++;
+          } catch (Exception e) {
+            reportError(rowLine, e.getMessage());
+          }
+        }
+        lineNumber += chunk.lines;
+      }
+
+      if (progress != null) {
+        progress.formatDetected(dateFormat, timeFormat);
+        progress.update(lineNumber, importedCount);
+      }
+      return importedCount;
+    }
+  }
+
+  /**
+   * Parses every line in a byte range of the file. The range must start at the beginning
+   * of a line.
+   *
+   * @param channel the open file
+   * @param from    the first byte of the range
+   * @param to      the byte after the range
+   * @param dates   the date and time parser for the range, starting with the file's layout
+   * @return the parsed rows and the number of lines in the range
+   * @throws UncheckedIOException if the range cannot be read
+   */
+  private ParsedChunk parseRange(FileChannel channel, long from, long to,
+                                 DateTimeSniffer dates) {
+    ParsedChunk chunk = new ParsedChunk(dates);
+    try (Reader reader = new InputStreamReader(
+        new RangeInputStream(channel, from, to), StandardCharsets.UTF_8)) {
+      CsvTokenizer tokenizer = new CsvTokenizer(reader);
+      while (tokenizer.nextLine()) {
+        chunk.lines++;
+        if (tokenizer.isBlank()) {
+          continue;
+        }
+        try {
+          chunk.rows.add(new ParsedRow(chunk.lines, parseRow(tokenizer, chunk.dates), null));
+        } catch (Exception e) {
+          chunk.rows.add(new ParsedRow(chunk.lines, null, e.getMessage()));
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return chunk;
+  }
+
+  /**
+   * Reads the dates and times of up to {@link #SNIFF_LINES} lines, so that the import can
+   * start with their layout. Ambiguous dates are only read day first when these lines show
+   * that the file puts the day first.
+   *
+   * @param tokenizer a tokenizer positioned before the first data line
+   * @return the sniffer that read the lines
+   * @throws IOException if the lines cannot be read
+   */
+  private DateTimeSniffer sniffLayout(CsvTokenizer tokenizer) throws IOException {
+    DateTimeSniffer dates = new DateTimeSniffer();
+    for (int line = 0; line < SNIFF_LINES && tokenizer.nextLine(); line++) {
+      if (tokenizer.isBlank()) {
+        continue;
+      }
+      for (int field : new int[] {startDateIdx, endDateIdx}) {
+        if (tokenizer.hasField(field)) {
+          dates.sniffDate(tokenizer.chars(), tokenizer.trimmedStart(field),
+              tokenizer.trimmedEnd(field));
+        }
+      }
+      for (int field : new int[] {startTimeIdx, endTimeIdx}) {
+        if (tokenizer.hasField(field)) {
+          dates.parseTime(tokenizer.chars(), tokenizer.trimmedStart(field),
+              tokenizer.trimmedEnd(field));
+        }
+      }
+    }
+    return dates;
+  }
+
+  /**
+   * Builds the event described by the tokenizer's current line.
+   *
+   * @param row   a tokenizer positioned on a data line
+   * @param dates the date and time parser for the rows read so far
+   * @return the event
+   * @throws IllegalArgumentException if a date cannot be parsed
+   */
+  Event parseRow(CsvTokenizer row, DateTimeSniffer dates) {
+    String title = row.field(subjectIdx, "");
+    String description = row.field(descriptionIdx, "");
+    String location = row.field(locationIdx, "");
+
+    // Parse boolean fields
+    boolean isAllDay = row.hasField(allDayIdx) && row.fieldEqualsIgnoreCase(allDayIdx, "true");
+    boolean isPrivate = row.hasField(privateIdx) && row.fieldEqualsIgnoreCase(privateIdx, "true");
+    boolean isPublic = !isPrivate;
+
+    // Parse date/time fields
+    LocalDateTime start = parseDateTime(row, dates, startDateIdx, startTimeIdx, START_OF_DAY);
+
+    // Create appropriate event
+    if (isAllDay) {
+      return new Event(title, start, description, location, isPublic);
+    }
+    // A missing end date means the event ends on its start date.
+    int endDate = row.hasField(endDateIdx) ? endDateIdx : startDateIdx;
+    LocalDateTime end = parseDateTime(row, dates, endDate, endTimeIdx, END_OF_DAY);
+    return new Event(title, start, end, description, location, isPublic);
+  }
+
+  /**
+   * Reads a date and a time of day from two fields of the current line. Values in a layout
+   * the sniffer knows are parsed in place; anything else is handed to
+   * {@link Calendar#parseDate} and {@link Calendar#parseTime}, which accept the other
+   * formats the import has always taken.
+   *
+   * @param row         a tokenizer positioned on a data line
+   * @param dates       the date and time parser for the rows read so far
+   * @param dateField   the index of the date field
+   * @param timeField   the index of the time field, may be -1
+   * @param defaultTime the time of day, in nanoseconds, if the line has no time field
+   * @return the date and time
+   * @throws IllegalArgumentException if the date cannot be parsed
+   */
+  private static LocalDateTime parseDateTime(CsvTokenizer row, DateTimeSniffer dates,
+      int dateField, int timeField, long defaultTime) {
+    long time = defaultTime;
+    if (row.hasField(timeField)) {
+      time = dates.parseTime(row.chars(), row.trimmedStart(timeField),
+          row.trimmedEnd(timeField));
+      if (time == IsoDateTimeParser.INVALID_TIME) {
+        time = Calendar.parseTime(row.field(timeField)).toNanoOfDay();
+      }
+    }
+    int date = IsoDateTimeParser.INVALID_DATE;
+    if (row.hasField(dateField)) {
+      date = dates.parseDate(row.chars(), row.trimmedStart(dateField),
+          row.trimmedEnd(dateField));
+    }
+    if (date == IsoDateTimeParser.INVALID_DATE) {
+      LocalDate parsed = Calendar.parseDate(row.field(dateField, ""));
+      date = parsed.getYear() * 10000 + parsed.getMonthValue() * 100 + parsed.getDayOfMonth();
+    }
+    long seconds = time / NANOS_PER_SECOND;
+    return LocalDateTime.of(IsoDateTimeParser.year(date), IsoDateTimeParser.month(date),
+        IsoDateTimeParser.day(date), (int) (seconds / 3600), (int) (seconds / 60 % 60),
+        (int) (seconds % 60), (int) (time % NANOS_PER_SECOND));
+  }
+
+  /**
+   * Prints why a data line was not imported.
+   *
+   * @param lineNumber the line number in the file, counting the header as line 1
+   * @param message    the reason
+   */
+  private static void reportError(long lineNumber, String message) {
+    System.err.println("Error parsing event at line " + lineNumber + ": " + message);
+  }
+
+  /**
+   * Reads the header line, which ends just before the given offset.
+   *
+   * @param channel   the open file
+   * @param headerEnd the offset just past the header's line break
+   * @return a tokenizer positioned on the header line
+   * @throws IOException if the file cannot be read
+   */
+  private static CsvTokenizer readHeader(FileChannel channel, long headerEnd)
+      throws IOException {
+    try (Reader reader = new InputStreamReader(
+        new RangeInputStream(channel, 0, headerEnd), StandardCharsets.UTF_8)) {
+      CsvTokenizer header = new CsvTokenizer(reader);
+      header.nextLine();
+      return header;
+    }
+  }
+
+  /**
+   * Returns the offset just past the first line break at or after a position.
+   *
+   * @param channel  the open file
+   * @param position where to start looking
+   * @return the offset after the line break, or the file size if there is none
+   * @throws IOException if the file cannot be read
+   */
+  private static long lineEndAfter(FileChannel channel, long position) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(8192);
+    long offset = position;
+    while (true) {
+      buffer.clear();
+      int read = channel.read(buffer, offset);
+      if (read <= 0) {
+        return channel.size();
+      }
+      for (int i = 0; i < read; i++) {
+        if (buffer.get(i) == '\n') {
+          return offset + i + 1;
+        }
+      }
+      offset += read;
+    }
+  }
+
+  /**
+   * An input stream over a byte range of a file, read with positional reads so that several
+   * ranges of the same channel can be read at once.
+   */
+  private static final class RangeInputStream extends InputStream {
+    private final FileChannel channel;
+    private final long end;
+    private long position;
+
+    private RangeInputStream(FileChannel channel, long start, long end) {
+      this.channel = channel;
+      this.position = start;
+      this.end = end;
+    }
+
+    @Override
+    public int read() throws IOException {
+      byte[] single = new byte[1];
+      return read(single, 0, 1) == 1 ? single[0] & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte[] bytes, int off, int len) throws IOException {
+      if (position >= end) {
+        return -1;
+      }
+      int wanted = (int) Math.min(len, end - position);
+      int read = channel.read(ByteBuffer.wrap(bytes, off, wanted), position);
+      if (read > 0) {
+        position += read;
+      }
+      return read;
+    }
+  }
+}
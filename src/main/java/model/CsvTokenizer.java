@@ -0,0 +1,243 @@
+package model;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * Splits CSV text into lines and fields without creating objects per row. Each call to
+ * {@link #nextLine} reads one line into a shared character buffer and records where each
+ * field starts and ends in it; fields are only turned into strings when asked for. Quote
+ * characters group commas into a field and are dropped from its content, as in
+ * {@link Calendar#parseCSVLine}. Lines end at {@code \n}, {@code \r} or {@code \r\n}, as in
+ * {@link java.io.BufferedReader#readLine}.
+ */
+final class CsvTokenizer {
+  private final Reader reader;
+  private final char[] input;
+  private int inputPosition;
+  private int inputLimit;
+  // set when a line ended with \r, so that a following \n is not read as an empty line
+  private boolean skipLineFeed;
+
+  // field content of the current line, without quote characters
+  private char[] chars;
+  private int[] fieldStarts;
+  private int[] fieldEnds;
+  private int fieldCount;
+  private boolean blank;
+
+  /**
+   * Constructs a tokenizer reading from the given source.
+   *
+   * @param reader the CSV text
+   */
+  CsvTokenizer(Reader reader) {
+    this.reader = reader;
+    input = new char[8192];
+    chars = new char[256];
+    fieldStarts = new int[16];
+    fieldEnds = new int[16];
+  }
+
+  /**
+   * Reads the next line and splits it into fields.
+   *
+   * @return {@code false} if there are no more lines
+   * @throws IOException if the source cannot be read
+   */
+  boolean nextLine() throws IOException {
+    int length = 0;
+    boolean inQuotes = false;
+    boolean readAny = false;
+    fieldCount = 0;
+    blank = true;
+    int fieldStart = 0;
+    while (true) {
+      if (inputPosition == inputLimit && !fill()) {
+        if (!readAny) {
+          return false;
+        }
+        break;
+      }
+      char c = input[inputPosition++];
+      if (skipLineFeed) {
+        skipLineFeed = false;
+        if (c == '\n') {
+          continue;
+        }
+      }
+      readAny = true;
+      if (c == '\n') {
+        break;
+      }
+      if (c == '\r') {
+        skipLineFeed = true;
+        break;
+      }
+      if (c > ' ') {
+        blank = false;
+      }
+      if (c == '\"') {
+        inQuotes = !inQuotes;
+      } else if (c == ',' && !inQuotes) {
+        addField(fieldStart, length);
+        fieldStart = length;
+      } else {
+        if (length == chars.length) {
+          chars = Arrays.copyOf(chars, length * 2);
+        }
+        chars[length++] = c;
+      }
+    }
+    // Add the last field
+    addField(fieldStart, length);
+    return true;
+  }
+
+  /**
+   * Indicates whether the current line holds nothing but whitespace.
+   *
+   * @return {@code true} for blank lines
+   */
+  boolean isBlank() {
+    return blank;
+  }
+
+  /**
+   * Returns the number of fields on the current line.
+   *
+   * @return the number of fields, at least 1
+   */
+  int fieldCount() {
+    return fieldCount;
+  }
+
+  /**
+   * Returns the shared buffer holding the content of the current line's fields. It is
+   * overwritten by the next call to {@link #nextLine}.
+   *
+   * @return the buffer
+   */
+  char[] chars() {
+    return chars;
+  }
+
+  /**
+   * Returns where a field starts in {@link #chars}, with leading whitespace skipped.
+   *
+   * @param field the field index
+   * @return the offset of the field's first non-whitespace character
+   */
+  int trimmedStart(int field) {
+    int start = fieldStarts[field];
+    int end = fieldEnds[field];
+    while (start < end && chars[start] <= ' ') {
+      start++;
+    }
+    return start;
+  }
+
+  /**
+   * Returns where a field ends in {@link #chars}, with trailing whitespace skipped.
+   *
+   * @param field the field index
+   * @return the offset just past the field's last non-whitespace character
+   */
+  int trimmedEnd(int field) {
+    int start = trimmedStart(field);
+    int end = fieldEnds[field];
+    while (end > start && chars[end - 1] <= ' ') {
+      end--;
+    }
+    return end;
+  }
+
+  /**
+   * Returns the content of a field as a string.
+   *
+   * @param field the field index
+   * @return the field content
+   */
+  String field(int field) {
+    return new String(chars, fieldStarts[field], fieldEnds[field] - fieldStarts[field]);
+  }
+
+  /**
+   * Returns the content of a field, or a default if the line has no such field.
+   *
+   * @param field        the field index, may be -1 for a missing column
+   * @param defaultValue the value to use if there is no such field
+   * @return the field content or the default
+   */
+  String field(int field, String defaultValue) {
+    return hasField(field) ? field(field) : defaultValue;
+  }
+
+  /**
+   * Indicates whether the current line has the given field.
+   *
+   * @param field the field index, may be -1 for a missing column
+   * @return {@code true} if the field exists
+   */
+  boolean hasField(int field) {
+    return field >= 0 && field < fieldCount;
+  }
+
+  /**
+   * Checks whether a field, ignoring surrounding whitespace, equals the given text without
+   * regard to case.
+   *
+   * @param field the field index
+   * @param text  the text to compare with, in lower case
+   * @return {@code true} if they match
+   */
+  boolean fieldEqualsIgnoreCase(int field, String text) {
+    int start = trimmedStart(field);
+    int end = trimmedEnd(field);
+    if (end - start != text.length()) {
+      return false;
+    }
+    for (int i = start; i < end; i++) {
+      if (Character.toLowerCase(chars[i]) != text.charAt(i - start)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Records a field of the current line.
+   *
+   * @param start the offset of the field in {@link #chars}
+   * @param end   the offset just past the field
+   */
+  private void addField(int start, int end) {
+    if (fieldCount == fieldStarts.length) {
+      fieldStarts = Arrays.copyOf(fieldStarts, fieldCount * 2);
+      fieldEnds = Arrays.copyOf(fieldEnds, fieldCount * 2);
+    }
+    fieldStarts[fieldCount] = start;
+    fieldEnds[fieldCount] = end;
+    fieldCount++;
+  }
+
+  /**
+   * Reads more characters from the source into the input buffer.
+   *
+   * @return {@code false} at the end of the source
+   * @throws IOException if the source cannot be read
+   */
+  private boolean fill() throws IOException {
+    int read;
+    do {
+      read = reader.read(input, 0, input.length);
+    } while (read == 0);
+    if (read < 0) {
+      return false;
+    }
+    inputPosition = 0;
+    inputLimit = read;
+    return true;
+  }
+}
@@ -0,0 +1,308 @@
+package model;
+
+/**
+ * Parses the dates and times of one CSV import without exceptions, learning their layout
+ * as it goes. The first value seen decides the layout, and every later value is parsed with
+ * that layout alone. Only when a value does not fit are the other layouts tried, and the
+ * one that fits becomes the layout for the values after it. A value that fits no layout is
+ * reported as invalid so the caller can fall back to {@link Calendar#parseDate} and
+ * {@link Calendar#parseTime}.
+ *
+ * <p>Dates may be {@code yyyy-MM-dd}, {@code MM/dd/yyyy} or {@code dd/MM/yyyy}. An
+ * ambiguous slash date such as 03/04/2025 is read month first. Only a sniffer made by
+ * {@link #withLearnedLayout}, after the leading rows of the file were read with
+ * {@link #sniffDate} and showed that the file puts the day first, reads it day first. A
+ * single slash date that can only be read the other way round is read that way, but does
+ * not change how the dates after it are read, so the result for a value never depends on
+ * the values before it. Times may be ISO ({@code HH:mm}, {@code HH:mm:ss} with an optional
+ * fraction) or twelve-hour ({@code h AM}, {@code h:mm PM}, {@code h:mm:ss AM}).
+ */
+final class DateTimeSniffer {
+  static final String ISO_DATE = "yyyy-MM-dd";
+  static final String MONTH_FIRST_DATE = "MM/dd/yyyy";
+  static final String DAY_FIRST_DATE = "dd/MM/yyyy";
+  static final String ISO_TIME = "HH:mm:ss";
+  static final String TWELVE_HOUR_TIME = "h:mm:ss a";
+
+  private static final String[] MONTH_FIRST_LAYOUTS =
+      {ISO_DATE, MONTH_FIRST_DATE, DAY_FIRST_DATE};
+  private static final String[] DAY_FIRST_LAYOUTS = {ISO_DATE, DAY_FIRST_DATE, MONTH_FIRST_DATE};
+  private static final String[] TIME_LAYOUTS = {ISO_TIME, TWELVE_HOUR_TIME};
+  private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+  // date layouts in the order they are tried; the last is never taken up as the layout
+  private final String[] dateLayouts;
+  private String dateLayout;
+  private String timeLayout;
+  // number of values that did not fit the layout in use
+  private int dateBreaks;
+  private int timeBreaks;
+  // number of sniffed slash dates that can only be read day first, or only month first
+  private int dayFirstOnly;
+  private int monthFirstOnly;
+
+  /**
+   * Constructs a sniffer that has seen no values and reads ambiguous dates month first.
+   */
+  DateTimeSniffer() {
+    this(null, null, false);
+  }
+
+  /**
+   * Constructs a sniffer starting with the given layouts.
+   *
+   * @param dateLayout the date layout to start with, may be {@code null}
+   * @param timeLayout the time layout to start with, may be {@code null}
+   * @param dayFirst   whether ambiguous slash dates are read day first
+   */
+  private DateTimeSniffer(String dateLayout, String timeLayout, boolean dayFirst) {
+    this.dateLayouts = dayFirst ? DAY_FIRST_LAYOUTS : MONTH_FIRST_LAYOUTS;
+    this.dateLayout = dateLayout;
+    this.timeLayout = timeLayout;
+  }
+
+  /**
+   * Parses a date, detecting its layout if none has been seen yet.
+   *
+   * @param chars the buffer holding the text
+   * @param from  the offset of the first character
+   * @param to    the offset just past the last character
+   * @return the date packed as {@code year * 10000 + month * 100 + day}, or
+   *         {@link IsoDateTimeParser#INVALID_DATE}
+   */
+  int parseDate(char[] chars, int from, int to) {
+    if (dateLayout != null) {
+      int date = parseDate(dateLayout, chars, from, to);
+      if (date != IsoDateTimeParser.INVALID_DATE) {
+        return date;
+      }
+      dateBreaks++;
+    }
+    for (int i = 0; i < dateLayouts.length; i++) {
+      String layout = dateLayouts[i];
+      if (!layout.equals(dateLayout)) {
+        int date = parseDate(layout, chars, from, to);
+        if (date != IsoDateTimeParser.INVALID_DATE) {
+          if (i < dateLayouts.length - 1) {
+            dateLayout = layout;
+          }
+          return date;
+        }
+      }
+    }
+    return IsoDateTimeParser.INVALID_DATE;
+  }
+
+  /**
+   * Parses a date from the leading rows of a file, like {@link #parseDate(char[], int, int)},
+   * and also notes whether it is a slash date that can only be read one way round.
+   *
+   * @param chars the buffer holding the text
+   * @param from  the offset of the first character
+   * @param to    the offset just past the last character
+   * @return the packed date, or {@link IsoDateTimeParser#INVALID_DATE}
+   */
+  int sniffDate(char[] chars, int from, int to) {
+    boolean monthFirst = parseDate(MONTH_FIRST_DATE, chars, from, to)
+        != IsoDateTimeParser.INVALID_DATE;
+    boolean dayFirst = parseDate(DAY_FIRST_DATE, chars, from, to)
+        != IsoDateTimeParser.INVALID_DATE;
+    if (dayFirst && !monthFirst) {
+      dayFirstOnly++;
+    } else if (monthFirst && !dayFirst) {
+      monthFirstOnly++;
+    }
+    return parseDate(chars, from, to);
+  }
+
+  /**
+   * Returns a new sniffer for the rest of the file that starts with the layouts learned so
+   * far. It reads ambiguous slash dates day first if some sniffed dates could only be read
+   * day first and none could only be read month first.
+   *
+   * @return the new sniffer
+   */
+  DateTimeSniffer withLearnedLayout() {
+    boolean dayFirst = dayFirstOnly > 0 && monthFirstOnly == 0;
+    String layout = dateLayout;
+    if (MONTH_FIRST_DATE.equals(layout) && dayFirst) {
+      layout = DAY_FIRST_DATE;
+    }
+    return new DateTimeSniffer(layout, timeLayout, dayFirst);
+  }
+
+  /**
+   * Parses a time of day, detecting its layout if none has been seen yet.
+   *
+   * @param chars the buffer holding the text
+   * @param from  the offset of the first character
+   * @param to    the offset just past the last character
+   * @return the time as nanoseconds since midnight, or {@link IsoDateTimeParser#INVALID_TIME}
+   */
+  long parseTime(char[] chars, int from, int to) {
+    if (timeLayout != null) {
+      long time = parseTime(timeLayout, chars, from, to);
+      if (time != IsoDateTimeParser.INVALID_TIME) {
+        return time;
+      }
+      timeBreaks++;
+    }
+    for (String layout : TIME_LAYOUTS) {
+      if (!layout.equals(timeLayout)) {
+        long time = parseTime(layout, chars, from, to);
+        if (time != IsoDateTimeParser.INVALID_TIME) {
+          timeLayout = layout;
+          return time;
+        }
+      }
+    }
+    return IsoDateTimeParser.INVALID_TIME;
+  }
+
+  /**
+   * Returns the date layout in use.
+   *
+   * @return one of the date layout constants, or {@code null} if no date has been parsed
+   */
+  String dateFormat() {
+    return dateLayout;
+  }
+
+  /**
+   * Returns the time layout in use.
+   *
+   * @return one of the time layout constants, or {@code null} if no time has been parsed
+   */
+  String timeFormat() {
+    return timeLayout;
+  }
+
+  /**
+   * Returns how many dates did not fit the layout in use when they were read.
+   *
+   * @return the number of dates that broke the pattern
+   */
+  int dateBreaks() {
+    return dateBreaks;
+  }
+
+  /**
+   * Returns how many times did not fit the layout in use when they were read.
+   *
+   * @return the number of times that broke the pattern
+   */
+  int timeBreaks() {
+    return timeBreaks;
+  }
+
+  /**
+   * Parses a date in the given layout.
+   *
+   * @param layout one of the date layout constants
+   * @param chars  the buffer holding the text
+   * @param from   the offset of the first character
+   * @param to     the offset just past the last character
+   * @return the packed date, or {@link IsoDateTimeParser#INVALID_DATE}
+   */
+  private static int parseDate(String layout, char[] chars, int from, int to) {
+    if (ISO_DATE.equals(layout)) {
+      return IsoDateTimeParser.parseDate(chars, from, to);
+    }
+    // M/d/yyyy or d/M/yyyy, with one or two digits for month and day
+    int firstEnd = indexOf(chars, from, to, '/');
+    if (firstEnd == to) {
+      return IsoDateTimeParser.INVALID_DATE;
+    }
+    int secondEnd = indexOf(chars, firstEnd + 1, to, '/');
+    if (secondEnd == to || firstEnd - from < 1 || firstEnd - from > 2
+        || secondEnd - firstEnd - 1 < 1 || secondEnd - firstEnd - 1 > 2 || to - secondEnd != 5) {
+      return IsoDateTimeParser.INVALID_DATE;
+    }
+    int first = digits(chars, from, firstEnd);
+    int second = digits(chars, firstEnd + 1, secondEnd);
+    int year = digits(chars, secondEnd + 1, to);
+    boolean monthFirst = MONTH_FIRST_DATE.equals(layout);
+    return IsoDateTimeParser.packDate(year, monthFirst ? first : second,
+        monthFirst ? second : first);
+  }
+
+  /**
+   * Parses a time of day in the given layout.
+   *
+   * @param layout one of the time layout constants
+   * @param chars  the buffer holding the text
+   * @param from   the offset of the first character
+   * @param to     the offset just past the last character
+   * @return the nanosecond of the day, or {@link IsoDateTimeParser#INVALID_TIME}
+   */
+  private static long parseTime(String layout, char[] chars, int from, int to) {
+    if (ISO_TIME.equals(layout)) {
+      return IsoDateTimeParser.parseTime(chars, from, to);
+    }
+    // h[:mm[:ss]] followed by one space and AM or PM
+    if (to - from < 4 || chars[to - 3] != ' ' || Character.toLowerCase(chars[to - 1]) != 'm') {
+      return IsoDateTimeParser.INVALID_TIME;
+    }
+    char meridiem = Character.toLowerCase(chars[to - 2]);
+    if (meridiem != 'a' && meridiem != 'p') {
+      return IsoDateTimeParser.INVALID_TIME;
+    }
+    int end = to - 3;
+    int hourEnd = indexOf(chars, from, end, ':');
+    int hour = hourEnd - from <= 2 ? digits(chars, from, hourEnd) : -1;
+    int minute = 0;
+    int second = 0;
+    if (hourEnd < end) {
+      int minuteEnd = indexOf(chars, hourEnd + 1, end, ':');
+      minute = minuteEnd - hourEnd == 3 ? digits(chars, hourEnd + 1, minuteEnd) : -1;
+      if (minuteEnd < end) {
+        second = end - minuteEnd == 3 ? digits(chars, minuteEnd + 1, end) : -1;
+      }
+    }
+    if (hour < 1 || hour > 12 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+      return IsoDateTimeParser.INVALID_TIME;
+    }
+    hour = hour % 12 + (meridiem == 'p' ? 12 : 0);
+    return ((hour * 60L + minute) * 60 + second) * NANOS_PER_SECOND;
+  }
+
+  /**
+   * Finds a character in part of a buffer.
+   *
+   * @param chars the buffer
+   * @param from  where to start looking
+   * @param to    where to stop looking
+   * @param c     the character to find
+   * @return its offset, or {@code to} if it does not occur
+   */
+  private static int indexOf(char[] chars, int from, int to, char c) {
+    int i = from;
+    while (i < to && chars[i] != c) {
+      i++;
+    }
+    return i;
+  }
+
+  /**
+   * Reads a run of decimal digits.
+   *
+   * @param chars the buffer
+   * @param from  the offset of the first digit
+   * @param to    the offset just past the last digit
+   * @return the value, or -1 if the run is empty or holds anything but digits
+   */
+  private static int digits(char[] chars, int from, int to) {
+    if (from >= to) {
+      return -1;
+    }
+    int value = 0;
+    for (int i = from; i < to; i++) {
+      char c = chars[i];
+      if (c < '0' || c > '9') {
+        return -1;
+      }
+      value = value * 10 + (c - '0');
+    }
+    return value;
+  }
+}
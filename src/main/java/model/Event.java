@@ -1,5 +1,6 @@
 package model;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.temporal.Temporal;
 
@@ -51,7 +52,7 @@ public class Event extends AbstractEvent {
    */
   @Override
   public LocalDateTime getEnd() {
-    return (LocalDateTime) end;
+    return toLocal(end);
   }
 
   /**
@@ -61,7 +62,22 @@ public class Event extends AbstractEvent {
    * @param end the new end date and time for the event
    */
   public void setEnd(LocalDateTime end) {
-
+    rebase();
     this.end = end;
   }
+
+  @Override
+  protected void rebaseTimes() {
+    super.rebaseTimes();
+    end = toLocal(end);
+  }
+
+  /**
+   * Returns the end of an event stored in a calendar as an instant.
+   *
+   * @return the end instant, or {@code null} for all-day events
+   */
+  Instant getEndInstant() {
+    return toInstant(end);
+  }
 }
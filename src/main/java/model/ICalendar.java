@@ -4,6 +4,8 @@ import java.io.IOException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -20,6 +22,43 @@ public interface ICalendar {
    */
   void addEvent(AbstractEvent event, boolean autoDecline);
 
+  /**
+   * Adds several events at once, with all-or-nothing conflict checking.
+   *
+   * @param events      the events to add, in order.
+   * @param autoDecline if {@code true}, declines every event
+   *                    if any of them conflicts.
+   */
+  void addEvents(Collection<AbstractEvent> events, boolean autoDecline);
+
+  /**
+   * Adds events copied from another calendar: all of them, or none if
+   * any would conflict. By default they are added together through
+   * {@link #addEvents} with auto-decline.
+   *
+   * @param copies the copies to add, in order.
+   * @throws IllegalStateException if a copy conflicts; nothing is added then.
+   */
+  default void addCopies(List<Event> copies) {
+    addEvents(new ArrayList<>(copies), true);
+  }
+
+  /**
+   * Opens a batch. Events added until {@link #commit()} are queued, and
+   * are checked for conflicts and indexed only when the batch is committed.
+   *
+   * @throws IllegalStateException if a batch is already open.
+   */
+  void beginBatch();
+
+  /**
+   * Adds the events queued since {@link #beginBatch()}. If an event added
+   * with auto-decline conflicts, none of the queued events are added.
+   *
+   * @throws IllegalStateException if no batch is open, or an event conflicts.
+   */
+  void commit();
+
   /**
    * Expands and adds instances of a recurring event to the calendar.
    *
@@ -57,6 +96,15 @@ public interface ICalendar {
    */
   boolean isBusyAt(LocalDateTime time);
 
+  /**
+   * Finds an event by its exact title and start time.
+   *
+   * @param eventName the title of the event.
+   * @param startTime the start time of the event.
+   * @return the matching event, or {@code null} if there is none.
+   */
+  AbstractEvent findEvent(String eventName, LocalDateTime startTime);
+
   /**
    * Exports calendar events to CSV format with columns:
    * Subject, Start Date, Start Time, End Date, End Time,
@@ -80,6 +128,19 @@ public interface ICalendar {
    */
   int importFromCSV(String filename) throws IOException, IllegalArgumentException;
 
+  /**
+   * Imports events from a CSV file like {@link #importFromCSV(String)}, reading it row by
+   * row and reporting progress along the way.
+   *
+   * @param filename the input file path
+   * @param progress receives progress reports
+   * @return the number of events successfully imported
+   * @throws IOException              if an I/O error occurs during reading
+   * @throws IllegalArgumentException if the file format is invalid
+   */
+  int importFromCSV(String filename, ImportProgress progress)
+      throws IOException, IllegalArgumentException;
+
   /**
    * Edits a specific event identified by exact match of title, start time, and end time.
    *
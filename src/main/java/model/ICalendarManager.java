@@ -8,6 +8,11 @@ import java.util.Map;
 /**
  * ICalendarManager interface represents a Calendar manager. A calendar manager contains a list
  * of calendars and functionality to create, edit, and copy events to the calendars.
+ *
+ * <p>The manager's current calendar ({@link #useCalendar}, {@link #getCurrentCalendar}) is
+ * a single selection shared by every caller. Code serving several clients against one
+ * manager should give each client a {@link CalendarSession} instead, which keeps its own
+ * calendar in use and names the source calendar of each copy explicitly.
  */
 public interface ICalendarManager {
 
@@ -31,7 +36,8 @@ public interface ICalendarManager {
   boolean editCalendar(String calendarName, String property, String newValue);
 
   /**
-   * Method to swap between the current calendar in use.
+   * Method to swap between the current calendar in use. The selection is shared by every
+   * caller of the manager; see {@link CalendarSession} for a per-client one.
    *
    * @param name - The name of the calendar.
    * @return - Returns true on success, false otherwise.
@@ -79,6 +85,19 @@ public interface ICalendarManager {
   boolean copyEvent(String eventName, LocalDateTime eventStart,
                     String targetCalendarName, LocalDateTime newTargetStart);
 
+  /**
+   * Method to copy a single event from a named calendar to another calendar.
+   *
+   * @param sourceCalendarName - The calendar to copy from.
+   * @param eventName          - The name of the event.
+   * @param eventStart         - The start of the event.
+   * @param targetCalendarName - The copy destination calendar.
+   * @param newTargetStart     - The new start of the event.
+   * @return - Returns true on completion, false otherwise.
+   */
+  boolean copyEvent(String sourceCalendarName, String eventName, LocalDateTime eventStart,
+                    String targetCalendarName, LocalDateTime newTargetStart);
+
   /**
    * Method to copy all events on a date to a target calendar.
    *
@@ -89,6 +108,18 @@ public interface ICalendarManager {
    */
   boolean copyEventsOn(LocalDate sourceDate, String targetCalendarName, LocalDate targetDate);
 
+  /**
+   * Method to copy all events on a date in a named calendar to a target calendar.
+   *
+   * @param sourceCalendarName - The calendar to copy from.
+   * @param sourceDate         - The date of the events.
+   * @param targetCalendarName - The copy destination calendar.
+   * @param targetDate         - The new date.
+   * @return - Returns true on success, false otherwise.
+   */
+  boolean copyEventsOn(String sourceCalendarName, LocalDate sourceDate,
+                       String targetCalendarName, LocalDate targetDate);
+
   /**
    * Method to copy all events in a date range.
    *
@@ -100,4 +131,18 @@ public interface ICalendarManager {
    */
   boolean copyEventsBetween(LocalDate sourceStartDate, LocalDate sourceEndDate,
                             String targetCalendarName, LocalDate targetStartDate);
+
+  /**
+   * Method to copy all events in a date range of a named calendar.
+   *
+   * @param sourceCalendarName - The calendar to copy from.
+   * @param sourceStartDate    - Start date.
+   * @param sourceEndDate      - End date.
+   * @param targetCalendarName - The copy destination calendar.
+   * @param targetStartDate    - The new date.
+   * @return - Returns true on success, false otherwise.
+   */
+  boolean copyEventsBetween(String sourceCalendarName, LocalDate sourceStartDate,
+                            LocalDate sourceEndDate, String targetCalendarName,
+                            LocalDate targetStartDate);
 }
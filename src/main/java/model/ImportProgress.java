@@ -0,0 +1,27 @@
+package model;
+
+/**
+ * Receives progress reports while events are imported from a CSV file, so that long imports
+ * can show how far they have got.
+ */
+public interface ImportProgress {
+
+  /**
+   * Called periodically during an import and once more when it finishes.
+   *
+   * @param linesRead the number of lines read so far, including the header
+   * @param imported  the number of events imported so far
+   */
+  void update(long linesRead, int imported);
+
+  /**
+   * Called once when an import finishes, before the last progress report, with the date and
+   * time layouts found in the file, such as {@code MM/dd/yyyy} and {@code h:mm:ss a}. Does
+   * nothing unless overridden.
+   *
+   * @param dateFormat the date layout, or {@code null} if no date could be read
+   * @param timeFormat the time layout, or {@code null} if no time could be read
+   */
+  default void formatDetected(String dateFormat, String timeFormat) {
+  }
+}
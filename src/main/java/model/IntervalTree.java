@@ -0,0 +1,270 @@
+package model;
+
+import java.util.List;
+import java.util.function.BiPredicate;
+import java.util.function.Predicate;
+
+/**
+ * An augmented AVL tree of closed intervals [low, high] over {@code long} keys.
+ * Nodes are ordered by their low key (ties broken by insertion order) and each node
+ * records the largest high key found in its subtree, so overlap queries can skip
+ * whole subtrees and run in O(log n + k).
+ *
+ * @param <V> the type of value stored with each interval
+ */
+class IntervalTree<V> {
+  private Node<V> root;
+  private int size;
+  private long nextSeq;
+
+  /**
+   * A single interval stored in the tree. The node itself is handed back on insert so
+   * callers can later remove exactly that interval.
+   *
+   * @param <V> the type of value stored with the interval
+   */
+  static final class Node<V> {
+    final long low;
+    final long high;
+    final long seq;
+    final V value;
+    private long maxHigh;
+    private int height;
+    private Node<V> left;
+    private Node<V> right;
+
+    private Node(long low, long high, long seq, V value) {
+      this.low = low;
+      this.high = high;
+      this.seq = seq;
+      this.value = value;
+      this.maxHigh = high;
+      this.height = 1;
+    }
+  }
+
+  /**
+   * Returns the number of intervals in the tree.
+   *
+   * @return the number of stored intervals
+   */
+  int size() {
+    return size;
+  }
+
+  /**
+   * Removes every interval from the tree.
+   */
+  void clear() {
+    root = null;
+    size = 0;
+  }
+
+  /**
+   * Inserts the interval [low, high] carrying the given value.
+   *
+   * @param low   the low key of the interval (inclusive)
+   * @param high  the high key of the interval (inclusive)
+   * @param value the value to store
+   * @return the node holding the interval, used to remove it later
+   * @throws IllegalArgumentException if {@code high < low}
+   */
+  Node<V> insert(long low, long high, V value) {
+    if (high < low) {
+      throw new IllegalArgumentException("Interval high must not be below low");
+    }
+    Node<V> node = new Node<>(low, high, nextSeq++, value);
+    root = insert(root, node);
+    size++;
+    return node;
+  }
+
+  /**
+   * Removes a node previously returned by {@link #insert}.
+   *
+   * @param node the node to remove
+   * @return {@code true} if the node was found and removed
+   */
+  boolean remove(Node<V> node) {
+    int before = size;
+    root = remove(root, node);
+    return size < before;
+  }
+
+  /**
+   * Collects the values of all intervals overlapping [lo, hi], in ascending order of
+   * their low key.
+   *
+   * @param lo  the low end of the query range (inclusive)
+   * @param hi  the high end of the query range (inclusive)
+   * @param out the list the matching values are appended to
+   */
+  void query(long lo, long hi, List<V> out) {
+    query(root, lo, hi, out);
+  }
+
+  private void query(Node<V> node, long lo, long hi, List<V> out) {
+    if (node == null || node.maxHigh < lo) {
+      return;
+    }
+    query(node.left, lo, hi, out);
+    // This node and everything to its right start after the range.
+    if (node.low > hi) {
+      return;
+    }
+    if (node.high >= lo) {
+      out.add(node.value);
+    }
+    query(node.right, lo, hi, out);
+  }
+
+  /**
+   * Finds an interval overlapping [lo, hi] whose value passes the given filter, visiting
+   * candidates in ascending order of their low key and stopping at the first match.
+   *
+   * @param lo     the low end of the query range (inclusive)
+   * @param hi     the high end of the query range (inclusive)
+   * @param filter the test a candidate value must pass
+   * @return the first matching value, or {@code null} if there is none
+   */
+  V findFirst(long lo, long hi, Predicate<? super V> filter) {
+    return findFirst(root, lo, hi, filter, (value, test) -> test.test(value));
+  }
+
+  /**
+   * Finds an interval overlapping [lo, hi] whose value passes a filter that also takes an
+   * argument. Unlike a {@link Predicate} built around the argument, a filter like this can
+   * be created once and shared by every query.
+   *
+   * @param lo       the low end of the query range (inclusive)
+   * @param hi       the high end of the query range (inclusive)
+   * @param argument the second argument passed to the filter
+   * @param filter   the test a candidate value must pass
+   * @param <A>      the type of the argument
+   * @return the first matching value, or {@code null} if there is none
+   */
+  <A> V findFirst(long lo, long hi, A argument, BiPredicate<? super V, ? super A> filter) {
+    return findFirst(root, lo, hi, argument, filter);
+  }
+
+  private <A> V findFirst(Node<V> node, long lo, long hi, A argument,
+                          BiPredicate<? super V, ? super A> filter) {
+    if (node == null || node.maxHigh < lo) {
+      return null;
+    }
+    V found = findFirst(node.left, lo, hi, argument, filter);
+    if (found != null || node.low > hi) {
+      return found;
+    }
+    if (node.high >= lo && filter.test(node.value, argument)) {
+      return node.value;
+    }
+    return findFirst(node.right, lo, hi, argument, filter);
+  }
+
+  private static int compare(Node<?> a, Node<?> b) {
+    int cmp = Long.compare(a.low, b.low);
+    return cmp != 0 ? cmp : Long.compare(a.seq, b.seq);
+  }
+
+  private Node<V> insert(Node<V> node, Node<V> added) {
+    if (node == null) {
+      return added;
+    }
+    if (compare(added, node) < 0) {
+      node.left = insert(node.left, added);
+    } else {
+      node.right = insert(node.right, added);
+    }
+    return rebalance(node);
+  }
+
+  private Node<V> remove(Node<V> node, Node<V> target) {
+    if (node == null) {
+      return null;
+    }
+    if (node == target) {
+      size--;
+      if (node.left == null) {
+        return node.right;
+      }
+      if (node.right == null) {
+        return node.left;
+      }
+      // Replace the node with its in-order successor.
+      Node<V> successor = node.right;
+      while (successor.left != null) {
+        successor = successor.left;
+      }
+      successor.right = removeMin(node.right);
+      successor.left = node.left;
+      return rebalance(successor);
+    }
+    if (compare(target, node) < 0) {
+      node.left = remove(node.left, target);
+    } else {
+      node.right = remove(node.right, target);
+    }
+    return rebalance(node);
+  }
+
+  private Node<V> removeMin(Node<V> node) {
+    if (node.left == null) {
+      return node.right;
+    }
+    node.left = removeMin(node.left);
+    return rebalance(node);
+  }
+
+  private static int height(Node<?> node) {
+    return node == null ? 0 : node.height;
+  }
+
+  private static void update(Node<?> node) {
+    node.height = 1 + Math.max(height(node.left), height(node.right));
+    long max = node.high;
+    if (node.left != null && node.left.maxHigh > max) {
+      max = node.left.maxHigh;
+    }
+    if (node.right != null && node.right.maxHigh > max) {
+      max = node.right.maxHigh;
+    }
+    node.maxHigh = max;
+  }
+
+  private Node<V> rebalance(Node<V> node) {
+    update(node);
+    int balance = height(node.left) - height(node.right);
+    if (balance > 1) {
+      if (height(node.left.left) < height(node.left.right)) {
+        node.left = rotateLeft(node.left);
+      }
+      return rotateRight(node);
+    }
+    if (balance < -1) {
+      if (height(node.right.right) < height(node.right.left)) {
+        node.right = rotateRight(node.right);
+      }
+      return rotateLeft(node);
+    }
+    return node;
+  }
+
+  private Node<V> rotateRight(Node<V> node) {
+    Node<V> pivot = node.left;
+    node.left = pivot.right;
+    pivot.right = node;
+    update(node);
+    update(pivot);
+    return pivot;
+  }
+
+  private Node<V> rotateLeft(Node<V> node) {
+    Node<V> pivot = node.right;
+    node.right = pivot.left;
+    pivot.left = node;
+    update(node);
+    update(pivot);
+    return pivot;
+  }
+}
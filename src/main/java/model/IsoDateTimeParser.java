@@ -0,0 +1,165 @@
+package model;
+
+/**
+ * Parses ISO dates ({@code yyyy-MM-dd}) and times ({@code HH:mm}, {@code HH:mm:ss} and
+ * {@code HH:mm:ss.fffffffff}) straight from a character buffer, without creating objects or
+ * throwing exceptions. Text that is not in one of these forms, or does not name a real date
+ * or time, is reported by a negative result so the caller can fall back to a slower parser.
+ */
+final class IsoDateTimeParser {
+  static final int INVALID_DATE = -1;
+  static final long INVALID_TIME = -1;
+
+  private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+  private IsoDateTimeParser() {
+  }
+
+  /**
+   * Parses an ISO date.
+   *
+   * @param chars the buffer holding the text
+   * @param from  the offset of the first character
+   * @param to    the offset just past the last character
+   * @return the date packed as {@code year * 10000 + month * 100 + day}, or
+   *         {@link #INVALID_DATE}
+   */
+  static int parseDate(char[] chars, int from, int to) {
+    if (to - from != 10 || chars[from + 4] != '-' || chars[from + 7] != '-') {
+      return INVALID_DATE;
+    }
+    return packDate(digits(chars, from, 4), digits(chars, from + 5, 2),
+        digits(chars, from + 8, 2));
+  }
+
+  /**
+   * Packs a date into the form returned by {@link #parseDate}, checking that it exists.
+   *
+   * @param year  the year, from 0 to 9999
+   * @param month the month
+   * @param day   the day of month
+   * @return the packed date, or {@link #INVALID_DATE} if there is no such date
+   */
+  static int packDate(int year, int month, int day) {
+    if (year < 0 || year > 9999 || month < 1 || month > 12 || day < 1
+        || day > monthLength(year, month)) {
+      return INVALID_DATE;
+    }
+    return year * 10000 + month * 100 + day;
+  }
+
+  /**
+   * Parses an ISO time of day.
+   *
+   * @param chars the buffer holding the text
+   * @param from  the offset of the first character
+   * @param to    the offset just past the last character
+   * @return the time as nanoseconds since midnight, or {@link #INVALID_TIME}
+   */
+  static long parseTime(char[] chars, int from, int to) {
+    int length = to - from;
+    if (length < 5 || chars[from + 2] != ':') {
+      return INVALID_TIME;
+    }
+    int hour = digits(chars, from, 2);
+    int minute = digits(chars, from + 3, 2);
+    int second = 0;
+    long nanos = 0;
+    if (length > 5) {
+      if (length < 8 || chars[from + 5] != ':') {
+        return INVALID_TIME;
+      }
+      second = digits(chars, from + 6, 2);
+      if (length > 8) {
+        int fraction = length - 9;
+        if (chars[from + 8] != '.' || fraction < 1 || fraction > 9) {
+          return INVALID_TIME;
+        }
+        int value = digits(chars, from + 9, fraction);
+        if (value < 0) {
+          return INVALID_TIME;
+        }
+        nanos = value;
+        for (int i = fraction; i < 9; i++) {
+          nanos *= 10;
+        }
+      }
+    }
+    if (hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+      return INVALID_TIME;
+    }
+    return ((hour * 60L + minute) * 60 + second) * NANOS_PER_SECOND + nanos;
+  }
+
+  /**
+   * Returns the year of a packed date.
+   *
+   * @param date a date returned by {@link #parseDate}
+   * @return the year
+   */
+  static int year(int date) {
+    return date / 10000;
+  }
+
+  /**
+   * Returns the month of a packed date.
+   *
+   * @param date a date returned by {@link #parseDate}
+   * @return the month, from 1 to 12
+   */
+  static int month(int date) {
+    return date / 100 % 100;
+  }
+
+  /**
+   * Returns the day of month of a packed date.
+   *
+   * @param date a date returned by {@link #parseDate}
+   * @return the day of month
+   */
+  static int day(int date) {
+    return date % 100;
+  }
+
+  /**
+   * Reads a run of decimal digits.
+   *
+   * @param chars the buffer
+   * @param from  the offset of the first digit
+   * @param count the number of digits
+   * @return the value, or -1 if any character is not a digit
+   */
+  private static int digits(char[] chars, int from, int count) {
+    int value = 0;
+    for (int i = from; i < from + count; i++) {
+      char c = chars[i];
+      if (c < '0' || c > '9') {
+        return -1;
+      }
+      value = value * 10 + (c - '0');
+    }
+    return value;
+  }
+
+  /**
+   * Returns the number of days in a month.
+   *
+   * @param year  the year
+   * @param month the month, from 1 to 12
+   * @return the length of the month
+   */
+  private static int monthLength(int year, int month) {
+    switch (month) {
+      case 2:
+        boolean leap = (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+        return leap ? 29 : 28;
+      case 4:
+      case 6:
+      case 9:
+      case 11:
+        return 30;
+      default:
+        return 31;
+    }
+  }
+}
@@ -0,0 +1,432 @@
+package model;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only file of binary records, written by a background thread so that callers
+ * only pay for handing a record over. Records wait in a bounded queue; the writer takes
+ * everything that is waiting, writes it in one go and, depending on the {@link Durability},
+ * forces it to disk with a single fsync for the whole batch.
+ *
+ * <p>Each record is stored as its length, its bytes and a CRC-32 of those bytes. A crash
+ * can leave the last record half written; when the journal is opened again, the records
+ * are read back up to the first one that is incomplete or damaged, and the file is cut
+ * there before new records are added.
+ */
+public final class Journal implements Closeable {
+  /**
+   * How long a caller waits for its record to reach the disk.
+   */
+  public enum Durability {
+    /**
+     * Callers never wait, and the file is only forced to disk by {@link Journal#sync} and
+     * {@link Journal#close}. If the application crashes, only the records still queued are
+     * lost; if the machine crashes, anything not yet synced may be.
+     */
+    ASYNC,
+    /**
+     * Callers never wait; the writer forces every batch to disk as soon as it is written.
+     * A crash loses at most the records still queued or in the batch being written.
+     */
+    GROUP,
+    /**
+     * Callers wait until their record is on disk. Records queued while a batch is being
+     * forced share the next fsync, so the cost is spread over concurrent callers.
+     */
+    SYNC
+  }
+
+  static final int DEFAULT_CAPACITY = 1024;
+
+  private static final int MAGIC = 0x43414C4A;
+  private static final int VERSION = 1;
+  private static final int HEADER_SIZE = 5;
+  private static final int BUFFER_SIZE = 64 * 1024;
+  // queued by close to stop the writer once everything before it is written
+  private static final byte[] STOP = new byte[0];
+
+  private final FileChannel channel;
+  private final Durability durability;
+  private final BlockingQueue<byte[]> queue;
+  private final Thread writer;
+
+  // held while a record is queued, so that records are numbered in queue order
+  private final Object appendLock = new Object();
+  // guarded by appendLock
+  private boolean closed;
+  // guarded by this: records handed to the queue, records written, and the first error
+  private long appended;
+  private long written;
+  private IOException failure;
+
+  /**
+   * Opens a journal for appending, creating the file if needed. The records already in it
+   * are passed to {@code replay} in the order they were appended before anything new can be
+   * added.
+   *
+   * @param file       the journal file
+   * @param durability when records are forced to disk
+   * @param capacity   the number of records that may wait for the writer before callers
+   *                   of {@link #append} are held back
+   * @param replay     receives each record already in the file
+   * @throws IOException              if the file cannot be read or written
+   * @throws IllegalArgumentException if the file is not a journal
+   */
+  Journal(Path file, Durability durability, int capacity, Consumer<byte[]> replay)
+      throws IOException {
+    this.durability = durability;
+    this.queue = new ArrayBlockingQueue<>(capacity);
+    this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+        StandardOpenOption.WRITE);
+    try {
+      long end = replayRecords(replay);
+      // Drop a torn last record so that new records follow the last complete one.
+      channel.truncate(end);
+      channel.position(end);
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+    writer = new Thread(this::writeLoop, "calendar-journal");
+    writer.setDaemon(true);
+    writer.start();
+  }
+
+  /**
+   * Queues a record to be written. Waits if the queue is full, and in {@link Durability#SYNC}
+   * mode until the record is on disk.
+   *
+   * @param record the record's bytes
+   * @throws IllegalStateException if the journal is closed or an earlier write failed
+   */
+  void append(byte[] record) {
+    byte[] frame = frame(record);
+    long sequence;
+    synchronized (appendLock) {
+      checkUsable();
+      try {
+        queue.put(frame);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Interrupted while writing to the journal", e);
+      }
+      synchronized (this) {
+        sequence = ++appended;
+      }
+    }
+    if (durability == Durability.SYNC) {
+      try {
+        awaitWritten(sequence);
+      } catch (IOException e) {
+        throw new IllegalStateException("Journal write failed", e);
+      }
+    }
+  }
+
+  /**
+   * Waits until every record appended so far is written, and forces the file to disk.
+   *
+   * @throws IOException if a record could not be written
+   */
+  public void sync() throws IOException {
+    long target;
+    synchronized (this) {
+      target = appended;
+    }
+    awaitWritten(target);
+    channel.force(false);
+  }
+
+  /**
+   * Discards every record, once they are no longer needed because the state they describe
+   * has been saved elsewhere.
+   *
+   * @throws IOException if the file cannot be truncated
+   */
+  public void reset() throws IOException {
+    synchronized (appendLock) {
+      sync();
+      synchronized (channel) {
+        channel.truncate(HEADER_SIZE);
+        channel.position(HEADER_SIZE);
+        channel.force(false);
+      }
+    }
+  }
+
+  /**
+   * Writes the records still queued, forces them to disk and closes the file. Later appends
+   * fail.
+   *
+   * @throws IOException if a record could not be written
+   */
+  @Override
+  public void close() throws IOException {
+    try {
+      synchronized (appendLock) {
+        if (closed) {
+          return;
+        }
+        closed = true;
+        queue.put(STOP);
+      }
+      writer.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while closing the journal", e);
+    } finally {
+      if (!writer.isAlive()) {
+        try {
+          if (channel.isOpen() && failure() == null) {
+            channel.force(false);
+          }
+        } finally {
+          channel.close();
+        }
+      }
+    }
+    IOException error = failure();
+    if (error != null) {
+      throw error;
+    }
+  }
+
+  /**
+   * Reads the header and the records of an existing file, or writes the header of a new one.
+   *
+   * @param replay receives each complete record
+   * @return the offset just past the last complete record
+   * @throws IOException if the file cannot be read
+   */
+  private long replayRecords(Consumer<byte[]> replay) throws IOException {
+    long size = channel.size();
+    if (size < HEADER_SIZE) {
+      ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).put((byte) VERSION);
+      header.flip();
+      channel.truncate(0);
+      while (header.hasRemaining()) {
+        channel.write(header, header.position());
+      }
+      return HEADER_SIZE;
+    }
+    // Not closed here, since closing the stream would close the channel.
+    InputStream in = new BufferedInputStream(Channels.newInputStream(channel.position(0)),
+        BUFFER_SIZE);
+    DataInputStream data = new DataInputStream(in);
+    if (data.readInt() != MAGIC) {
+      throw new IllegalArgumentException("Not a calendar journal");
+    }
+    int version = data.readUnsignedByte();
+    if (version != VERSION) {
+      throw new IllegalArgumentException("Unsupported journal version: " + version);
+    }
+    long position = HEADER_SIZE;
+    CRC32 crc = new CRC32();
+    while (true) {
+      int length = 0;
+      int lengthBytes = 0;
+      int b;
+      do {
+        b = in.read();
+        if (b < 0 || lengthBytes == 5) {
+          return position;
+        }
+        length |= (b & 0x7F) << (7 * lengthBytes++);
+      } while (b >= 0x80);
+      long end = position + lengthBytes + length + 4L;
+      if (length < 0 || end > size) {
+        return position;
+      }
+      byte[] record = new byte[length];
+      data.readFully(record);
+      crc.reset();
+      crc.update(record, 0, length);
+      if ((int) crc.getValue() != data.readInt()) {
+        return position;
+      }
+      replay.accept(record);
+      position = end;
+    }
+  }
+
+  /**
+   * Adds the length and checksum to a record.
+   *
+   * @param record the record's bytes
+   * @return the bytes to write to the file
+   */
+  private static byte[] frame(byte[] record) {
+    int length = record.length;
+    int lengthBytes = 1;
+    for (int rest = length >>> 7; rest != 0; rest >>>= 7) {
+      lengthBytes++;
+    }
+    CRC32 crc = new CRC32();
+    crc.update(record, 0, length);
+    ByteBuffer frame = ByteBuffer.allocate(lengthBytes + length + 4);
+    int value = length;
+    while ((value & ~0x7F) != 0) {
+      frame.put((byte) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    frame.put((byte) value);
+    frame.put(record);
+    frame.putInt((int) crc.getValue());
+    return frame.array();
+  }
+
+  /**
+   * Runs on the writer thread: takes every record waiting in the queue, writes them as one
+   * batch and forces them to disk unless the journal is {@link Durability#ASYNC}.
+   */
+  private void writeLoop() {
+    List<byte[]> batch = new ArrayList<>();
+    ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    boolean stopping = false;
+    while (!stopping) {
+      try {
+        batch.add(queue.take());
+      } catch (InterruptedException e) {
+        // Only close stops the writer, so that queued records are never dropped.
+        continue;
+      }
+      queue.drainTo(batch);
+      int count = batch.size();
+      if (batch.get(count - 1) == STOP) {
+        stopping = true;
+        count--;
+      }
+      IOException error = null;
+      if (failure() == null) {
+        try {
+          synchronized (channel) {
+            writeBatch(batch, count, buffer);
+            if (durability != Durability.ASYNC && count > 0) {
+              channel.force(false);
+            }
+          }
+        } catch (IOException e) {
+          error = e;
+        }
+      }
+      synchronized (this) {
+        if (error != null && failure == null) {
+          failure = error;
+        }
+        written += count;
+        notifyAll();
+      }
+      batch.clear();
+    }
+  }
+
+  /**
+   * Writes records to the end of the file through a buffer.
+   *
+   * @param batch  the records
+   * @param count  how many of them to write
+   * @param buffer the buffer to copy small records into
+   * @throws IOException if the file cannot be written
+   */
+  private void writeBatch(List<byte[]> batch, int count, ByteBuffer buffer) throws IOException {
+    buffer.clear();
+    for (int i = 0; i < count; i++) {
+      byte[] frame = batch.get(i);
+      if (frame.length > buffer.remaining()) {
+        flush(buffer);
+        if (frame.length > buffer.capacity()) {
+          writeFully(ByteBuffer.wrap(frame));
+          continue;
+        }
+      }
+      buffer.put(frame);
+    }
+    flush(buffer);
+  }
+
+  /**
+   * Writes what has been put in a buffer to the file and clears it.
+   *
+   * @param buffer the buffer, ready for more puts
+   * @throws IOException if the file cannot be written
+   */
+  private void flush(ByteBuffer buffer) throws IOException {
+    buffer.flip();
+    writeFully(buffer);
+    buffer.clear();
+  }
+
+  /**
+   * Writes the remaining bytes of a buffer to the end of the file.
+   *
+   * @param buffer the bytes to write
+   * @throws IOException if the file cannot be written
+   */
+  private void writeFully(ByteBuffer buffer) throws IOException {
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+  }
+
+  /**
+   * Waits until the writer has handled the given number of records.
+   *
+   * @param sequence the number of records that must have been written
+   * @throws IOException if the writer failed
+   */
+  private synchronized void awaitWritten(long sequence) throws IOException {
+    boolean interrupted = false;
+    while (written < sequence && failure == null) {
+      try {
+        wait();
+      } catch (InterruptedException e) {
+        interrupted = true;
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  /**
+   * Returns the first error the writer ran into.
+   *
+   * @return the error, or {@code null} if every write succeeded
+   */
+  private synchronized IOException failure() {
+    return failure;
+  }
+
+  /**
+   * Checks that records can still be appended.
+   *
+   * @throws IllegalStateException if the journal is closed or a write failed
+   */
+  private void checkUsable() {
+    if (closed) {
+      throw new IllegalStateException("Journal is closed");
+    }
+    IOException error = failure();
+    if (error != null) {
+      throw new IllegalStateException("Journal write failed", error);
+    }
+  }
+}
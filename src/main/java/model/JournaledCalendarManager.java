@@ -0,0 +1,820 @@
+package model;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A calendar manager that records every change to its calendars in a {@link Journal}, so
+ * that the changes made since the last save survive a crash. Each call that changes the
+ * calendars, through this manager or through the calendars it returns, is written as one
+ * compact binary record: which operation it was and its arguments. Opening the journal
+ * again replays those calls, in order, on the calendars they were first made on.
+ *
+ * <p>Calls are replayed rather than their effects stored, so only calls that succeed are
+ * recorded; a failed call changes nothing. Events added by a CSV import are recorded as the
+ * events themselves, so replay does not need the file, and since an import keeps the rows
+ * it read before a failure, they are recorded even then. A batch of events is recorded as a
+ * whole when it is committed, so that replay adds all of its events or none.
+ *
+ * <p>Calendars reached through {@link #getAllCalendars} and {@link #getAllCalendarsMap} are
+ * the manager's own and are meant for reading; changes made through them are not recorded.
+ */
+public class JournaledCalendarManager implements ICalendarManager, Closeable {
+  // record types
+  private static final int CREATE_CALENDAR = 1;
+  private static final int EDIT_CALENDAR = 2;
+  private static final int USE_CALENDAR = 3;
+  private static final int ADD_EVENT = 4;
+  private static final int ADD_EVENTS = 5;
+  private static final int ADD_RECURRING_EVENT = 6;
+  private static final int EDIT_EVENT = 7;
+  private static final int EDIT_EVENTS = 8;
+  private static final int EDIT_ALL_EVENTS = 9;
+  private static final int COPY_EVENT = 10;
+  private static final int COPY_EVENTS_ON = 11;
+  private static final int COPY_EVENTS_BETWEEN = 12;
+  private static final int ADD_BATCH = 13;
+  private static final int COPY_EVENT_FROM = 14;
+  private static final int COPY_EVENTS_ON_FROM = 15;
+  private static final int COPY_EVENTS_BETWEEN_FROM = 16;
+
+  // imported events are recorded in groups of this many
+  private static final int EVENTS_PER_RECORD = 4096;
+
+  private final CalendarManager model;
+  private final Journal journal;
+  // wrappers handed out for the manager's calendars, so each calendar keeps one
+  private final Map<ICalendar, JournaledCalendar> wrappers;
+
+  /**
+   * Constructs a manager around the given calendars and journal.
+   *
+   * @param model   the calendars
+   * @param journal where changes are recorded
+   */
+  private JournaledCalendarManager(CalendarManager model, Journal journal) {
+    this.model = model;
+    this.journal = journal;
+    this.wrappers = new IdentityHashMap<>();
+  }
+
+  /**
+   * Opens a journal, replays the changes recorded in it on the given calendars, and returns
+   * a manager that records further changes to it. The calendars should be in the state they
+   * were in when the journal was started or last reset, for example freshly loaded from the
+   * snapshot saved by {@link #checkpoint}.
+   *
+   * @param model      the calendars to replay the journal on and to manage
+   * @param filename   the journal file, created if it does not exist
+   * @param durability when records are forced to disk
+   * @return the journaled manager
+   * @throws IOException              if the journal cannot be read or written
+   * @throws IllegalArgumentException if the file is not a journal
+   */
+  public static JournaledCalendarManager open(CalendarManager model, String filename,
+                                              Journal.Durability durability)
+      throws IOException {
+    return open(model, filename, durability, Journal.DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Opens a journal as {@link #open(CalendarManager, String, Journal.Durability)} does, with
+   * a given limit on the records waiting to be written.
+   *
+   * @param model      the calendars to replay the journal on and to manage
+   * @param filename   the journal file, created if it does not exist
+   * @param durability when records are forced to disk
+   * @param capacity   the number of records that may wait for the writer
+   * @return the journaled manager
+   * @throws IOException if the journal cannot be read or written
+   */
+  static JournaledCalendarManager open(CalendarManager model, String filename,
+                                       Journal.Durability durability, int capacity)
+      throws IOException {
+    Journal journal = new Journal(Paths.get(filename), durability, capacity,
+        record -> replay(model, record));
+    return new JournaledCalendarManager(model, journal);
+  }
+
+  /**
+   * Returns the calendars this manager changes.
+   *
+   * @return the underlying manager
+   */
+  public CalendarManager getModel() {
+    return model;
+  }
+
+  /**
+   * Saves a snapshot of the calendars and then empties the journal, since the snapshot now
+   * holds everything it recorded. If the snapshot cannot be saved, the journal is kept.
+   *
+   * @param snapshotFilename the snapshot file to write
+   * @throws IOException if the snapshot or the journal cannot be written
+   */
+  public void checkpoint(String snapshotFilename) throws IOException {
+    journal.sync();
+    model.saveSnapshot(snapshotFilename);
+    journal.reset();
+  }
+
+  /**
+   * Saves a snapshot as {@link #checkpoint(String)} does, but remembers the given calendar
+   * as the one in use rather than the manager's. Used to save the calendar a
+   * {@link CalendarSession} has in use.
+   *
+   * @param snapshotFilename    the snapshot file to write
+   * @param currentCalendarName the calendar to remember as in use, or null for none
+   * @throws IOException              if the snapshot or the journal cannot be written
+   * @throws IllegalArgumentException if there is no such calendar
+   */
+  public void checkpoint(String snapshotFilename, String currentCalendarName)
+      throws IOException {
+    journal.sync();
+    model.saveSnapshot(snapshotFilename, currentCalendarName);
+    journal.reset();
+  }
+
+  /**
+   * Waits until every change made so far is on disk.
+   *
+   * @throws IOException if the journal cannot be written
+   */
+  public void sync() throws IOException {
+    journal.sync();
+  }
+
+  /**
+   * Writes the remaining changes and closes the journal. The calendars can still be read,
+   * but can no longer be changed through this manager.
+   *
+   * @throws IOException if the journal cannot be written
+   */
+  @Override
+  public void close() throws IOException {
+    journal.close();
+  }
+
+  @Override
+  public boolean createCalendar(String name, String timezone) {
+    boolean created = model.createCalendar(name, timezone);
+    append(new RecordWriter(CREATE_CALENDAR).string(name).string(timezone));
+    return created;
+  }
+
+  @Override
+  public boolean editCalendar(String calendarName, String property, String newValue) {
+    boolean edited = model.editCalendar(calendarName, property, newValue);
+    if (edited) {
+      append(new RecordWriter(EDIT_CALENDAR).string(calendarName).string(property)
+          .string(newValue));
+    }
+    return edited;
+  }
+
+  @Override
+  public boolean useCalendar(String name) {
+    boolean used = model.useCalendar(name);
+    append(new RecordWriter(USE_CALENDAR).string(name));
+    return used;
+  }
+
+  @Override
+  public ICalendar getCurrentCalendar() {
+    return wrap(model.getCurrentCalendar());
+  }
+
+  @Override
+  public ICalendar getCalendar(String name) {
+    return wrap(model.getCalendar(name));
+  }
+
+  @Override
+  public Collection<Calendar> getAllCalendars() {
+    return model.getAllCalendars();
+  }
+
+  @Override
+  public Map<String, Calendar> getAllCalendarsMap() {
+    return model.getAllCalendarsMap();
+  }
+
+  @Override
+  public boolean copyEvent(String eventName, LocalDateTime eventStart,
+                           String targetCalendarName, LocalDateTime newTargetStart) {
+    boolean copied = model.copyEvent(eventName, eventStart, targetCalendarName,
+        newTargetStart);
+    append(new RecordWriter(COPY_EVENT).string(eventName).dateTime(eventStart)
+        .string(targetCalendarName).dateTime(newTargetStart));
+    return copied;
+  }
+
+  @Override
+  public boolean copyEventsOn(LocalDate sourceDate, String targetCalendarName,
+                              LocalDate targetDate) {
+    boolean copied = model.copyEventsOn(sourceDate, targetCalendarName, targetDate);
+    append(new RecordWriter(COPY_EVENTS_ON).date(sourceDate).string(targetCalendarName)
+        .date(targetDate));
+    return copied;
+  }
+
+  @Override
+  public boolean copyEventsBetween(LocalDate sourceStartDate, LocalDate sourceEndDate,
+                                   String targetCalendarName, LocalDate targetStartDate) {
+    boolean copied = model.copyEventsBetween(sourceStartDate, sourceEndDate,
+        targetCalendarName, targetStartDate);
+    append(new RecordWriter(COPY_EVENTS_BETWEEN).date(sourceStartDate).date(sourceEndDate)
+        .string(targetCalendarName).date(targetStartDate));
+    return copied;
+  }
+
+  @Override
+  public boolean copyEvent(String sourceCalendarName, String eventName, LocalDateTime eventStart,
+                           String targetCalendarName, LocalDateTime newTargetStart) {
+    boolean copied = model.copyEvent(sourceCalendarName, eventName, eventStart,
+        targetCalendarName, newTargetStart);
+    append(new RecordWriter(COPY_EVENT_FROM).string(sourceCalendarName).string(eventName)
+        .dateTime(eventStart).string(targetCalendarName).dateTime(newTargetStart));
+    return copied;
+  }
+
+  @Override
+  public boolean copyEventsOn(String sourceCalendarName, LocalDate sourceDate,
+                              String targetCalendarName, LocalDate targetDate) {
+    boolean copied = model.copyEventsOn(sourceCalendarName, sourceDate, targetCalendarName,
+        targetDate);
+    append(new RecordWriter(COPY_EVENTS_ON_FROM).string(sourceCalendarName).date(sourceDate)
+        .string(targetCalendarName).date(targetDate));
+    return copied;
+  }
+
+  @Override
+  public boolean copyEventsBetween(String sourceCalendarName, LocalDate sourceStartDate,
+                                   LocalDate sourceEndDate, String targetCalendarName,
+                                   LocalDate targetStartDate) {
+    boolean copied = model.copyEventsBetween(sourceCalendarName, sourceStartDate,
+        sourceEndDate, targetCalendarName, targetStartDate);
+    append(new RecordWriter(COPY_EVENTS_BETWEEN_FROM).string(sourceCalendarName)
+        .date(sourceStartDate).date(sourceEndDate).string(targetCalendarName)
+        .date(targetStartDate));
+    return copied;
+  }
+
+  /**
+   * Returns the recording wrapper for one of the manager's calendars.
+   *
+   * @param calendar the calendar, may be {@code null}
+   * @return its wrapper, or {@code null} if there is no calendar
+   */
+  private ICalendar wrap(ICalendar calendar) {
+    if (calendar == null) {
+      return null;
+    }
+    return wrappers.computeIfAbsent(calendar, c -> new JournaledCalendar((Calendar) c));
+  }
+
+  /**
+   * Hands a finished record to the journal.
+   *
+   * @param record the record
+   */
+  private void append(RecordWriter record) {
+    journal.append(record.toByteArray());
+  }
+
+  /**
+   * Applies one recorded call to the calendars.
+   *
+   * @param model  the calendars
+   * @param record the record
+   */
+  private static void replay(CalendarManager model, byte[] record) {
+    RecordReader in = new RecordReader(record);
+    int type = in.type();
+    switch (type) {
+      case CREATE_CALENDAR:
+        model.createCalendar(in.string(), in.string());
+        break;
+      case EDIT_CALENDAR:
+        model.editCalendar(in.string(), in.string(), in.string());
+        break;
+      case USE_CALENDAR:
+        model.useCalendar(in.string());
+        break;
+      case ADD_EVENT: {
+        ICalendar calendar = calendarOf(model, in.string());
+        boolean autoDecline = in.flag();
+        calendar.addEvent(in.event(), autoDecline);
+        break;
+      }
+      case ADD_EVENTS: {
+        ICalendar calendar = calendarOf(model, in.string());
+        for (int i = in.count(); i > 0; i--) {
+          calendar.addEvent(in.event(), false);
+        }
+        break;
+      }
+      case ADD_RECURRING_EVENT: {
+        ICalendar calendar = calendarOf(model, in.string());
+        boolean autoDecline = in.flag();
+        calendar.addRecurringEvent(in.recurringEvent(), autoDecline);
+        break;
+      }
+      case EDIT_EVENT:
+        calendarOf(model, in.string()).editEvent(in.string(), in.string(), in.dateTime(),
+            in.dateTime(), in.string());
+        break;
+      case EDIT_EVENTS:
+        calendarOf(model, in.string()).editEvents(in.string(), in.string(), in.dateTime(),
+            in.string());
+        break;
+      case EDIT_ALL_EVENTS:
+        calendarOf(model, in.string()).editAllEvents(in.string(), in.string(), in.string());
+        break;
+      case COPY_EVENT:
+        model.copyEvent(in.string(), in.dateTime(), in.string(), in.dateTime());
+        break;
+      case COPY_EVENTS_ON:
+        model.copyEventsOn(in.date(), in.string(), in.date());
+        break;
+      case COPY_EVENTS_BETWEEN:
+        model.copyEventsBetween(in.date(), in.date(), in.string(), in.date());
+        break;
+      case COPY_EVENT_FROM:
+        model.copyEvent(in.string(), in.string(), in.dateTime(), in.string(), in.dateTime());
+        break;
+      case COPY_EVENTS_ON_FROM:
+        model.copyEventsOn(in.string(), in.date(), in.string(), in.date());
+        break;
+      case COPY_EVENTS_BETWEEN_FROM:
+        model.copyEventsBetween(in.string(), in.date(), in.date(), in.string(), in.date());
+        break;
+      case ADD_BATCH: {
+        ICalendar calendar = calendarOf(model, in.string());
+        calendar.beginBatch();
+        for (int i = in.count(); i > 0; i--) {
+          boolean autoDecline = in.flag();
+          calendar.addEvent(in.event(), autoDecline);
+        }
+        calendar.commit();
+        break;
+      }
+      default:
+        throw new IllegalArgumentException("Unknown journal record type: " + type);
+    }
+  }
+
+  /**
+   * Looks up the calendar a recorded call was made on.
+   *
+   * @param model the calendars
+   * @param name  the calendar's name when the call was made
+   * @return the calendar
+   * @throws IllegalArgumentException if there is no such calendar
+   */
+  private static ICalendar calendarOf(CalendarManager model, String name) {
+    ICalendar calendar = model.getCalendar(name);
+    if (calendar == null) {
+      throw new IllegalArgumentException("Journal refers to a missing calendar: " + name);
+    }
+    return calendar;
+  }
+
+  /**
+   * A calendar that records the changes made through it before returning.
+   */
+  private final class JournaledCalendar implements ICalendar {
+    private final Calendar calendar;
+    // events queued in the open batch and whether each asked for auto-decline, or null
+    // when no batch is open
+    private List<Event> pending;
+    private BitSet pendingChecks;
+
+    /**
+     * Constructs a wrapper around one of the manager's calendars.
+     *
+     * @param calendar the calendar
+     */
+    private JournaledCalendar(Calendar calendar) {
+      this.calendar = calendar;
+    }
+
+    @Override
+    public void addEvent(AbstractEvent event, boolean autoDecline) {
+      if (!(event instanceof Event)) {
+        calendar.addEvent(event, autoDecline);
+        return;
+      }
+      if (pending != null) {
+        calendar.addEvent(event, autoDecline);
+        pendingChecks.set(pending.size(), autoDecline);
+        pending.add((Event) event);
+        return;
+      }
+      // Take the details before the calendar pools and attaches the event.
+      RecordWriter record = new RecordWriter(ADD_EVENT).string(calendar.getName())
+          .flag(autoDecline).event(event);
+      calendar.addEvent(event, autoDecline);
+      append(record);
+    }
+
+    @Override
+    public void addEvents(Collection<AbstractEvent> events, boolean autoDecline) {
+      if (pending != null) {
+        for (AbstractEvent event : events) {
+          addEvent(event, autoDecline);
+        }
+        return;
+      }
+      List<Event> batch = new ArrayList<>(events.size());
+      for (AbstractEvent event : events) {
+        if (event instanceof Event) {
+          batch.add((Event) event);
+        }
+      }
+      BitSet checks = new BitSet(batch.size());
+      if (autoDecline) {
+        checks.set(0, batch.size());
+      }
+      RecordWriter record = batchRecord(batch, checks);
+      calendar.addEvents(events, autoDecline);
+      append(record);
+    }
+
+    @Override
+    public void beginBatch() {
+      calendar.beginBatch();
+      pending = new ArrayList<>();
+      pendingChecks = new BitSet();
+    }
+
+    @Override
+    public void commit() {
+      if (pending == null) {
+        calendar.commit();
+        return;
+      }
+      RecordWriter record = batchRecord(pending, pendingChecks);
+      pending = null;
+      pendingChecks = null;
+      calendar.commit();
+      append(record);
+    }
+
+    /**
+     * Records a batch of events as one record, so that replaying it adds all of them or
+     * none, as the call did. Taken before the calendar pools and attaches the events.
+     *
+     * @param batch  the events
+     * @param checks the positions of the events added with auto-decline
+     * @return the record
+     */
+    private RecordWriter batchRecord(List<Event> batch, BitSet checks) {
+      RecordWriter record = new RecordWriter(ADD_BATCH).string(calendar.getName())
+          .count(batch.size());
+      for (int i = 0; i < batch.size(); i++) {
+        record.flag(checks.get(i)).event(batch.get(i));
+      }
+      return record;
+    }
+
+    @Override
+    public void addRecurringEvent(RecurringEvent recurringEvent, boolean autoDecline) {
+      RecordWriter record = new RecordWriter(ADD_RECURRING_EVENT).string(calendar.getName())
+          .flag(autoDecline).recurringEvent(recurringEvent);
+      calendar.addRecurringEvent(recurringEvent, autoDecline);
+      append(record);
+    }
+
+    @Override
+    public List<AbstractEvent> getEventsOnDate(LocalDate date) {
+      return calendar.getEventsOnDate(date);
+    }
+
+    @Override
+    public List<AbstractEvent> getEventsBetween(LocalDateTime start, LocalDateTime end) {
+      return calendar.getEventsBetween(start, end);
+    }
+
+    @Override
+    public boolean isBusyAt(LocalDateTime time) {
+      return calendar.isBusyAt(time);
+    }
+
+    @Override
+    public AbstractEvent findEvent(String eventName, LocalDateTime startTime) {
+      return calendar.findEvent(eventName, startTime);
+    }
+
+    @Override
+    public String exportToCSV(String filename) throws IOException {
+      return calendar.exportToCSV(filename);
+    }
+
+    @Override
+    public int importFromCSV(String filename) throws IOException {
+      return importFromCSV(filename, null);
+    }
+
+    @Override
+    public int importFromCSV(String filename, ImportProgress progress) throws IOException {
+      int before = calendar.storedEvents().size();
+      try {
+        return progress == null ? calendar.importFromCSV(filename)
+            : calendar.importFromCSV(filename, progress);
+      } finally {
+        // Imported events are appended, so the new ones are at the end.
+        List<Event> added = calendar.storedEvents();
+        for (int from = before; from < added.size(); from += EVENTS_PER_RECORD) {
+          int to = Math.min(added.size(), from + EVENTS_PER_RECORD);
+          RecordWriter record = new RecordWriter(ADD_EVENTS).string(calendar.getName())
+              .count(to - from);
+          for (Event event : added.subList(from, to)) {
+            record.event(event);
+          }
+          append(record);
+        }
+      }
+    }
+
+    @Override
+    public boolean editEvent(String property, String eventName, LocalDateTime startTime,
+                             LocalDateTime endTime, String newValue) {
+      String name = calendar.getName();
+      boolean edited = calendar.editEvent(property, eventName, startTime, endTime, newValue);
+      if (edited) {
+        append(new RecordWriter(EDIT_EVENT).string(name).string(property).string(eventName)
+            .dateTime(startTime).dateTime(endTime).string(newValue));
+      }
+      return edited;
+    }
+
+    @Override
+    public boolean editEvents(String property, String eventName, LocalDateTime startTime,
+                              String newValue) {
+      String name = calendar.getName();
+      boolean edited = calendar.editEvents(property, eventName, startTime, newValue);
+      if (edited) {
+        append(new RecordWriter(EDIT_EVENTS).string(name).string(property).string(eventName)
+            .dateTime(startTime).string(newValue));
+      }
+      return edited;
+    }
+
+    @Override
+    public boolean editAllEvents(String property, String eventName, String newValue) {
+      String name = calendar.getName();
+      boolean edited = calendar.editAllEvents(property, eventName, newValue);
+      if (edited) {
+        append(new RecordWriter(EDIT_ALL_EVENTS).string(name).string(property)
+            .string(eventName).string(newValue));
+      }
+      return edited;
+    }
+
+    @Override
+    public ZoneId getTimezone() {
+      return calendar.getTimezone();
+    }
+
+    @Override
+    public List<Event> getAllEventsList() {
+      return calendar.getAllEventsList();
+    }
+
+    @Override
+    public String getName() {
+      return calendar.getName();
+    }
+  }
+
+  /**
+   * Builds one record. Numbers are written as variable-length integers, strings as their
+   * UTF-8 length and bytes, and date-times as seconds and nanoseconds.
+   */
+  private static final class RecordWriter {
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(64);
+
+    /**
+     * Starts a record of the given type.
+     *
+     * @param type one of the record type constants
+     */
+    private RecordWriter(int type) {
+      out.write(type);
+    }
+
+    private RecordWriter flag(boolean value) {
+      out.write(value ? 1 : 0);
+      return this;
+    }
+
+    private RecordWriter count(int value) {
+      return varLong(value);
+    }
+
+    private RecordWriter varLong(long value) {
+      while ((value & ~0x7FL) != 0) {
+        out.write((int) ((value & 0x7F) | 0x80));
+        value >>>= 7;
+      }
+      out.write((int) value);
+      return this;
+    }
+
+    private RecordWriter signedVarLong(long value) {
+      return varLong((value << 1) ^ (value >> 63));
+    }
+
+    /**
+     * Writes a string, which may be {@code null}, as its length plus one and its bytes.
+     */
+    private RecordWriter string(String value) {
+      if (value == null) {
+        return varLong(0);
+      }
+      byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+      varLong(bytes.length + 1L);
+      out.write(bytes, 0, bytes.length);
+      return this;
+    }
+
+    private RecordWriter date(LocalDate value) {
+      return signedVarLong(value.toEpochDay());
+    }
+
+    /**
+     * Writes a date-time, which may be {@code null}, behind a presence flag.
+     */
+    private RecordWriter dateTime(LocalDateTime value) {
+      flag(value != null);
+      if (value != null) {
+        signedVarLong(value.toEpochSecond(ZoneOffset.UTC));
+        varLong(value.getNano());
+      }
+      return this;
+    }
+
+    private RecordWriter event(AbstractEvent event) {
+      return string(event.getTitle()).dateTime(event.getStart()).dateTime(event.getEnd())
+          .string(event.getDescription()).string(event.getLocation()).flag(event.isPublic());
+    }
+
+    /**
+     * Writes a recurrence rule in its stored form, so it can be rebuilt exactly.
+     */
+    private RecordWriter recurringEvent(RecurringEvent rule) {
+      event(rule);
+      Set<DayOfWeek> days = rule.getRecurrenceDays();
+      int mask = 0;
+      if (days != null) {
+        for (DayOfWeek day : days) {
+          mask |= 1 << (day.getValue() - 1);
+        }
+        // the top bit tells an empty set from no set
+        mask |= 0x80;
+      }
+      out.write(mask);
+      flag(rule.getOccurrences() != null);
+      if (rule.getOccurrences() != null) {
+        signedVarLong(rule.getOccurrences());
+      }
+      flag(rule.getUntil() != null);
+      if (rule.getUntil() != null) {
+        date(rule.getUntil());
+      }
+      return this;
+    }
+
+    private byte[] toByteArray() {
+      return out.toByteArray();
+    }
+  }
+
+  /**
+   * Reads back the values of a record in the order {@link RecordWriter} wrote them.
+   */
+  private static final class RecordReader {
+    private final byte[] record;
+    private int position;
+
+    private RecordReader(byte[] record) {
+      this.record = record;
+    }
+
+    private int readByte() {
+      if (position == record.length) {
+        throw new IllegalArgumentException("Journal record is too short");
+      }
+      return record[position++] & 0xFF;
+    }
+
+    private int type() {
+      return readByte();
+    }
+
+    private boolean flag() {
+      return readByte() != 0;
+    }
+
+    private int count() {
+      long value = varLong();
+      if (value > Integer.MAX_VALUE) {
+        throw new IllegalArgumentException("Journal record count out of range");
+      }
+      return (int) value;
+    }
+
+    private long varLong() {
+      long value = 0;
+      for (int shift = 0; shift < 64; shift += 7) {
+        int b = readByte();
+        value |= (long) (b & 0x7F) << shift;
+        if (b < 0x80) {
+          return value;
+        }
+      }
+      throw new IllegalArgumentException("Malformed number in journal record");
+    }
+
+    private long signedVarLong() {
+      long value = varLong();
+      return (value >>> 1) ^ -(value & 1);
+    }
+
+    private String string() {
+      long length = varLong();
+      if (length == 0) {
+        return null;
+      }
+      if (length - 1 > record.length - position) {
+        throw new IllegalArgumentException("Journal record is too short");
+      }
+      String value = new String(record, position, (int) (length - 1), StandardCharsets.UTF_8);
+      position += (int) (length - 1);
+      return value;
+    }
+
+    private LocalDate date() {
+      return LocalDate.ofEpochDay(signedVarLong());
+    }
+
+    private LocalDateTime dateTime() {
+      if (!flag()) {
+        return null;
+      }
+      long seconds = signedVarLong();
+      return LocalDateTime.ofEpochSecond(seconds, (int) varLong(), ZoneOffset.UTC);
+    }
+
+    private Event event() {
+      String title = string();
+      LocalDateTime start = dateTime();
+      LocalDateTime end = dateTime();
+      String description = string();
+      String location = string();
+      boolean isPublic = flag();
+      return end == null ? new Event(title, start, description, location, isPublic)
+          : new Event(title, start, end, description, location, isPublic);
+    }
+
+    private RecurringEvent recurringEvent() {
+      String title = string();
+      LocalDateTime start = dateTime();
+      LocalDateTime end = dateTime();
+      String description = string();
+      String location = string();
+      boolean isPublic = flag();
+      int mask = readByte();
+      Set<DayOfWeek> days = null;
+      if (mask != 0) {
+        days = EnumSet.noneOf(DayOfWeek.class);
+        for (DayOfWeek day : DayOfWeek.values()) {
+          if ((mask & (1 << (day.getValue() - 1))) != 0) {
+            days.add(day);
+          }
+        }
+      }
+      Integer occurrences = flag() ? (int) signedVarLong() : null;
+      LocalDate until = flag() ? date() : null;
+      return new RecurringEvent(title, start, end, description, location, isPublic, days,
+          occurrences, until);
+    }
+  }
+}
@@ -0,0 +1,751 @@
+package model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.ZoneId;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+
+/**
+ * A calendar whose events live outside the Java heap, in memory-mapped files in a
+ * directory of their own. Events are fixed-width records, their strings sit in a separate
+ * append-only arena, and a third file lists the records in time order so that queries are
+ * answered from the mappings directly. Records spanning more than two days, which a query
+ * could not find by looking back a bounded time, are listed in a fourth file instead.
+ * Because everything is in the files, a calendar can be reopened with {@link #open} without
+ * reading its events back in.
+ *
+ * <p>The time-ordered index is a large sorted run followed by a short tail that new and moved
+ * records are appended to. The tail is kept in time order on the heap as well, so that it
+ * is searched without sorting the file, and is read back from the file on {@link #open}.
+ * Records leaving the large run are only marked as gone. Once the tail or the marks grow
+ * too many, the tail is merged into the run in one pass, so adding a record costs a
+ * logarithmic insert into the tail plus a small share of the merges.
+ *
+ * <p>Changes are written to the mappings straight away; {@link #close} also forces them to
+ * disk. Edited strings are appended to the arena and the old bytes are not reclaimed, which
+ * suits calendars that are mostly archival.
+ */
+public class MappedCalendar extends RowCalendar implements Closeable {
+  static final String EVENTS_FILE = "events.dat";
+  static final String INDEX_FILE = "index.dat";
+  static final String STRINGS_FILE = "strings.dat";
+  static final String LONG_FILE = "long.dat";
+
+  private static final int MAGIC = 0x43414C45;
+  private static final int VERSION = 2;
+  private static final int NULL_REF = -1;
+  private static final int INITIAL_RECORDS = 1024;
+  private static final int INITIAL_LONG_RECORDS = 64;
+  private static final int INITIAL_ARENA = 64 * 1024;
+  // records spanning longer than this, or ending before they start, are listed apart
+  private static final long MAX_INDEXED_SPAN_SECONDS = 2 * 86_400L;
+  // the tail is merged once it, or the gone entries, number more than this or an eighth of
+  // the large run, but the tail never grows past MAX_TAIL
+  private static final int MERGE_THRESHOLD = 1024;
+  private static final int MAX_TAIL = 64 * 1024;
+  private static final Comparator<TailEntry> TAIL_ORDER =
+      Comparator.<TailEntry>comparingLong(entry -> entry.key).thenComparingInt(entry -> entry.row);
+
+  // header of the events file
+  private static final int COUNT_OFFSET = 8;
+  private static final int SORTED_OFFSET = 12;
+  private static final int TAIL_OFFSET = 16;
+  private static final int GONE_OFFSET = 20;
+  private static final int ARENA_SIZE_OFFSET = 24;
+  private static final int LONG_COUNT_OFFSET = 28;
+  private static final int NAME_OFFSET = 32;
+  private static final int ZONE_OFFSET = 36;
+  private static final int HEADER_SIZE = 64;
+
+  // fields of an index entry: the record's low time when it was indexed, and the record,
+  // or GONE once it has left the large run
+  private static final int KEY = 0;
+  private static final int ROW = 8;
+  private static final int ENTRY_SIZE = 12;
+  private static final int GONE = -1;
+
+  // fields of an event record
+  private static final int START = 0;
+  private static final int END = 8;
+  private static final int TITLE = 16;
+  private static final int DESCRIPTION = 20;
+  private static final int LOCATION = 24;
+  private static final int FLAGS = 28;
+  private static final int RECORD_SIZE = 32;
+
+  private static final byte ALL_DAY = 1;
+  private static final byte PUBLIC = 2;
+  // RowCalendar's skipped bits, shifted past the flags above
+  private static final int SKIPPED_SHIFT = 2;
+  private static final int SKIPPED = (START_SKIPPED | END_SKIPPED) << SKIPPED_SHIFT;
+
+  private final FileChannel eventsChannel;
+  private final FileChannel indexChannel;
+  private final FileChannel stringsChannel;
+  private final FileChannel longChannel;
+  private MappedByteBuffer events;
+  private MappedByteBuffer index;
+  private MappedByteBuffer strings;
+  private MappedByteBuffer longRows;
+
+  private int count;
+  // entries in the large run, including gone ones, followed by the tail in the order added
+  private int sorted;
+  private int tail;
+  // the tail's entries in time order, and by record
+  private final TreeSet<TailEntry> tailOrder;
+  private final Map<Integer, TailEntry> tailEntries;
+  private int gone;
+  private int longCount;
+  private int arenaSize;
+  // strings written since the calendar was opened, so repeats share one arena entry
+  private final Map<String, Integer> written;
+
+  /**
+   * An entry of the index tail: the record's low time when it was indexed, the record, and
+   * where the entry is in the index file.
+   */
+  private static final class TailEntry {
+    private final long key;
+    private final int row;
+    private int position;
+
+    private TailEntry(long key, int row, int position) {
+      this.key = key;
+      this.row = row;
+      this.position = position;
+    }
+  }
+
+  /**
+   * Creates a new, empty calendar in the given directory, replacing any calendar files
+   * already there.
+   *
+   * @param name      unique calendar name
+   * @param tzString  timezone in IANA format (e.g., "America/New_York")
+   * @param directory the directory to keep the calendar's files in
+   * @throws IOException if the files cannot be created
+   */
+  public MappedCalendar(String name, String tzString, Path directory) throws IOException {
+    super(name, ZoneId.of(tzString));
+    Files.createDirectories(directory);
+    eventsChannel = openChannel(directory.resolve(EVENTS_FILE), true);
+    indexChannel = openChannel(directory.resolve(INDEX_FILE), true);
+    stringsChannel = openChannel(directory.resolve(STRINGS_FILE), true);
+    longChannel = openChannel(directory.resolve(LONG_FILE), true);
+    events = eventsChannel.map(FileChannel.MapMode.READ_WRITE, 0,
+        HEADER_SIZE + (long) INITIAL_RECORDS * RECORD_SIZE);
+    index = indexChannel.map(FileChannel.MapMode.READ_WRITE, 0,
+        (long) ENTRY_SIZE * INITIAL_RECORDS);
+    strings = stringsChannel.map(FileChannel.MapMode.READ_WRITE, 0, INITIAL_ARENA);
+    longRows = longChannel.map(FileChannel.MapMode.READ_WRITE, 0, 4L * INITIAL_LONG_RECORDS);
+    written = new HashMap<>();
+    tailOrder = new TreeSet<>(TAIL_ORDER);
+    tailEntries = new HashMap<>();
+
+    events.putInt(0, MAGIC);
+    events.putInt(4, VERSION);
+    events.putInt(COUNT_OFFSET, 0);
+    events.putInt(SORTED_OFFSET, 0);
+    events.putInt(TAIL_OFFSET, 0);
+    events.putInt(GONE_OFFSET, 0);
+    events.putInt(LONG_COUNT_OFFSET, 0);
+    events.putInt(NAME_OFFSET, writeString(name));
+    events.putInt(ZONE_OFFSET, writeString(tzString));
+  }
+
+  /**
+   * Wraps the files of a calendar opened by {@link #open}.
+   *
+   * @param name           the calendar name read from the files
+   * @param timezone       the calendar timezone read from the files
+   * @param eventsChannel  the events file
+   * @param events         the mapped events file
+   * @param indexChannel   the index file
+   * @param stringsChannel the arena file
+   * @param strings        the mapped arena file
+   * @param longChannel    the file listing long records
+   * @throws IOException if the index or the long records cannot be mapped
+   */
+  private MappedCalendar(String name, ZoneId timezone, FileChannel eventsChannel,
+                         MappedByteBuffer events, FileChannel indexChannel,
+                         FileChannel stringsChannel, MappedByteBuffer strings,
+                         FileChannel longChannel) throws IOException {
+    super(name, timezone);
+    this.eventsChannel = eventsChannel;
+    this.events = events;
+    this.indexChannel = indexChannel;
+    this.index = indexChannel.map(FileChannel.MapMode.READ_WRITE, 0, indexChannel.size());
+    this.stringsChannel = stringsChannel;
+    this.strings = strings;
+    this.longChannel = longChannel;
+    this.longRows = longChannel.map(FileChannel.MapMode.READ_WRITE, 0, longChannel.size());
+    count = events.getInt(COUNT_OFFSET);
+    sorted = events.getInt(SORTED_OFFSET);
+    tail = events.getInt(TAIL_OFFSET);
+    gone = events.getInt(GONE_OFFSET);
+    longCount = events.getInt(LONG_COUNT_OFFSET);
+    arenaSize = events.getInt(ARENA_SIZE_OFFSET);
+    written = new HashMap<>();
+    tailOrder = new TreeSet<>(TAIL_ORDER);
+    tailEntries = new HashMap<>();
+    for (int i = sorted; i < sorted + tail; i++) {
+      addTailEntry(new TailEntry(keyAt(i), rowAt(i), i));
+    }
+  }
+
+  /**
+   * Reopens a calendar created earlier in the given directory. Its events are not read in;
+   * they are served from the files as they are.
+   *
+   * @param directory the directory holding the calendar's files
+   * @return the reopened calendar
+   * @throws IOException              if the files cannot be read
+   * @throws IllegalArgumentException if the directory does not hold a calendar
+   */
+  public static MappedCalendar open(Path directory) throws IOException {
+    FileChannel eventsChannel = openChannel(directory.resolve(EVENTS_FILE), false);
+    FileChannel indexChannel = null;
+    FileChannel stringsChannel = null;
+    FileChannel longChannel = null;
+    try {
+      indexChannel = openChannel(directory.resolve(INDEX_FILE), false);
+      stringsChannel = openChannel(directory.resolve(STRINGS_FILE), false);
+      MappedByteBuffer events = eventsChannel.map(FileChannel.MapMode.READ_WRITE, 0,
+          eventsChannel.size());
+      if (events.capacity() < HEADER_SIZE || events.getInt(0) != MAGIC) {
+        throw new IllegalArgumentException("Not a calendar file: " + directory);
+      }
+      if (events.getInt(4) != VERSION) {
+        throw new IllegalArgumentException("Unsupported calendar file version: "
+            + events.getInt(4));
+      }
+      longChannel = openChannel(directory.resolve(LONG_FILE), false);
+      MappedByteBuffer strings = stringsChannel.map(FileChannel.MapMode.READ_WRITE, 0,
+          stringsChannel.size());
+      String name = readString(strings, events.getInt(NAME_OFFSET));
+      ZoneId timezone = ZoneId.of(readString(strings, events.getInt(ZONE_OFFSET)));
+      return new MappedCalendar(name, timezone, eventsChannel, events, indexChannel,
+          stringsChannel, strings, longChannel);
+    } catch (IOException | RuntimeException e) {
+      eventsChannel.close();
+      if (indexChannel != null) {
+        indexChannel.close();
+      }
+      if (stringsChannel != null) {
+        stringsChannel.close();
+      }
+      if (longChannel != null) {
+        longChannel.close();
+      }
+      throw e;
+    }
+  }
+
+  @Override
+  public void setName(String newName) {
+    super.setName(newName);
+    events.putInt(NAME_OFFSET, writeString(newName));
+  }
+
+  @Override
+  void convertTimezone(ZoneId newZone) {
+    super.convertTimezone(newZone);
+    events.putInt(ZONE_OFFSET, writeString(newZone.getId()));
+  }
+
+  /**
+   * Forces all changes to disk and releases the files. The calendar must not be used
+   * afterwards.
+   *
+   * @throws IOException if the files cannot be written
+   */
+  @Override
+  public void close() throws IOException {
+    events.force();
+    index.force();
+    strings.force();
+    longRows.force();
+    eventsChannel.close();
+    indexChannel.close();
+    stringsChannel.close();
+    longChannel.close();
+  }
+
+  @Override
+  int rowCount() {
+    return count;
+  }
+
+  @Override
+  long startAt(int row) {
+    return events.getLong(recordOffset(row) + START);
+  }
+
+  @Override
+  long endAt(int row) {
+    return events.getLong(recordOffset(row) + END);
+  }
+
+  @Override
+  boolean allDayAt(int row) {
+    return (events.get(recordOffset(row) + FLAGS) & ALL_DAY) != 0;
+  }
+
+  @Override
+  int skippedAt(int row) {
+    return (events.get(recordOffset(row) + FLAGS) & SKIPPED) >> SKIPPED_SHIFT;
+  }
+
+  @Override
+  boolean publicAt(int row) {
+    return (events.get(recordOffset(row) + FLAGS) & PUBLIC) != 0;
+  }
+
+  @Override
+  String titleAt(int row) {
+    return readString(strings, events.getInt(recordOffset(row) + TITLE));
+  }
+
+  @Override
+  String descriptionAt(int row) {
+    return readString(strings, events.getInt(recordOffset(row) + DESCRIPTION));
+  }
+
+  @Override
+  String locationAt(int row) {
+    return readString(strings, events.getInt(recordOffset(row) + LOCATION));
+  }
+
+  @Override
+  void storeTitle(int row, String title) {
+    events.putInt(recordOffset(row) + TITLE, writeString(title));
+  }
+
+  @Override
+  void storeDescription(int row, String description) {
+    events.putInt(recordOffset(row) + DESCRIPTION, writeString(description));
+  }
+
+  @Override
+  void storeLocation(int row, String location) {
+    events.putInt(recordOffset(row) + LOCATION, writeString(location));
+  }
+
+  @Override
+  void storePublic(int row, boolean isPublic) {
+    int offset = recordOffset(row) + FLAGS;
+    byte flags = events.get(offset);
+    events.put(offset, (byte) (isPublic ? flags | PUBLIC : flags & ~PUBLIC));
+  }
+
+  @Override
+  void storeTimes(int row, long start, long end, boolean allDay, int skipped) {
+    removeFromIndex(row);
+    int offset = recordOffset(row);
+    events.putLong(offset + START, start);
+    events.putLong(offset + END, end);
+    int flags = events.get(offset + FLAGS) & ~(ALL_DAY | SKIPPED);
+    events.put(offset + FLAGS,
+        (byte) (flags | (allDay ? ALL_DAY : 0) | skipped << SKIPPED_SHIFT));
+    addToIndex(row);
+  }
+
+  @Override
+  void appendRow(long start, long end, boolean allDay, int skipped, boolean isPublic,
+                 String title, String description, String location) {
+    if (count == (Integer.MAX_VALUE - HEADER_SIZE) / RECORD_SIZE) {
+      throw new IllegalStateException("Calendar is full");
+    }
+    int titleRef = writeString(title);
+    int descriptionRef = writeString(description);
+    int locationRef = writeString(location);
+    events = ensureCapacity(events, eventsChannel,
+        HEADER_SIZE + (long) (count + 1) * RECORD_SIZE);
+
+    int row = count;
+    int offset = recordOffset(row);
+    events.putLong(offset + START, start);
+    events.putLong(offset + END, end);
+    events.putInt(offset + TITLE, titleRef);
+    events.putInt(offset + DESCRIPTION, descriptionRef);
+    events.putInt(offset + LOCATION, locationRef);
+    events.put(offset + FLAGS, (byte) ((allDay ? ALL_DAY : 0) | (isPublic ? PUBLIC : 0)
+        | skipped << SKIPPED_SHIFT));
+    addToIndex(row);
+    count++;
+    events.putInt(COUNT_OFFSET, count);
+  }
+
+  /**
+   * Passes on the records in both runs of the index from two days before {@code from} up
+   * to {@code to}, found by binary search on the mapped index, and every long record.
+   *
+   * @param from the start of the range in epoch seconds (inclusive)
+   * @param to   the end of the range in epoch seconds (inclusive)
+   * @param rows receives the rows
+   */
+  @Override
+  void collectRows(long from, long to, IntConsumer rows) {
+    long earliest = from < Long.MIN_VALUE + MAX_INDEXED_SPAN_SECONDS ? Long.MIN_VALUE
+        : from - MAX_INDEXED_SPAN_SECONDS;
+    collectEntries(0, sorted, earliest, to, rows);
+    for (TailEntry entry : tailOrder.subSet(new TailEntry(earliest, Integer.MIN_VALUE, -1),
+        true, new TailEntry(to, Integer.MAX_VALUE, -1), true)) {
+      rows.accept(entry.row);
+    }
+    for (int i = 0; i < longCount; i++) {
+      rows.accept(longRows.getInt(4 * i));
+    }
+  }
+
+  /**
+   * Compares arena references first, and only reads the title when they differ, since the
+   * same title may have been written to the arena before the calendar was reopened.
+   *
+   * @param title the title to look for
+   * @return the test
+   */
+  @Override
+  IntPredicate titleMatcher(String title) {
+    Integer ref = written.get(title);
+    return row -> {
+      int titleRef = events.getInt(recordOffset(row) + TITLE);
+      if (ref != null && titleRef == ref) {
+        return true;
+      }
+      return title == null ? titleRef == NULL_REF : title.equals(readString(strings,
+          titleRef));
+    };
+  }
+
+  /**
+   * Passes on the records of the large run of the index with a low time in [from, to].
+   *
+   * @param first the first entry of the run
+   * @param end   the entry after the run
+   * @param from  the earliest low time in epoch seconds (inclusive)
+   * @param to    the latest low time in epoch seconds (inclusive)
+   * @param rows  receives the rows
+   */
+  private void collectEntries(int first, int end, long from, long to, IntConsumer rows) {
+    for (int i = firstAtOrAfter(from, first, end); i < end && keyAt(i) <= to; i++) {
+      int row = rowAt(i);
+      if (row != GONE) {
+        rows.accept(row);
+      }
+    }
+  }
+
+  /**
+   * Returns whether a record is listed with the long records rather than in the index.
+   *
+   * @param row the record
+   * @return true for records ending before they start or spanning more than two days
+   */
+  private boolean isLong(int row) {
+    long low = lowAt(row);
+    return startAt(row) != low || highAt(row) - low > MAX_INDEXED_SPAN_SECONDS;
+  }
+
+  /**
+   * Lists a record with the long records, or appends it to the tail of the index. The tail
+   * is merged into the large run once it grows large enough.
+   *
+   * @param row the record
+   */
+  private void addToIndex(int row) {
+    if (isLong(row)) {
+      longRows = ensureCapacity(longRows, longChannel, 4L * (longCount + 1));
+      longRows.putInt(4 * longCount, row);
+      longCount++;
+      events.putInt(LONG_COUNT_OFFSET, longCount);
+      return;
+    }
+    int end = sorted + tail;
+    index = ensureCapacity(index, indexChannel, (long) ENTRY_SIZE * (end + 1));
+    long low = lowAt(row);
+    putEntry(end, low, row);
+    addTailEntry(new TailEntry(low, row, end));
+    tail++;
+    events.putInt(TAIL_OFFSET, tail);
+    mergeIfNeeded();
+  }
+
+  /**
+   * Removes a record from the long records or the index, before its times change. An entry
+   * in the large run is only marked as gone; one in the tail is replaced by the tail's last
+   * entry.
+   *
+   * @param row the record
+   */
+  private void removeFromIndex(int row) {
+    if (isLong(row)) {
+      for (int i = 0; i < longCount; i++) {
+        if (longRows.getInt(4 * i) == row) {
+          longCount--;
+          longRows.putInt(4 * i, longRows.getInt(4 * longCount));
+          events.putInt(LONG_COUNT_OFFSET, longCount);
+          return;
+        }
+      }
+      return;
+    }
+    TailEntry entry = tailEntries.remove(row);
+    if (entry != null) {
+      tailOrder.remove(entry);
+      int last = sorted + tail - 1;
+      if (entry.position != last) {
+        copyEntry(last, entry.position);
+        tailEntries.get(rowAt(entry.position)).position = entry.position;
+      }
+      tail--;
+      events.putInt(TAIL_OFFSET, tail);
+      return;
+    }
+    long low = lowAt(row);
+    for (int i = firstAtOrAfter(low, 0, sorted); i < sorted && keyAt(i) == low; i++) {
+      if (rowAt(i) == row) {
+        index.putInt(ENTRY_SIZE * i + ROW, GONE);
+        gone++;
+        events.putInt(GONE_OFFSET, gone);
+        mergeIfNeeded();
+        return;
+      }
+    }
+  }
+
+  /**
+   * Adds an entry to the heap-side views of the tail.
+   *
+   * @param entry the entry
+   */
+  private void addTailEntry(TailEntry entry) {
+    tailOrder.add(entry);
+    tailEntries.put(entry.row, entry);
+  }
+
+  /**
+   * Merges the tail into the large run, dropping gone entries, once the tail or the gone
+   * entries number more than {@link #MERGE_THRESHOLD} or an eighth of the large run, or the
+   * tail reaches {@link #MAX_TAIL}. Gone entries, if any, are dropped first; the tail, taken
+   * in time order from the heap, is then merged in from the back, so that entries of the
+   * run earlier than the whole tail are not moved.
+   */
+  private void mergeIfNeeded() {
+    int threshold = Math.max(MERGE_THRESHOLD, sorted >> 3);
+    if (tail <= Math.min(threshold, MAX_TAIL - 1) && gone <= threshold) {
+      return;
+    }
+    long[] tailKeys = new long[tail];
+    int[] tailRows = new int[tail];
+    int j = 0;
+    for (TailEntry entry : tailOrder) {
+      tailKeys[j] = entry.key;
+      tailRows[j] = entry.row;
+      j++;
+    }
+    int live = sorted;
+    if (gone > 0) {
+      live = 0;
+      for (int i = 0; i < sorted; i++) {
+        if (rowAt(i) != GONE) {
+          copyEntry(i, live++);
+        }
+      }
+    }
+    int i = live - 1;
+    j = tail - 1;
+    // Ties keep entries of the large run first.
+    for (int k = live + tail - 1; j >= 0; k--) {
+      if (i >= 0 && keyAt(i) > tailKeys[j]) {
+        copyEntry(i--, k);
+      } else {
+        putEntry(k, tailKeys[j], tailRows[j]);
+        j--;
+      }
+    }
+    sorted = live + tail;
+    tail = 0;
+    gone = 0;
+    tailOrder.clear();
+    tailEntries.clear();
+    events.putInt(SORTED_OFFSET, sorted);
+    events.putInt(TAIL_OFFSET, tail);
+    events.putInt(GONE_OFFSET, gone);
+  }
+
+  /**
+   * Returns the position of the first entry of the large run of the index whose key is at or
+   * after the given time.
+   *
+   * @param epoch the time in epoch seconds
+   * @param first the first entry to look at
+   * @param end   the entry after the last one to look at
+   * @return the position, or {@code end} if every entry is earlier
+   */
+  private int firstAtOrAfter(long epoch, int first, int end) {
+    int lo = first;
+    int hi = end;
+    while (lo < hi) {
+      int mid = (lo + hi) >>> 1;
+      if (keyAt(mid) < epoch) {
+        lo = mid + 1;
+      } else {
+        hi = mid;
+      }
+    }
+    return lo;
+  }
+
+  /**
+   * Returns the key of an index entry, the low time its record had when it was indexed.
+   *
+   * @param entry the entry
+   * @return the key in epoch seconds
+   */
+  private long keyAt(int entry) {
+    return index.getLong(ENTRY_SIZE * entry + KEY);
+  }
+
+  /**
+   * Returns the record of an index entry.
+   *
+   * @param entry the entry
+   * @return the record, or {@link #GONE}
+   */
+  private int rowAt(int entry) {
+    return index.getInt(ENTRY_SIZE * entry + ROW);
+  }
+
+  /**
+   * Writes an index entry.
+   *
+   * @param entry the entry
+   * @param key   the low time of the record in epoch seconds
+   * @param row   the record, or {@link #GONE}
+   */
+  private void putEntry(int entry, long key, int row) {
+    index.putLong(ENTRY_SIZE * entry + KEY, key);
+    index.putInt(ENTRY_SIZE * entry + ROW, row);
+  }
+
+  /**
+   * Copies one index entry over another.
+   *
+   * @param from the entry to copy
+   * @param to   the entry to overwrite
+   */
+  private void copyEntry(int from, int to) {
+    putEntry(to, keyAt(from), rowAt(from));
+  }
+
+  /**
+   * Returns the offset of a record in the events file.
+   *
+   * @param row the record number
+   * @return the byte offset
+   */
+  private static int recordOffset(int row) {
+    return HEADER_SIZE + row * RECORD_SIZE;
+  }
+
+  /**
+   * Appends a string to the arena, unless the same string was already written since the
+   * calendar was opened.
+   *
+   * @param value the string, may be {@code null}
+   * @return the arena offset of the string, or {@link #NULL_REF} for {@code null}
+   */
+  private int writeString(String value) {
+    if (value == null) {
+      return NULL_REF;
+    }
+    Integer ref = written.get(value);
+    if (ref != null) {
+      return ref;
+    }
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    if ((long) arenaSize + 4 + bytes.length > Integer.MAX_VALUE) {
+      throw new IllegalStateException("String arena is full");
+    }
+    strings = ensureCapacity(strings, stringsChannel, (long) arenaSize + 4 + bytes.length);
+    ref = arenaSize;
+    strings.putInt(ref, bytes.length);
+    ByteBuffer target = strings.duplicate();
+    target.position(ref + 4);
+    target.put(bytes);
+    arenaSize += 4 + bytes.length;
+    events.putInt(ARENA_SIZE_OFFSET, arenaSize);
+    written.put(value, ref);
+    return ref;
+  }
+
+  /**
+   * Reads a string from the arena.
+   *
+   * @param arena the mapped arena
+   * @param ref   the offset of the string, or {@link #NULL_REF}
+   * @return the string, or {@code null} for {@link #NULL_REF}
+   */
+  private static String readString(ByteBuffer arena, int ref) {
+    if (ref == NULL_REF) {
+      return null;
+    }
+    byte[] bytes = new byte[arena.getInt(ref)];
+    ByteBuffer source = arena.duplicate();
+    source.position(ref + 4);
+    source.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Opens one of the calendar's files for reading and writing.
+   *
+   * @param file   the file
+   * @param create whether to create the file, emptying any existing one
+   * @return the open channel
+   * @throws IOException if the file cannot be opened
+   */
+  private static FileChannel openChannel(Path file, boolean create) throws IOException {
+    if (create) {
+      return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+          StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+    return FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+  }
+
+  /**
+   * Returns a mapping of at least the given size, remapping a larger region of the file
+   * when the current one is too small.
+   *
+   * @param buffer  the current mapping
+   * @param channel the mapped file
+   * @param needed  the number of bytes needed
+   * @return the current mapping, or a larger one
+   */
+  private static MappedByteBuffer ensureCapacity(MappedByteBuffer buffer, FileChannel channel,
+                                                 long needed) {
+    if (needed <= buffer.capacity()) {
+      return buffer;
+    }
+    long size = Math.min(Integer.MAX_VALUE, Math.max(needed, 2L * buffer.capacity()));
+    try {
+      return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+    } catch (IOException e) {
+      throw new IllegalStateException("Could not grow calendar file: " + e.getMessage(), e);
+    }
+  }
+}
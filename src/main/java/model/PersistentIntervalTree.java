@@ -0,0 +1,284 @@
+package model;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.BiPredicate;
+import java.util.function.Predicate;
+
+/**
+ * An immutable version of {@link IntervalTree}. Inserting or removing an interval returns a
+ * new tree and leaves this one as it was; the two share every node off the path that was
+ * changed, so each change copies O(log n) nodes. Trees can therefore be handed to other
+ * threads and read without locking while newer versions are built.
+ *
+ * <p>Nodes are ordered by their low key, with ties broken by a sequence number the caller
+ * gives each interval; the pair identifies an interval for removal.
+ *
+ * @param <V> the type of value stored with each interval
+ */
+final class PersistentIntervalTree<V> {
+  private static final PersistentIntervalTree<?> EMPTY = new PersistentIntervalTree<>(null);
+
+  private final Node<V> root;
+
+  private static final class Node<V> {
+    private final long low;
+    private final long high;
+    private final long seq;
+    private final V value;
+    private final Node<V> left;
+    private final Node<V> right;
+    private final long maxHigh;
+    private final int height;
+    private final int size;
+
+    private Node(long low, long high, long seq, V value, Node<V> left, Node<V> right) {
+      this.low = low;
+      this.high = high;
+      this.seq = seq;
+      this.value = value;
+      this.left = left;
+      this.right = right;
+      long max = high;
+      if (left != null && left.maxHigh > max) {
+        max = left.maxHigh;
+      }
+      if (right != null && right.maxHigh > max) {
+        max = right.maxHigh;
+      }
+      this.maxHigh = max;
+      this.height = 1 + Math.max(height(left), height(right));
+      this.size = 1 + size(left) + size(right);
+    }
+
+    private Node<V> with(Node<V> newLeft, Node<V> newRight) {
+      return new Node<>(low, high, seq, value, newLeft, newRight);
+    }
+  }
+
+  private PersistentIntervalTree(Node<V> root) {
+    this.root = root;
+  }
+
+  /**
+   * Returns the empty tree.
+   *
+   * @param <V> the type of value stored with each interval
+   * @return the empty tree
+   */
+  @SuppressWarnings("unchecked")
+  static <V> PersistentIntervalTree<V> empty() {
+    return (PersistentIntervalTree<V>) EMPTY;
+  }
+
+  /**
+   * Returns the number of intervals in the tree.
+   *
+   * @return the number of stored intervals
+   */
+  int size() {
+    return size(root);
+  }
+
+  /**
+   * Returns a tree that also holds the interval [low, high] carrying the given value.
+   *
+   * @param low   the low key of the interval (inclusive)
+   * @param high  the high key of the interval (inclusive)
+   * @param seq   the interval's sequence number, unique among intervals with this low key
+   * @param value the value to store
+   * @return the new tree
+   * @throws IllegalArgumentException if {@code high < low}
+   */
+  PersistentIntervalTree<V> insert(long low, long high, long seq, V value) {
+    if (high < low) {
+      throw new IllegalArgumentException("Interval high must not be below low");
+    }
+    return new PersistentIntervalTree<>(insert(root, new Node<>(low, high, seq, value,
+        null, null)));
+  }
+
+  /**
+   * Returns a tree without the interval with the given low key and sequence number.
+   *
+   * @param low the low key of the interval
+   * @param seq its sequence number
+   * @return the new tree, or this tree if there is no such interval
+   */
+  PersistentIntervalTree<V> remove(long low, long seq) {
+    Node<V> newRoot = remove(root, low, seq);
+    return newRoot == root ? this : new PersistentIntervalTree<>(newRoot);
+  }
+
+  /**
+   * Collects the values of all intervals overlapping [lo, hi], in ascending order of
+   * their low key.
+   *
+   * @param lo  the low end of the query range (inclusive)
+   * @param hi  the high end of the query range (inclusive)
+   * @param out the list the matching values are appended to
+   */
+  void query(long lo, long hi, List<V> out) {
+    query(root, lo, hi, out);
+  }
+
+  /**
+   * Finds an interval overlapping [lo, hi] whose value passes the given filter, visiting
+   * candidates in ascending order of their low key and stopping at the first match.
+   *
+   * @param lo     the low end of the query range (inclusive)
+   * @param hi     the high end of the query range (inclusive)
+   * @param filter the test a candidate value must pass
+   * @return the first matching value, or {@code null} if there is none
+   */
+  V findFirst(long lo, long hi, Predicate<? super V> filter) {
+    return findFirst(root, lo, hi, filter, (value, test) -> test.test(value));
+  }
+
+  /**
+   * Finds an interval overlapping [lo, hi] whose value passes a filter that also takes an
+   * argument. Unlike a {@link Predicate} built around the argument, a filter like this can
+   * be created once and shared by every query.
+   *
+   * @param lo       the low end of the query range (inclusive)
+   * @param hi       the high end of the query range (inclusive)
+   * @param argument the second argument passed to the filter
+   * @param filter   the test a candidate value must pass
+   * @param <A>      the type of the argument
+   * @return the first matching value, or {@code null} if there is none
+   */
+  <A> V findFirst(long lo, long hi, A argument, BiPredicate<? super V, ? super A> filter) {
+    return findFirst(root, lo, hi, argument, filter);
+  }
+
+  /**
+   * Passes every value to the consumer, in ascending order of low key and sequence number.
+   *
+   * @param action receives the values
+   */
+  void forEach(Consumer<? super V> action) {
+    forEach(root, action);
+  }
+
+  private static int height(Node<?> node) {
+    return node == null ? 0 : node.height;
+  }
+
+  private static int size(Node<?> node) {
+    return node == null ? 0 : node.size;
+  }
+
+  private static int compare(long low, long seq, Node<?> node) {
+    int cmp = Long.compare(low, node.low);
+    return cmp != 0 ? cmp : Long.compare(seq, node.seq);
+  }
+
+  private static <V> void query(Node<V> node, long lo, long hi, List<V> out) {
+    if (node == null || node.maxHigh < lo) {
+      return;
+    }
+    query(node.left, lo, hi, out);
+    // This node and everything to its right start after the range.
+    if (node.low > hi) {
+      return;
+    }
+    if (node.high >= lo) {
+      out.add(node.value);
+    }
+    query(node.right, lo, hi, out);
+  }
+
+  private static <V, A> V findFirst(Node<V> node, long lo, long hi, A argument,
+                                    BiPredicate<? super V, ? super A> filter) {
+    if (node == null || node.maxHigh < lo) {
+      return null;
+    }
+    V found = findFirst(node.left, lo, hi, argument, filter);
+    if (found != null || node.low > hi) {
+      return found;
+    }
+    if (node.high >= lo && filter.test(node.value, argument)) {
+      return node.value;
+    }
+    return findFirst(node.right, lo, hi, argument, filter);
+  }
+
+  private static <V> void forEach(Node<V> node, Consumer<? super V> action) {
+    if (node == null) {
+      return;
+    }
+    forEach(node.left, action);
+    action.accept(node.value);
+    forEach(node.right, action);
+  }
+
+  private static <V> Node<V> insert(Node<V> node, Node<V> added) {
+    if (node == null) {
+      return added;
+    }
+    if (compare(added.low, added.seq, node) < 0) {
+      return balance(node, insert(node.left, added), node.right);
+    }
+    return balance(node, node.left, insert(node.right, added));
+  }
+
+  private static <V> Node<V> remove(Node<V> node, long low, long seq) {
+    if (node == null) {
+      return null;
+    }
+    int cmp = compare(low, seq, node);
+    if (cmp < 0) {
+      Node<V> left = remove(node.left, low, seq);
+      return left == node.left ? node : balance(node, left, node.right);
+    }
+    if (cmp > 0) {
+      Node<V> right = remove(node.right, low, seq);
+      return right == node.right ? node : balance(node, node.left, right);
+    }
+    if (node.left == null) {
+      return node.right;
+    }
+    if (node.right == null) {
+      return node.left;
+    }
+    // Replace the node with its in-order successor.
+    Node<V> successor = node.right;
+    while (successor.left != null) {
+      successor = successor.left;
+    }
+    return balance(successor, node.left, removeMin(node.right));
+  }
+
+  private static <V> Node<V> removeMin(Node<V> node) {
+    if (node.left == null) {
+      return node.right;
+    }
+    return balance(node, removeMin(node.left), node.right);
+  }
+
+  // Copies a node with new children, rotating it if they are out of balance.
+  private static <V> Node<V> balance(Node<V> node, Node<V> left, Node<V> right) {
+    int balance = height(left) - height(right);
+    if (balance > 1) {
+      if (height(left.left) < height(left.right)) {
+        left = rotateLeft(left, left.left, left.right);
+      }
+      return rotateRight(node, left, right);
+    }
+    if (balance < -1) {
+      if (height(right.right) < height(right.left)) {
+        right = rotateRight(right, right.left, right.right);
+      }
+      return rotateLeft(node, left, right);
+    }
+    return node.with(left, right);
+  }
+
+  private static <V> Node<V> rotateRight(Node<V> node, Node<V> left, Node<V> right) {
+    return left.with(left.left, node.with(left.right, right));
+  }
+
+  private static <V> Node<V> rotateLeft(Node<V> node, Node<V> left, Node<V> right) {
+    return right.with(node.with(left, right.left), right.right);
+  }
+}
@@ -3,9 +3,9 @@ package model;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
 import java.util.Set;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 
 
@@ -120,6 +120,56 @@ public class RecurringEvent extends AbstractEvent {
     return until;
   }
 
+  /**
+   * Constructs a recurring event from the stored form of its rule, as returned by
+   * {@link #getOccurrences} and {@link #getUntil}.
+   *
+   * @param title          the title of the event
+   * @param start          the start date and time of the first occurrence
+   * @param end            the end date and time of individual occurrences
+   * @param description    event description
+   * @param location       event location
+   * @param isPublic       visibility status
+   * @param recurrenceDays set of days of the week when the event repeats
+   * @param occurrences    the stored occurrence limit, or {@code null}
+   * @param until          final date for occurrences, or {@code null}
+   */
+  RecurringEvent(String title, LocalDateTime start, LocalDateTime end, String description,
+                 String location, boolean isPublic, Set<DayOfWeek> recurrenceDays,
+                 Integer occurrences, LocalDate until) {
+    super(title, start, description, location, isPublic);
+    this.end = end;
+    this.recurrenceDays = recurrenceDays;
+    this.occurrences = occurrences;
+    this.until = until;
+  }
+
+  /**
+   * Constructs a copy of another recurring event, with the same details and recurrence rule.
+   *
+   * @param other the recurring event to copy
+   */
+  RecurringEvent(RecurringEvent other) {
+    super(other.title, other.getStart(), other.description, other.location, other.isPublic);
+    this.end = other.end;
+    this.recurrenceDays = copyOf(other.recurrenceDays);
+    this.occurrences = other.occurrences;
+    this.until = other.until;
+  }
+
+  /**
+   * Copies a set of recurrence days, so that a copied rule does not share it.
+   *
+   * @param days the days to copy, may be {@code null}
+   * @return a new set of the same days, or {@code null}
+   */
+  private static Set<DayOfWeek> copyOf(Set<DayOfWeek> days) {
+    if (days == null) {
+      return null;
+    }
+    return days.isEmpty() ? EnumSet.noneOf(DayOfWeek.class) : EnumSet.copyOf(days);
+  }
+
   /**
    * Generates concrete event instances based on recurrence rules.
    * Events are created for each matching recurrence day until either:
@@ -132,47 +182,193 @@ public class RecurringEvent extends AbstractEvent {
    * @throws IllegalStateException if neither occurrences nor end date are specified
    */
   public List<Event> generateEvents() {
+    return occurrencesBetween(LocalDate.MIN, LocalDate.MAX);
+  }
 
-    // Ensuring that recurrence is bounded.
-    if (occurrences == null && until == null) {
-      throw new IllegalStateException("Recurring event must have "
-          +
-          "either a fixed number of occurrences or an end date.");
-    }
+  /**
+   * Generates the event instances that fall on dates within the given range (inclusive).
+   * The first occurrence in the range is found arithmetically, so the cost depends on the
+   * size of the range rather than on how far it lies from the start of the series.
+   *
+   * @param from the first date to include
+   * @param to   the last date to include
+   * @return list of generated event instances within the range, in date order
+   * @throws IllegalStateException if neither occurrences nor end date are specified
+   */
+  public List<Event> occurrencesBetween(LocalDate from, LocalDate to) {
+    checkBounded();
     List<Event> events = new ArrayList<>();
+    int mask = dayMask();
     // If no recurrence days are specified, return an empty list immediately.
-    if (recurrenceDays == null || recurrenceDays.isEmpty()) {
+    if (mask == 0) {
       return events;
     }
-    LocalDateTime localStart = (LocalDateTime) start;
-    LocalDate currentDate = localStart.toLocalDate();
-    LocalTime currentTime = localStart.toLocalTime();
-    int count = 0;
-    while (true) {
-      if (recurrenceDays.contains(currentDate.getDayOfWeek())) {
+    LocalDate last = lastCandidateDate(mask);
+    if (to.isBefore(last)) {
+      last = to;
+    }
+    LocalDate first = getStart().toLocalDate();
+    if (from.isAfter(last)) {
+      return events;
+    }
+    LocalDate currentDate = nextMatch(from.isAfter(first) ? from : first, mask);
+    while (!currentDate.isAfter(last)) {
+      events.add(occurrenceOn(currentDate));
+      currentDate = nextMatch(currentDate.plusDays(1), mask);
+    }
+    return events;
+  }
+
+  /**
+   * Returns the date of the first occurrence on or after the given date, without generating
+   * any event instances.
+   *
+   * @param date the earliest date to consider
+   * @return the date of that occurrence, or {@code null} if the series has ended by then
+   * @throws IllegalStateException if neither occurrences nor end date are specified
+   */
+  public LocalDate firstOccurrenceOnOrAfter(LocalDate date) {
+    checkBounded();
+    int mask = dayMask();
+    if (mask == 0) {
+      return null;
+    }
+    LocalDate last = lastCandidateDate(mask);
+    LocalDate first = getStart().toLocalDate();
+    LocalDate match = nextMatch(date.isAfter(first) ? date : first, mask);
+    return match.isAfter(last) ? null : match;
+  }
 
-        LocalDateTime eventStart = LocalDateTime.of(currentDate, currentTime);
+  /**
+   * Returns the date of the last occurrence of this event.
+   *
+   * @return the date of the final occurrence, or {@code null} if the event never occurs
+   * @throws IllegalStateException if neither occurrences nor end date are specified
+   */
+  public LocalDate getLastOccurrenceDate() {
+    checkBounded();
+    int mask = dayMask();
+    if (mask == 0) {
+      return null;
+    }
+    LocalDate last = lastCandidateDate(mask);
+    // Step back to the closest matching day; the start date is the earliest candidate.
+    LocalDate first = getStart().toLocalDate();
+    while (!last.isBefore(first)) {
+      if ((mask & bit(last.getDayOfWeek())) != 0) {
+        return last;
+      }
+      last = last.minusDays(1);
+    }
+    return null;
+  }
 
-        if (end == null) {
-          events.add(new Event(title, eventStart, description, location, isPublic));
+  /**
+   * Returns the last date the series may produce an occurrence on, taking both the
+   * occurrence count and the end date into account. Occurrences are counted from the start
+   * date; an end date before the start still lets the start date itself occur.
+   *
+   * @param mask the recurrence days as a non-empty bitmask
+   * @return the last candidate date
+   */
+  private LocalDate lastCandidateDate(int mask) {
+    LocalDate first = getStart().toLocalDate();
+    LocalDate last = LocalDate.MAX;
+    if (until != null) {
+      last = until.isAfter(first) ? until : first;
+    }
+    if (occurrences != null) {
+      // The first occurrence is always produced, even for a count of zero.
+      LocalDate nth = nthOccurrence(Math.max(occurrences, 1) - 1, mask);
+      if (nth.isBefore(last)) {
+        last = nth;
+      }
+    }
+    return last;
+  }
 
-        } else {
-          LocalDateTime eventEnd = LocalDateTime.of(currentDate, end.toLocalTime());
-          events.add(new Event(title, eventStart, eventEnd, description, location, isPublic));
-        }
+  /**
+   * Computes the date of an occurrence from its position in the series. Every seven days
+   * from the start date contain exactly one occurrence per recurrence day, so whole weeks
+   * are skipped at once and only the remainder is stepped through.
+   *
+   * @param index the zero-based position of the occurrence
+   * @param mask  the recurrence days as a bitmask
+   * @return the date of that occurrence, ignoring any end date
+   */
+  private LocalDate nthOccurrence(int index, int mask) {
+    int perWeek = Integer.bitCount(mask);
+    LocalDate date = nextMatch(getStart().toLocalDate().plusWeeks(index / perWeek), mask);
+    for (int i = index % perWeek; i > 0; i--) {
+      date = nextMatch(date.plusDays(1), mask);
+    }
+    return date;
+  }
 
+  /**
+   * Returns the first date on or after the given one that falls on a recurrence day.
+   *
+   * @param date the date to start from
+   * @param mask the recurrence days as a non-empty bitmask
+   * @return the matching date
+   */
+  private static LocalDate nextMatch(LocalDate date, int mask) {
+    int day = date.getDayOfWeek().getValue() - 1;
+    // Rotate the mask so that bit 0 is the given day, then skip to the lowest set bit.
+    int rotated = ((mask >>> day) | (mask << (7 - day))) & 0x7F;
+    return date.plusDays(Integer.numberOfTrailingZeros(rotated));
+  }
 
-        count++;
-        if (occurrences != null && count >= occurrences) {
-          break;
-        }
-      }
-      currentDate = currentDate.plusDays(1);
-      if (until != null && currentDate.isAfter(until)) {
-        break;
+  /**
+   * Returns the recurrence days as a bitmask, with Monday as bit 0.
+   *
+   * @return the bitmask, or 0 if there are no recurrence days
+   */
+  private int dayMask() {
+    int mask = 0;
+    if (recurrenceDays != null) {
+      for (DayOfWeek day : recurrenceDays) {
+        mask |= bit(day);
       }
     }
-    return events;
+    return mask;
   }
 
+  /**
+   * Returns the bit for a day of the week in a recurrence bitmask.
+   *
+   * @param day the day of the week
+   * @return the bit for that day
+   */
+  private static int bit(DayOfWeek day) {
+    return 1 << (day.getValue() - 1);
+  }
+
+  /**
+   * Creates the event instance for a single occurrence date.
+   *
+   * @param date the date of the occurrence
+   * @return the event instance
+   */
+  private Event occurrenceOn(LocalDate date) {
+    LocalDateTime eventStart = LocalDateTime.of(date, getStart().toLocalTime());
+    if (end == null) {
+      return new Event(title, eventStart, description, location, isPublic);
+    }
+    LocalDateTime eventEnd = LocalDateTime.of(date, end.toLocalTime());
+    return new Event(title, eventStart, eventEnd, description, location, isPublic);
+  }
+
+  /**
+   * Ensures that the recurrence is bounded by a count or an end date.
+   *
+   * @throws IllegalStateException if neither occurrences nor end date are specified
+   */
+  private void checkBounded() {
+    if (occurrences == null && until == null) {
+      throw new IllegalStateException("Recurring event must have "
+          +
+          "either a fixed number of occurrences or an end date.");
+    }
+  }
 }
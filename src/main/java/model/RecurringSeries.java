@@ -0,0 +1,289 @@
+package model;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A recurring event stored in a calendar as its rule rather than as individual events.
+ * Occurrences are generated on demand for the window being queried. An occurrence that is
+ * edited is excluded from the series and stored by the calendar as a normal event instead.
+ */
+class RecurringSeries {
+  // dates searched either side of a query, covering any offset between the series' zone
+  // and the calendar's current zone
+  private static final long ZONE_MARGIN_DAYS = 3;
+
+  private final RecurringEvent rule;
+  private ZoneId zone;
+  private final LocalDate firstDate;
+  private final LocalDate lastDate;
+  private final Set<LocalDate> excluded;
+
+  /**
+   * Constructs a series from a recurrence rule.
+   *
+   * @param rule the recurring event describing the series; it is copied, so later changes
+   *             to it do not affect the series
+   * @param zone the timezone the rule's times are expressed in
+   * @throws IllegalStateException if the rule has neither occurrences nor an end date
+   */
+  RecurringSeries(RecurringEvent rule, ZoneId zone) {
+    this.rule = new RecurringEvent(rule);
+    this.zone = zone;
+    this.lastDate = this.rule.getLastOccurrenceDate();
+    this.firstDate = lastDate == null ? null : this.rule.getStart().toLocalDate();
+    this.excluded = new HashSet<>();
+  }
+
+  /**
+   * Constructs a copy of a series that later changes to the original do not affect.
+   *
+   * @param other the series to copy
+   */
+  RecurringSeries(RecurringSeries other) {
+    this.rule = new RecurringEvent(other.rule);
+    this.zone = other.zone;
+    this.firstDate = other.firstDate;
+    this.lastDate = other.lastDate;
+    this.excluded = new HashSet<>(other.excluded);
+  }
+
+  /**
+   * A single generated occurrence of a series, remembering where it came from.
+   */
+  static final class Occurrence extends Event {
+    private final RecurringSeries series;
+    private final LocalDate date;
+
+    private Occurrence(RecurringSeries series, LocalDate date, LocalDateTime start,
+                       LocalDateTime end) {
+      super(series.rule.getTitle(), start, end, series.rule.getDescription(),
+          series.rule.getLocation(), series.rule.isPublic());
+      this.series = series;
+      this.date = date;
+    }
+
+    /**
+     * Returns the series this occurrence belongs to.
+     *
+     * @return the owning series
+     */
+    RecurringSeries getSeries() {
+      return series;
+    }
+
+    /**
+     * Returns the date of this occurrence in the series' own timezone.
+     *
+     * @return the occurrence date
+     */
+    LocalDate getDate() {
+      return date;
+    }
+  }
+
+  /**
+   * Returns the recurrence rule. Changing its title, description, location or visibility
+   * changes every occurrence that has not been edited individually.
+   *
+   * @return the rule of this series
+   */
+  RecurringEvent getRule() {
+    return rule;
+  }
+
+  /**
+   * Returns the timezone the rule's times are expressed in.
+   *
+   * @return the series' own timezone
+   */
+  ZoneId getZone() {
+    return zone;
+  }
+
+  /**
+   * Changes the timezone the rule's times are read in, keeping their wall-clock values.
+   *
+   * @param zone the new timezone
+   */
+  void setZone(ZoneId zone) {
+    this.zone = zone;
+  }
+
+  /**
+   * Indicates whether the series has no occurrences at all.
+   *
+   * @return {@code true} if the rule never produces an occurrence
+   */
+  boolean isEmpty() {
+    return lastDate == null;
+  }
+
+  /**
+   * Returns the earliest time any occurrence could be seen at in any calendar timezone.
+   *
+   * @return a lower bound on the start of every occurrence
+   */
+  LocalDateTime getEarliestStart() {
+    return firstDate.minusDays(ZONE_MARGIN_DAYS).atStartOfDay();
+  }
+
+  /**
+   * Returns the latest time any occurrence could end at in any calendar timezone.
+   *
+   * @return an upper bound on the end of every occurrence
+   */
+  LocalDateTime getLatestEnd() {
+    return lastDate.plusDays(ZONE_MARGIN_DAYS + 1).atStartOfDay();
+  }
+
+  /**
+   * Returns the dates whose occurrences have been excluded from the series.
+   *
+   * @return the excluded dates in the series' timezone, as a read-only view
+   */
+  Set<LocalDate> getExcluded() {
+    return Collections.unmodifiableSet(excluded);
+  }
+
+  /**
+   * Excludes the occurrence on the given date, typically because it now lives in the
+   * calendar as an individually edited event.
+   *
+   * @param date the occurrence date in the series' timezone
+   */
+  void exclude(LocalDate date) {
+    excluded.add(date);
+  }
+
+  /**
+   * Generates the occurrences whose time span touches the range [from, to], expressed in
+   * the given timezone. All-day occurrences are treated as lasting one day.
+   *
+   * @param from        the start of the range (inclusive)
+   * @param to          the end of the range (inclusive)
+   * @param currentZone the timezone the calendar is currently in
+   * @return the matching occurrences, in start order
+   */
+  List<Occurrence> occurrencesBetween(LocalDateTime from, LocalDateTime to,
+                                      ZoneId currentZone) {
+    List<Occurrence> result = new ArrayList<>();
+    if (isEmpty()) {
+      return result;
+    }
+    LocalDate fromDate = from.toLocalDate().minusDays(ZONE_MARGIN_DAYS);
+    LocalDate toDate = to.toLocalDate().plusDays(ZONE_MARGIN_DAYS);
+    for (Event event : rule.occurrencesBetween(fromDate, toDate)) {
+      Occurrence occurrence = project(event, currentZone);
+      if (occurrence != null && touches(occurrence, from, to)) {
+        result.add(occurrence);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Checks whether any occurrence covers the given time, expressed in the given timezone,
+   * without generating event instances. All-day occurrences cover the day following their
+   * start.
+   *
+   * @param time        the time to check
+   * @param currentZone the timezone the calendar is currently in
+   * @return {@code true} if an occurrence covers the time
+   */
+  boolean isBusyAt(LocalDateTime time, ZoneId currentZone) {
+    if (isEmpty()) {
+      return false;
+    }
+    LocalDate lastDate = time.toLocalDate().plusDays(ZONE_MARGIN_DAYS);
+    LocalDate date = rule.firstOccurrenceOnOrAfter(time.toLocalDate()
+        .minusDays(ZONE_MARGIN_DAYS));
+    while (date != null && !date.isAfter(lastDate)) {
+      if (!excluded.contains(date)) {
+        LocalDateTime start = LocalDateTime.of(date, rule.getStart().toLocalTime());
+        LocalDateTime end = rule.getEnd() == null ? start.plusDays(1)
+            : LocalDateTime.of(date, rule.getEnd().toLocalTime());
+        if (!zone.equals(currentZone)) {
+          LocalDateTime shifted = start.atZone(zone).withZoneSameInstant(currentZone)
+              .toLocalDateTime();
+          end = shifted.plusSeconds(Duration.between(start, end).getSeconds());
+          start = shifted;
+        }
+        if (!start.isAfter(time) && !end.isBefore(time)) {
+          return true;
+        }
+      }
+      date = rule.firstOccurrenceOnOrAfter(date.plusDays(1));
+    }
+    return false;
+  }
+
+  /**
+   * Generates every occurrence of the series, expressed in the given timezone.
+   *
+   * @param currentZone the timezone the calendar is currently in
+   * @return all occurrences that have not been excluded, in start order
+   */
+  List<Occurrence> allOccurrences(ZoneId currentZone) {
+    List<Occurrence> result = new ArrayList<>();
+    if (isEmpty()) {
+      return result;
+    }
+    for (Event event : rule.generateEvents()) {
+      Occurrence occurrence = project(event, currentZone);
+      if (occurrence != null) {
+        result.add(occurrence);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Converts a generated event into an occurrence in the calendar's current timezone, the
+   * same way the calendar shifts stored events when its timezone changes.
+   *
+   * @param event       the generated event
+   * @param currentZone the timezone the calendar is currently in
+   * @return the occurrence, or {@code null} if that date has been excluded
+   */
+  private Occurrence project(Event event, ZoneId currentZone) {
+    LocalDate date = event.getStart().toLocalDate();
+    if (excluded.contains(date)) {
+      return null;
+    }
+    LocalDateTime start = event.getStart();
+    LocalDateTime end = event.getEnd();
+    if (!zone.equals(currentZone)) {
+      LocalDateTime shifted = start.atZone(zone).withZoneSameInstant(currentZone)
+          .toLocalDateTime();
+      if (end != null) {
+        end = shifted.plusSeconds(Duration.between(start, end).getSeconds());
+      }
+      start = shifted;
+    }
+    return new Occurrence(this, date, start, end);
+  }
+
+  /**
+   * Checks whether an occurrence's time span touches the range [from, to].
+   *
+   * @param event the occurrence
+   * @param from  the start of the range (inclusive)
+   * @param to    the end of the range (inclusive)
+   * @return {@code true} if the spans touch
+   */
+  private static boolean touches(Event event, LocalDateTime from, LocalDateTime to) {
+    LocalDateTime start = event.getStart();
+    LocalDateTime end = event.getEnd() != null ? event.getEnd() : start.plusDays(1);
+    LocalDateTime low = start.isBefore(end) ? start : end;
+    LocalDateTime high = start.isBefore(end) ? end : start;
+    return !low.isAfter(to) && !high.isBefore(from);
+  }
+}
@@ -0,0 +1,916 @@
+package model;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.zone.ZoneOffsetTransition;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+
+/**
+ * Base for calendars that store events as numbered rows of primitive fields rather than as
+ * event objects: start and end as epoch seconds, all-day and public flags, and the three
+ * strings. Subclasses decide where the rows live and how they are found by time; this class
+ * implements the {@link ICalendar} API on top of them. Events handed out by the API are
+ * lightweight views onto a row; changing a view changes the stored event.
+ *
+ * <p>Times are kept to the second. Recurring events are stored as their individual
+ * occurrences.
+ */
+abstract class RowCalendar implements ICalendar {
+  // how far past its start an all-day event is looked for; a day plus any zone transition
+  static final long ALL_DAY_SPAN_SECONDS = 2 * 86_400L;
+  // marks a row whose local start or end time was skipped by a daylight saving change; it
+  // is stored as the instant the time moves to and read back as it was given
+  static final int START_SKIPPED = 1;
+  static final int END_SKIPPED = 2;
+
+  private String name;
+  private ZoneId timezone;
+  // events queued since beginBatch, or null when no batch is open; a set bit marks an
+  // event added with auto-decline
+  private List<AbstractEvent> pending;
+  private BitSet pendingChecks;
+
+  /**
+   * Constructs a calendar with the given name and timezone.
+   *
+   * @param name     unique calendar name
+   * @param timezone the calendar's timezone
+   */
+  RowCalendar(String name, ZoneId timezone) {
+    this.name = name;
+    this.timezone = timezone;
+  }
+
+  /**
+   * A view of one stored event. Reads and writes go straight to the row.
+   */
+  private final class Row extends Event {
+    private final int row;
+
+    private Row(int row) {
+      super(null, null, null, null, false);
+      this.row = row;
+    }
+
+    @Override
+    public String getTitle() {
+      return titleAt(row);
+    }
+
+    @Override
+    public LocalDateTime getStart() {
+      return localTimeOf(startAt(row), (skippedAt(row) & START_SKIPPED) != 0);
+    }
+
+    @Override
+    public LocalDateTime getEnd() {
+      return allDayAt(row) ? null
+          : localTimeOf(endAt(row), (skippedAt(row) & END_SKIPPED) != 0);
+    }
+
+    @Override
+    public String getDescription() {
+      return descriptionAt(row);
+    }
+
+    @Override
+    public String getLocation() {
+      return locationAt(row);
+    }
+
+    @Override
+    public boolean isPublic() {
+      return publicAt(row);
+    }
+
+    @Override
+    public void setTitle(String title) {
+      storeTitle(row, title);
+    }
+
+    @Override
+    public void setStart(LocalDateTime start) {
+      int skipped = (skippedAt(row) & END_SKIPPED) | (isSkipped(start) ? START_SKIPPED : 0);
+      storeTimes(row, toEpoch(start), endAt(row), allDayAt(row), skipped);
+    }
+
+    @Override
+    public void setEnd(LocalDateTime end) {
+      int skipped = skippedAt(row) & START_SKIPPED;
+      if (end == null) {
+        storeTimes(row, startAt(row), endAt(row), true, skipped);
+      } else {
+        skipped |= isSkipped(end) ? END_SKIPPED : 0;
+        storeTimes(row, startAt(row), toEpoch(end), false, skipped);
+      }
+    }
+
+    @Override
+    public void setDescription(String description) {
+      storeDescription(row, description);
+    }
+
+    @Override
+    public void setLocation(String location) {
+      storeLocation(row, location);
+    }
+
+    @Override
+    public void setPublic(boolean isPublic) {
+      storePublic(row, isPublic);
+    }
+  }
+
+  // --- Row storage, provided by subclasses ---
+
+  /**
+   * Returns the number of stored rows. Rows are numbered from 0 in the order they were
+   * added and keep their number for as long as the calendar exists.
+   *
+   * @return the number of rows
+   */
+  abstract int rowCount();
+
+  /**
+   * Returns the start of a row in epoch seconds.
+   *
+   * @param row the row
+   * @return the start
+   */
+  abstract long startAt(int row);
+
+  /**
+   * Returns the end of a row in epoch seconds. Meaningless for all-day rows.
+   *
+   * @param row the row
+   * @return the end
+   */
+  abstract long endAt(int row);
+
+  /**
+   * Indicates whether a row is an all-day event.
+   *
+   * @param row the row
+   * @return {@code true} for all-day events
+   */
+  abstract boolean allDayAt(int row);
+
+  /**
+   * Returns which of a row's local times were skipped by a daylight saving change in the
+   * calendar's timezone.
+   *
+   * @param row the row
+   * @return {@link #START_SKIPPED} and {@link #END_SKIPPED} bits
+   */
+  abstract int skippedAt(int row);
+
+  /**
+   * Indicates whether a row is a public event.
+   *
+   * @param row the row
+   * @return {@code true} for public events
+   */
+  abstract boolean publicAt(int row);
+
+  /**
+   * Returns the title of a row.
+   *
+   * @param row the row
+   * @return the title
+   */
+  abstract String titleAt(int row);
+
+  /**
+   * Returns the description of a row.
+   *
+   * @param row the row
+   * @return the description
+   */
+  abstract String descriptionAt(int row);
+
+  /**
+   * Returns the location of a row.
+   *
+   * @param row the row
+   * @return the location
+   */
+  abstract String locationAt(int row);
+
+  /**
+   * Changes the title of a row.
+   *
+   * @param row   the row
+   * @param title the new title
+   */
+  abstract void storeTitle(int row, String title);
+
+  /**
+   * Changes the description of a row.
+   *
+   * @param row         the row
+   * @param description the new description
+   */
+  abstract void storeDescription(int row, String description);
+
+  /**
+   * Changes the location of a row.
+   *
+   * @param row      the row
+   * @param location the new location
+   */
+  abstract void storeLocation(int row, String location);
+
+  /**
+   * Changes the visibility of a row.
+   *
+   * @param row      the row
+   * @param isPublic the new visibility
+   */
+  abstract void storePublic(int row, boolean isPublic);
+
+  /**
+   * Changes the times of a row, keeping it findable by {@link #collectRows}.
+   *
+   * @param row     the row
+   * @param start   the new start in epoch seconds
+   * @param end     the new end in epoch seconds, ignored for all-day rows
+   * @param allDay  whether the row is now an all-day event
+   * @param skipped which of the new local times were skipped, as for {@link #skippedAt}
+   */
+  abstract void storeTimes(int row, long start, long end, boolean allDay, int skipped);
+
+  /**
+   * Stores a new row.
+   *
+   * @param start       the start in epoch seconds
+   * @param end         the end in epoch seconds, ignored for all-day rows
+   * @param allDay      whether the row is an all-day event
+   * @param skipped     which local times were skipped, as for {@link #skippedAt}
+   * @param isPublic    whether the row is a public event
+   * @param title       the title
+   * @param description the description
+   * @param location    the location
+   */
+  abstract void appendRow(long start, long end, boolean allDay, int skipped,
+                          boolean isPublic, String title, String description,
+                          String location);
+
+  /**
+   * Passes every row whose span, from {@link #lowAt} to {@link #highAt}, overlaps
+   * [from, to] to the consumer. Other rows may be passed as well.
+   *
+   * @param from the start of the range in epoch seconds (inclusive)
+   * @param to   the end of the range in epoch seconds (inclusive)
+   * @param rows receives the rows
+   */
+  abstract void collectRows(long from, long to, IntConsumer rows);
+
+  /**
+   * Returns a test for whether a row has the given title, as cheap as the storage allows.
+   *
+   * @param title the title to look for
+   * @return the test
+   */
+  abstract IntPredicate titleMatcher(String title);
+
+  /**
+   * Passes every row with the given title to the consumer, and no other row. By default
+   * every row is tested with {@link #titleMatcher}; storage that indexes its titles can do
+   * better.
+   *
+   * @param title the title to look for
+   * @param rows  receives the rows
+   */
+  void collectTitled(String title, IntConsumer rows) {
+    IntPredicate titled = titleMatcher(title);
+    int count = rowCount();
+    for (int row = 0; row < count; row++) {
+      if (titled.test(row)) {
+        rows.accept(row);
+      }
+    }
+  }
+
+  // --- Getters and setters for calendar properties ---
+
+  public String getName() {
+    return name;
+  }
+
+  public void setName(String newName) {
+    this.name = newName;
+  }
+
+  public ZoneId getTimezone() {
+    return timezone;
+  }
+
+  /**
+   * Switches the calendar to a new timezone. Events keep their instants and are read in the
+   * new zone from now on. Only rows with a local time skipped in the old zone are rewritten,
+   * since that time is read as the instant it moved to from now on.
+   *
+   * @param newZone the new timezone
+   */
+  void convertTimezone(ZoneId newZone) {
+    this.timezone = newZone;
+    int count = rowCount();
+    for (int row = 0; row < count; row++) {
+      if (skippedAt(row) != 0) {
+        storeTimes(row, startAt(row), endAt(row), allDayAt(row), 0);
+      }
+    }
+  }
+
+  /**
+   * Returns the number of stored events.
+   *
+   * @return the number of events
+   */
+  public int size() {
+    return rowCount();
+  }
+
+  /**
+   * Returns views of every event in the calendar, in the order they were added.
+   *
+   * @return all events
+   */
+  @Override
+  public List<Event> getAllEventsList() {
+    int count = rowCount();
+    List<Event> all = new ArrayList<>(count);
+    for (int row = 0; row < count; row++) {
+      all.add(new Row(row));
+    }
+    return all;
+  }
+
+  /**
+   * Adds an event to the calendar, optionally auto-declining if conflicts exist. The event's
+   * values are copied into the calendar; the object itself is not kept. While a batch is
+   * open the event is only queued, and its values are copied by {@link #commit}.
+   *
+   * @param event       the event to add (must be a concrete {@link Event})
+   * @param autoDecline if {@code true}, skips adding conflicting events
+   */
+  @Override
+  public void addEvent(AbstractEvent event, boolean autoDecline)
+      throws IllegalStateException {
+    if (event instanceof Event) {
+      if (pending != null) {
+        pendingChecks.set(pending.size(), autoDecline);
+        pending.add(event);
+        return;
+      }
+      if (autoDecline && findConflict(event) != null) {
+        throw new IllegalStateException("Event conflict detected");
+      }
+      append(event);
+    }
+  }
+
+  /**
+   * Adds several events at once: all of them, or none if auto-decline is requested and any
+   * of them conflicts with a stored event or with one before it in the collection. While a
+   * batch is open they are queued like {@link #addEvent} instead.
+   *
+   * @param events      the events to add, in the order they should be stored
+   * @param autoDecline if {@code true}, declines the whole collection on any conflict
+   * @throws IllegalStateException if an event conflicts; nothing is added then
+   */
+  @Override
+  public void addEvents(Collection<AbstractEvent> events, boolean autoDecline)
+      throws IllegalStateException {
+    if (pending != null) {
+      for (AbstractEvent event : events) {
+        addEvent(event, autoDecline);
+      }
+      return;
+    }
+    List<AbstractEvent> batch = new ArrayList<>(events.size());
+    for (AbstractEvent event : events) {
+      if (event instanceof Event) {
+        batch.add(event);
+      }
+    }
+    BitSet checks = new BitSet(batch.size());
+    if (autoDecline) {
+      checks.set(0, batch.size());
+    }
+    addBatch(batch, checks);
+  }
+
+  /**
+   * Opens a batch: events added from now on are queued, and are neither checked for
+   * conflicts nor stored until {@link #commit}. Queries only see the events committed so
+   * far, and other changes are refused until the batch is committed.
+   *
+   * @throws IllegalStateException if a batch is already open
+   */
+  @Override
+  public void beginBatch() throws IllegalStateException {
+    if (pending != null) {
+      throw new IllegalStateException("A batch is already open");
+    }
+    pending = new ArrayList<>();
+    pendingChecks = new BitSet();
+  }
+
+  /**
+   * Closes the open batch and stores the events queued in it. A conflict with an event
+   * added with auto-decline declines the whole batch rather than that event alone.
+   *
+   * @throws IllegalStateException if no batch is open, or a queued event added with
+   *                               auto-decline conflicts; nothing is added then
+   */
+  @Override
+  public void commit() throws IllegalStateException {
+    if (pending == null) {
+      throw new IllegalStateException("No batch is open");
+    }
+    List<AbstractEvent> batch = pending;
+    BitSet checks = pendingChecks;
+    pending = null;
+    pendingChecks = null;
+    addBatch(batch, checks);
+  }
+
+  /**
+   * Adds all generated instances of a recurring event to the calendar.
+   *
+   * @param recurringEvent the recurring event to expand
+   * @param autoDecline    if {@code true}, declines the whole series if any instance conflicts
+   */
+  @Override
+  public void addRecurringEvent(RecurringEvent recurringEvent, boolean autoDecline)
+      throws IllegalStateException {
+    checkNoBatch();
+    List<Event> generatedEvents = recurringEvent.generateEvents();
+
+    if (autoDecline) {
+      List<Event> incoming = new ArrayList<>(generatedEvents);
+      incoming.sort(Comparator.comparing(Calendar::lowTime));
+      for (Event event : incoming) {
+        Event existing = findConflict(event);
+        if (existing != null) {
+          throw new IllegalStateException("Recurring event conflicts with existing event: " +
+              existing.getTitle() + " at " + existing.getStart());
+        }
+      }
+    }
+
+    for (Event event : generatedEvents) {
+      append(event);
+    }
+  }
+
+  /**
+   * Retrieves events occurring on a specific date, including multi-day events spanning the
+   * date.
+   *
+   * @param date the date to query
+   * @return a list of events active on the specified date, ordered by start time
+   */
+  @Override
+  public List<AbstractEvent> getEventsOnDate(LocalDate date) {
+    long day = date.toEpochDay();
+    List<AbstractEvent> result = new ArrayList<>();
+    for (Row event : candidates(lowerEpoch(date.atStartOfDay()),
+        upperEpoch(date.plusDays(1).atStartOfDay()))) {
+      if (Calendar.firstDayOf(event) <= day && day <= Calendar.lastDayOf(event)) {
+        result.add(event);
+      }
+    }
+    result.sort(Comparator.comparing(AbstractEvent::getStart));
+    return result;
+  }
+
+  /**
+   * Retrieves events overlapping with a specified time range.
+   *
+   * @param start the start of the time range (inclusive)
+   * @param end   the end of the time range (inclusive)
+   * @return a list of events overlapping the range, ordered by start time
+   */
+  @Override
+  public List<AbstractEvent> getEventsBetween(LocalDateTime start, LocalDateTime end) {
+    List<AbstractEvent> result = new ArrayList<>();
+    for (Row event : candidates(lowerEpoch(start), upperEpoch(end))) {
+      // Handle regular events with datetime range.
+      if (event.getEnd() != null) {
+        if (!event.getStart().isAfter(end) && !event.getEnd().isBefore(start)) {
+          result.add(event);
+        }
+      }
+      // Handle all day events.
+      else {
+        if (!event.getStart().isAfter(end) && !event.getStart().isBefore(start)) {
+          result.add(event);
+        }
+      }
+    }
+    result.sort(Comparator.comparing(AbstractEvent::getStart));
+    return result;
+  }
+
+  /**
+   * Checks if the calendar has any event scheduled at a specific time.
+   *
+   * @param time the timestamp to check
+   * @return {@code true} if an event exists at the specified time, {@code false} otherwise
+   */
+  @Override
+  public boolean isBusyAt(LocalDateTime time) {
+    for (Row event : candidates(lowerEpoch(time), upperEpoch(time))) {
+      if (Calendar.isBusyAt(event, time)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Finds an event by its exact title and start time.
+   *
+   * @param eventName the title of the event
+   * @param startTime the start time of the event
+   * @return the first matching event, or {@code null} if there is none
+   */
+  @Override
+  public AbstractEvent findEvent(String eventName, LocalDateTime startTime) {
+    List<Row> found = startingAt(eventName, startTime);
+    return found.isEmpty() ? null : found.get(0);
+  }
+
+  /**
+   * Exports all events to a CSV file in the specified format. Rows are written one at a
+   * time, and names ending in {@code .csv.gz} produce a gzip-compressed file.
+   *
+   * @param filename the output file path
+   * @return the filename of the generated CSV
+   * @throws IOException if an I/O error occurs during writing
+   */
+  @Override
+  public String exportToCSV(String filename) throws IOException {
+    try (CsvExport csv = new CsvExport(filename)) {
+      int count = rowCount();
+      for (int row = 0; row < count; row++) {
+        csv.write(new Row(row));
+      }
+    }
+    return filename;
+  }
+
+  /**
+   * Imports events from a CSV file in Google Calendar format.
+   *
+   * @param filename the input file path
+   * @return the number of events successfully imported
+   * @throws IOException              if an I/O error occurs during reading
+   * @throws IllegalArgumentException if the file format is invalid
+   */
+  @Override
+  public int importFromCSV(String filename) throws IOException, IllegalArgumentException {
+    checkNoBatch();
+    return CsvImport.importEvents(this, filename, null);
+  }
+
+  /**
+   * Imports events from a CSV file in Google Calendar format, reporting progress as rows
+   * are read.
+   *
+   * @param filename the input file path
+   * @param progress receives progress reports
+   * @return the number of events successfully imported
+   * @throws IOException              if an I/O error occurs during reading
+   * @throws IllegalArgumentException if the file format is invalid
+   */
+  @Override
+  public int importFromCSV(String filename, ImportProgress progress)
+      throws IOException, IllegalArgumentException {
+    checkNoBatch();
+    return CsvImport.importEvents(this, filename, progress);
+  }
+
+  /**
+   * Edits a specific event identified by its title, start time, and end time.
+   *
+   * @param property  the event property to modify
+   * @param eventName the title of the event to edit
+   * @param startTime the original start time of the event
+   * @param endTime   the original end time of the event
+   * @param newValue  the new value for the specified property
+   * @return {@code true} if the event was found and modified, {@code false} otherwise
+   */
+  @Override
+  public boolean editEvent(String property, String eventName, LocalDateTime startTime,
+                           LocalDateTime endTime, String newValue) {
+    checkNoBatch();
+    for (Row event : startingAt(eventName, startTime)) {
+      if (Calendar.isExactMatch(event, eventName, startTime, endTime)) {
+        Calendar.applyProperty(event, property,
+            Calendar.resolveEditValue(event, property, newValue));
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Edits all events with a matching title and start time.
+   *
+   * @param property  the event property to modify
+   * @param eventName the title of the events to edit
+   * @param startTime the start time of the events to edit
+   * @param newValue  the new value for the specified property
+   * @return {@code true} if any events were modified
+   */
+  @Override
+  public boolean editEvents(String property, String eventName, LocalDateTime startTime,
+                            String newValue) {
+    checkNoBatch();
+    IntPredicate titled = titleMatcher(eventName);
+    long from = lowerEpoch(startTime);
+    List<Row> targets = new ArrayList<>();
+    // Rows with the title from startTime on, then rows of any other title starting at
+    // startTime exactly.
+    collectTitled(eventName, row -> {
+      if (startAt(row) >= from) {
+        Row event = new Row(row);
+        if (Calendar.isSeriesMatch(event, eventName, startTime)) {
+          targets.add(event);
+        }
+      }
+    });
+    for (Row event : candidates(from, upperEpoch(startTime))) {
+      if (!titled.test(event.row) && Calendar.isSeriesMatch(event, eventName, startTime)) {
+        targets.add(event);
+      }
+    }
+    for (Row event : targets) {
+      Calendar.applyProperty(event, property,
+          Calendar.resolveEditValue(event, property, newValue));
+    }
+    return !targets.isEmpty();
+  }
+
+  /**
+   * Edits all events with a matching title, regardless of time.
+   *
+   * @param property  the event property to modify
+   * @param eventName the title of the events to edit
+   * @param newValue  the new value for the property
+   * @return {@code true} if any matching events were modified
+   */
+  @Override
+  public boolean editAllEvents(String property, String eventName, String newValue) {
+    checkNoBatch();
+    List<Row> targets = new ArrayList<>();
+    collectTitled(eventName, row -> targets.add(new Row(row)));
+    for (Row event : targets) {
+      Calendar.applyProperty(event, property, newValue);
+    }
+    return !targets.isEmpty();
+  }
+
+  /**
+   * Returns the earlier end of a row's span in epoch seconds.
+   *
+   * @param row the row
+   * @return the start, or the end if that is earlier
+   */
+  final long lowAt(int row) {
+    return allDayAt(row) ? startAt(row) : Math.min(startAt(row), endAt(row));
+  }
+
+  /**
+   * Returns the later end of a row's span in epoch seconds, reaching past the end of the
+   * day for all-day events.
+   *
+   * @param row the row
+   * @return the end of the row's span
+   */
+  final long highAt(int row) {
+    if (allDayAt(row)) {
+      return startAt(row) + ALL_DAY_SPAN_SECONDS;
+    }
+    return Math.max(startAt(row), endAt(row));
+  }
+
+  /**
+   * Finds a stored event that conflicts with the given one.
+   *
+   * @param event the event to check
+   * @return the earliest conflicting event, or {@code null} if there is none
+   */
+  private Event findConflict(AbstractEvent event) {
+    Row conflict = null;
+    for (Row existing : candidates(lowerEpoch(Calendar.lowTime(event)),
+        upperEpoch(Calendar.highTime(event)))) {
+      if (existing.conflictsWith(event)
+          && (conflict == null || startAt(existing.row) < startAt(conflict.row))) {
+        conflict = existing;
+      }
+    }
+    return conflict;
+  }
+
+  /**
+   * Stores a batch of events, or none of them if one that asks for auto-decline conflicts
+   * with a stored event or with one before it in the batch. Stored events are looked up
+   * through the time index; the batch is checked against itself in one sweep in start
+   * order.
+   *
+   * @param batch  the events to add, in the order they should be stored
+   * @param checks the positions in the batch of the events added with auto-decline
+   * @throws IllegalStateException if an event conflicts; nothing is added then
+   */
+  private void addBatch(List<AbstractEvent> batch, BitSet checks)
+      throws IllegalStateException {
+    for (int index = checks.nextSetBit(0); index >= 0; index = checks.nextSetBit(index + 1)) {
+      Event existing = findConflict(batch.get(index));
+      if (existing != null) {
+        throw conflict(existing);
+      }
+    }
+    if (!checks.isEmpty()) {
+      int count = batch.size();
+      LocalDateTime[] low = new LocalDateTime[count];
+      LocalDateTime[] high = new LocalDateTime[count];
+      Integer[] order = new Integer[count];
+      for (int i = 0; i < count; i++) {
+        low[i] = Calendar.lowTime(batch.get(i));
+        high[i] = Calendar.highTime(batch.get(i));
+        order[i] = i;
+      }
+      Arrays.sort(order, Comparator.comparing(i -> low[i]));
+      PriorityQueue<Integer> active = new PriorityQueue<>(Comparator.comparing(i -> high[i]));
+      for (int index : order) {
+        // Later events start no earlier than this one, so events that end before it can
+        // never conflict again.
+        while (!active.isEmpty() && high[active.peek()].isBefore(low[index])) {
+          active.poll();
+        }
+        for (int other : active) {
+          int later = Math.max(index, other);
+          AbstractEvent earlier = batch.get(Math.min(index, other));
+          if (checks.get(later) && earlier.conflictsWith(batch.get(later))) {
+            throw conflict(earlier);
+          }
+        }
+        active.add(index);
+      }
+    }
+    for (AbstractEvent event : batch) {
+      append(event);
+    }
+  }
+
+  /**
+   * Builds the error for a batch declined because of a conflict.
+   *
+   * @param existing the event the batch conflicts with
+   * @return the error to throw
+   */
+  private static IllegalStateException conflict(AbstractEvent existing) {
+    return new IllegalStateException("Event conflict detected: "
+        + existing.getTitle() + " at " + existing.getStart());
+  }
+
+  /**
+   * Refuses a change that cannot be queued while a batch is open.
+   *
+   * @throws IllegalStateException if a batch is open
+   */
+  private void checkNoBatch() throws IllegalStateException {
+    if (pending != null) {
+      throw new IllegalStateException("Commit the open batch first");
+    }
+  }
+
+  /**
+   * Collects the stored events with the given title that start at the given local time.
+   *
+   * @param eventName the title of the events
+   * @param startTime the local start time of the events
+   * @return the matching events
+   */
+  private List<Row> startingAt(String eventName, LocalDateTime startTime) {
+    List<Row> result = new ArrayList<>();
+    IntPredicate titled = titleMatcher(eventName);
+    for (Row event : candidates(lowerEpoch(startTime), upperEpoch(startTime))) {
+      if (titled.test(event.row) && event.getStart().equals(startTime)) {
+        result.add(event);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Collects views of the rows whose span overlaps [from, to], in epoch seconds.
+   *
+   * @param from the start of the range (inclusive)
+   * @param to   the end of the range (inclusive)
+   * @return views of the overlapping rows
+   */
+  private List<Row> candidates(long from, long to) {
+    List<Row> result = new ArrayList<>();
+    collectRows(from, to, row -> {
+      if (lowAt(row) <= to && highAt(row) >= from) {
+        result.add(new Row(row));
+      }
+    });
+    return result;
+  }
+
+  /**
+   * Copies an event's values into a new row.
+   *
+   * @param event the event to store
+   */
+  private void append(AbstractEvent event) {
+    boolean allDay = event.getEnd() == null;
+    long start = toEpoch(event.getStart());
+    int skipped = isSkipped(event.getStart()) ? START_SKIPPED : 0;
+    if (!allDay && isSkipped(event.getEnd())) {
+      skipped |= END_SKIPPED;
+    }
+    appendRow(start, allDay ? start : toEpoch(event.getEnd()), allDay, skipped,
+        event.isPublic(), event.getTitle(), event.getDescription(), event.getLocation());
+  }
+
+  /**
+   * Indicates whether a local time is skipped by a daylight saving change in the calendar's
+   * timezone.
+   *
+   * @param time the local time
+   * @return {@code true} if no instant has that local time
+   */
+  private boolean isSkipped(LocalDateTime time) {
+    return timezone.getRules().getValidOffsets(time).isEmpty();
+  }
+
+  /**
+   * Converts a local time in the calendar's timezone to the epoch seconds it is stored as.
+   *
+   * @param time the local time
+   * @return epoch seconds
+   */
+  private long toEpoch(LocalDateTime time) {
+    return time.atZone(timezone).toEpochSecond();
+  }
+
+  /**
+   * Reads stored epoch seconds as a local time in the calendar's timezone. A skipped local
+   * time was stored as the instant it moved to, so it is moved back by the gap.
+   *
+   * @param epoch   epoch seconds
+   * @param skipped whether the local time was skipped by a daylight saving change
+   * @return the local time
+   */
+  private LocalDateTime localTimeOf(long epoch, boolean skipped) {
+    Instant instant = Instant.ofEpochSecond(epoch);
+    LocalDateTime local = LocalDateTime.ofInstant(instant, timezone);
+    if (skipped) {
+      ZoneOffsetTransition gap = timezone.getRules().previousTransition(instant.plusSeconds(1));
+      if (gap != null && gap.isGap()) {
+        local = local.minus(gap.getDuration());
+      }
+    }
+    return local;
+  }
+
+  /**
+   * Returns the earliest epoch second a local time can stand for in the calendar's timezone.
+   *
+   * @param time the local time
+   * @return epoch seconds
+   */
+  private long lowerEpoch(LocalDateTime time) {
+    return time.atZone(timezone).withEarlierOffsetAtOverlap().toEpochSecond();
+  }
+
+  /**
+   * Returns an epoch second no earlier than any instant a local time can stand for in the
+   * calendar's timezone.
+   *
+   * @param time the local time
+   * @return epoch seconds
+   */
+  private long upperEpoch(LocalDateTime time) {
+    long epoch = time.atZone(timezone).withLaterOffsetAtOverlap().toEpochSecond();
+    return time.getNano() > 0 ? epoch + 1 : epoch;
+  }
+}
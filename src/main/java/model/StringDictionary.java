@@ -0,0 +1,116 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps strings to small integer ids, so that a column of repeated strings can be stored as
+ * an {@code int} array. Each distinct string is kept once and counted every time it is
+ * interned; once every holder has released it, the string is dropped and its id reused.
+ * {@code null} has the fixed id {@link #NULL_ID}.
+ */
+final class StringDictionary {
+  static final int NULL_ID = -1;
+  // returned by find for strings that have never been added
+  static final int MISSING_ID = -2;
+
+  private final Map<String, Integer> ids;
+  private final List<String> values;
+  private int[] references;
+  // ids of released strings, ready to be handed out again
+  private int[] freeIds;
+  private int freeCount;
+
+  /**
+   * Constructs an empty dictionary.
+   */
+  StringDictionary() {
+    ids = new HashMap<>();
+    values = new ArrayList<>();
+    references = new int[16];
+    freeIds = new int[16];
+  }
+
+  /**
+   * Returns the id of a string and counts one more holder for it, adding the string to the
+   * dictionary if it is new.
+   *
+   * @param value the string, may be {@code null}
+   * @return the id of the string
+   */
+  int intern(String value) {
+    if (value == null) {
+      return NULL_ID;
+    }
+    Integer id = ids.get(value);
+    if (id == null) {
+      if (freeCount > 0) {
+        id = freeIds[--freeCount];
+        values.set(id, value);
+      } else {
+        id = values.size();
+        values.add(value);
+        if (id == references.length) {
+          references = Arrays.copyOf(references, id * 2);
+        }
+      }
+      ids.put(value, id);
+    }
+    references[id]++;
+    return id;
+  }
+
+  /**
+   * Counts one holder fewer for the string with the given id, dropping the string once no
+   * holders are left.
+   *
+   * @param id the id returned by {@link #intern}
+   */
+  void release(int id) {
+    if (id == NULL_ID || --references[id] > 0) {
+      return;
+    }
+    ids.remove(values.get(id));
+    values.set(id, null);
+    if (freeCount == freeIds.length) {
+      freeIds = Arrays.copyOf(freeIds, freeCount * 2);
+    }
+    freeIds[freeCount++] = id;
+  }
+
+  /**
+   * Returns the id of a string without adding it.
+   *
+   * @param value the string, may be {@code null}
+   * @return the id of the string, or {@link #MISSING_ID} if it is not in the dictionary
+   */
+  int find(String value) {
+    if (value == null) {
+      return NULL_ID;
+    }
+    Integer id = ids.get(value);
+    return id == null ? MISSING_ID : id;
+  }
+
+  /**
+   * Returns the string with the given id.
+   *
+   * @param id the id returned by {@link #intern}
+   * @return the string, or {@code null} for {@link #NULL_ID}
+   */
+  String get(int id) {
+    return id == NULL_ID ? null : values.get(id);
+  }
+
+  /**
+   * Returns the number of distinct strings in the dictionary.
+   *
+   * @return the number of strings
+   */
+  int size() {
+    return ids.size();
+  }
+}
@@ -0,0 +1,88 @@
+package model;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Keeps one shared instance of each string held by a calendar's events, so that the many
+ * events repeating the same title, description or location point at a single copy. Each
+ * string is counted every time it is acquired and dropped from the pool once every holder
+ * has released it.
+ */
+final class StringPool {
+  private final Map<String, Entry> entries;
+
+  /**
+   * A pooled string and the number of holders that currently use it.
+   */
+  private static final class Entry {
+    private final String value;
+    private int references;
+
+    private Entry(String value) {
+      this.value = value;
+    }
+  }
+
+  /**
+   * Constructs an empty pool.
+   */
+  StringPool() {
+    entries = new HashMap<>();
+  }
+
+  /**
+   * Returns the shared instance of a string and counts one more holder for it.
+   *
+   * @param value the string, may be {@code null}
+   * @return the pooled instance equal to the string, or {@code null} for {@code null}
+   */
+  String acquire(String value) {
+    if (value == null) {
+      return null;
+    }
+    Entry entry = entries.get(value);
+    if (entry == null) {
+      entry = new Entry(value);
+      entries.put(value, entry);
+    }
+    entry.references++;
+    return entry.value;
+  }
+
+  /**
+   * Counts one holder fewer for a string, dropping it from the pool when none are left.
+   * Strings that are not in the pool are ignored.
+   *
+   * @param value the string, may be {@code null}
+   */
+  void release(String value) {
+    if (value == null) {
+      return;
+    }
+    Entry entry = entries.get(value);
+    if (entry != null && --entry.references == 0) {
+      entries.remove(value);
+    }
+  }
+
+  /**
+   * Returns the number of holders of a string.
+   *
+   * @param value the string
+   * @return the number of holders, or 0 if the string is not in the pool
+   */
+  int references(String value) {
+    Entry entry = entries.get(value);
+    return entry == null ? 0 : entry.references;
+  }
+
+  /**
+   * Returns the number of distinct strings in the pool.
+   *
+   * @return the number of strings
+   */
+  int size() {
+    return entries.size();
+  }
+}
@@ -71,6 +71,24 @@ public class CommandExportTest {
     assertEquals(expectedTerminalPrint, bytes.toString());
   }
 
+  @Test
+  public void testCompressedExport() throws IOException {
+    InputStream in = new ByteArrayInputStream(("create calendar --name cal1 " +
+        "--timezone America/New_York\nuse calendar " +
+        "--name cal1\nexport cal test.csv.gz\nq").getBytes());
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    PrintStream out = new PrintStream(bytes);
+
+    System.setOut(out);
+
+    controller = new InteractiveController(in, out, mockCalManager);
+    controller.controllerGo();
+
+    assertTrue(mockCalLog.toString().contains("Export"));
+    assertTrue(bytes.toString().contains("Export Filename: exported"));
+  }
+
   @Test(expected = IllegalArgumentException.class)
   public void testBasicExportFail1() throws IOException {
     InputStream in = new ByteArrayInputStream(("create calendar --name cal1 " +
@@ -14,6 +14,7 @@ import controller.InteractiveController;
 import model.ICalendar;
 import model.ICalendarManager;
 
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -45,6 +46,8 @@ public class CommandUseTest {
     controller = new InteractiveController(in, out, mockCalManager);
     controller.controllerGo();
 
-    assertTrue(mockCalManagerLog.toString().contains("useCalendar"));
+    // The calendar in use belongs to the controller's session, not the shared manager.
+    assertTrue(mockCalManagerLog.toString().contains("getCalendar"));
+    assertFalse(mockCalManagerLog.toString().contains("useCalendar"));
   }
 }
\ No newline at end of file
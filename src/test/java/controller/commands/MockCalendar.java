@@ -4,11 +4,13 @@ import java.io.IOException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.Collection;
 import java.util.List;
 
 import model.AbstractEvent;
 import model.Event;
 import model.ICalendar;
+import model.ImportProgress;
 import model.RecurringEvent;
 
 /**
@@ -55,6 +57,25 @@ public class MockCalendar implements ICalendar {
     }
   }
 
+  @Override
+  public void addEvents(Collection<AbstractEvent> events, boolean autoDecline) {
+    for (AbstractEvent event : events) {
+      addEvent(event, autoDecline);
+    }
+  }
+
+  @Override
+  public void beginBatch() {
+    log.append("beginBatch");
+    log.append(" ");
+  }
+
+  @Override
+  public void commit() {
+    log.append("commit");
+    log.append(" ");
+  }
+
   @Override
   public void addRecurringEvent(RecurringEvent recurringEvent, boolean autoDecline) {
     List<Event> generatedEvents = recurringEvent.generateEvents();
@@ -87,6 +108,13 @@ public class MockCalendar implements ICalendar {
     return false;
   }
 
+  @Override
+  public AbstractEvent findEvent(String eventName, LocalDateTime startTime) {
+    log.append("findEvent");
+    log.append(" ");
+    return null;
+  }
+
   @Override
   public String exportToCSV(String filename) throws IOException {
     log.append("Export");
@@ -101,6 +129,14 @@ public class MockCalendar implements ICalendar {
     return 1;
   }
 
+  @Override
+  public int importFromCSV(String filename, ImportProgress progress)
+      throws IOException, IllegalArgumentException {
+    log.append("Import");
+    log.append(" ");
+    return 1;
+  }
+
   @Override
   public boolean editEvent(String property, String eventName, LocalDateTime startTime,
                            LocalDateTime endTime, String newValue) {
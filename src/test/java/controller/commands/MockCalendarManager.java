@@ -58,7 +58,9 @@ public class MockCalendarManager implements ICalendarManager {
 
   @Override
   public ICalendar getCalendar(String name) {
-    return null;
+    log.append("getCalendar");
+    log.append(" ");
+    return this.mockCalendar;
   }
 
   @Override
@@ -94,4 +96,29 @@ public class MockCalendarManager implements ICalendarManager {
     log.append(" ");
     return true;
   }
+
+  @Override
+  public boolean copyEvent(String sourceCalendarName, String eventName, LocalDateTime eventStart,
+                           String targetCalendarName, LocalDateTime newTargetStart) {
+    log.append("copyEvent");
+    log.append(" ");
+    return true;
+  }
+
+  @Override
+  public boolean copyEventsOn(String sourceCalendarName, LocalDate sourceDate,
+                              String targetCalendarName, LocalDate targetDate) {
+    log.append("copyEventsOn");
+    log.append(" ");
+    return true;
+  }
+
+  @Override
+  public boolean copyEventsBetween(String sourceCalendarName, LocalDate sourceStartDate,
+                                   LocalDate sourceEndDate, String targetCalendarName,
+                                   LocalDate targetStartDate) {
+    log.append("copyEventsBetween");
+    log.append(" ");
+    return true;
+  }
 }
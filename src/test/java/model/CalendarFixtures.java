@@ -0,0 +1,84 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Helpers shared by the tests that compare calendars holding the same events in different
+ * forms: stored differently, saved and loaded, or replayed from a journal.
+ */
+final class CalendarFixtures {
+
+  private CalendarFixtures() {
+  }
+
+  /**
+   * Describes every field of an event that a user can set.
+   *
+   * @param event the event
+   * @return the title, start, end, description, location and visibility, joined by bars
+   */
+  static String describe(AbstractEvent event) {
+    return event.getTitle() + "|" + event.getStart() + "|" + event.getEnd() + "|"
+        + event.getDescription() + "|" + event.getLocation() + "|" + event.isPublic();
+  }
+
+  /**
+   * Describes events in the order given.
+   *
+   * @param events the events
+   * @return their descriptions
+   */
+  static List<String> describeAll(List<? extends AbstractEvent> events) {
+    List<String> result = new ArrayList<>();
+    for (AbstractEvent event : events) {
+      result.add(describe(event));
+    }
+    return result;
+  }
+
+  /**
+   * Describes events in sorted order, for calendars that do not keep the order events were
+   * added in.
+   *
+   * @param events the events
+   * @return their descriptions, sorted
+   */
+  static List<String> describeSorted(List<? extends AbstractEvent> events) {
+    List<String> result = describeAll(events);
+    Collections.sort(result);
+    return result;
+  }
+
+  /**
+   * Checks that two managers hold calendars with the same names, timezones and events, in
+   * the same order, and have the same calendar in use. Where both calendars are
+   * {@link Calendar}s, their stored events must also start at the same instants.
+   *
+   * @param expected the manager the other should match
+   * @param actual   the manager to check
+   */
+  static void assertSameCalendars(CalendarManager expected, CalendarManager actual) {
+    assertEquals(expected.getAllCalendarsMap().keySet(), actual.getAllCalendarsMap().keySet());
+    for (String name : expected.getAllCalendarsMap().keySet()) {
+      ICalendar original = expected.getCalendar(name);
+      ICalendar other = actual.getCalendar(name);
+      assertEquals(original.getTimezone(), other.getTimezone());
+      assertEquals(describeAll(original.getAllEventsList()),
+          describeAll(other.getAllEventsList()));
+      if (original instanceof Calendar && other instanceof Calendar) {
+        List<Event> originalEvents = ((Calendar) original).storedEvents();
+        List<Event> otherEvents = ((Calendar) other).storedEvents();
+        for (int i = 0; i < originalEvents.size(); i++) {
+          assertEquals(originalEvents.get(i).getStartInstant(),
+              otherEvents.get(i).getStartInstant());
+        }
+      }
+    }
+    assertEquals(expected.getCurrentCalendar().getName(),
+        actual.getCurrentCalendar().getName());
+  }
+}
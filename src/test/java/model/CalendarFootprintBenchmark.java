@@ -0,0 +1,149 @@
+package model;
+
+import org.junit.Test;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Benchmark for the heap used by a million imported events. It compares events parsed with
+ * their own strings against the same events sharing pooled strings, then imports the same
+ * CSV into a {@link Calendar}, whose figure includes its indexes, and into a
+ * {@link ColumnarCalendar}. Run it with {@code mvn -Pbenchmark test}; the event count can be
+ * changed with {@code -Dbenchmark.events=...}.
+ */
+public class CalendarFootprintBenchmark {
+  private static final int EVENTS = Integer.getInteger("benchmark.events", 1_000_000);
+
+  @Test
+  public void testPooledStringsAndColumnsSaveHeap() throws IOException {
+    Path file = Files.createTempFile("footprint-benchmark", ".csv");
+    try {
+      writeEvents(file, EVENTS);
+
+      long before = usedHeap();
+      List<Event> unshared = parseUnshared(EVENTS);
+      long unsharedBytes = report("Events with their own strings", usedHeap() - before);
+      assertEquals(EVENTS, unshared.size());
+      unshared = null;
+
+      before = usedHeap();
+      List<Event> pooled = parseUnshared(EVENTS);
+      StringPool pool = new StringPool();
+      for (Event event : pooled) {
+        event.setTitle(pool.acquire(event.getTitle()));
+        event.setDescription(pool.acquire(event.getDescription()));
+        event.setLocation(pool.acquire(event.getLocation()));
+      }
+      long pooledBytes = report("Events with pooled strings", usedHeap() - before);
+      assertEquals(EVENTS, pooled.size());
+      pooled = null;
+
+      before = usedHeap();
+      Calendar calendar = new Calendar("Benchmark", "UTC");
+      calendar.importFromCSV(file.toString());
+      long calendarBytes = report("Calendar with pooled strings", usedHeap() - before);
+      assertEquals(EVENTS, calendar.getAllEventsList().size());
+      calendar = null;
+
+      before = usedHeap();
+      ColumnarCalendar columnar = new ColumnarCalendar("Benchmark", "UTC");
+      columnar.importFromCSV(file.toString());
+      long columnarBytes = report("ColumnarCalendar", usedHeap() - before);
+      assertEquals(EVENTS, columnar.size());
+
+      // Sharing the three strings saves well over a fifth of each event.
+      assertTrue(pooledBytes < unsharedBytes * 4 / 5);
+      assertTrue(columnarBytes < calendarBytes / 2);
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  /**
+   * Writes back-to-back half-hour events drawn from a few repeated titles and places.
+   *
+   * @param file  the file to write
+   * @param count number of events
+   * @throws IOException if the file cannot be written
+   */
+  private static void writeEvents(Path file, int count) throws IOException {
+    try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+      writer.write("Subject,Start Date,Start Time,End Date,End Time,All Day Event,"
+          + "Description,Location,Private\n");
+      LocalDateTime start = LocalDateTime.of(2025, 1, 1, 0, 0);
+      for (int i = 0; i < count; i++) {
+        LocalDateTime end = start.plusMinutes(30);
+        writer.write(title(i) + "," + start.toLocalDate() + "," + start.toLocalTime()
+            + "," + end.toLocalDate() + "," + end.toLocalTime()
+            + ",false," + description(i) + "," + location(i) + ",false\n");
+        start = end;
+      }
+    }
+  }
+
+  /**
+   * Builds the same events as the CSV, giving each one freshly created strings the way a
+   * line-by-line parser does.
+   *
+   * @param count number of events
+   * @return the events
+   */
+  private static List<Event> parseUnshared(int count) {
+    List<Event> events = new ArrayList<>(count);
+    LocalDateTime start = LocalDateTime.of(2025, 1, 1, 0, 0);
+    for (int i = 0; i < count; i++) {
+      LocalDateTime end = start.plusMinutes(30);
+      events.add(new Event(new String(title(i)), start, end, new String(description(i)),
+          new String(location(i)), true));
+      start = end;
+    }
+    return events;
+  }
+
+  private static String title(int i) {
+    return "Meeting " + (i % 100);
+  }
+
+  private static String description(int i) {
+    return "Weekly planning session " + (i % 20);
+  }
+
+  private static String location(int i) {
+    return "Room " + (i % 10);
+  }
+
+  /**
+   * Prints the heap retained per event.
+   *
+   * @param label what was measured
+   * @param bytes retained heap in bytes
+   * @return the bytes, for comparing
+   */
+  private static long report(String label, long bytes) {
+    System.out.println(label + ": " + bytes / (1024 * 1024) + " MB, "
+        + bytes / Math.max(1, EVENTS) + " bytes per event");
+    return bytes;
+  }
+
+  /**
+   * Returns the heap in use after encouraging a full collection.
+   *
+   * @return used heap in bytes
+   */
+  private static long usedHeap() {
+    Runtime runtime = Runtime.getRuntime();
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+    }
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+}
@@ -0,0 +1,82 @@
+package model;
+
+import org.junit.Test;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Benchmark for CSV import into a {@link Calendar}. Every imported row goes through the
+ * auto-decline conflict check, so this shows how import time grows with the number of
+ * events. Run it with {@code mvn -Pbenchmark test}.
+ */
+public class CalendarImportBenchmark {
+  private static final int LARGEST = Integer.getInteger("benchmark.importEvents", 100_000);
+  private static final int ROUNDS = 3;
+
+  @Test
+  public void testImportGrowsNearlyLinearly() throws IOException {
+    // Warm up the JIT before measuring.
+    importEvents(LARGEST / 4);
+
+    long smallest = 0;
+    long previous = 0;
+    for (int count = LARGEST / 4; count <= LARGEST; count *= 2) {
+      long millis = Long.MAX_VALUE;
+      for (int round = 0; round < ROUNDS; round++) {
+        millis = Math.min(millis, importEvents(count));
+      }
+      millis = Math.max(1, millis);
+      String growth = previous == 0 ? "" : String.format("  (x%.2f)", (double) millis / previous);
+      System.out.println(count + " events imported in " + millis + " ms" + growth);
+      if (smallest == 0) {
+        smallest = millis;
+      }
+      previous = millis;
+    }
+    // Four times the events take about four times as long; a quadratic check would take
+    // sixteen times as long.
+    assertTrue("import grew from " + smallest + " ms to " + previous + " ms",
+        previous < smallest * 8);
+  }
+
+  /**
+   * Writes a CSV of back-to-back hour-long events and imports it into a fresh calendar.
+   *
+   * @param count number of events to import
+   * @return import time in milliseconds
+   * @throws IOException if the temporary CSV file cannot be written
+   */
+  private static long importEvents(int count) throws IOException {
+    Path file = Files.createTempFile("import-benchmark", ".csv");
+    try {
+      try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+        writer.write("Subject,Start Date,Start Time,End Date,End Time,All Day Event,"
+            + "Description,Location,Private\n");
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 0, 0);
+        for (int i = 0; i < count; i++) {
+          LocalDateTime end = start.plusHours(1);
+          writer.write("Event " + i + "," + start.toLocalDate() + "," + start.toLocalTime()
+              + "," + end.toLocalDate() + "," + end.toLocalTime()
+              + ",false,Benchmark,Room,false\n");
+          start = end;
+        }
+      }
+
+      Calendar calendar = new Calendar();
+      long begin = System.nanoTime();
+      int imported = calendar.importFromCSV(file.toString());
+      long millis = (System.nanoTime() - begin) / 1_000_000;
+      assertEquals(count, imported);
+      return millis;
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+}
@@ -3,14 +3,17 @@ package model;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Collection;
 import java.time.ZoneId;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 
 import static org.junit.Assert.assertEquals;
@@ -277,6 +280,73 @@ public class CalendarManagerTest {
     assertEquals(1, l.size());
   }
 
+  @Test
+  public void testEditCalendarTimezoneKeepsRangeQueriesInStep() {
+    manager.createCalendar("Default", "America/New_York");
+    manager.useCalendar("Default");
+
+    ICalendar cal = manager.getCurrentCalendar();
+    cal.addEvent(event1, false);
+
+    manager.editCalendar("Default", "timezone", "Asia/Kolkata");
+
+    assertEquals(1, cal.getEventsBetween(LocalDateTime.of(2025, 3, 10, 19, 30),
+        LocalDateTime.of(2025, 3, 10, 19, 45)).size());
+    assertTrue(cal.getEventsBetween(LocalDateTime.of(2025, 3, 10, 10, 0),
+        LocalDateTime.of(2025, 3, 10, 10, 30)).isEmpty());
+  }
+
+  @Test
+  public void testEditCalendarTimezoneMovesRecurringOccurrences() {
+    manager.createCalendar("Default", "America/New_York");
+    manager.useCalendar("Default");
+
+    ICalendar cal = manager.getCurrentCalendar();
+    Set<DayOfWeek> mondays = new HashSet<>();
+    mondays.add(DayOfWeek.MONDAY);
+    cal.addRecurringEvent(new RecurringEvent("Late Call",
+        LocalDateTime.of(2025, 3, 10, 20, 0),
+        LocalDateTime.of(2025, 3, 10, 21, 0),
+        "", "", true, mondays, LocalDate.of(2025, 3, 31)), false);
+
+    manager.editCalendar("Default", "timezone", "Asia/Kolkata");
+
+    // 20:00 in New York is 05:30 the next morning in Kolkata.
+    assertTrue(cal.getEventsOnDate(LocalDate.of(2025, 3, 17)).isEmpty());
+    List<AbstractEvent> moved = cal.getEventsOnDate(LocalDate.of(2025, 3, 18));
+    assertEquals(1, moved.size());
+    assertEquals(LocalDateTime.of(2025, 3, 18, 5, 30), moved.get(0).getStart());
+    assertEquals(LocalDateTime.of(2025, 3, 18, 6, 30), moved.get(0).getEnd());
+    assertTrue(cal.isBusyAt(LocalDateTime.of(2025, 3, 25, 6, 0)));
+    assertEquals(4, cal.getAllEventsList().size());
+  }
+
+  @Test
+  public void testEditCalendarTimezoneMovesStoredEventsInPlace() {
+    manager.createCalendar("Default", "America/New_York");
+    manager.useCalendar("Default");
+
+    ICalendar cal = manager.getCurrentCalendar();
+    Event stored = new Event("Call", LocalDateTime.of(2025, 3, 10, 22, 0),
+        LocalDateTime.of(2025, 3, 10, 23, 0), "", "", true);
+    cal.addEvent(stored, false);
+
+    manager.editCalendar("Default", "timezone", "Europe/London");
+    // The event object itself now reads in the new zone.
+    assertEquals(LocalDateTime.of(2025, 3, 11, 2, 0), stored.getStart());
+    assertEquals(LocalDateTime.of(2025, 3, 11, 3, 0), stored.getEnd());
+    assertTrue(cal.getEventsOnDate(LocalDate.of(2025, 3, 10)).isEmpty());
+    assertEquals(1, cal.getEventsOnDate(LocalDate.of(2025, 3, 11)).size());
+    assertTrue(cal.isBusyAt(LocalDateTime.of(2025, 3, 11, 2, 30)));
+    assertTrue(cal.editEvent("location", "Call", LocalDateTime.of(2025, 3, 11, 2, 0),
+        LocalDateTime.of(2025, 3, 11, 3, 0), "Phone"));
+
+    // Switching back restores the original times exactly.
+    manager.editCalendar("Default", "timezone", "America/New_York");
+    assertEquals(LocalDateTime.of(2025, 3, 10, 22, 0), stored.getStart());
+    assertEquals("Phone", stored.getLocation());
+  }
+
   @Test
   public void testEditCalendarTimezone2() {
     manager.createCalendar("Default", "America/New_York");
@@ -857,4 +927,147 @@ public class CalendarManagerTest {
     assertTrue("The returned map should be a HashMap",
         eventsMap instanceof HashMap);
   }
-}
\ No newline at end of file
+
+  /**
+   * Lists a calendar's events between two dates as title and times.
+   */
+  private static String describeBetween(ICalendar calendar, LocalDate from, LocalDate to) {
+    StringBuilder result = new StringBuilder();
+    for (AbstractEvent event : calendar.getEventsBetween(from.atStartOfDay(),
+        to.atStartOfDay())) {
+      result.append(event.getTitle()).append(' ').append(event.getStart()).append(' ')
+          .append(event.getEnd()).append('\n');
+    }
+    return result.toString();
+  }
+
+  @Test
+  public void testCopyEventsBetweenSkipsEmptyDays() {
+    manager.createCalendar("Source", "America/New_York");
+    manager.createCalendar("Target", "America/New_York");
+    ICalendar source = manager.getCurrentCalendar();
+    source.addEvent(event1, false);
+    source.addEvent(new Event("Review", LocalDateTime.of(2025, 3, 13, 15, 0),
+        LocalDateTime.of(2025, 3, 13, 16, 0), "", "", true), false);
+    source.addEvent(new Event("Holiday", LocalDateTime.of(2025, 3, 14, 0, 0), "", "",
+        true), false);
+    // Outside the range.
+    source.addEvent(new Event("Later", LocalDateTime.of(2025, 3, 16, 9, 0),
+        LocalDateTime.of(2025, 3, 16, 10, 0), "", "", true), false);
+
+    assertTrue(manager.copyEventsBetween(LocalDate.of(2025, 3, 10), LocalDate.of(2025, 3, 15),
+        "Target", LocalDate.of(2025, 4, 7)));
+    assertEquals("Meeting 2025-04-07T10:00 2025-04-07T11:00\n"
+            + "Review 2025-04-10T15:00 2025-04-10T16:00\n"
+            + "Holiday 2025-04-11T00:00 null\n",
+        describeBetween(manager.getCalendar("Target"), LocalDate.of(2025, 4, 1),
+            LocalDate.of(2025, 5, 1)));
+  }
+
+  @Test
+  public void testCopyEventsBetweenConvertsTimezone() {
+    manager.createCalendar("Source", "America/New_York");
+    manager.createCalendar("Target", "Europe/London");
+    // 21:30 in New York is 02:30 the next morning in London; the copy keeps the target day.
+    manager.getCurrentCalendar().addEvent(new Event("Late call",
+        LocalDateTime.of(2025, 1, 6, 21, 30), LocalDateTime.of(2025, 1, 6, 22, 45), "", "",
+        true), false);
+    manager.getCurrentCalendar().addEvent(event1, false);
+
+    manager.copyEventsBetween(LocalDate.of(2025, 1, 6), LocalDate.of(2025, 3, 10), "Target",
+        LocalDate.of(2025, 6, 2));
+    assertEquals("Late call 2025-06-02T02:30 2025-06-02T03:45\n"
+            + "Meeting 2025-08-04T14:00 2025-08-04T15:00\n",
+        describeBetween(manager.getCalendar("Target"), LocalDate.of(2025, 6, 1),
+            LocalDate.of(2025, 9, 1)));
+  }
+
+  @Test
+  public void testCopyEventsBetweenCopiesLongEventsOnce() {
+    manager.createCalendar("Source", "UTC");
+    manager.createCalendar("Target", "UTC");
+    manager.getCurrentCalendar().addEvent(new Event("Conference",
+        LocalDateTime.of(2025, 3, 9, 9, 0), LocalDateTime.of(2025, 3, 11, 17, 0), "", "",
+        true), false);
+
+    manager.copyEventsBetween(LocalDate.of(2025, 3, 10), LocalDate.of(2025, 3, 12), "Target",
+        LocalDate.of(2025, 5, 5));
+    // Listed from the first day of the range on, so it lands on the first target day.
+    assertEquals("Conference 2025-05-05T09:00 2025-05-07T17:00\n",
+        describeBetween(manager.getCalendar("Target"), LocalDate.of(2025, 5, 1),
+            LocalDate.of(2025, 6, 1)));
+  }
+
+  @Test
+  public void testCopyEventsBetweenCopiesRecurringOccurrences() {
+    manager.createCalendar("Source", "UTC");
+    manager.createCalendar("Target", "UTC");
+    manager.getCurrentCalendar().addRecurringEvent(new RecurringEvent("Class",
+        LocalDateTime.of(2025, 3, 3, 9, 0), LocalDateTime.of(2025, 3, 3, 10, 0), "", "",
+        true, java.util.EnumSet.of(DayOfWeek.MONDAY, DayOfWeek.WEDNESDAY),
+        LocalDate.of(2025, 3, 31)), false);
+
+    manager.copyEventsBetween(LocalDate.of(2025, 3, 10), LocalDate.of(2025, 3, 16), "Target",
+        LocalDate.of(2025, 3, 17));
+    assertEquals(2, manager.getCalendar("Target").getAllEventsList().size());
+    assertTrue(manager.getCalendar("Target").isBusyAt(LocalDateTime.of(2025, 3, 19, 9, 30)));
+  }
+
+  @Test
+  public void testCopyEventsBetweenCopiesNothingOnConflict() {
+    manager.createCalendar("Source", "UTC");
+    manager.createCalendar("Target", "UTC");
+    ICalendar source = manager.getCurrentCalendar();
+    source.addEvent(event1, false);
+    source.addEvent(new Event("Standup", LocalDateTime.of(2025, 3, 11, 9, 0),
+        LocalDateTime.of(2025, 3, 11, 9, 15), "", "", true), false);
+    // Busy at the moment the second copy starts.
+    manager.getCalendar("Target").addEvent(new Event("Busy",
+        LocalDateTime.of(2025, 4, 2, 8, 0), LocalDateTime.of(2025, 4, 2, 9, 0), "", "",
+        true), false);
+
+    try {
+      manager.copyEventsBetween(LocalDate.of(2025, 3, 10), LocalDate.of(2025, 3, 11),
+          "Target", LocalDate.of(2025, 4, 1));
+      fail("Expected a conflict");
+    } catch (IllegalStateException e) {
+      assertEquals("Copied event conflicts with existing event: Busy at 2025-04-02T08:00",
+          e.getMessage());
+    }
+    assertEquals(1, manager.getCalendar("Target").getAllEventsList().size());
+  }
+
+  @Test
+  public void testCopyEventsBetweenChecksCopiesAgainstEachOther() {
+    manager.createCalendar("Source", "UTC");
+    manager.createCalendar("Target", "UTC");
+    manager.getCurrentCalendar().addEvent(new Event("Early", LocalDateTime.of(2025, 3, 10,
+        9, 0), LocalDateTime.of(2025, 3, 10, 11, 0), "", "", true), false);
+    manager.getCurrentCalendar().addEvent(new Event("Overlap", LocalDateTime.of(2025, 3, 10,
+        10, 0), LocalDateTime.of(2025, 3, 10, 12, 0), "", "", true), false);
+
+    try {
+      manager.copyEventsOn(LocalDate.of(2025, 3, 10), "Target", LocalDate.of(2025, 3, 20));
+      fail("Expected a conflict");
+    } catch (IllegalStateException e) {
+      assertEquals("Copied event conflicts with existing event: Early at 2025-03-20T09:00",
+          e.getMessage());
+    }
+    assertTrue(manager.getCalendar("Target").getAllEventsList().isEmpty());
+  }
+
+  @Test
+  public void testCopyEventsBetweenIntoSameCalendar() {
+    manager.createCalendar("Work", "UTC");
+    manager.getCurrentCalendar().addEvent(event1, false);
+    manager.getCurrentCalendar().addEvent(event2, false);
+
+    manager.copyEventsBetween(LocalDate.of(2025, 3, 10), LocalDate.of(2025, 3, 10), "Work",
+        LocalDate.of(2025, 3, 17));
+    assertEquals("Meeting 2025-03-17T10:00 2025-03-17T11:00\n"
+            + "Lunch 2025-03-17T12:00 2025-03-17T13:00\n",
+        describeBetween(manager.getCalendar("Work"), LocalDate.of(2025, 3, 17),
+            LocalDate.of(2025, 3, 18)));
+    assertEquals(4, manager.getCalendar("Work").getAllEventsList().size());
+  }
+}
@@ -0,0 +1,153 @@
+package model;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * JUnit Test case for the CalendarSession class.
+ */
+public class CalendarSessionTest {
+
+  private CalendarManager manager;
+
+  @Before
+  public void setUp() {
+    manager = new CalendarManager();
+  }
+
+  private static Event timed(String title, LocalDateTime start, int minutes) {
+    return new Event(title, start, start.plusMinutes(minutes), "", "", true);
+  }
+
+  @Test
+  public void testFirstCalendarCreatedIsInUse() {
+    CalendarSession session = new CalendarSession(manager);
+    assertNull(session.getCurrentCalendar());
+    session.createCalendar("Work", "UTC");
+    session.createCalendar("Home", "Asia/Kolkata");
+    assertEquals("Work", session.getCurrentCalendar().getName());
+  }
+
+  @Test
+  public void testSessionsKeepTheirOwnCalendar() {
+    manager.createCalendar("Work", "UTC");
+    manager.createCalendar("Home", "Asia/Kolkata");
+    CalendarSession alice = new CalendarSession(manager);
+    CalendarSession bob = new CalendarSession(manager);
+    assertEquals("Work", alice.getCurrentCalendar().getName());
+
+    bob.useCalendar("Home");
+    assertEquals("Work", alice.getCurrentCalendar().getName());
+    assertEquals("Home", bob.getCurrentCalendar().getName());
+    // The manager's own selection is left alone.
+    assertEquals("Work", manager.getCurrentCalendar().getName());
+
+    try {
+      alice.useCalendar("Gym");
+      fail("missing calendar used");
+    } catch (IllegalArgumentException e) {
+      assertEquals("Calendar not found: Gym", e.getMessage());
+    }
+    assertEquals("Work", alice.getCurrentCalendar().getName());
+  }
+
+  @Test
+  public void testRenamedCalendarStaysInUse() {
+    CalendarSession session = new CalendarSession(manager);
+    session.createCalendar("Work", "UTC");
+    ICalendar work = session.getCurrentCalendar();
+    manager.editCalendar("Work", "name", "Office");
+    assertSame(work, session.getCurrentCalendar());
+    assertEquals("Office", session.getCurrentCalendar().getName());
+  }
+
+  @Test
+  public void testCopiesComeFromTheSessionCalendar() {
+    manager.createCalendar("Work", "UTC");
+    manager.createCalendar("Home", "UTC");
+    LocalDateTime start = LocalDateTime.of(2025, 3, 10, 9, 0);
+    manager.getCalendar("Home").addEvent(timed("Yoga", start, 60), true);
+    CalendarSession session = new CalendarSession(manager);
+    session.useCalendar("Home");
+
+    assertTrue(session.copyEvent("Yoga", start, "Work", start.plusDays(1)));
+    assertTrue(session.copyEventsOn(start.toLocalDate(), "Work",
+        start.toLocalDate().plusDays(2)));
+    assertTrue(session.copyEventsBetween(start.toLocalDate(), start.toLocalDate(), "Work",
+        start.toLocalDate().plusDays(3)));
+
+    ICalendar work = manager.getCalendar("Work");
+    assertEquals(3, work.getAllEventsList().size());
+    assertNotNull(work.findEvent("Yoga", start.plusDays(3)));
+    assertEquals("Work", manager.getCurrentCalendar().getName());
+  }
+
+  @Test
+  public void testCopyNeedsCalendarInUse() {
+    manager.createCalendar("Work", "UTC");
+    CalendarSession session = new CalendarSession(new CalendarManager());
+    try {
+      session.copyEventsOn(LocalDate.of(2025, 3, 10), "Work", LocalDate.of(2025, 3, 11));
+      fail("copied without a calendar in use");
+    } catch (IllegalStateException e) {
+      assertEquals("No current calendar selected", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testSessionsShareConcurrentManager() throws InterruptedException {
+    ConcurrentCalendarManager shared = new ConcurrentCalendarManager();
+    shared.createCalendar("Work", "UTC");
+    shared.createCalendar("Home", "UTC");
+    String[] names = {"Work", "Home"};
+    int perClient = 200;
+    CountDownLatch start = new CountDownLatch(1);
+    AtomicReference<Throwable> failure = new AtomicReference<>();
+    List<Thread> clients = new ArrayList<>();
+    for (String name : names) {
+      Thread client = new Thread(() -> {
+        try {
+          CalendarSession session = new CalendarSession(shared);
+          session.useCalendar(name);
+          start.await();
+          LocalDateTime day = LocalDateTime.of(2025, 3, 10, 0, 0);
+          for (int i = 0; i < perClient; i++) {
+            session.getCurrentCalendar().addEvent(timed(name + i, day.plusMinutes(5L * i), 1),
+                true);
+            if (!session.getCurrentCalendar().getName().equals(name)) {
+              throw new AssertionError("calendar in use changed under " + name);
+            }
+          }
+        } catch (Throwable t) {
+          failure.compareAndSet(null, t);
+        }
+      });
+      clients.add(client);
+      client.start();
+    }
+    start.countDown();
+    for (Thread client : clients) {
+      client.join();
+    }
+    if (failure.get() != null) {
+      throw new AssertionError(failure.get());
+    }
+    for (String name : names) {
+      assertEquals(perClient, shared.getCalendar(name).getAllEventsList().size());
+    }
+  }
+}
@@ -0,0 +1,264 @@
+package model;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+
+import static model.CalendarFixtures.assertSameCalendars;
+import static model.CalendarFixtures.describeAll;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * JUnit Test case for the CalendarSnapshot class.
+ */
+public class CalendarSnapshotTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  /**
+   * Builds a manager with two calendars holding timed, all-day and recurring events, an
+   * edited occurrence, a timezone change and a few unusual values.
+   */
+  private static CalendarManager sampleManager() {
+    CalendarManager manager = new CalendarManager();
+    manager.createCalendar("Work", "America/New_York");
+    manager.createCalendar("Home", "Asia/Kolkata");
+
+    ICalendar work = manager.getCalendar("Work");
+    work.addEvent(new Event("Standup", LocalDateTime.of(2025, 3, 3, 9, 0),
+        LocalDateTime.of(2025, 3, 3, 9, 15), "Daily", "Room 1", true), false);
+    work.addEvent(new Event("Offsite", LocalDateTime.of(2025, 3, 5, 0, 0), null, "Park",
+        false), false);
+    work.addEvent(new Event("Launch", LocalDateTime.of(1969, 7, 16, 9, 32, 0, 123_456_789),
+        LocalDateTime.of(1969, 7, 24, 12, 50, 35), null, "Moon", true), false);
+    // A local time skipped by the daylight saving change is kept as it was given.
+    work.addEvent(new Event("Night", LocalDateTime.of(2025, 3, 9, 2, 30),
+        LocalDateTime.of(2025, 3, 9, 3, 30), "", "", true), false);
+    work.addRecurringEvent(new RecurringEvent("Review", LocalDateTime.of(2025, 3, 3, 14, 0),
+        LocalDateTime.of(2025, 3, 3, 15, 0), "Weekly", "Room 2", true,
+        EnumSet.of(DayOfWeek.MONDAY, DayOfWeek.THURSDAY), 3), false);
+    assertTrue(work.editEvent("location", "Review", LocalDateTime.of(2025, 3, 6, 14, 0),
+        LocalDateTime.of(2025, 3, 6, 15, 0), "Room 9"));
+
+    ICalendar home = manager.getCalendar("Home");
+    home.addRecurringEvent(new RecurringEvent("Yoga", LocalDateTime.of(2025, 1, 4, 7, 0),
+        null, "", "", false, EnumSet.of(DayOfWeek.SATURDAY), LocalDate.of(2025, 2, 1)),
+        false);
+    home.addEvent(new Event("Dinner", LocalDateTime.of(2025, 1, 4, 20, 0),
+        LocalDateTime.of(2025, 1, 4, 22, 0), "", "", true), false);
+    // Events keep their instants, so the zone change moves them without rewriting them.
+    manager.editCalendar("Home", "timezone", "Europe/London");
+    manager.useCalendar("Home");
+    return manager;
+  }
+
+  @Test
+  public void testRoundTripKeepsEverything() throws IOException {
+    CalendarManager manager = sampleManager();
+    String file = folder.getRoot().toPath().resolve("calendars.snapshot").toString();
+    manager.saveSnapshot(file);
+    CalendarManager loaded = CalendarManager.loadSnapshot(file);
+    assertSameCalendars(manager, loaded);
+
+    // The edited occurrence stays separate from its series.
+    ICalendar work = loaded.getCalendar("Work");
+    List<String> onEditedDate = describeAll(work.getEventsOnDate(LocalDate.of(2025, 3, 6)));
+    assertEquals(Arrays.asList("Review|2025-03-06T14:00|2025-03-06T15:00|Weekly|Room 9|true"),
+        onEditedDate);
+    assertEquals(1, ((Calendar) work).storedSeries().get(0).getExcluded().size());
+    assertEquals(ZoneId.of("Asia/Kolkata"),
+        ((Calendar) loaded.getCalendar("Home")).storedSeries().get(0).getZone());
+  }
+
+  @Test
+  public void testLoadedCalendarsAreFullyIndexed() throws IOException {
+    CalendarManager manager = sampleManager();
+    Path file = folder.getRoot().toPath().resolve("calendars.snapshot");
+    manager.saveSnapshot(file.toString());
+    CalendarManager loaded = CalendarManager.loadSnapshot(file.toString());
+
+    ICalendar work = loaded.getCalendar("Work");
+    assertTrue(work.isBusyAt(LocalDateTime.of(2025, 3, 3, 9, 10)));
+    assertTrue(work.isBusyAt(LocalDateTime.of(2025, 3, 10, 14, 30)));
+    assertFalse(work.isBusyAt(LocalDateTime.of(2025, 3, 3, 10, 0)));
+    assertTrue(work.editEvents("description", "Standup", LocalDateTime.of(2025, 3, 3, 9, 0),
+        "Moved"));
+    assertEquals("Moved", work.findEvent("Standup",
+        LocalDateTime.of(2025, 3, 3, 9, 0)).getDescription());
+    try {
+      work.addEvent(new Event("Clash", LocalDateTime.of(2025, 3, 3, 9, 5),
+          LocalDateTime.of(2025, 3, 3, 9, 20), "", "", true), true);
+      assertTrue("conflict not detected", false);
+    } catch (IllegalStateException e) {
+      assertEquals("Event conflict detected", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testSharesStringsAcrossEvents() throws IOException {
+    CalendarManager manager = new CalendarManager();
+    manager.createCalendar("Busy", "UTC");
+    ICalendar busy = manager.getCalendar("Busy");
+    LocalDateTime start = LocalDateTime.of(2025, 1, 1, 0, 0);
+    for (int i = 0; i < 1000; i++) {
+      busy.addEvent(new Event("Event " + (i % 10), start, start.plusMinutes(30),
+          "Description", "Room", true), false);
+      start = start.plusHours(1);
+    }
+    Path file = folder.getRoot().toPath().resolve("busy.snapshot");
+    manager.saveSnapshot(file.toString());
+    // A thousand events fit in a few bytes each once strings and times are encoded.
+    assertTrue(Files.size(file) < 12 * 1000);
+
+    Calendar loaded = (Calendar) CalendarManager.loadSnapshot(file.toString())
+        .getCalendar("Busy");
+    assertTrue(loaded.storedEvents().get(0).getDescription()
+        == loaded.storedEvents().get(999).getDescription());
+    assertEquals(describeAll(busy.getAllEventsList()), describeAll(loaded.getAllEventsList()));
+  }
+
+  @Test
+  public void testSavesTheSessionCalendarInUse() throws IOException {
+    CalendarManager manager = sampleManager();
+    CalendarSession session = new CalendarSession(manager);
+    session.useCalendar("Work");
+    String file = folder.getRoot().toPath().resolve("calendars.snapshot").toString();
+    manager.saveSnapshot(file, session.getCurrentCalendar().getName());
+
+    assertEquals("Home", manager.getCurrentCalendar().getName());
+    assertEquals("Work", CalendarManager.loadSnapshot(file).getCurrentCalendar().getName());
+    try {
+      manager.saveSnapshot(file, "Gym");
+      fail("missing calendar saved as in use");
+    } catch (IllegalArgumentException e) {
+      assertEquals("Calendar not found: Gym", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testEmptyManager() throws IOException {
+    String file = folder.getRoot().toPath().resolve("empty.snapshot").toString();
+    new CalendarManager().saveSnapshot(file);
+    CalendarManager loaded = CalendarManager.loadSnapshot(file);
+    assertTrue(loaded.getAllCalendars().isEmpty());
+    assertNull(loaded.getCurrentCalendar());
+  }
+
+  @Test
+  public void testSaveReplacesExistingSnapshot() throws IOException {
+    Path file = folder.getRoot().toPath().resolve("calendars.snapshot");
+    sampleManager().saveSnapshot(file.toString());
+    CalendarManager smaller = new CalendarManager();
+    smaller.createCalendar("Only", "UTC");
+    smaller.saveSnapshot(file.toString());
+
+    assertEquals(1, CalendarManager.loadSnapshot(file.toString()).getAllCalendars().size());
+    assertEquals(1, folder.getRoot().list().length);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testRejectsOtherFiles() throws IOException {
+    Path file = folder.getRoot().toPath().resolve("events.csv");
+    Files.write(file, "Subject,Start Date\n".getBytes());
+    CalendarManager.loadSnapshot(file.toString());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testRejectsNewerVersions() throws IOException {
+    Path file = folder.getRoot().toPath().resolve("calendars.snapshot");
+    sampleManager().saveSnapshot(file.toString());
+    byte[] bytes = Files.readAllBytes(file);
+    // The version follows the four-byte magic number.
+    bytes[4] = (byte) (CalendarSnapshot.VERSION + 1);
+    Files.write(file, bytes);
+    CalendarManager.loadSnapshot(file.toString());
+  }
+
+  /**
+   * Writes a snapshot header by hand: the magic number, the version and the given bytes.
+   */
+  private Path writeHeader(int... rest) throws IOException {
+    Path file = folder.getRoot().toPath().resolve("calendars.snapshot");
+    byte[] bytes = new byte[5 + rest.length];
+    bytes[0] = 'C';
+    bytes[1] = 'A';
+    bytes[2] = 'L';
+    bytes[3] = 'S';
+    bytes[4] = (byte) CalendarSnapshot.VERSION;
+    for (int i = 0; i < rest.length; i++) {
+      bytes[5 + i] = (byte) rest[i];
+    }
+    Files.write(file, bytes);
+    return file;
+  }
+
+  @Test
+  public void testRejectsReferencesPastTheDictionary() throws IOException {
+    // One string, no calendar in use, and one calendar whose timezone is string 5.
+    Path file = writeHeader(1, 4, 'O', 'n', 'l', 'y', 0, 1, 0, 5);
+    try {
+      CalendarManager.loadSnapshot(file.toString());
+      fail("reference past the dictionary loaded");
+    } catch (IllegalArgumentException e) {
+      assertEquals("Malformed string reference in calendar snapshot: 5", e.getMessage());
+    }
+
+    // The same, with the calendar in use being string 2.
+    file = writeHeader(1, 4, 'O', 'n', 'l', 'y', 3, 0);
+    try {
+      CalendarManager.loadSnapshot(file.toString());
+      fail("reference past the dictionary loaded");
+    } catch (IllegalArgumentException e) {
+      assertEquals("Malformed string reference in calendar snapshot: 2", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testRejectsSizesPastTheEndOfTheFile() throws IOException {
+    // A dictionary of Integer.MAX_VALUE strings.
+    Path file = writeHeader(0xFF, 0xFF, 0xFF, 0xFF, 0x07);
+    try {
+      CalendarManager.loadSnapshot(file.toString());
+      fail("oversized dictionary loaded");
+    } catch (IllegalArgumentException e) {
+      assertEquals("Malformed size in calendar snapshot: 2147483647", e.getMessage());
+    }
+
+    // One string of a million bytes.
+    file = writeHeader(1, 0xC0, 0x84, 0x3D);
+    try {
+      CalendarManager.loadSnapshot(file.toString());
+      fail("oversized string loaded");
+    } catch (IllegalArgumentException e) {
+      assertEquals("Malformed size in calendar snapshot: 1000000", e.getMessage());
+    }
+  }
+
+  @Test(expected = EOFException.class)
+  public void testRejectsTruncatedFiles() throws IOException {
+    Path file = folder.getRoot().toPath().resolve("calendars.snapshot");
+    sampleManager().saveSnapshot(file.toString());
+    byte[] bytes = Files.readAllBytes(file);
+    Files.write(file, Arrays.copyOf(bytes, bytes.length - 5));
+    CalendarManager.loadSnapshot(file.toString());
+  }
+}
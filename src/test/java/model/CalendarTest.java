@@ -13,15 +13,20 @@ import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Random;
 import java.util.Set;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -219,6 +224,9 @@ public class CalendarTest {
 
 
     assertFalse(calendar.isBusyAt(LocalDateTime.of(2025, 3, 14, 23, 59)));
+    // The event covers the day after its start, up to and including its end.
+    assertTrue(calendar.isBusyAt(LocalDateTime.of(2025, 3, 16, 0, 0)));
+    assertFalse(calendar.isBusyAt(LocalDateTime.of(2025, 3, 16, 0, 0, 0, 1)));
   }
 
   @Test
@@ -2598,4 +2606,810 @@ public class CalendarTest {
 
   }
 
-}
\ No newline at end of file
+  @Test
+  public void testGetEventsBetweenFollowsEditedTimes() {
+    calendar.addEvent(event1, false);
+    calendar.addEvent(event2, false);
+
+    assertTrue(calendar.editEvent("start", "Meeting",
+        LocalDateTime.of(2025, 3, 10, 10, 0),
+        LocalDateTime.of(2025, 3, 10, 11, 0), "08:00"));
+
+    List<AbstractEvent> events = calendar.getEventsBetween(
+        LocalDateTime.of(2025, 3, 10, 8, 0),
+        LocalDateTime.of(2025, 3, 10, 9, 0));
+    assertEquals(1, events.size());
+    assertEquals("Meeting", events.get(0).getTitle());
+
+    assertTrue(calendar.editEvent("end", "Meeting",
+        LocalDateTime.of(2025, 3, 10, 8, 0),
+        LocalDateTime.of(2025, 3, 10, 11, 0), "08:30"));
+    assertTrue(calendar.getEventsBetween(
+        LocalDateTime.of(2025, 3, 10, 9, 0),
+        LocalDateTime.of(2025, 3, 10, 11, 0)).isEmpty());
+  }
+
+  @Test
+  public void testGetEventsBetweenOrderedByStartAcrossManyEvents() {
+    for (int day = 28; day >= 1; day--) {
+      calendar.addEvent(new Event("Day " + day,
+          LocalDateTime.of(2025, 2, day, 9, 0),
+          LocalDateTime.of(2025, 2, day, 10, 0),
+          "", "", true), false);
+    }
+    // All-day events only count when they start inside the range.
+    calendar.addEvent(new Event("Holiday", LocalDateTime.of(2025, 2, 9, 12, 0),
+        "", "", true), false);
+
+    List<AbstractEvent> events = calendar.getEventsBetween(
+        LocalDateTime.of(2025, 2, 10, 10, 0),
+        LocalDateTime.of(2025, 2, 12, 9, 0));
+    assertEquals(3, events.size());
+    assertEquals("Day 10", events.get(0).getTitle());
+    assertEquals("Day 11", events.get(1).getTitle());
+    assertEquals("Day 12", events.get(2).getTitle());
+  }
+
+  @Test
+  public void testGetEventsOnDateListsMultiDayEventOnCoveredDays() {
+    Event multiDay = new Event("Conference",
+        LocalDateTime.of(2025, 3, 9, 9, 0),
+        LocalDateTime.of(2025, 3, 12, 17, 0),
+        "Annual Conference", "Hall", true);
+    calendar.addEvent(multiDay, false);
+
+    assertEquals(0, calendar.getEventsOnDate(LocalDate.of(2025, 3, 8)).size());
+    assertEquals(1, calendar.getEventsOnDate(LocalDate.of(2025, 3, 9)).size());
+    assertEquals(1, calendar.getEventsOnDate(LocalDate.of(2025, 3, 10)).size());
+    assertEquals(1, calendar.getEventsOnDate(LocalDate.of(2025, 3, 11)).size());
+    // The end date itself is not listed, as before.
+    assertEquals(0, calendar.getEventsOnDate(LocalDate.of(2025, 3, 12)).size());
+  }
+
+  @Test
+  public void testGetEventsOnDateFollowsEdits() {
+    calendar.addEvent(event1, false);
+    assertTrue(calendar.editEvent("end", "Meeting",
+        LocalDateTime.of(2025, 3, 10, 10, 0),
+        LocalDateTime.of(2025, 3, 10, 11, 0), "12:00"));
+    calendar.editAllEvents("start", "Meeting", "2025-03-08T10:00");
+
+    assertEquals(0, calendar.getEventsOnDate(LocalDate.of(2025, 3, 7)).size());
+    assertEquals(1, calendar.getEventsOnDate(LocalDate.of(2025, 3, 8)).size());
+    assertEquals(1, calendar.getEventsOnDate(LocalDate.of(2025, 3, 9)).size());
+    assertEquals(0, calendar.getEventsOnDate(LocalDate.of(2025, 3, 10)).size());
+  }
+
+  @Test
+  public void testGetEventsOnDateForVeryLongEvent() {
+    Event sabbatical = new Event("Sabbatical",
+        LocalDateTime.of(2025, 1, 1, 9, 0),
+        LocalDateTime.of(2027, 1, 1, 9, 0),
+        "", "", true);
+    calendar.addEvent(sabbatical, false);
+    calendar.addEvent(event1, false);
+
+    assertEquals(1, calendar.getEventsOnDate(LocalDate.of(2025, 1, 1)).size());
+    assertEquals(2, calendar.getEventsOnDate(LocalDate.of(2025, 3, 10)).size());
+    assertEquals(1, calendar.getEventsOnDate(LocalDate.of(2026, 12, 31)).size());
+    assertEquals(0, calendar.getEventsOnDate(LocalDate.of(2027, 1, 1)).size());
+
+    calendar.editAllEvents("end", "Sabbatical", "2025-01-03T09:00");
+    assertEquals(1, calendar.getEventsOnDate(LocalDate.of(2025, 3, 10)).size());
+    assertEquals(1, calendar.getEventsOnDate(LocalDate.of(2025, 1, 2)).size());
+  }
+
+  @Test
+  public void testAutoDeclineAmongManyEvents() {
+    for (int hour = 0; hour < 24; hour += 2) {
+      calendar.addEvent(new Event("Slot " + hour,
+          LocalDateTime.of(2025, 3, 10, hour, 0),
+          LocalDateTime.of(2025, 3, 10, hour + 1, 0),
+          "", "", true), true);
+    }
+
+    // Back-to-back with an existing event is not a conflict.
+    calendar.addEvent(new Event("Gap",
+        LocalDateTime.of(2025, 3, 10, 1, 0),
+        LocalDateTime.of(2025, 3, 10, 2, 0),
+        "", "", true), true);
+
+    try {
+      calendar.addEvent(new Event("Overlap",
+          LocalDateTime.of(2025, 3, 10, 16, 30),
+          LocalDateTime.of(2025, 3, 10, 17, 0),
+          "", "", true), true);
+      fail("Expected conflict");
+    } catch (IllegalStateException e) {
+      assertEquals("Event conflict detected", e.getMessage());
+    }
+
+    // An all-day event conflicts with anything on its day only.
+    try {
+      calendar.addEvent(new Event("Holiday", LocalDateTime.of(2025, 3, 10, 0, 0),
+          "", "", true), true);
+      fail("Expected conflict");
+    } catch (IllegalStateException e) {
+      assertEquals("Event conflict detected", e.getMessage());
+    }
+    calendar.addEvent(new Event("Holiday", LocalDateTime.of(2025, 3, 11, 0, 0),
+        "", "", true), true);
+    assertEquals(14, calendar.getAllEventsList().size());
+  }
+
+  @Test
+  public void testAddRecurringEventReportsFirstConflictingPair() {
+    // Busy calendar with events between the series occurrences.
+    for (int day = 1; day <= 28; day++) {
+      calendar.addEvent(new Event("Standup " + day,
+          LocalDateTime.of(2025, 4, day, 9, 0),
+          LocalDateTime.of(2025, 4, day, 9, 30),
+          "", "", true), false);
+    }
+    calendar.addEvent(new Event("Offsite",
+        LocalDateTime.of(2025, 4, 16, 13, 0),
+        LocalDateTime.of(2025, 4, 16, 17, 0),
+        "", "", true), false);
+    calendar.addEvent(new Event("Late Review",
+        LocalDateTime.of(2025, 4, 23, 9, 45),
+        LocalDateTime.of(2025, 4, 23, 11, 0),
+        "", "", true), false);
+
+    Set<DayOfWeek> wednesdays = new HashSet<>();
+    wednesdays.add(DayOfWeek.WEDNESDAY);
+    RecurringEvent series = new RecurringEvent("Planning",
+        LocalDateTime.of(2025, 4, 2, 10, 0),
+        LocalDateTime.of(2025, 4, 2, 11, 0),
+        "", "", true, wednesdays, LocalDate.of(2025, 4, 30));
+
+    try {
+      calendar.addRecurringEvent(series, true);
+      fail("Expected conflict");
+    } catch (IllegalStateException e) {
+      assertEquals("Recurring event conflicts with existing event: "
+          + "Late Review at 2025-04-23T09:45", e.getMessage());
+    }
+    // Nothing from the series was added.
+    assertEquals(30, calendar.getAllEventsList().size());
+
+    RecurringEvent backToBack = new RecurringEvent("Planning",
+        LocalDateTime.of(2025, 4, 2, 9, 30),
+        LocalDateTime.of(2025, 4, 2, 9, 45),
+        "", "", true, wednesdays, LocalDate.of(2025, 4, 30));
+    calendar.addRecurringEvent(backToBack, true);
+    assertEquals(35, calendar.getAllEventsList().size());
+  }
+
+  @Test
+  public void testRecurringEventExpandedOnDemand() {
+    Set<DayOfWeek> mondays = new HashSet<>();
+    mondays.add(DayOfWeek.MONDAY);
+    // Roughly ten years of weekly occurrences.
+    calendar.addRecurringEvent(new RecurringEvent("Weekly",
+        LocalDateTime.of(2025, 3, 3, 9, 0),
+        LocalDateTime.of(2025, 3, 3, 10, 0),
+        "Sync", "Room", true, mondays, LocalDate.of(2034, 12, 31)), false);
+
+    List<AbstractEvent> onDate = calendar.getEventsOnDate(LocalDate.of(2031, 6, 2));
+    assertEquals(1, onDate.size());
+    assertEquals(LocalDateTime.of(2031, 6, 2, 9, 0), onDate.get(0).getStart());
+    assertTrue(calendar.getEventsOnDate(LocalDate.of(2031, 6, 3)).isEmpty());
+
+    List<AbstractEvent> between = calendar.getEventsBetween(
+        LocalDateTime.of(2030, 1, 1, 0, 0), LocalDateTime.of(2030, 1, 31, 23, 59));
+    assertEquals(4, between.size());
+    assertEquals(LocalDateTime.of(2030, 1, 7, 9, 0), between.get(0).getStart());
+
+    assertTrue(calendar.isBusyAt(LocalDateTime.of(2033, 5, 2, 9, 30)));
+    assertFalse(calendar.isBusyAt(LocalDateTime.of(2033, 5, 2, 10, 30)));
+    assertFalse(calendar.isBusyAt(LocalDateTime.of(2035, 1, 1, 9, 30)));
+
+    // A plain event clashing with an occurrence is declined.
+    try {
+      calendar.addEvent(new Event("Clash", LocalDateTime.of(2029, 7, 2, 9, 30),
+          LocalDateTime.of(2029, 7, 2, 11, 0), "", "", true), true);
+      fail("Expected conflict");
+    } catch (IllegalStateException e) {
+      assertEquals("Event conflict detected", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testEditSingleOccurrenceLeavesSeries() {
+    Set<DayOfWeek> mondays = new HashSet<>();
+    mondays.add(DayOfWeek.MONDAY);
+    calendar.addRecurringEvent(new RecurringEvent("Weekly",
+        LocalDateTime.of(2025, 3, 3, 9, 0),
+        LocalDateTime.of(2025, 3, 3, 10, 0),
+        "Sync", "Room", true, mondays, LocalDate.of(2025, 3, 31)), false);
+
+    assertTrue(calendar.editEvent("start", "Weekly", LocalDateTime.of(2025, 3, 17, 9, 0),
+        LocalDateTime.of(2025, 3, 17, 10, 0), "08:00"));
+
+    List<AbstractEvent> edited = calendar.getEventsOnDate(LocalDate.of(2025, 3, 17));
+    assertEquals(1, edited.size());
+    assertEquals(LocalDateTime.of(2025, 3, 17, 8, 0), edited.get(0).getStart());
+    assertEquals(5, calendar.getAllEventsList().size());
+
+    // The edited occurrence is no longer found under its original time.
+    assertFalse(calendar.editEvent("location", "Weekly", LocalDateTime.of(2025, 3, 17, 9, 0),
+        LocalDateTime.of(2025, 3, 17, 10, 0), "Elsewhere"));
+
+    // Rule-wide edits reach both the remaining occurrences and the edited one.
+    assertTrue(calendar.editAllEvents("location", "Weekly", "Hall"));
+    for (Event e : calendar.getAllEventsList()) {
+      assertEquals("Hall", e.getLocation());
+    }
+
+    // Editing from a date onwards only changes the occurrences at the same time of day.
+    assertTrue(calendar.editEvents("subject", "Weekly", LocalDateTime.of(2025, 3, 10, 9, 0),
+        "Renamed"));
+    assertEquals("Weekly", calendar.getEventsOnDate(LocalDate.of(2025, 3, 3))
+        .get(0).getTitle());
+    assertEquals("Renamed", calendar.getEventsOnDate(LocalDate.of(2025, 3, 10))
+        .get(0).getTitle());
+    assertEquals("Weekly", calendar.getEventsOnDate(LocalDate.of(2025, 3, 17))
+        .get(0).getTitle());
+    assertEquals("Renamed", calendar.getEventsOnDate(LocalDate.of(2025, 3, 31))
+        .get(0).getTitle());
+  }
+
+  @Test
+  public void testFindEventFollowsEdits() {
+    for (int i = 0; i < 50; i++) {
+      calendar.addEvent(new Event("Slot", LocalDateTime.of(2025, 5, 1, 8, 0).plusHours(i),
+          LocalDateTime.of(2025, 5, 1, 9, 0).plusHours(i), "", "", true), false);
+    }
+    LocalDateTime slotStart = LocalDateTime.of(2025, 5, 2, 10, 0);
+    assertEquals(slotStart, calendar.findEvent("Slot", slotStart).getStart());
+    assertNull(calendar.findEvent("Other", slotStart));
+    assertNull(calendar.findEvent("Slot", slotStart.plusMinutes(30)));
+
+    // Retitled events are found under their new title only.
+    assertTrue(calendar.editEvent("subject", "Slot", slotStart, slotStart.plusHours(1),
+        "Renamed"));
+    assertNull(calendar.findEvent("Slot", slotStart));
+    assertEquals("Renamed", calendar.findEvent("Renamed", slotStart).getTitle());
+    assertFalse(calendar.editEvent("location", "Slot", slotStart, slotStart.plusHours(1),
+        "Room"));
+    assertTrue(calendar.editEvent("location", "Renamed", slotStart, slotStart.plusHours(1),
+        "Room"));
+
+    // Moved events are found under their new start time.
+    assertTrue(calendar.editEvent("start", "Renamed", slotStart, slotStart.plusHours(1),
+        "10:15"));
+    assertNull(calendar.findEvent("Renamed", slotStart));
+    assertEquals("Room", calendar.findEvent("Renamed", slotStart.plusMinutes(15))
+        .getLocation());
+
+    // Recurring occurrences are found without being stored.
+    Set<DayOfWeek> fridays = new HashSet<>();
+    fridays.add(DayOfWeek.FRIDAY);
+    calendar.addRecurringEvent(new RecurringEvent("Demo",
+        LocalDateTime.of(2025, 5, 2, 16, 0), LocalDateTime.of(2025, 5, 2, 17, 0),
+        "", "", true, fridays, 2), false);
+    assertNotNull(calendar.findEvent("Demo", LocalDateTime.of(2025, 6, 6, 16, 0)));
+    assertNull(calendar.findEvent("Demo", LocalDateTime.of(2025, 6, 5, 16, 0)));
+  }
+
+  @Test
+  public void testTitleEditsFollowRenames() {
+    for (int i = 0; i < 20; i++) {
+      calendar.addEvent(new Event(i % 2 == 0 ? "Even" : "Odd",
+          LocalDateTime.of(2025, 6, 2, 9, 0).plusDays(i),
+          LocalDateTime.of(2025, 6, 2, 10, 0).plusDays(i), "", "", true), false);
+    }
+    // A different title starting exactly at the given time is edited as well.
+    calendar.addEvent(new Event("Other", LocalDateTime.of(2025, 6, 10, 9, 0),
+        LocalDateTime.of(2025, 6, 10, 9, 30), "", "", true), false);
+
+    assertTrue(calendar.editEvents("location", "Even", LocalDateTime.of(2025, 6, 10, 9, 0),
+        "Annex"));
+    int annex = 0;
+    for (Event e : calendar.getAllEventsList()) {
+      if ("Annex".equals(e.getLocation())) {
+        annex++;
+        assertTrue(!e.getStart().isBefore(LocalDateTime.of(2025, 6, 10, 9, 0)));
+        assertNotEquals("Odd", e.getTitle());
+      }
+    }
+    // Even events on June 10, 12, ..., 20 and the "Other" event.
+    assertEquals(7, annex);
+
+    assertTrue(calendar.editAllEvents("subject", "Even", "Renamed"));
+    assertFalse(calendar.editAllEvents("location", "Even", "Lobby"));
+    assertTrue(calendar.editAllEvents("location", "Renamed", "Lobby"));
+    assertTrue(calendar.editEvents("description", "Renamed",
+        LocalDateTime.of(2025, 6, 18, 9, 0), "late"));
+    int late = 0;
+    for (Event e : calendar.getAllEventsList()) {
+      if (e.getTitle().equals("Renamed")) {
+        assertEquals("Lobby", e.getLocation());
+        if ("late".equals(e.getDescription())) {
+          late++;
+        }
+      }
+    }
+    assertEquals(2, late);
+
+    // Renaming a recurring series keeps it reachable under its new title.
+    Set<DayOfWeek> mondays = new HashSet<>();
+    mondays.add(DayOfWeek.MONDAY);
+    calendar.addRecurringEvent(new RecurringEvent("Weekly",
+        LocalDateTime.of(2025, 7, 7, 9, 0), LocalDateTime.of(2025, 7, 7, 10, 0),
+        "", "", true, mondays, LocalDate.of(2025, 7, 28)), false);
+    assertTrue(calendar.editAllEvents("subject", "Weekly", "Sync"));
+    assertFalse(calendar.editAllEvents("location", "Weekly", "Hall"));
+    assertTrue(calendar.editEvents("location", "Sync", LocalDateTime.of(2025, 7, 14, 9, 0),
+        "Hall"));
+    assertEquals("Sync", calendar.getEventsOnDate(LocalDate.of(2025, 7, 7)).get(0).getTitle());
+    assertEquals("Hall", calendar.getEventsOnDate(LocalDate.of(2025, 7, 21)).get(0)
+        .getLocation());
+  }
+
+  @Test
+  public void testIsBusyAtMatchesFullScan() {
+    Random random = new Random(7);
+    LocalDateTime base = LocalDateTime.of(2025, 1, 1, 0, 0);
+    List<Event> added = new ArrayList<>();
+    for (int i = 0; i < 300; i++) {
+      LocalDateTime start = base.plusMinutes(random.nextInt(60 * 24 * 60));
+      Event event;
+      int kind = random.nextInt(5);
+      if (kind == 0) {
+        event = new Event("AllDay" + i, start, "", "", true);
+      } else if (kind == 1) {
+        // Ends before it starts, so it never covers any time.
+        event = new Event("Inverted" + i, start, start.minusHours(2), "", "", true);
+      } else {
+        event = new Event("Timed" + i, start, start.plusMinutes(1 + random.nextInt(600)),
+            "", "", true);
+      }
+      calendar.addEvent(event, false);
+      added.add(event);
+    }
+    calendar.addEvent(new Event("Ancient", LocalDateTime.of(1500, 1, 1, 0, 0),
+        LocalDateTime.of(1500, 1, 2, 0, 0), "", "", true), false);
+
+    for (int i = 0; i < 2000; i++) {
+      LocalDateTime time = base.plusMinutes(random.nextInt(60 * 24 * 62));
+      boolean expected = false;
+      for (Event event : added) {
+        LocalDateTime end = event.getEnd() != null ? event.getEnd()
+            : event.getStart().plusDays(1);
+        if (!event.getStart().isAfter(time) && !end.isBefore(time)) {
+          expected = true;
+          break;
+        }
+      }
+      assertEquals("at " + time, expected, calendar.isBusyAt(time));
+    }
+    assertTrue(calendar.isBusyAt(LocalDateTime.of(1500, 1, 1, 12, 0)));
+    assertFalse(calendar.isBusyAt(LocalDateTime.of(1500, 1, 3, 12, 0)));
+  }
+
+  @Test
+  public void testSetTimezoneKeepsWallClockTimes() {
+    calendar.addEvent(event1, false);
+    LocalDateTime start = event1.getStart();
+    LocalDateTime end = event1.getEnd();
+
+    calendar.setTimezone("Asia/Tokyo");
+    assertEquals(start, event1.getStart());
+    assertEquals(end, event1.getEnd());
+    assertEquals(1, calendar.getEventsBetween(start, start).size());
+    assertEquals(1, calendar.getEventsOnDate(start.toLocalDate()).size());
+    assertTrue(calendar.isBusyAt(start));
+  }
+
+  @Test
+  public void testRepeatedLocalHourAtDaylightSavingEnd() {
+    // 01:30 happens twice in New York on 2025-11-02.
+    LocalDateTime ambiguous = LocalDateTime.of(2025, 11, 2, 1, 30);
+    calendar.addEvent(new Event("Night", ambiguous, ambiguous.plusMinutes(20),
+        "", "", true), false);
+
+    assertNotNull(calendar.findEvent("Night", ambiguous));
+    assertEquals(1, calendar.getEventsBetween(ambiguous, ambiguous).size());
+    assertEquals(1, calendar.getEventsOnDate(LocalDate.of(2025, 11, 2)).size());
+    assertTrue(calendar.isBusyAt(ambiguous.plusMinutes(10)));
+    assertTrue(calendar.editEvent("location", "Night", ambiguous, ambiguous.plusMinutes(20),
+        "Roof"));
+    assertEquals("Roof", calendar.getEventsOnDate(LocalDate.of(2025, 11, 2)).get(0)
+        .getLocation());
+  }
+
+  @Test
+  public void testSkippedLocalHourAtDaylightSavingStart() {
+    // 02:00 to 03:00 does not happen in New York on 2025-03-09.
+    LocalDateTime skipped = LocalDateTime.of(2025, 3, 9, 2, 30);
+    calendar.addEvent(new Event("Night", skipped, skipped.plusHours(1), "", "", true), false);
+
+    AbstractEvent stored = calendar.getEventsOnDate(skipped.toLocalDate()).get(0);
+    assertEquals(skipped, stored.getStart());
+    assertEquals(skipped.plusHours(1), stored.getEnd());
+    assertNotNull(calendar.findEvent("Night", skipped));
+    assertTrue(calendar.editEvent("location", "Night", skipped, skipped.plusHours(1),
+        "Roof"));
+    assertEquals("Roof", stored.getLocation());
+
+    // Once the zone changes, the time is read as the instant it moved to.
+    calendar.convertTimezone(ZoneId.of("UTC"));
+    assertEquals(LocalDateTime.of(2025, 3, 9, 7, 30), stored.getStart());
+  }
+
+  @Test
+  public void testEventAddedToTwoCalendarsIsCopied() {
+    Calendar tokyo = new Calendar("Tokyo", "Asia/Tokyo");
+    calendar.addEvent(event1, false);
+    tokyo.addEvent(event1, false);
+    LocalDateTime start = event1.getStart();
+
+    calendar.convertTimezone(ZoneId.of("UTC"));
+    assertNotSame(event1, tokyo.getAllEventsList().get(0));
+    assertEquals(start, tokyo.getAllEventsList().get(0).getStart());
+    assertTrue(tokyo.isBusyAt(start));
+
+    tokyo.editEvent("location", event1.getTitle(), start, event1.getEnd(), "Room Z");
+    assertEquals("Room A", event1.getLocation());
+  }
+
+  @Test
+  public void testImportedEventsShareRepeatedStrings() throws IOException {
+    for (int day = 10; day < 13; day++) {
+      calendar.addEvent(new Event("Standup", LocalDateTime.of(2025, 3, day, 9, 0),
+          LocalDateTime.of(2025, 3, day, 9, 15), "Daily sync", "Room A", true), false);
+    }
+    String filename = "test_import_shared.csv";
+    calendar.exportToCSV(filename);
+    try {
+      Calendar newCalendar = new Calendar();
+      assertEquals(3, newCalendar.importFromCSV(filename));
+
+      List<Event> imported = newCalendar.getAllEventsList();
+      for (Event event : imported) {
+        assertSame(imported.get(0).getTitle(), event.getTitle());
+        assertSame(imported.get(0).getDescription(), event.getDescription());
+        assertSame(imported.get(0).getLocation(), event.getLocation());
+      }
+    } finally {
+      new File(filename).delete();
+    }
+  }
+
+  @Test
+  public void testEditedStringsAreShared() {
+    calendar.addEvent(event1, false);
+    calendar.addEvent(event2, false);
+    calendar.editEvent("location", "Meeting", event1.getStart(), event1.getEnd(),
+        new String("Lab"));
+    calendar.editEvent("location", "Lunch", event2.getStart(), event2.getEnd(),
+        new String("Lab"));
+    assertSame(event1.getLocation(), event2.getLocation());
+  }
+
+  @Test
+  public void testRecurringOccurrencesShareRuleStrings() {
+    Set<DayOfWeek> days = new HashSet<>();
+    days.add(DayOfWeek.MONDAY);
+    calendar.addEvent(new Event("Standup", LocalDateTime.of(2025, 1, 1, 9, 0),
+        LocalDateTime.of(2025, 1, 1, 9, 15), "", new String("Room A"), true), false);
+    calendar.addRecurringEvent(new RecurringEvent("Standup",
+        LocalDateTime.of(2025, 3, 10, 9, 0), LocalDateTime.of(2025, 3, 10, 9, 15),
+        "", new String("Room A"), true, days, 2), false);
+
+    List<Event> all = calendar.getAllEventsList();
+    assertTrue(all.size() > 2);
+    for (Event event : all) {
+      assertSame(all.get(0).getLocation(), event.getLocation());
+    }
+  }
+
+  @Test
+  public void testImportReportsProgress() throws IOException {
+    File file = File.createTempFile("progress", ".csv");
+    try {
+      StringBuilder csv = new StringBuilder("Subject,Start Date,Start Time,End Date,End Time\n");
+      LocalDateTime start = LocalDateTime.of(2025, 1, 1, 0, 0);
+      for (int i = 0; i < 25_000; i++) {
+        csv.append("E").append(i).append(',').append(start.toLocalDate()).append(',')
+            .append(start.toLocalTime()).append(',').append(start.toLocalDate()).append(',')
+            .append(start.plusMinutes(30).toLocalTime()).append('\n');
+        start = start.plusHours(1);
+      }
+      Files.write(file.toPath(), csv.toString().getBytes());
+
+      List<Long> lines = new ArrayList<>();
+      List<Integer> imported = new ArrayList<>();
+      Calendar utc = new Calendar("Utc", "UTC");
+      assertEquals(25_000, utc.importFromCSV(file.getPath(), (linesRead, count) -> {
+        lines.add(linesRead);
+        imported.add(count);
+      }));
+      assertEquals(3, lines.size());
+      assertEquals(Long.valueOf(10_000), lines.get(0));
+      assertEquals(Long.valueOf(25_001), lines.get(2));
+      assertEquals(Integer.valueOf(25_000), imported.get(2));
+    } finally {
+      file.delete();
+    }
+  }
+
+  @Test
+  public void testImportErrorsReportFileLineNumbers() throws IOException {
+    File file = File.createTempFile("errors", ".csv");
+    PrintStream originalErr = System.err;
+    ByteArrayOutputStream err = new ByteArrayOutputStream();
+    try {
+      Files.write(file.toPath(), ("Subject,Start Date,Start Time\n"
+          + "Good,2025-03-10,10:00\n"
+          + "\n"
+          + "Bad,not a date,10:00\n"
+          + "Good again,2025-03-11,10:00\n").getBytes());
+      System.setErr(new PrintStream(err));
+      assertEquals(2, calendar.importFromCSV(file.getPath()));
+    } finally {
+      System.setErr(originalErr);
+      file.delete();
+    }
+    assertTrue(err.toString().contains("Error parsing event at line 4:"));
+  }
+
+  @Test
+  public void testAddEventsAddsAllInOrder() {
+    calendar.addEvent(event1, true);
+    calendar.addEvents(List.of(event2, allDayEvent), true);
+    assertEquals(List.of(event1, event2, allDayEvent), calendar.getAllEventsList());
+    assertSame(event2, calendar.findEvent("Lunch", event2.getStart()));
+    assertTrue(calendar.isBusyAt(LocalDateTime.of(2025, 3, 15, 9, 0)));
+  }
+
+  @Test
+  public void testAddEventsDeclinesAllOnConflictWithStoredEvent() {
+    calendar.addEvent(event1, false);
+    try {
+      calendar.addEvents(List.of(event2, overlappingEvent), true);
+      fail("Expected a conflict");
+    } catch (IllegalStateException e) {
+      assertTrue(e.getMessage().startsWith("Event conflict detected: Meeting"));
+    }
+    assertEquals(1, calendar.getAllEventsList().size());
+    assertNull(calendar.findEvent("Lunch", event2.getStart()));
+  }
+
+  @Test
+  public void testAddEventsDeclinesAllOnConflictWithinBatch() {
+    try {
+      calendar.addEvents(List.of(event1, event2, overlappingEvent), true);
+      fail("Expected a conflict");
+    } catch (IllegalStateException e) {
+      assertTrue(e.getMessage().startsWith("Event conflict detected: Meeting"));
+    }
+    assertTrue(calendar.getAllEventsList().isEmpty());
+
+    calendar.addEvents(List.of(event1, event2, overlappingEvent), false);
+    assertEquals(3, calendar.getAllEventsList().size());
+  }
+
+  @Test
+  public void testBatchIsHiddenUntilCommit() {
+    calendar.beginBatch();
+    calendar.addEvent(event1, true);
+    calendar.addEvents(List.of(event2), true);
+    assertTrue(calendar.getAllEventsList().isEmpty());
+    assertNull(calendar.findEvent("Meeting", event1.getStart()));
+    assertFalse(calendar.isBusyAt(LocalDateTime.of(2025, 3, 10, 10, 30)));
+
+    calendar.commit();
+    assertEquals(List.of(event1, event2), calendar.getAllEventsList());
+    assertTrue(calendar.isBusyAt(LocalDateTime.of(2025, 3, 10, 10, 30)));
+  }
+
+  @Test
+  public void testCommitChecksOnlyAutoDeclinedEvents() {
+    calendar.addEvent(event1, false);
+    calendar.beginBatch();
+    // Added without auto-decline, so it may overlap Meeting.
+    calendar.addEvent(overlappingEvent, false);
+    calendar.addEvent(event2, true);
+    calendar.commit();
+    assertEquals(3, calendar.getAllEventsList().size());
+
+    Event clash = new Event("Clash", LocalDateTime.of(2025, 3, 10, 11, 0),
+        LocalDateTime.of(2025, 3, 10, 11, 15), "", "", true);
+    calendar.beginBatch();
+    calendar.addEvent(allDayEvent, true);
+    calendar.addEvent(clash, true);
+    try {
+      calendar.commit();
+      fail("Expected a conflict");
+    } catch (IllegalStateException e) {
+      assertTrue(e.getMessage().startsWith("Event conflict detected: Overlap"));
+    }
+    assertEquals(3, calendar.getAllEventsList().size());
+    assertNull(calendar.findEvent("Holiday", allDayEvent.getStart()));
+  }
+
+  @Test
+  public void testBatchScopeMustBeOpenedOnce() {
+    try {
+      calendar.commit();
+      fail("Expected no open batch");
+    } catch (IllegalStateException e) {
+      assertEquals("No batch is open", e.getMessage());
+    }
+    calendar.beginBatch();
+    try {
+      calendar.beginBatch();
+      fail("Expected an open batch");
+    } catch (IllegalStateException e) {
+      assertEquals("A batch is already open", e.getMessage());
+    }
+    try {
+      calendar.editAllEvents("location", "Meeting", "Room C");
+      fail("Expected an open batch");
+    } catch (IllegalStateException e) {
+      assertEquals("Commit the open batch first", e.getMessage());
+    }
+    try {
+      calendar.addRecurringEvent(new RecurringEvent("Standup",
+          LocalDateTime.of(2025, 3, 10, 9, 0), LocalDateTime.of(2025, 3, 10, 9, 15), "", "",
+          true, Set.of(DayOfWeek.MONDAY), 2), false);
+      fail("Expected an open batch");
+    } catch (IllegalStateException e) {
+      assertEquals("Commit the open batch first", e.getMessage());
+    }
+    LocalDateTime copied = LocalDateTime.of(2025, 3, 12, 9, 0);
+    try {
+      calendar.addCopies(List.of(new Event("Copy", copied, copied.plusHours(1), "", "",
+          true)));
+      fail("Expected an open batch");
+    } catch (IllegalStateException e) {
+      assertEquals("Commit the open batch first", e.getMessage());
+    }
+    calendar.commit();
+    assertNull(calendar.findEvent("Copy", copied));
+    calendar.beginBatch();
+    calendar.commit();
+  }
+
+  @Test
+  public void testLargeBatchMatchesSingleAdds() {
+    Calendar single = new Calendar();
+    Random random = new Random(22);
+    List<AbstractEvent> batch = new ArrayList<>();
+    calendar.addEvent(event1, false);
+    single.addEvent(new Event(event1.getTitle(), event1.getStart(), event1.getEnd(),
+        event1.getDescription(), event1.getLocation(), event1.isPublic()), false);
+    for (int i = 0; i < 500; i++) {
+      LocalDateTime start = LocalDateTime.of(2025, 1, 1, 0, 0)
+          .plusMinutes(15L * random.nextInt(40_000));
+      String title = "Event " + random.nextInt(50);
+      batch.add(new Event(title, start, start.plusMinutes(30), "", "", true));
+      single.addEvent(new Event(title, start, start.plusMinutes(30), "", "", true), false);
+    }
+    calendar.addEvents(batch, false);
+
+    assertEquals(single.getAllEventsList().size(), calendar.getAllEventsList().size());
+    LocalDateTime from = LocalDateTime.of(2025, 2, 1, 0, 0);
+    LocalDateTime to = LocalDateTime.of(2025, 6, 1, 0, 0);
+    assertEquals(single.getEventsBetween(from, to).size(),
+        calendar.getEventsBetween(from, to).size());
+    for (AbstractEvent event : batch) {
+      assertNotNull(calendar.findEvent(event.getTitle(), event.getStart()));
+    }
+    assertTrue(calendar.editAllEvents("location", "Event 7", "Hall"));
+  }
+
+  /**
+   * Describes what the time queries report for a week of dates and hours.
+   */
+  private static List<String> describeQueries(Calendar cal) {
+    List<String> out = new ArrayList<>();
+    LocalDate from = LocalDate.of(2025, 3, 9);
+    for (int d = 0; d < 8; d++) {
+      LocalDate date = from.plusDays(d);
+      for (AbstractEvent event : cal.getEventsOnDate(date)) {
+        out.add(date + " " + event.getTitle() + "|" + event.getStart() + "|"
+            + event.getLocation());
+      }
+      for (int h = 0; h < 24; h++) {
+        LocalDateTime time = date.atTime(h, 15);
+        out.add(time + " busy=" + cal.isBusyAt(time));
+      }
+    }
+    for (AbstractEvent event : cal.getEventsBetween(from.atTime(11, 0),
+        from.plusDays(3).atTime(9, 0))) {
+      out.add("between " + event.getTitle() + "|" + event.getStart());
+    }
+    return out;
+  }
+
+  /**
+   * Applies the same changes to a calendar, with or without snapshot reads.
+   */
+  private static void changeCalendar(Calendar cal) {
+    cal.addEvent(new Event("Meeting", LocalDateTime.of(2025, 3, 10, 10, 0),
+        LocalDateTime.of(2025, 3, 10, 11, 0), "", "Room A", true), false);
+    cal.addEvent(new Event("Holiday", LocalDateTime.of(2025, 3, 15, 0, 0), null, "", "",
+        false), false);
+    cal.addRecurringEvent(new RecurringEvent("Standup", LocalDateTime.of(2025, 3, 10, 9, 0),
+        LocalDateTime.of(2025, 3, 10, 9, 30), "", "Hall", true,
+        Set.of(DayOfWeek.MONDAY, DayOfWeek.WEDNESDAY), 4), false);
+    List<AbstractEvent> batch = new ArrayList<>();
+    batch.add(new Event("Review", LocalDateTime.of(2025, 3, 11, 14, 0),
+        LocalDateTime.of(2025, 3, 11, 15, 0), "", "", true));
+    batch.add(new Event("Trip", LocalDateTime.of(2025, 3, 12, 20, 0),
+        LocalDateTime.of(2025, 3, 13, 8, 0), "", "", true));
+    cal.addEvents(batch, false);
+    cal.editEvent("location", "Meeting", LocalDateTime.of(2025, 3, 10, 10, 0),
+        LocalDateTime.of(2025, 3, 10, 11, 0), "Room B");
+    cal.editEvents("start", "Review", LocalDateTime.of(2025, 3, 11, 14, 0),
+        "14:30");
+    cal.editEvent("location", "Standup", LocalDateTime.of(2025, 3, 12, 9, 0),
+        LocalDateTime.of(2025, 3, 12, 9, 30), "Lobby");
+    cal.editAllEvents("location", "Standup", "Roof");
+  }
+
+  @Test
+  public void testSnapshotReadsMatchDirectReads() throws IOException {
+    Calendar direct = new Calendar("Direct", "America/New_York");
+    Calendar snapshot = new Calendar("Snapshot", "America/New_York");
+    snapshot.enableSnapshotReads();
+    changeCalendar(direct);
+    changeCalendar(snapshot);
+    assertEquals(describeQueries(direct), describeQueries(snapshot));
+
+    direct.convertTimezone(ZoneId.of("Asia/Kolkata"));
+    snapshot.convertTimezone(ZoneId.of("Asia/Kolkata"));
+    assertEquals(describeQueries(direct), describeQueries(snapshot));
+
+    File directFile = new File("test_direct_view.csv");
+    File snapshotFile = new File("test_snapshot_view.csv");
+    try {
+      direct.exportToCSV(directFile.getPath());
+      snapshot.exportToCSV(snapshotFile.getPath());
+      assertEquals(Files.readAllLines(directFile.toPath()),
+          Files.readAllLines(snapshotFile.toPath()));
+    } finally {
+      directFile.delete();
+      snapshotFile.delete();
+    }
+  }
+
+  @Test
+  public void testSnapshotReadsEnabledLaterSeeExistingEvents() {
+    Calendar direct = new Calendar();
+    changeCalendar(direct);
+    changeCalendar(calendar);
+    calendar.enableSnapshotReads();
+    assertEquals(describeQueries(direct), describeQueries(calendar));
+  }
+
+  @Test
+  public void testSnapshotEventsAreReadOnly() {
+    calendar.enableSnapshotReads();
+    calendar.addEvent(event1, false);
+    AbstractEvent seen = calendar.getEventsOnDate(event1.getStart().toLocalDate()).get(0);
+    assertEquals("Meeting", seen.getTitle());
+    try {
+      seen.setLocation("Room Z");
+      fail("Expected a read-only event");
+    } catch (UnsupportedOperationException e) {
+      assertEquals("Events read from a view cannot be changed", e.getMessage());
+    }
+    assertEquals("Room A", event1.getLocation());
+  }
+
+  @Test
+  public void testSnapshotEventsKeepTheirState() {
+    calendar.enableSnapshotReads();
+    calendar.addEvent(event1, false);
+    LocalDate day = event1.getStart().toLocalDate();
+    AbstractEvent before = calendar.getEventsOnDate(day).get(0);
+    calendar.editEvent("location", "Meeting", event1.getStart(), event1.getEnd(), "Room B");
+
+    assertEquals("Room A", before.getLocation());
+    assertEquals("Room B", calendar.getEventsOnDate(day).get(0).getLocation());
+  }
+}
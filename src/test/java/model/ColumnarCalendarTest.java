@@ -0,0 +1,368 @@
+package model;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import static model.CalendarFixtures.describeSorted;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * JUnit Test case for the ColumnarCalendar class.
+ */
+public class ColumnarCalendarTest {
+
+  private ColumnarCalendar calendar;
+
+  @Before
+  public void setUp() {
+    calendar = new ColumnarCalendar("Work", "America/New_York");
+  }
+
+  private static Event timed(String title, LocalDateTime start, LocalDateTime end) {
+    return new Event(title, start, end, "Desc", "Room", true);
+  }
+
+  @Test
+  public void testAddedEventKeepsAllFields() {
+    LocalDateTime start = LocalDateTime.of(2025, 3, 10, 10, 0);
+    calendar.addEvent(new Event("Meeting", start, start.plusHours(1), "Plan", "Room A",
+        false), false);
+
+    AbstractEvent stored = calendar.findEvent("Meeting", start);
+    assertEquals("Meeting", stored.getTitle());
+    assertEquals(start, stored.getStart());
+    assertEquals(start.plusHours(1), stored.getEnd());
+    assertEquals("Plan", stored.getDescription());
+    assertEquals("Room A", stored.getLocation());
+    assertFalse(stored.isPublic());
+    assertEquals(1, calendar.size());
+  }
+
+  @Test
+  public void testAllDayEventHasNoEnd() {
+    LocalDateTime start = LocalDateTime.of(2025, 3, 15, 0, 0);
+    calendar.addEvent(new Event("Holiday", start, null, null, true), false);
+
+    AbstractEvent stored = calendar.findEvent("Holiday", start);
+    assertNull(stored.getEnd());
+    assertNull(stored.getDescription());
+    assertNull(stored.getLocation());
+    assertTrue(calendar.isBusyAt(start.plusHours(20)));
+    assertEquals(1, calendar.getEventsOnDate(start.toLocalDate()).size());
+  }
+
+  @Test
+  public void testFindEventMissing() {
+    assertNull(calendar.findEvent("Nothing", LocalDateTime.of(2025, 1, 1, 0, 0)));
+  }
+
+  @Test
+  public void testAutoDeclineRejectsConflict() {
+    LocalDateTime start = LocalDateTime.of(2025, 3, 10, 10, 0);
+    calendar.addEvent(timed("A", start, start.plusHours(1)), true);
+    try {
+      calendar.addEvent(timed("B", start.plusMinutes(30), start.plusHours(2)), true);
+      fail("Expected a conflict");
+    } catch (IllegalStateException e) {
+      assertEquals("Event conflict detected", e.getMessage());
+    }
+    calendar.addEvent(timed("C", start.plusHours(1), start.plusHours(2)), true);
+    assertEquals(2, calendar.size());
+  }
+
+  @Test
+  public void testRecurringEventConflictDeclinesWholeSeries() {
+    LocalDateTime start = LocalDateTime.of(2025, 3, 10, 9, 0);
+    calendar.addEvent(timed("Busy", start.plusDays(7), start.plusDays(7).plusHours(1)), true);
+    RecurringEvent standup = new RecurringEvent("Standup", start, start.plusMinutes(30),
+        "", "", true, new HashSet<>(Arrays.asList(DayOfWeek.MONDAY)), 3);
+    try {
+      calendar.addRecurringEvent(standup, true);
+      fail("Expected a conflict");
+    } catch (IllegalStateException e) {
+      assertTrue(e.getMessage().startsWith("Recurring event conflicts with existing event: Busy"));
+    }
+    assertEquals(1, calendar.size());
+
+    calendar.addRecurringEvent(standup, false);
+    assertEquals(1 + standup.generateEvents().size(), calendar.size());
+  }
+
+  @Test
+  public void testAddEventsIsAllOrNothing() {
+    LocalDateTime start = LocalDateTime.of(2025, 3, 10, 10, 0);
+    calendar.addEvent(timed("A", start, start.plusHours(1)), true);
+    try {
+      calendar.addEvents(List.of(timed("B", start.plusHours(2), start.plusHours(3)),
+          timed("C", start.plusMinutes(30), start.plusHours(2))), true);
+      fail("Expected a conflict");
+    } catch (IllegalStateException e) {
+      assertTrue(e.getMessage().startsWith("Event conflict detected: A"));
+    }
+    try {
+      calendar.addEvents(List.of(timed("B", start.plusHours(2), start.plusHours(3)),
+          timed("C", start.plusHours(2).plusMinutes(30), start.plusHours(4))), true);
+      fail("Expected a conflict");
+    } catch (IllegalStateException e) {
+      assertTrue(e.getMessage().startsWith("Event conflict detected: B"));
+    }
+    assertEquals(1, calendar.size());
+
+    calendar.addEvents(List.of(timed("B", start.plusHours(2), start.plusHours(3)),
+        timed("C", start.plusHours(3), start.plusHours(4))), true);
+    assertEquals(3, calendar.size());
+  }
+
+  @Test
+  public void testAddCopiesIsAllOrNothing() {
+    LocalDateTime start = LocalDateTime.of(2025, 3, 10, 10, 0);
+    calendar.addEvent(timed("A", start, start.plusHours(1)), true);
+    try {
+      calendar.addCopies(List.of(timed("B", start.plusHours(2), start.plusHours(3)),
+          timed("C", start.plusMinutes(30), start.plusHours(2))));
+      fail("Expected a conflict");
+    } catch (IllegalStateException e) {
+      assertTrue(e.getMessage().startsWith("Event conflict detected: A"));
+    }
+    assertEquals(1, calendar.size());
+
+    calendar.addCopies(List.of(timed("B", start.plusHours(2), start.plusHours(3))));
+    assertEquals(2, calendar.size());
+  }
+
+  @Test
+  public void testBatchIsStoredOnCommit() {
+    LocalDateTime start = LocalDateTime.of(2025, 3, 10, 10, 0);
+    calendar.beginBatch();
+    calendar.addEvent(timed("A", start, start.plusHours(1)), true);
+    calendar.addEvent(timed("B", start.plusMinutes(30), start.plusHours(2)), false);
+    assertEquals(0, calendar.size());
+    try {
+      calendar.editAllEvents("location", "A", "Hall");
+      fail("Expected an open batch");
+    } catch (IllegalStateException e) {
+      assertEquals("Commit the open batch first", e.getMessage());
+    }
+    calendar.commit();
+    assertEquals(2, calendar.size());
+
+    calendar.beginBatch();
+    calendar.addEvent(timed("C", start.plusHours(5), start.plusHours(6)), true);
+    calendar.addEvent(timed("D", start.plusMinutes(90), start.plusHours(3)), true);
+    try {
+      calendar.commit();
+      fail("Expected a conflict");
+    } catch (IllegalStateException e) {
+      assertTrue(e.getMessage().startsWith("Event conflict detected: B"));
+    }
+    assertEquals(2, calendar.size());
+    assertNull(calendar.findEvent("C", start.plusHours(5)));
+  }
+
+  @Test
+  public void testEditStartMovesEvent() {
+    LocalDateTime start = LocalDateTime.of(2025, 3, 10, 10, 0);
+    LocalDateTime moved = LocalDateTime.of(2025, 3, 10, 8, 0);
+    calendar.addEvent(timed("Meeting", start, start.plusHours(1)), false);
+    assertFalse(calendar.isBusyAt(moved.plusMinutes(30)));
+
+    assertTrue(calendar.editEvent("start", "Meeting", start, start.plusHours(1), "08:00"));
+    assertTrue(calendar.isBusyAt(moved.plusMinutes(30)));
+    assertNull(calendar.findEvent("Meeting", start));
+    assertEquals(moved, calendar.findEvent("Meeting", moved).getStart());
+    assertEquals(1, calendar.getEventsBetween(moved, moved.plusMinutes(1)).size());
+  }
+
+  @Test
+  public void testEditEventsFromStartTime() {
+    LocalDateTime start = LocalDateTime.of(2025, 3, 10, 10, 0);
+    for (int week = 0; week < 4; week++) {
+      calendar.addEvent(timed("Class", start.plusWeeks(week),
+          start.plusWeeks(week).plusHours(1)), false);
+    }
+
+    assertTrue(calendar.editEvents("location", "Class", start.plusWeeks(2), "Lab"));
+    assertEquals("Room", calendar.findEvent("Class", start.plusWeeks(1)).getLocation());
+    assertEquals("Lab", calendar.findEvent("Class", start.plusWeeks(2)).getLocation());
+    assertEquals("Lab", calendar.findEvent("Class", start.plusWeeks(3)).getLocation());
+    assertFalse(calendar.editEvents("location", "Nothing", start.plusWeeks(5), "Lab"));
+  }
+
+  @Test
+  public void testEditAllEventsRenames() {
+    LocalDateTime start = LocalDateTime.of(2025, 3, 10, 10, 0);
+    calendar.addEvent(timed("Old", start, start.plusHours(1)), false);
+    calendar.addEvent(timed("Old", start.plusDays(1), start.plusDays(1).plusHours(1)), false);
+
+    assertTrue(calendar.editAllEvents("subject", "Old", "New"));
+    assertNull(calendar.findEvent("Old", start));
+    assertEquals("New", calendar.findEvent("New", start.plusDays(1)).getTitle());
+    assertFalse(calendar.editAllEvents("subject", "Old", "Newer"));
+  }
+
+  @Test
+  public void testEditsFollowRenamedTitles() {
+    LocalDateTime start = LocalDateTime.of(2025, 3, 10, 10, 0);
+    for (int day = 0; day < 3; day++) {
+      calendar.addEvent(timed("A", start.plusDays(day), start.plusDays(day).plusHours(1)),
+          false);
+    }
+    calendar.addEvent(timed("B", start.plusDays(1), start.plusDays(1).plusHours(1)), false);
+
+    assertTrue(calendar.editEvent("subject", "A", start, start.plusHours(1), "B"));
+    assertTrue(calendar.editAllEvents("location", "B", "Hall"));
+    assertEquals("Hall", calendar.findEvent("B", start).getLocation());
+    assertEquals("Room", calendar.findEvent("A", start.plusDays(1)).getLocation());
+
+    // Events of any title starting at the given time are edited too.
+    assertTrue(calendar.editEvents("description", "A", start.plusDays(1), "Moved"));
+    assertEquals("Moved", calendar.findEvent("B", start.plusDays(1)).getDescription());
+    assertEquals("Moved", calendar.findEvent("A", start.plusDays(2)).getDescription());
+    assertEquals("Desc", calendar.findEvent("B", start).getDescription());
+    assertFalse(calendar.editAllEvents("location", "C", "Hall"));
+  }
+
+  @Test
+  public void testQueriesBetweenAddsSeePendingRows() {
+    LocalDateTime start = LocalDateTime.of(2025, 3, 10, 0, 0);
+    for (int i = 0; i < 500; i++) {
+      // Out of order, so that pending rows are inserted all over the list.
+      LocalDateTime eventStart = start.plusHours((i * 37L) % 500);
+      calendar.addEvent(timed("E", eventStart, eventStart.plusMinutes(30)), false);
+      assertTrue(calendar.isBusyAt(eventStart.plusMinutes(10)));
+      assertEquals(1, calendar.getEventsBetween(eventStart, eventStart).size());
+    }
+    assertTrue(calendar.editEvent("end", "E", start.plusHours(7),
+        start.plusHours(7).plusMinutes(30), "07:05"));
+    assertTrue(calendar.isBusyAt(start.plusHours(7)));
+    assertFalse(calendar.isBusyAt(start.plusHours(7).plusMinutes(10)));
+  }
+
+  @Test
+  public void testTimezoneChangeKeepsInstants() {
+    LocalDateTime start = LocalDateTime.of(2025, 3, 10, 10, 0);
+    calendar.addEvent(timed("Meeting", start, start.plusHours(1)), false);
+
+    calendar.convertTimezone(ZoneId.of("Europe/London"));
+    AbstractEvent stored = calendar.getAllEventsList().get(0);
+    assertEquals(LocalDateTime.of(2025, 3, 10, 14, 0), stored.getStart());
+    assertEquals(LocalDateTime.of(2025, 3, 10, 15, 0), stored.getEnd());
+  }
+
+  @Test
+  public void testSkippedLocalTimesAreKept() {
+    // 02:00 to 03:00 does not happen in New York on 2025-03-09.
+    LocalDateTime skipped = LocalDateTime.of(2025, 3, 9, 2, 30);
+    calendar.addEvent(timed("Night", skipped, skipped.plusHours(1)), false);
+    assertEquals(skipped, calendar.findEvent("Night", skipped).getStart());
+    assertTrue(calendar.editEvent("end", "Night", skipped, skipped.plusHours(1),
+        "02:45"));
+    AbstractEvent stored = calendar.findEvent("Night", skipped);
+    assertEquals(LocalDateTime.of(2025, 3, 9, 2, 45), stored.getEnd());
+
+    calendar.convertTimezone(ZoneId.of("UTC"));
+    assertEquals(LocalDateTime.of(2025, 3, 9, 7, 30), stored.getStart());
+    assertEquals(LocalDateTime.of(2025, 3, 9, 7, 45), stored.getEnd());
+  }
+
+  @Test
+  public void testExportAndImportRoundTrip() throws IOException {
+    LocalDateTime start = LocalDateTime.of(2025, 3, 10, 10, 0);
+    calendar.addEvent(timed("Meeting", start, start.plusHours(1)), false);
+    calendar.addEvent(new Event("Holiday", start.plusDays(5).toLocalDate().atStartOfDay(),
+        "Off", "Home", false), false);
+
+    File file = File.createTempFile("columnar", ".csv");
+    try {
+      calendar.exportToCSV(file.getPath());
+      ColumnarCalendar copy = new ColumnarCalendar("Copy", "America/New_York");
+      assertEquals(2, copy.importFromCSV(file.getPath()));
+      assertEquals(describeSorted(calendar.getAllEventsList()),
+          describeSorted(copy.getAllEventsList()));
+    } finally {
+      file.delete();
+    }
+  }
+
+  @Test
+  public void testManyEventsStaySearchable() {
+    // Enough events to go through several merges of the pending rows.
+    LocalDateTime start = LocalDateTime.of(2025, 1, 1, 0, 0);
+    for (int i = 0; i < 20_000; i++) {
+      LocalDateTime eventStart = start.plusHours(3L * ((i * 7919L) % 20_000));
+      calendar.addEvent(timed("E" + (i % 50), eventStart, eventStart.plusHours(1)), false);
+    }
+    assertEquals(20_000, calendar.size());
+    LocalDate day = LocalDate.of(2026, 2, 2);
+    assertEquals(8, calendar.getEventsOnDate(day).size());
+    assertTrue(calendar.isBusyAt(day.atTime(3, 30)));
+    assertFalse(calendar.isBusyAt(day.atTime(4, 30)));
+  }
+
+  @Test
+  public void testMatchesCalendarOnRandomOperations() {
+    Random random = new Random(42);
+    Calendar expected = new Calendar("Work", "America/New_York");
+    LocalDateTime base = LocalDateTime.of(2025, 3, 1, 0, 0);
+
+    for (int i = 0; i < 600; i++) {
+      LocalDateTime start = base.plusMinutes(30L * random.nextInt(2000));
+      String title = "T" + random.nextInt(20);
+      int kind = random.nextInt(10);
+      Event event;
+      if (kind == 0) {
+        event = new Event(title, start.toLocalDate().atStartOfDay(), "d", "l", true);
+      } else if (kind == 1) {
+        // Multi-day or backwards spans exercise the long rows.
+        event = timed(title, start, start.plusHours(random.nextInt(200) - 100));
+      } else {
+        event = timed(title, start, start.plusMinutes(30L * (1 + random.nextInt(6))));
+      }
+      boolean autoDecline = random.nextBoolean();
+      boolean declinedExpected = false;
+      boolean declinedActual = false;
+      try {
+        expected.addEvent(event, autoDecline);
+      } catch (IllegalStateException e) {
+        declinedExpected = true;
+      }
+      try {
+        calendar.addEvent(event, autoDecline);
+      } catch (IllegalStateException e) {
+        declinedActual = true;
+      }
+      assertEquals(declinedExpected, declinedActual);
+
+      if (i % 20 == 0) {
+        String editTitle = "T" + random.nextInt(20);
+        expected.editAllEvents("location", editTitle, "L" + i);
+        calendar.editAllEvents("location", editTitle, "L" + i);
+      }
+    }
+
+    for (int i = 0; i < 200; i++) {
+      LocalDateTime from = base.plusMinutes(30L * random.nextInt(2200));
+      LocalDateTime to = from.plusHours(random.nextInt(72));
+      assertEquals(describeSorted(expected.getEventsBetween(from, to)),
+          describeSorted(calendar.getEventsBetween(from, to)));
+      assertEquals(describeSorted(expected.getEventsOnDate(from.toLocalDate())),
+          describeSorted(calendar.getEventsOnDate(from.toLocalDate())));
+      assertEquals(expected.isBusyAt(from), calendar.isBusyAt(from));
+    }
+  }
+}
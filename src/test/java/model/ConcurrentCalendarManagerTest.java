@@ -0,0 +1,262 @@
+package model;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * JUnit Test case for the ConcurrentCalendarManager class.
+ */
+public class ConcurrentCalendarManagerTest {
+
+  private ConcurrentCalendarManager manager;
+
+  @Before
+  public void setUp() {
+    manager = new ConcurrentCalendarManager();
+    manager.createCalendar("Work", "UTC");
+    manager.createCalendar("Home", "Asia/Kolkata");
+  }
+
+  private static Event timed(String title, LocalDateTime start, int minutes) {
+    return new Event(title, start, start.plusMinutes(minutes), "", "", true);
+  }
+
+  /**
+   * Runs a task on a new thread and waits for it, passing on anything it throws.
+   */
+  private static void onOtherThread(Runnable task) throws InterruptedException {
+    AtomicReference<Throwable> failure = new AtomicReference<>();
+    Thread thread = new Thread(() -> {
+      try {
+        task.run();
+      } catch (Throwable t) {
+        failure.set(t);
+      }
+    });
+    thread.start();
+    thread.join();
+    if (failure.get() != null) {
+      throw new AssertionError(failure.get());
+    }
+  }
+
+  @Test
+  public void testCalendarInUseIsPerThread() throws InterruptedException {
+    assertEquals("Work", manager.getCurrentCalendar().getName());
+    onOtherThread(() -> {
+      assertNull(manager.getCurrentCalendar());
+      manager.useCalendar("Home");
+      assertEquals("Home", manager.getCurrentCalendar().getName());
+    });
+    assertEquals("Work", manager.getCurrentCalendar().getName());
+  }
+
+  @Test
+  public void testDuplicateAndMissingCalendars() {
+    try {
+      manager.createCalendar("Work", "UTC");
+      fail("duplicate calendar created");
+    } catch (IllegalArgumentException e) {
+      assertEquals("Calendar with the name 'Work' already exists.", e.getMessage());
+    }
+    try {
+      manager.useCalendar("Gym");
+      fail("missing calendar used");
+    } catch (IllegalArgumentException e) {
+      assertEquals("Calendar not found: Gym", e.getMessage());
+    }
+    try {
+      manager.createCalendar("Gym", "Mars/Olympus");
+      fail("invalid timezone accepted");
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+    assertNull(manager.getCalendar("Gym"));
+  }
+
+  @Test
+  public void testEditCalendarRenamesAndConverts() {
+    ICalendar work = manager.getCalendar("Work");
+    LocalDateTime start = LocalDateTime.of(2025, 3, 10, 9, 0);
+    work.addEvent(timed("Standup", start, 15), true);
+
+    assertTrue(manager.editCalendar("Work", "name", "Office"));
+    assertNull(manager.getCalendar("Work"));
+    assertSame(work, manager.getCalendar("Office"));
+    assertEquals("Office", manager.getCurrentCalendar().getName());
+    try {
+      manager.editCalendar("Office", "name", "Home");
+      fail("duplicate name accepted");
+    } catch (IllegalArgumentException e) {
+      assertEquals("Calendar with name 'Home' already exists", e.getMessage());
+    }
+
+    assertTrue(manager.editCalendar("Office", "timezone", "Asia/Kolkata"));
+    assertNotNull(work.findEvent("Standup", LocalDateTime.of(2025, 3, 10, 14, 30)));
+    assertEquals(2, manager.getAllCalendarsMap().size());
+  }
+
+  @Test
+  public void testCopiesMatchCalendarManager() {
+    CalendarManager plain = new CalendarManager();
+    plain.createCalendar("Work", "UTC");
+    plain.createCalendar("Home", "Asia/Kolkata");
+    LocalDateTime start = LocalDateTime.of(2025, 3, 10, 9, 0);
+    for (ICalendarManager each : new ICalendarManager[] {manager, plain}) {
+      ICalendar work = each.getCurrentCalendar();
+      work.addEvent(timed("Standup", start, 15), true);
+      work.addEvent(timed("Review", start.plusDays(1).plusHours(5), 60), true);
+      work.addEvent(new Event("Offsite", start.plusDays(2).toLocalDate().atStartOfDay(), null,
+          "", true), true);
+      each.copyEvent("Standup", start, "Home", start.plusDays(7));
+      each.copyEventsOn(start.toLocalDate().plusDays(1), "Home",
+          start.toLocalDate().plusDays(20));
+      each.copyEventsBetween(start.toLocalDate(), start.toLocalDate().plusDays(2), "Work",
+          start.toLocalDate().plusDays(30));
+      try {
+        each.copyEvent("Standup", start, "Home", start.plusDays(7));
+        fail("conflict not detected");
+      } catch (IllegalStateException e) {
+        // expected
+      }
+    }
+    for (String name : new String[] {"Work", "Home"}) {
+      List<String> expected = new ArrayList<>();
+      for (Event event : plain.getCalendar(name).getAllEventsList()) {
+        expected.add(event.getTitle() + "|" + event.getStart() + "|" + event.getEnd());
+      }
+      List<String> actual = new ArrayList<>();
+      for (Event event : manager.getCalendar(name).getAllEventsList()) {
+        actual.add(event.getTitle() + "|" + event.getStart() + "|" + event.getEnd());
+      }
+      assertEquals(expected, actual);
+    }
+  }
+
+  @Test
+  public void testBatchBelongsToItsThread() throws InterruptedException {
+    ICalendar work = manager.getCalendar("Work");
+    LocalDateTime start = LocalDateTime.of(2025, 3, 10, 9, 0);
+    work.beginBatch();
+    work.addEvent(timed("Queued", start, 30), true);
+    onOtherThread(() -> {
+      // Not part of the open batch, so added at once.
+      work.addEvent(timed("Direct", start.plusHours(2), 30), true);
+      assertEquals(1, work.getAllEventsList().size());
+      try {
+        work.commit();
+        fail("committed another thread's batch");
+      } catch (IllegalStateException e) {
+        assertEquals("No batch is open", e.getMessage());
+      }
+    });
+    try {
+      work.editAllEvents("location", "Direct", "Hall");
+      fail("edit allowed inside a batch");
+    } catch (IllegalStateException e) {
+      assertEquals("Commit the open batch first", e.getMessage());
+    }
+    work.commit();
+    assertEquals(2, work.getAllEventsList().size());
+    assertTrue(work.isBusyAt(start.plusMinutes(10)));
+  }
+
+  @Test
+  public void testQueriesRunAlongsideWrites() throws InterruptedException {
+    assertQueriesRunAlongsideWrites(manager);
+  }
+
+  @Test
+  public void testSnapshotQueriesRunAlongsideWrites() throws InterruptedException {
+    ConcurrentCalendarManager snapshots = new ConcurrentCalendarManager(true);
+    snapshots.createCalendar("Work", "UTC");
+    assertQueriesRunAlongsideWrites(snapshots);
+  }
+
+  @Test
+  public void testSnapshotQueriesReturnReadOnlyEvents() {
+    ConcurrentCalendarManager snapshots = new ConcurrentCalendarManager(true);
+    snapshots.createCalendar("Work", "UTC");
+    ICalendar work = snapshots.getCalendar("Work");
+    LocalDateTime start = LocalDateTime.of(2025, 3, 10, 9, 0);
+    work.addEvent(timed("Standup", start, 15), true);
+    AbstractEvent seen = work.getEventsBetween(start, start.plusHours(1)).get(0);
+    try {
+      seen.setTitle("Renamed");
+      fail("changed an event read from a snapshot");
+    } catch (UnsupportedOperationException e) {
+      // expected
+    }
+    assertTrue(snapshots.editCalendar("Work", "timezone", "Asia/Kolkata"));
+    assertTrue(work.isBusyAt(LocalDateTime.of(2025, 3, 10, 14, 35)));
+    assertFalse(work.isBusyAt(start.plusMinutes(5)));
+  }
+
+  /**
+   * Adds events in pairs to a manager's "Work" calendar while other threads query it, and
+   * checks that no query sees half a pair.
+   */
+  private static void assertQueriesRunAlongsideWrites(ConcurrentCalendarManager manager)
+      throws InterruptedException {
+    ICalendar work = manager.getCalendar("Work");
+    LocalDate day = LocalDate.of(2025, 3, 10);
+    int writes = 2000;
+    int readers = 3;
+    CountDownLatch done = new CountDownLatch(1);
+    AtomicReference<Throwable> failure = new AtomicReference<>();
+    List<Thread> threads = new ArrayList<>();
+    for (int r = 0; r < readers; r++) {
+      Thread reader = new Thread(() -> {
+        try {
+          while (done.getCount() > 0) {
+            // Events are added in pairs, so a consistent read always sees an even count.
+            int count = work.getEventsOnDate(day).size();
+            if (count % 2 != 0) {
+              throw new AssertionError("saw half a change: " + count);
+            }
+            work.getEventsBetween(day.atStartOfDay(), day.atTime(12, 0));
+            work.isBusyAt(day.atTime(0, 30));
+          }
+        } catch (Throwable t) {
+          failure.compareAndSet(null, t);
+        }
+      });
+      threads.add(reader);
+      reader.start();
+    }
+    try {
+      for (int i = 0; i < writes; i++) {
+        LocalDateTime start = day.atStartOfDay().plusSeconds(20L * i);
+        List<AbstractEvent> pair = new ArrayList<>();
+        pair.add(timed("A" + i, start, 1));
+        pair.add(timed("B" + i, start.plusSeconds(10), 1));
+        work.addEvents(pair, false);
+      }
+    } finally {
+      done.countDown();
+      for (Thread thread : threads) {
+        thread.join();
+      }
+    }
+    if (failure.get() != null) {
+      throw new AssertionError(failure.get());
+    }
+    assertEquals(2 * writes, work.getEventsOnDate(day).size());
+    assertFalse(work.isBusyAt(day.atTime(23, 0)));
+  }
+}
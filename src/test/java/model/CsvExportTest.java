@@ -0,0 +1,139 @@
+package model;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * JUnit Test case for the CsvExport class.
+ */
+public class CsvExportTest {
+
+  private static final String HEADER = "Subject, Start Date, Start Time, End Date, "
+      + "End Time, All Day Event, Description, Location, Private\n";
+
+  private Path directory;
+
+  @Before
+  public void setUp() throws IOException {
+    directory = Files.createTempDirectory("csv-export");
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      for (Path file : (Iterable<Path>) files::iterator) {
+        Files.delete(file);
+      }
+    }
+    Files.delete(directory);
+  }
+
+  /**
+   * Formats a row the way export always has, with the library's date and time strings.
+   */
+  private static String expectedRow(Event event) {
+    LocalDateTime end = event.getEnd();
+    return event.getTitle() + "," + event.getStart().toLocalDate() + ","
+        + event.getStart().toLocalTime() + "," + (end != null ? end.toLocalDate() : "") + ","
+        + (end != null ? end.toLocalTime() : "") + "," + (end == null) + ","
+        + event.getDescription() + "," + event.getLocation() + "," + !event.isPublic() + "\n";
+  }
+
+  private static String read(Path file, boolean compressed) throws IOException {
+    try (InputStream in = compressed ? new GZIPInputStream(Files.newInputStream(file))
+        : Files.newInputStream(file)) {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      in.transferTo(bytes);
+      return bytes.toString(StandardCharsets.UTF_8);
+    }
+  }
+
+  private static List<Event> sampleEvents() {
+    List<Event> events = new ArrayList<>();
+    events.add(new Event("Plain", LocalDateTime.of(2025, 3, 1, 9, 0),
+        LocalDateTime.of(2025, 3, 1, 10, 30), "Desc", "Room", true));
+    events.add(new Event("Seconds", LocalDateTime.of(2025, 3, 2, 0, 0, 5),
+        LocalDateTime.of(2025, 3, 2, 23, 59, 59), "", "", false));
+    events.add(new Event("Millis", LocalDateTime.of(2025, 12, 31, 7, 8, 0, 120_000_000),
+        LocalDateTime.of(2026, 1, 1, 7, 8, 9, 123_456_000), "d", "l", true));
+    events.add(new Event("Nanos", LocalDateTime.of(1999, 1, 9, 1, 2, 3, 1),
+        LocalDateTime.of(1999, 1, 9, 1, 2, 3, 999_999_999), "d", "l", true));
+    events.add(new Event("All day", LocalDateTime.of(2025, 7, 4, 0, 0), "Party", "Park",
+        true));
+    events.add(new Event("Ancient", LocalDateTime.of(999, 5, 6, 7, 8),
+        LocalDateTime.of(10000, 5, 6, 7, 8), null, "Nowhere", true));
+    return events;
+  }
+
+  @Test
+  public void testRowsMatchLibraryFormatting() throws IOException {
+    Path file = directory.resolve("events.csv");
+    StringBuilder expected = new StringBuilder(HEADER);
+    try (CsvExport csv = new CsvExport(file.toString())) {
+      for (Event event : sampleEvents()) {
+        csv.write(event);
+        expected.append(expectedRow(event));
+      }
+    }
+    assertEquals(expected.toString(), read(file, false));
+  }
+
+  @Test
+  public void testCompressedOutput() throws IOException {
+    Path plain = directory.resolve("events.csv");
+    Path compressed = directory.resolve("events.csv.gz");
+    try (CsvExport csv = new CsvExport(plain.toString());
+         CsvExport gz = new CsvExport(compressed.toString())) {
+      for (Event event : sampleEvents()) {
+        csv.write(event);
+        gz.write(event);
+      }
+    }
+    assertEquals(read(plain, false), read(compressed, true));
+  }
+
+  @Test
+  public void testCompressedRoundTrip() throws IOException {
+    Calendar original = new Calendar("Original", "UTC");
+    LocalDateTime start = LocalDateTime.of(2025, 1, 1, 8, 0);
+    for (int i = 0; i < 20_000; i++) {
+      original.addEvent(new Event("Event " + i, start, start.plusMinutes(30),
+          "Desc " + i % 7, "Room", i % 2 == 0), false);
+      start = start.plusHours(1);
+    }
+    String filename = directory.resolve("events.csv.gz").toString();
+    original.exportToCSV(filename);
+
+    ColumnarCalendar copy = new ColumnarCalendar("Copy", "UTC");
+    assertEquals(20_000, copy.importFromCSV(filename));
+    String reexported = directory.resolve("copy.csv").toString();
+    copy.exportToCSV(reexported);
+    assertEquals(read(Paths.get(filename), true),
+        read(Paths.get(reexported), false));
+  }
+
+  @Test
+  public void testIsCompressed() {
+    assertTrue(CsvExport.isCompressed("a.csv.gz"));
+    assertTrue(CsvExport.isCompressed("A.CSV.GZ"));
+    assertFalse(CsvExport.isCompressed("a.csv"));
+  }
+}
@@ -0,0 +1,211 @@
+package model;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * JUnit Test case for the CsvImport class.
+ */
+public class CsvImportTest {
+
+  private Path file;
+  private PrintStream originalErr;
+  private ByteArrayOutputStream err;
+
+  @Before
+  public void setUp() throws IOException {
+    file = Files.createTempFile("csv-import", ".csv");
+    originalErr = System.err;
+    err = new ByteArrayOutputStream();
+    System.setErr(new PrintStream(err));
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    System.setErr(originalErr);
+    Files.deleteIfExists(file);
+  }
+
+  /**
+   * Writes a file with ordinary rows, blank lines, unparseable rows, conflicting rows and
+   * Windows line endings mixed in.
+   */
+  private void writeMixedFile(int rows) throws IOException {
+    StringBuilder csv = new StringBuilder("Subject,Start Date,Start Time,End Date,End Time,"
+        + "All Day Event,Description,Location,Private\n");
+    LocalDateTime start = LocalDateTime.of(2025, 1, 1, 8, 0);
+    for (int i = 0; i < rows; i++) {
+      if (i % 17 == 0) {
+        csv.append('\n');
+      }
+      if (i % 23 == 0) {
+        csv.append("Broken ").append(i).append(",not a date,10:00,,,false,,,false\n");
+      }
+      LocalDateTime end = start.plusMinutes(i % 11 == 0 ? 90 : 30);
+      csv.append("\"Event, ").append(i).append("\",").append(start.toLocalDate()).append(',')
+          .append(start.toLocalTime()).append(',').append(end.toLocalDate()).append(',')
+          .append(end.toLocalTime()).append(",false,Desc,Room ").append(i % 5)
+          .append(",false").append(i % 3 == 0 ? "\r\n" : "\n");
+      start = start.plusHours(1);
+    }
+    Files.write(file, csv.toString().getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static List<String> describe(Calendar calendar) {
+    List<String> result = new ArrayList<>();
+    for (Event event : calendar.getAllEventsList()) {
+      result.add(event.getTitle() + "|" + event.getStart() + "|" + event.getEnd() + "|"
+          + event.getLocation());
+    }
+    return result;
+  }
+
+  @Test
+  public void testParallelMatchesSerial() throws IOException {
+    writeMixedFile(500);
+    Calendar serial = new Calendar("Serial", "UTC");
+    int serialCount = CsvImport.importSerial(serial, file, null);
+    String serialErrors = err.toString();
+    assertTrue(serialErrors.contains("Error parsing event at line"));
+
+    for (int chunks : new int[] {1, 2, 7, 64, 2000}) {
+      err.reset();
+      Calendar parallel = new Calendar("Parallel", "UTC");
+      assertEquals(serialCount, CsvImport.importParallel(parallel, file, null, chunks));
+      assertEquals("chunks: " + chunks, describe(serial), describe(parallel));
+      assertEquals("chunks: " + chunks, serialErrors, err.toString());
+    }
+  }
+
+  @Test
+  public void testParallelRangesShareTheSniffedLayout() throws IOException {
+    // Only the first rows show that the day comes first; later ranges see ambiguous dates.
+    StringBuilder csv = new StringBuilder("Subject,Start Date,Start Time,End Date,End Time\n");
+    csv.append("First,25/01/2025,08:00,25/01/2025,09:00\n");
+    for (int i = 0; i < 300; i++) {
+      String date = String.format("%02d/%02d/%d", 1 + i % 12, 1 + i / 12 % 12, 2025 + i / 144);
+      csv.append("Event ").append(i).append(',').append(date).append(",10:00,").append(date)
+          .append(",11:00\n");
+    }
+    Files.write(file, csv.toString().getBytes(StandardCharsets.UTF_8));
+    Calendar serial = new Calendar("Serial", "UTC");
+    int serialCount = CsvImport.importSerial(serial, file, null);
+    assertEquals(301, serialCount);
+    assertEquals("Event 40|2025-04-05T10:00|2025-04-05T11:00|",
+        describe(serial).get(41));
+
+    for (int chunks : new int[] {1, 3, 16, 301}) {
+      Calendar parallel = new Calendar("Parallel", "UTC");
+      assertEquals(serialCount, CsvImport.importParallel(parallel, file, null, chunks));
+      assertEquals("chunks: " + chunks, describe(serial), describe(parallel));
+    }
+  }
+
+  @Test
+  public void testParallelReportsProgress() throws IOException {
+    writeMixedFile(25_000);
+    List<Long> lines = new ArrayList<>();
+    List<Long> serialLines = new ArrayList<>();
+    CsvImport.importSerial(new ColumnarCalendar("Serial", "UTC"), file,
+        (linesRead, imported) -> serialLines.add(linesRead));
+    CsvImport.importParallel(new ColumnarCalendar("Parallel", "UTC"), file,
+        (linesRead, imported) -> lines.add(linesRead), 8);
+    assertEquals(serialLines, lines);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testParallelRejectsEmptyFile() throws IOException {
+    CsvImport.importParallel(new Calendar(), file, null, 4);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testParallelRejectsMissingColumns() throws IOException {
+    Files.write(file, "Title,Date\nA,2025-01-01\n".getBytes(StandardCharsets.UTF_8));
+    CsvImport.importParallel(new Calendar(), file, null, 4);
+  }
+
+  @Test
+  public void testReportsDetectedFormats() throws IOException {
+    Files.write(file, ("Subject,Start Date,Start Time,End Date,End Time\n"
+        + "A,04/15/2025,9:30 AM,04/15/2025,10:15 AM\n"
+        + "B,04/16/2025,1:00 PM,04/16/2025,2:30:15 PM\n")
+        .getBytes(StandardCharsets.UTF_8));
+    List<String> formats = new ArrayList<>();
+    ImportProgress progress = new ImportProgress() {
+      @Override
+      public void update(long linesRead, int imported) {
+        // Only the formats are checked here.
+      }
+
+      @Override
+      public void formatDetected(String dateFormat, String timeFormat) {
+        formats.add(dateFormat + " " + timeFormat);
+      }
+    };
+    Calendar serial = new Calendar("Serial", "UTC");
+    assertEquals(2, CsvImport.importSerial(serial, file, progress));
+    Calendar parallel = new Calendar("Parallel", "UTC");
+    assertEquals(2, CsvImport.importParallel(parallel, file, progress, 3));
+    assertEquals(List.of("MM/dd/yyyy h:mm:ss a", "MM/dd/yyyy h:mm:ss a"), formats);
+    assertEquals(List.of("A|2025-04-15T09:30|2025-04-15T10:15|",
+        "B|2025-04-16T13:00|2025-04-16T14:30:15|"), describe(serial));
+    assertEquals(describe(serial), describe(parallel));
+  }
+
+  @Test
+  public void testRowsBreakingTheDetectedFormat() throws IOException {
+    // A day-first date after an ambiguous one, then ISO rows, then an ambiguous slash date
+    // and a time no parser reads, which is midnight. E can only be read month first, so the
+    // file is not taken to put the day first and ambiguous dates are read month first.
+    Files.write(file, ("Subject,Start Date,Start Time,End Date,End Time\n"
+        + "A,01/02/2025,08:00,01/02/2025,09:00\n"
+        + "B,25/02/2025,08:00,25/02/2025,09:00\n"
+        + "C,2025-03-01,10:00:00,2025-03-01,11:00 PM\n"
+        + "D,3/4/2025,noon,3/4/2025,13:00\n"
+        + "E,3/20/2025,08:00,3/20/2025,09:00\n")
+        .getBytes(StandardCharsets.UTF_8));
+    Calendar calendar = new Calendar("Dates", "UTC");
+    assertEquals(5, CsvImport.importSerial(calendar, file, null));
+    assertEquals(List.of("A|2025-01-02T08:00|2025-01-02T09:00|",
+        "B|2025-02-25T08:00|2025-02-25T09:00|",
+        "C|2025-03-01T10:00|2025-03-01T23:00|",
+        "D|2025-03-04T00:00|2025-03-04T13:00|",
+        "E|2025-03-20T08:00|2025-03-20T09:00|"), describe(calendar));
+  }
+
+  @Test
+  public void testDayFirstFileReadsAmbiguousDatesDayFirst() throws IOException {
+    // The first row is ambiguous; the rows after it show that the day comes first.
+    Files.write(file, ("Subject,Start Date,Start Time,End Date,End Time\n"
+        + "A,01/02/2025,08:00,01/02/2025,09:00\n"
+        + "B,25/02/2025,08:00,25/02/2025,09:00\n"
+        + "C,03/04/2025,08:00,03/04/2025,09:00\n")
+        .getBytes(StandardCharsets.UTF_8));
+    Calendar calendar = new Calendar("Dates", "UTC");
+    assertEquals(3, CsvImport.importSerial(calendar, file, null));
+    assertEquals(List.of("A|2025-02-01T08:00|2025-02-01T09:00|",
+        "B|2025-02-25T08:00|2025-02-25T09:00|",
+        "C|2025-04-03T08:00|2025-04-03T09:00|"), describe(calendar));
+  }
+
+  @Test
+  public void testHeaderOnlyFile() throws IOException {
+    Files.write(file, "Subject,Start Date".getBytes(StandardCharsets.UTF_8));
+    assertEquals(0, CsvImport.importParallel(new Calendar(), file, null, 4));
+    assertEquals(0, CsvImport.importSerial(new Calendar(), file, null));
+  }
+}
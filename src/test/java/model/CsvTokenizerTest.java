@@ -0,0 +1,112 @@
+package model;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * JUnit Test case for the CsvTokenizer class.
+ */
+public class CsvTokenizerTest {
+
+  /**
+   * Returns the fields of the tokenizer's current line.
+   */
+  private static String[] fields(CsvTokenizer tokenizer) {
+    String[] fields = new String[tokenizer.fieldCount()];
+    for (int i = 0; i < fields.length; i++) {
+      fields[i] = tokenizer.field(i);
+    }
+    return fields;
+  }
+
+  @Test
+  public void testSplitsLikeParseCSVLine() throws IOException {
+    String[] lines = {
+        "a,b,c",
+        "\"Meeting, weekly\",2025-01-01,\"say \"\"hi\"\"\"",
+        "",
+        ",,",
+        " padded , fields ",
+        "\"unterminated, quote"
+    };
+    CsvTokenizer tokenizer = new CsvTokenizer(new StringReader(String.join("\n", lines)));
+    for (String line : lines) {
+      assertTrue(tokenizer.nextLine());
+      assertArrayEquals(line, Calendar.parseCSVLine(line), fields(tokenizer));
+    }
+    assertFalse(tokenizer.nextLine());
+  }
+
+  @Test
+  public void testLineEndings() throws IOException {
+    CsvTokenizer tokenizer = new CsvTokenizer(new StringReader("a\r\nb\rc\n\nd\n"));
+    String[] expected = {"a", "b", "c", "", "d"};
+    for (String line : expected) {
+      assertTrue(tokenizer.nextLine());
+      assertEquals(line, tokenizer.field(0));
+    }
+    assertFalse(tokenizer.nextLine());
+  }
+
+  @Test
+  public void testLinesLongerThanBuffers() throws IOException {
+    StringBuilder line = new StringBuilder();
+    for (int i = 0; i < 5000; i++) {
+      line.append("field").append(i).append(',');
+    }
+    line.append("last");
+    CsvTokenizer tokenizer = new CsvTokenizer(new StringReader(line + "\r\n" + line));
+    for (int i = 0; i < 2; i++) {
+      assertTrue(tokenizer.nextLine());
+      assertEquals(5001, tokenizer.fieldCount());
+      assertEquals("field4999", tokenizer.field(4999));
+      assertEquals("last", tokenizer.field(5000));
+    }
+    assertFalse(tokenizer.nextLine());
+  }
+
+  @Test
+  public void testBlankLines() throws IOException {
+    CsvTokenizer tokenizer = new CsvTokenizer(new StringReader(" \t\n,\nx"));
+    assertTrue(tokenizer.nextLine());
+    assertTrue(tokenizer.isBlank());
+    assertTrue(tokenizer.nextLine());
+    assertFalse(tokenizer.isBlank());
+    assertTrue(tokenizer.nextLine());
+    assertFalse(tokenizer.isBlank());
+  }
+
+  @Test
+  public void testTrimmedBoundsAndComparison() throws IOException {
+    CsvTokenizer tokenizer = new CsvTokenizer(new StringReader("  TRUE , false,   "));
+    assertTrue(tokenizer.nextLine());
+    assertEquals("TRUE", new String(tokenizer.chars(), tokenizer.trimmedStart(0),
+        tokenizer.trimmedEnd(0) - tokenizer.trimmedStart(0)));
+    assertTrue(tokenizer.fieldEqualsIgnoreCase(0, "true"));
+    assertFalse(tokenizer.fieldEqualsIgnoreCase(1, "true"));
+    assertEquals(tokenizer.trimmedStart(2), tokenizer.trimmedEnd(2));
+  }
+
+  @Test
+  public void testMissingFields() throws IOException {
+    CsvTokenizer tokenizer = new CsvTokenizer(new StringReader("only"));
+    assertTrue(tokenizer.nextLine());
+    assertTrue(tokenizer.hasField(0));
+    assertFalse(tokenizer.hasField(1));
+    assertFalse(tokenizer.hasField(-1));
+    assertEquals("default", tokenizer.field(3, "default"));
+    assertEquals("default", tokenizer.field(-1, "default"));
+  }
+
+  @Test
+  public void testEmptyInput() throws IOException {
+    assertFalse(new CsvTokenizer(new StringReader("")).nextLine());
+  }
+}
@@ -0,0 +1,140 @@
+package model;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * JUnit Test case for the DateTimeSniffer class.
+ */
+public class DateTimeSnifferTest {
+
+  private static LocalDate date(DateTimeSniffer sniffer, String text) {
+    int packed = sniffer.parseDate(text.toCharArray(), 0, text.length());
+    if (packed == IsoDateTimeParser.INVALID_DATE) {
+      return null;
+    }
+    return LocalDate.of(IsoDateTimeParser.year(packed), IsoDateTimeParser.month(packed),
+        IsoDateTimeParser.day(packed));
+  }
+
+  private static LocalTime time(DateTimeSniffer sniffer, String text) {
+    long nanos = sniffer.parseTime(text.toCharArray(), 0, text.length());
+    return nanos == IsoDateTimeParser.INVALID_TIME ? null : LocalTime.ofNanoOfDay(nanos);
+  }
+
+  @Test
+  public void testNothingDetectedInitially() {
+    DateTimeSniffer sniffer = new DateTimeSniffer();
+    assertNull(sniffer.dateFormat());
+    assertNull(sniffer.timeFormat());
+  }
+
+  @Test
+  public void testDetectsIsoLayouts() {
+    DateTimeSniffer sniffer = new DateTimeSniffer();
+    assertEquals(LocalDate.of(2025, 4, 15), date(sniffer, "2025-04-15"));
+    assertEquals(LocalTime.of(9, 30, 15), time(sniffer, "09:30:15"));
+    assertEquals(DateTimeSniffer.ISO_DATE, sniffer.dateFormat());
+    assertEquals(DateTimeSniffer.ISO_TIME, sniffer.timeFormat());
+    assertEquals(0, sniffer.dateBreaks());
+    assertEquals(0, sniffer.timeBreaks());
+  }
+
+  @Test
+  public void testDetectsMonthFirstDates() {
+    DateTimeSniffer sniffer = new DateTimeSniffer();
+    assertEquals(LocalDate.of(2025, 3, 4), date(sniffer, "03/04/2025"));
+    assertEquals(LocalDate.of(2025, 12, 31), date(sniffer, "12/31/2025"));
+    assertEquals(LocalDate.of(2025, 1, 2), date(sniffer, "1/2/2025"));
+    assertEquals(DateTimeSniffer.MONTH_FIRST_DATE, sniffer.dateFormat());
+    assertEquals(0, sniffer.dateBreaks());
+  }
+
+  @Test
+  public void testDayFirstRowDoesNotChangeAmbiguousDates() {
+    DateTimeSniffer sniffer = new DateTimeSniffer();
+    assertEquals(LocalDate.of(2025, 3, 4), date(sniffer, "03/04/2025"));
+    assertEquals(LocalDate.of(2025, 4, 15), date(sniffer, "15/04/2025"));
+    assertEquals(DateTimeSniffer.MONTH_FIRST_DATE, sniffer.dateFormat());
+    assertEquals(1, sniffer.dateBreaks());
+    // One day-first row in the middle of a file does not change how later dates are read.
+    assertEquals(LocalDate.of(2025, 3, 4), date(sniffer, "03/04/2025"));
+  }
+
+  @Test
+  public void testSniffedDayFirstPrefixReadsAmbiguousDatesDayFirst() {
+    DateTimeSniffer prefix = new DateTimeSniffer();
+    String[] leading = {"03/04/2025", "15/04/2025", "2025-04-16", "05/06/2025"};
+    for (String text : leading) {
+      prefix.sniffDate(text.toCharArray(), 0, text.length());
+    }
+    DateTimeSniffer sniffer = prefix.withLearnedLayout();
+    assertEquals(DateTimeSniffer.DAY_FIRST_DATE, sniffer.dateFormat());
+    assertEquals(LocalDate.of(2025, 4, 3), date(sniffer, "03/04/2025"));
+    assertEquals(LocalDate.of(2025, 4, 20), date(sniffer, "20/04/2025"));
+    assertEquals(LocalDate.of(2025, 5, 1), date(sniffer, "2025-05-01"));
+    // A later month-first row is read month first, and ambiguous dates stay day first.
+    assertEquals(LocalDate.of(2025, 4, 21), date(sniffer, "04/21/2025"));
+    assertEquals(LocalDate.of(2025, 6, 5), date(sniffer, "05/06/2025"));
+  }
+
+  @Test
+  public void testMixedPrefixKeepsMonthFirst() {
+    DateTimeSniffer prefix = new DateTimeSniffer();
+    String[] leading = {"03/04/2025", "15/04/2025", "04/16/2025", "05/06/2025"};
+    for (String text : leading) {
+      prefix.sniffDate(text.toCharArray(), 0, text.length());
+    }
+    DateTimeSniffer sniffer = prefix.withLearnedLayout();
+    assertEquals(DateTimeSniffer.MONTH_FIRST_DATE, sniffer.dateFormat());
+    assertEquals(LocalDate.of(2025, 3, 4), date(sniffer, "03/04/2025"));
+    assertEquals(LocalDate.of(2025, 4, 15), date(sniffer, "15/04/2025"));
+    assertEquals(LocalDate.of(2025, 5, 6), date(sniffer, "05/06/2025"));
+  }
+
+  @Test
+  public void testDetectsTwelveHourTimes() {
+    DateTimeSniffer sniffer = new DateTimeSniffer();
+    assertEquals(LocalTime.of(9, 30), time(sniffer, "9:30 AM"));
+    assertEquals(LocalTime.of(14, 45), time(sniffer, "2:45 PM"));
+    assertEquals(LocalTime.MIDNIGHT, time(sniffer, "12:00 AM"));
+    assertEquals(LocalTime.NOON, time(sniffer, "12:00 pm"));
+    assertEquals(LocalTime.of(9, 0), time(sniffer, "9 AM"));
+    assertEquals(LocalTime.of(21, 30, 15), time(sniffer, "9:30:15 PM"));
+    assertEquals(DateTimeSniffer.TWELVE_HOUR_TIME, sniffer.timeFormat());
+    assertEquals(0, sniffer.timeBreaks());
+  }
+
+  @Test
+  public void testAgreesWithCalendarParsers() {
+    DateTimeSniffer sniffer = new DateTimeSniffer();
+    String[] dates = {"2025-02-28", "04/15/2025", "15/04/2025", "2024-02-29"};
+    for (String text : dates) {
+      assertEquals(text, Calendar.parseDate(text), date(sniffer, text));
+    }
+    String[] times = {"10:00", "11:30 PM", "12:15 AM", "23:59:59", "7:05:09 am"};
+    for (String text : times) {
+      assertEquals(text, Calendar.parseTime(text), time(sniffer, text));
+    }
+  }
+
+  @Test
+  public void testUnknownValuesAreInvalid() {
+    DateTimeSniffer sniffer = new DateTimeSniffer();
+    assertNull(date(sniffer, "not a date"));
+    assertNull(date(sniffer, "2025/04/15"));
+    assertNull(date(sniffer, "13/13/2025"));
+    assertNull(date(sniffer, "1/2/25"));
+    assertNull(time(sniffer, "noon"));
+    assertNull(time(sniffer, "13:00 PM"));
+    assertNull(time(sniffer, "9:5 AM"));
+    assertNull(time(sniffer, "9:30AM"));
+    assertNull(sniffer.dateFormat());
+    assertNull(sniffer.timeFormat());
+  }
+}
@@ -0,0 +1,133 @@
+package model;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * JUnit Test case for the IntervalTree used to index calendar events.
+ */
+public class IntervalTreeTest {
+
+  private IntervalTree<String> tree;
+
+  @Before
+  public void setUp() {
+    tree = new IntervalTree<>();
+  }
+
+  private List<String> query(long lo, long hi) {
+    List<String> out = new ArrayList<>();
+    tree.query(lo, hi, out);
+    return out;
+  }
+
+  @Test
+  public void testEmptyTree() {
+    assertEquals(0, tree.size());
+    assertTrue(query(Long.MIN_VALUE, Long.MAX_VALUE).isEmpty());
+  }
+
+  @Test
+  public void testQueryIsInclusiveAndOrderedByLow() {
+    tree.insert(30, 40, "c");
+    tree.insert(10, 20, "a");
+    tree.insert(20, 30, "b");
+
+    assertEquals(Arrays.asList("a", "b", "c"), query(0, 100));
+    // Touching endpoints count as overlap.
+    assertEquals(Arrays.asList("a", "b"), query(20, 20));
+    assertEquals(Arrays.asList("c"), query(40, 50));
+    assertTrue(query(41, 50).isEmpty());
+    assertTrue(query(0, 9).isEmpty());
+  }
+
+  @Test
+  public void testLongIntervalFoundFromLaterQuery() {
+    tree.insert(0, 1000, "long");
+    for (int i = 1; i < 100; i++) {
+      tree.insert(i, i, "point" + i);
+    }
+    List<String> result = query(500, 600);
+    assertEquals(Arrays.asList("long"), result);
+  }
+
+  @Test
+  public void testRemove() {
+    IntervalTree.Node<String> a = tree.insert(10, 20, "a");
+    tree.insert(10, 20, "a2");
+    assertEquals(2, tree.size());
+
+    assertTrue(tree.remove(a));
+    assertFalse(tree.remove(a));
+    assertEquals(1, tree.size());
+    assertEquals(Arrays.asList("a2"), query(15, 15));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidInterval() {
+    tree.insert(20, 10, "bad");
+  }
+
+  @Test
+  public void testMatchesBruteForce() {
+    Random random = new Random(42);
+    List<long[]> intervals = new ArrayList<>();
+    List<IntervalTree.Node<String>> nodes = new ArrayList<>();
+    for (int i = 0; i < 2000; i++) {
+      long low = random.nextInt(10000);
+      long high = low + random.nextInt(200);
+      intervals.add(new long[]{low, high});
+      nodes.add(tree.insert(low, high, String.valueOf(i)));
+    }
+    // Remove every third interval to exercise rebalancing on delete.
+    for (int i = 0; i < nodes.size(); i += 3) {
+      assertTrue(tree.remove(nodes.get(i)));
+    }
+
+    for (int q = 0; q < 200; q++) {
+      long lo = random.nextInt(10000);
+      long hi = lo + random.nextInt(500);
+      int expected = 0;
+      for (int i = 0; i < intervals.size(); i++) {
+        if (i % 3 != 0 && intervals.get(i)[0] <= hi && intervals.get(i)[1] >= lo) {
+          expected++;
+        }
+      }
+      assertEquals(expected, query(lo, hi).size());
+    }
+  }
+
+  @Test
+  public void testFindFirstStopsAtFirstMatchInLowOrder() {
+    tree.insert(30, 40, "c");
+    tree.insert(10, 20, "a");
+    tree.insert(15, 35, "b");
+
+    assertEquals("a", tree.findFirst(0, 100, v -> true));
+    assertEquals("b", tree.findFirst(0, 100, v -> !v.equals("a")));
+    assertEquals("c", tree.findFirst(36, 36, v -> true));
+    assertEquals(null, tree.findFirst(41, 100, v -> true));
+    assertEquals(null, tree.findFirst(0, 100, v -> false));
+  }
+
+  @Test
+  public void testFindFirstPassesArgumentToFilter() {
+    tree.insert(30, 40, "c");
+    tree.insert(10, 20, "a");
+    tree.insert(15, 35, "b");
+
+    assertEquals("b", tree.findFirst(0, 100, "b", String::equals));
+    assertEquals("c", tree.findFirst(18, 36, "a", (v, skip) -> !v.equals(skip)
+        && !v.equals("b")));
+    assertEquals(null, tree.findFirst(0, 100, "d", String::equals));
+  }
+}
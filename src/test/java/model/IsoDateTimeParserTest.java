@@ -0,0 +1,76 @@
+package model;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * JUnit Test case for the IsoDateTimeParser class.
+ */
+public class IsoDateTimeParserTest {
+
+  private static int date(String text) {
+    return IsoDateTimeParser.parseDate(text.toCharArray(), 0, text.length());
+  }
+
+  private static long time(String text) {
+    return IsoDateTimeParser.parseTime(text.toCharArray(), 0, text.length());
+  }
+
+  @Test
+  public void testParsesDates() {
+    int packed = date("2025-03-09");
+    assertEquals(2025, IsoDateTimeParser.year(packed));
+    assertEquals(3, IsoDateTimeParser.month(packed));
+    assertEquals(9, IsoDateTimeParser.day(packed));
+    assertEquals(20240229, date("2024-02-29"));
+    assertEquals(20000229, date("2000-02-29"));
+  }
+
+  @Test
+  public void testParsesDateInsideBuffer() {
+    char[] chars = "x,2025-12-31,y".toCharArray();
+    assertEquals(20251231, IsoDateTimeParser.parseDate(chars, 2, 12));
+  }
+
+  @Test
+  public void testRejectsInvalidDates() {
+    String[] invalid = {"", "2025-1-01", "2025/01/01", "01/02/2025", "2025-13-01",
+        "2025-00-10", "2025-04-31", "2025-02-29", "1900-02-29", "2025-01-00", "20a5-01-01",
+        "2025-01-011"};
+    for (String text : invalid) {
+      assertEquals(text, IsoDateTimeParser.INVALID_DATE, date(text));
+    }
+  }
+
+  @Test
+  public void testAgreesWithLocalDate() {
+    for (LocalDate day = LocalDate.of(1999, 12, 1); day.getYear() < 2002;
+         day = day.plusDays(1)) {
+      int packed = date(day.toString());
+      assertEquals(day, LocalDate.of(IsoDateTimeParser.year(packed),
+          IsoDateTimeParser.month(packed), IsoDateTimeParser.day(packed)));
+    }
+  }
+
+  @Test
+  public void testParsesTimes() {
+    assertEquals(LocalTime.of(9, 30).toNanoOfDay(), time("09:30"));
+    assertEquals(LocalTime.of(23, 59, 59).toNanoOfDay(), time("23:59:59"));
+    assertEquals(LocalTime.of(0, 0, 1, 500_000_000).toNanoOfDay(), time("00:00:01.5"));
+    assertEquals(LocalTime.of(12, 0, 0, 123_456_789).toNanoOfDay(), time("12:00:00.123456789"));
+    assertEquals(0, time("00:00"));
+  }
+
+  @Test
+  public void testRejectsInvalidTimes() {
+    String[] invalid = {"", "9:30", "24:00", "12:60", "12:00:60", "12:00:0", "12:00:00.",
+        "12:00:00.1234567890", "12-00", "10:00 AM", "12:00:00,5"};
+    for (String text : invalid) {
+      assertEquals(text, IsoDateTimeParser.INVALID_TIME, time(text));
+    }
+  }
+}
@@ -0,0 +1,173 @@
+package model;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * JUnit Test case for the Journal class.
+ */
+public class JournalTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private static byte[] bytes(String text) {
+    return text.getBytes(StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Opens the journal, collecting the records already in it as strings.
+   */
+  private static Journal open(Path file, Journal.Durability durability, int capacity,
+                              List<String> replayed) throws IOException {
+    return new Journal(file, durability, capacity,
+        record -> replayed.add(new String(record, StandardCharsets.UTF_8)));
+  }
+
+  private static List<String> replay(Path file) throws IOException {
+    List<String> replayed = new ArrayList<>();
+    open(file, Journal.Durability.ASYNC, 4, replayed).close();
+    return replayed;
+  }
+
+  @Test
+  public void testReplaysRecordsInOrder() throws IOException {
+    for (Journal.Durability durability : Journal.Durability.values()) {
+      Path file = folder.getRoot().toPath().resolve(durability + ".journal");
+      List<String> replayed = new ArrayList<>();
+      try (Journal journal = open(file, durability, 4, replayed)) {
+        for (int i = 0; i < 100; i++) {
+          journal.append(bytes("record " + i));
+        }
+      }
+      assertTrue(replayed.isEmpty());
+
+      List<String> expected = new ArrayList<>();
+      for (int i = 0; i < 100; i++) {
+        expected.add("record " + i);
+      }
+      assertEquals(expected, replay(file));
+    }
+  }
+
+  @Test
+  public void testAppendsAfterReplayedRecords() throws IOException {
+    Path file = folder.getRoot().toPath().resolve("calendar.journal");
+    try (Journal journal = open(file, Journal.Durability.GROUP, 4, new ArrayList<>())) {
+      journal.append(bytes("first"));
+    }
+    List<String> replayed = new ArrayList<>();
+    try (Journal journal = open(file, Journal.Durability.GROUP, 4, replayed)) {
+      journal.append(bytes("second"));
+    }
+    assertEquals(Arrays.asList("first"), replayed);
+    assertEquals(Arrays.asList("first", "second"), replay(file));
+  }
+
+  @Test
+  public void testSyncModeWritesBeforeReturning() throws IOException {
+    Path file = folder.getRoot().toPath().resolve("calendar.journal");
+    try (Journal journal = open(file, Journal.Durability.SYNC, 4, new ArrayList<>())) {
+      long empty = Files.size(file);
+      journal.append(bytes("durable"));
+      // length byte, seven bytes of content and a four-byte checksum
+      assertEquals(empty + 12, Files.size(file));
+    }
+  }
+
+  @Test
+  public void testLargeRecordsAndSmallQueue() throws IOException {
+    Path file = folder.getRoot().toPath().resolve("calendar.journal");
+    char[] large = new char[200_000];
+    Arrays.fill(large, 'x');
+    try (Journal journal = open(file, Journal.Durability.ASYNC, 1, new ArrayList<>())) {
+      for (int i = 0; i < 1000; i++) {
+        journal.append(bytes(i == 500 ? new String(large) : "r" + i));
+      }
+    }
+    List<String> replayed = replay(file);
+    assertEquals(1000, replayed.size());
+    assertEquals(200_000, replayed.get(500).length());
+    assertEquals("r999", replayed.get(999));
+  }
+
+  @Test
+  public void testDropsTornLastRecord() throws IOException {
+    Path file = folder.getRoot().toPath().resolve("calendar.journal");
+    try (Journal journal = open(file, Journal.Durability.GROUP, 4, new ArrayList<>())) {
+      journal.append(bytes("one"));
+      journal.append(bytes("two"));
+      journal.append(bytes("three"));
+    }
+    byte[] content = Files.readAllBytes(file);
+    Files.write(file, Arrays.copyOf(content, content.length - 3));
+
+    List<String> replayed = new ArrayList<>();
+    try (Journal journal = open(file, Journal.Durability.GROUP, 4, replayed)) {
+      journal.append(bytes("four"));
+    }
+    assertEquals(Arrays.asList("one", "two"), replayed);
+    assertEquals(Arrays.asList("one", "two", "four"), replay(file));
+  }
+
+  @Test
+  public void testStopsAtDamagedRecord() throws IOException {
+    Path file = folder.getRoot().toPath().resolve("calendar.journal");
+    try (Journal journal = open(file, Journal.Durability.GROUP, 4, new ArrayList<>())) {
+      journal.append(bytes("one"));
+      journal.append(bytes("two"));
+      journal.append(bytes("three"));
+    }
+    byte[] content = Files.readAllBytes(file);
+    // header, then "one" framed in 8 bytes; the second record's content starts after its
+    // length byte
+    content[5 + 8 + 1] = 'T';
+    Files.write(file, content);
+    assertEquals(Arrays.asList("one"), replay(file));
+  }
+
+  @Test
+  public void testResetDiscardsRecords() throws IOException {
+    Path file = folder.getRoot().toPath().resolve("calendar.journal");
+    try (Journal journal = open(file, Journal.Durability.ASYNC, 4, new ArrayList<>())) {
+      journal.append(bytes("saved elsewhere"));
+      journal.reset();
+      journal.append(bytes("after reset"));
+    }
+    assertEquals(Arrays.asList("after reset"), replay(file));
+  }
+
+  @Test
+  public void testAppendAfterCloseFails() throws IOException {
+    Path file = folder.getRoot().toPath().resolve("calendar.journal");
+    Journal journal = open(file, Journal.Durability.GROUP, 4, new ArrayList<>());
+    journal.close();
+    journal.close();
+    try {
+      journal.append(bytes("late"));
+      fail("append after close");
+    } catch (IllegalStateException e) {
+      assertEquals("Journal is closed", e.getMessage());
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testRejectsOtherFiles() throws IOException {
+    Path file = folder.getRoot().toPath().resolve("events.csv");
+    Files.write(file, bytes("Subject,Start Date\n"));
+    replay(file);
+  }
+}
@@ -0,0 +1,249 @@
+package model;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+
+import static model.CalendarFixtures.assertSameCalendars;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * JUnit Test case for the JournaledCalendarManager class.
+ */
+public class JournaledCalendarManagerTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private String journalFile() {
+    return folder.getRoot().toPath().resolve("calendars.journal").toString();
+  }
+
+  /**
+   * Makes one change of every kind through the manager.
+   */
+  private static void makeChanges(ICalendarManager manager) {
+    manager.createCalendar("Work", "America/New_York");
+    manager.createCalendar("Home", "Asia/Kolkata");
+    ICalendar work = manager.getCurrentCalendar();
+    work.addEvent(new Event("Standup", LocalDateTime.of(2025, 3, 3, 9, 0),
+        LocalDateTime.of(2025, 3, 3, 9, 15), "Daily", "Room 1", true), true);
+    work.addEvent(new Event("Offsite", LocalDateTime.of(2025, 3, 5, 0, 0), null, "Park",
+        false), false);
+    work.addRecurringEvent(new RecurringEvent("Review", LocalDateTime.of(2025, 3, 3, 14, 0),
+        LocalDateTime.of(2025, 3, 3, 15, 0), "Weekly", "Room 2", true,
+        EnumSet.of(DayOfWeek.MONDAY, DayOfWeek.THURSDAY), 3), false);
+    work.editEvent("location", "Review", LocalDateTime.of(2025, 3, 6, 14, 0),
+        LocalDateTime.of(2025, 3, 6, 15, 0), "Room 9");
+    work.editEvents("description", "Review", LocalDateTime.of(2025, 3, 10, 14, 0), "Later");
+    work.editAllEvents("location", "Standup", "Room 3");
+    work.addEvents(Arrays.asList(
+        new Event("Lunch", LocalDateTime.of(2025, 3, 4, 12, 0),
+            LocalDateTime.of(2025, 3, 4, 13, 0), "", "Cafe", true),
+        new Event("Gym", LocalDateTime.of(2025, 3, 4, 18, 0),
+            LocalDateTime.of(2025, 3, 4, 19, 0), "", "", false)), true);
+    work.beginBatch();
+    work.addEvent(new Event("Call", LocalDateTime.of(2025, 3, 7, 9, 0),
+        LocalDateTime.of(2025, 3, 7, 10, 0), "", "", true), true);
+    work.addEvent(new Event("Overlap", LocalDateTime.of(2025, 3, 7, 9, 30),
+        LocalDateTime.of(2025, 3, 7, 10, 30), "", "", true), false);
+    work.commit();
+    manager.copyEvent("Standup", LocalDateTime.of(2025, 3, 3, 9, 0), "Home",
+        LocalDateTime.of(2025, 3, 4, 10, 0));
+    manager.copyEventsOn(LocalDate.of(2025, 3, 5), "Home", LocalDate.of(2025, 3, 6));
+    manager.copyEventsBetween(LocalDate.of(2025, 3, 3), LocalDate.of(2025, 3, 3), "Home",
+        LocalDate.of(2025, 4, 1));
+    manager.editCalendar("Home", "timezone", "Europe/London");
+    manager.editCalendar("Home", "name", "Family");
+    manager.getCalendar("Family").addEvent(new Event("Dinner",
+        LocalDateTime.of(2025, 3, 8, 19, 0), LocalDateTime.of(2025, 3, 8, 21, 0), null,
+        "", true), false);
+    manager.copyEvent("Family", "Dinner", LocalDateTime.of(2025, 3, 8, 19, 0), "Work",
+        LocalDateTime.of(2025, 3, 11, 19, 0));
+    manager.copyEventsOn("Family", LocalDate.of(2025, 3, 8), "Work", LocalDate.of(2025, 3, 9));
+    manager.copyEventsBetween("Work", LocalDate.of(2025, 3, 4), LocalDate.of(2025, 3, 4),
+        "Family", LocalDate.of(2025, 5, 1));
+    manager.useCalendar("Family");
+  }
+
+  @Test
+  public void testReplayRestoresEveryChange() throws IOException {
+    for (Journal.Durability durability : Journal.Durability.values()) {
+      String file = journalFile();
+      CalendarManager model = new CalendarManager();
+      try (JournaledCalendarManager manager = JournaledCalendarManager.open(model, file,
+          durability)) {
+        makeChanges(manager);
+      }
+
+      CalendarManager expected = new CalendarManager();
+      makeChanges(expected);
+      assertSameCalendars(expected, model);
+
+      CalendarManager replayed = new CalendarManager();
+      JournaledCalendarManager.open(replayed, file, durability).close();
+      assertSameCalendars(expected, replayed);
+      Files.delete(folder.getRoot().toPath().resolve("calendars.journal"));
+    }
+  }
+
+  @Test
+  public void testFailedCallsAreNotRecorded() throws IOException {
+    CalendarManager model = new CalendarManager();
+    try (JournaledCalendarManager manager = JournaledCalendarManager.open(model,
+        journalFile(), Journal.Durability.SYNC)) {
+      manager.createCalendar("Work", "UTC");
+      ICalendar work = manager.getCurrentCalendar();
+      work.addEvent(new Event("Standup", LocalDateTime.of(2025, 3, 3, 9, 0),
+          LocalDateTime.of(2025, 3, 3, 9, 15), "", "", true), true);
+      try {
+        work.addEvent(new Event("Clash", LocalDateTime.of(2025, 3, 3, 9, 5),
+            LocalDateTime.of(2025, 3, 3, 9, 20), "", "", true), true);
+        fail("conflict not detected");
+      } catch (IllegalStateException e) {
+        // expected
+      }
+      try {
+        manager.createCalendar("Work", "UTC");
+        fail("duplicate calendar created");
+      } catch (IllegalArgumentException e) {
+        // expected
+      }
+    }
+    CalendarManager replayed = new CalendarManager();
+    JournaledCalendarManager.open(replayed, journalFile(), Journal.Durability.SYNC).close();
+    assertSameCalendars(model, replayed);
+  }
+
+  @Test
+  public void testFailedCopyIsNotRecorded() throws IOException {
+    CalendarManager model = new CalendarManager();
+    try (JournaledCalendarManager manager = JournaledCalendarManager.open(model,
+        journalFile(), Journal.Durability.GROUP)) {
+      manager.createCalendar("Work", "UTC");
+      manager.createCalendar("Home", "UTC");
+      ICalendar work = manager.getCurrentCalendar();
+      work.addEvent(new Event("Early", LocalDateTime.of(2025, 3, 3, 8, 0),
+          LocalDateTime.of(2025, 3, 3, 9, 0), "", "", true), false);
+      work.addEvent(new Event("Late", LocalDateTime.of(2025, 3, 3, 17, 0),
+          LocalDateTime.of(2025, 3, 3, 18, 0), "", "", true), false);
+      manager.getCalendar("Home").addEvent(new Event("Busy",
+          LocalDateTime.of(2025, 3, 4, 16, 30), LocalDateTime.of(2025, 3, 4, 17, 30), "", "",
+          true), false);
+      try {
+        manager.copyEventsOn(LocalDate.of(2025, 3, 3), "Home", LocalDate.of(2025, 3, 4));
+        fail("conflict not detected");
+      } catch (IllegalStateException e) {
+        // expected
+      }
+    }
+    assertEquals(1, model.getCalendar("Home").getAllEventsList().size());
+    CalendarManager replayed = new CalendarManager();
+    JournaledCalendarManager.open(replayed, journalFile(), Journal.Durability.GROUP).close();
+    assertSameCalendars(model, replayed);
+  }
+
+  @Test
+  public void testDeclinedBatchIsNotRecorded() throws IOException {
+    CalendarManager model = new CalendarManager();
+    try (JournaledCalendarManager manager = JournaledCalendarManager.open(model,
+        journalFile(), Journal.Durability.SYNC)) {
+      manager.createCalendar("Work", "UTC");
+      ICalendar work = manager.getCurrentCalendar();
+      work.addEvent(new Event("Standup", LocalDateTime.of(2025, 3, 3, 9, 0),
+          LocalDateTime.of(2025, 3, 3, 9, 15), "", "", true), false);
+      work.beginBatch();
+      work.addEvent(new Event("Free", LocalDateTime.of(2025, 3, 3, 11, 0),
+          LocalDateTime.of(2025, 3, 3, 12, 0), "", "", true), true);
+      work.addEvent(new Event("Clash", LocalDateTime.of(2025, 3, 3, 9, 5),
+          LocalDateTime.of(2025, 3, 3, 9, 20), "", "", true), true);
+      try {
+        work.commit();
+        fail("conflict not detected");
+      } catch (IllegalStateException e) {
+        // expected
+      }
+      work.beginBatch();
+      work.addEvent(new Event("Free", LocalDateTime.of(2025, 3, 3, 11, 0),
+          LocalDateTime.of(2025, 3, 3, 12, 0), "", "", true), true);
+      work.commit();
+    }
+    assertEquals(2, model.getCalendar("Work").getAllEventsList().size());
+    CalendarManager replayed = new CalendarManager();
+    JournaledCalendarManager.open(replayed, journalFile(), Journal.Durability.SYNC).close();
+    assertSameCalendars(model, replayed);
+  }
+
+  @Test
+  public void testImportedEventsDoNotNeedTheFile() throws IOException {
+    Path csv = folder.getRoot().toPath().resolve("events.csv");
+    StringBuilder content = new StringBuilder("Subject,Start Date,Start Time,End Date,"
+        + "End Time,All Day Event,Description,Location,Private\n");
+    LocalDateTime start = LocalDateTime.of(2025, 1, 1, 0, 0);
+    for (int i = 0; i < 5000; i++) {
+      LocalDateTime end = start.plusMinutes(30);
+      content.append("Event ").append(i).append(',').append(start.toLocalDate()).append(',')
+          .append(start.toLocalTime()).append(',').append(end.toLocalDate()).append(',')
+          .append(end.toLocalTime()).append(",false,Imported,Room,false\n");
+      start = start.plusHours(1);
+    }
+    Files.write(csv, content.toString().getBytes());
+
+    CalendarManager model = new CalendarManager();
+    try (JournaledCalendarManager manager = JournaledCalendarManager.open(model,
+        journalFile(), Journal.Durability.ASYNC)) {
+      manager.createCalendar("Work", "UTC");
+      assertEquals(5000, manager.getCurrentCalendar().importFromCSV(csv.toString()));
+    }
+    Files.delete(csv);
+
+    CalendarManager replayed = new CalendarManager();
+    JournaledCalendarManager.open(replayed, journalFile(), Journal.Durability.ASYNC).close();
+    assertSameCalendars(model, replayed);
+  }
+
+  @Test
+  public void testCheckpointEmptiesTheJournal() throws IOException {
+    String snapshot = folder.getRoot().toPath().resolve("calendars.snapshot").toString();
+    CalendarManager model = new CalendarManager();
+    try (JournaledCalendarManager manager = JournaledCalendarManager.open(model,
+        journalFile(), Journal.Durability.GROUP)) {
+      makeChanges(manager);
+      manager.checkpoint(snapshot);
+      assertEquals(5, Files.size(folder.getRoot().toPath().resolve("calendars.journal")));
+      manager.getCurrentCalendar().addEvent(new Event("After", LocalDateTime.of(2025, 5, 1,
+          9, 0), LocalDateTime.of(2025, 5, 1, 10, 0), "", "", true), false);
+    }
+
+    // The snapshot holds the changes before the checkpoint and the journal the rest.
+    CalendarManager restored = CalendarManager.loadSnapshot(snapshot);
+    JournaledCalendarManager.open(restored, journalFile(), Journal.Durability.GROUP).close();
+    assertSameCalendars(model, restored);
+  }
+
+  @Test
+  public void testCalendarsKeepTheirWrapper() throws IOException {
+    try (JournaledCalendarManager manager = JournaledCalendarManager.open(
+        new CalendarManager(), journalFile(), Journal.Durability.ASYNC)) {
+      manager.createCalendar("Work", "UTC");
+      assertSame(manager.getCurrentCalendar(), manager.getCalendar("Work"));
+      assertTrue(manager.getCalendar("Missing") == null);
+      assertEquals(Arrays.asList("Work"), new ArrayList<>(manager.getAllCalendarsMap()
+          .keySet()));
+    }
+  }
+}
@@ -0,0 +1,227 @@
+package model;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static model.CalendarFixtures.describeSorted;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * JUnit Test case for the MappedCalendar class.
+ */
+public class MappedCalendarTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private static Event timed(String title, LocalDateTime start, LocalDateTime end) {
+    return new Event(title, start, end, "Desc", "Room", true);
+  }
+
+  @Test
+  public void testQueriesAnsweredFromMapping() throws IOException {
+    Path directory = folder.newFolder("work").toPath();
+    try (MappedCalendar calendar = new MappedCalendar("Work", "America/New_York",
+        directory)) {
+      LocalDateTime start = LocalDateTime.of(2025, 3, 10, 10, 0);
+      calendar.addEvent(timed("Meeting", start, start.plusHours(1)), true);
+      calendar.addEvent(new Event("Holiday", LocalDateTime.of(2025, 3, 11, 0, 0),
+          null, null, false), true);
+
+      assertEquals(1, calendar.getEventsOnDate(LocalDate.of(2025, 3, 10)).size());
+      assertEquals(2, calendar.getEventsBetween(start, start.plusDays(1)).size());
+      assertTrue(calendar.isBusyAt(start.plusMinutes(30)));
+      assertFalse(calendar.isBusyAt(start.plusHours(2)));
+      AbstractEvent holiday = calendar.findEvent("Holiday",
+          LocalDateTime.of(2025, 3, 11, 0, 0));
+      assertNull(holiday.getEnd());
+      assertNull(holiday.getLocation());
+      assertFalse(holiday.isPublic());
+    }
+  }
+
+  @Test
+  public void testReopenKeepsEventsAndEdits() throws IOException {
+    Path directory = folder.newFolder("archive").toPath();
+    LocalDateTime start = LocalDateTime.of(2025, 3, 10, 10, 0);
+    List<String> before;
+    try (MappedCalendar calendar = new MappedCalendar("Archive", "America/New_York",
+        directory)) {
+      for (int day = 0; day < 2000; day++) {
+        calendar.addEvent(timed("Standup", start.plusDays(day),
+            start.plusDays(day).plusMinutes(15)), false);
+      }
+      calendar.editEvent("location", "Standup", start, start.plusMinutes(15), "Lab");
+      calendar.editEvent("start", "Standup", start.plusDays(1),
+          start.plusDays(1).plusMinutes(15), "09:00");
+      calendar.editAllEvents("description", "Standup", "Daily sync");
+      calendar.setName("Old archive");
+      calendar.convertTimezone(ZoneId.of("Europe/London"));
+      before = describeSorted(calendar.getAllEventsList());
+    }
+
+    try (MappedCalendar reopened = MappedCalendar.open(directory)) {
+      assertEquals("Old archive", reopened.getName());
+      assertEquals(ZoneId.of("Europe/London"), reopened.getTimezone());
+      assertEquals(2000, reopened.size());
+      assertEquals(before, describeSorted(reopened.getAllEventsList()));
+      assertEquals("Lab", reopened.findEvent("Standup",
+          LocalDateTime.of(2025, 3, 10, 14, 0)).getLocation());
+      assertTrue(reopened.isBusyAt(LocalDateTime.of(2025, 3, 11, 13, 5)));
+      assertEquals(1, reopened.getEventsOnDate(LocalDate.of(2027, 1, 1)).size());
+
+      // A reopened calendar keeps accepting events.
+      reopened.addEvent(timed("Review", LocalDateTime.of(2030, 1, 1, 9, 0),
+          LocalDateTime.of(2030, 1, 1, 10, 0)), true);
+      assertEquals(2, reopened.getEventsOnDate(LocalDate.of(2030, 1, 1)).size());
+    }
+  }
+
+  @Test
+  public void testLongEventsAreFoundWithoutWideningQueries() throws IOException {
+    Path directory = folder.newFolder("long").toPath();
+    LocalDateTime start = LocalDateTime.of(2025, 3, 10, 9, 0);
+    try (MappedCalendar calendar = new MappedCalendar("Trips", "UTC", directory)) {
+      calendar.addEvent(timed("Trip", start, start.plusDays(30)), false);
+      calendar.addEvent(timed("Backwards", start.plusDays(40), start.plusDays(39)), false);
+      for (int hour = 0; hour < 3000; hour++) {
+        calendar.addEvent(timed("Call", start.plusHours(hour),
+            start.plusHours(hour).plusMinutes(20)), false);
+      }
+      assertEquals(25, calendar.getEventsOnDate(LocalDate.of(2025, 3, 25)).size());
+
+      // Shortening the trip moves it into the time-ordered index.
+      assertTrue(calendar.editAllEvents("end", "Trip", start.plusHours(1).toString()));
+      assertEquals(24, calendar.getEventsOnDate(LocalDate.of(2025, 3, 25)).size());
+    }
+
+    try (MappedCalendar reopened = MappedCalendar.open(directory)) {
+      assertEquals(2, reopened.getEventsBetween(start.plusMinutes(10),
+          start.plusMinutes(10)).size());
+      assertEquals(24, reopened.getEventsOnDate(LocalDate.of(2025, 3, 25)).size());
+      assertEquals(25, reopened.getEventsOnDate(LocalDate.of(2025, 4, 19)).size());
+
+      // Moving every event leaves the whole large run of the index marked as gone.
+      reopened.convertTimezone(ZoneId.of("Asia/Kolkata"));
+      LocalDateTime moved = LocalDateTime.of(2025, 3, 10, 14, 30);
+      assertTrue(reopened.isBusyAt(moved.plusDays(3).plusMinutes(10)));
+      assertFalse(reopened.isBusyAt(moved.plusDays(3).plusMinutes(25)));
+      assertEquals(2, reopened.getEventsBetween(moved, moved.plusMinutes(59)).size());
+      assertEquals(25, reopened.getEventsOnDate(LocalDate.of(2025, 4, 19)).size());
+    }
+  }
+
+  @Test
+  public void testShuffledInsertsMatchSortedOnes() throws IOException {
+    Path directory = folder.newFolder("shuffled").toPath();
+    LocalDateTime base = LocalDateTime.of(2025, 1, 1, 0, 0);
+    List<Integer> slots = new ArrayList<>();
+    for (int i = 0; i < 20_000; i++) {
+      slots.add(i);
+    }
+    Collections.shuffle(slots, new Random(11));
+    Calendar expected = new Calendar("Shuffled", "UTC");
+    try (MappedCalendar calendar = new MappedCalendar("Shuffled", "UTC", directory)) {
+      for (int i = 0; i < slots.size(); i++) {
+        LocalDateTime start = base.plusMinutes(30L * slots.get(i));
+        Event event = timed("E" + slots.get(i), start, start.plusMinutes(20));
+        expected.addEvent(event, true);
+        calendar.addEvent(event, true);
+        if (i % 997 == 0) {
+          LocalDateTime from = base.plusMinutes(30L * slots.get(i / 2)).minusHours(3);
+          assertEquals(describeSorted(expected.getEventsBetween(from, from.plusHours(8))),
+              describeSorted(calendar.getEventsBetween(from, from.plusHours(8))));
+        }
+      }
+      // Moving events takes them out of both the large run and the tail.
+      for (int i = 0; i < 300; i++) {
+        int slot = slots.get(slots.size() - 1 - 7 * i);
+        LocalDateTime start = base.plusMinutes(30L * slot);
+        String time = start.plusMinutes(5).toLocalTime().toString();
+        assertTrue(expected.editEvent("start", "E" + slot, start, start.plusMinutes(20), time));
+        assertTrue(calendar.editEvent("start", "E" + slot, start, start.plusMinutes(20), time));
+      }
+      assertEquals(describeSorted(expected.getAllEventsList()),
+          describeSorted(calendar.getAllEventsList()));
+    }
+
+    try (MappedCalendar reopened = MappedCalendar.open(directory)) {
+      for (int day = 0; day < 420; day += 13) {
+        LocalDate date = base.toLocalDate().plusDays(day);
+        assertEquals(describeSorted(expected.getEventsOnDate(date)),
+            describeSorted(reopened.getEventsOnDate(date)));
+      }
+      LocalDateTime moved = base.plusMinutes(30L * slots.get(slots.size() - 1) + 5);
+      assertTrue(reopened.isBusyAt(moved.plusMinutes(10)));
+      assertFalse(reopened.isBusyAt(moved.minusMinutes(1)));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testOpenRejectsOtherFiles() throws IOException {
+    Path directory = folder.newFolder("other").toPath();
+    Files.write(directory.resolve(MappedCalendar.EVENTS_FILE), new byte[128]);
+    Files.write(directory.resolve(MappedCalendar.INDEX_FILE), new byte[0]);
+    Files.write(directory.resolve(MappedCalendar.STRINGS_FILE), new byte[0]);
+    MappedCalendar.open(directory);
+  }
+
+  @Test
+  public void testMatchesCalendarOnRandomEvents() throws IOException {
+    Random random = new Random(7);
+    Calendar expected = new Calendar("Work", "America/New_York");
+    LocalDateTime base = LocalDateTime.of(2025, 3, 1, 0, 0);
+    try (MappedCalendar calendar = new MappedCalendar("Work", "America/New_York",
+        folder.newFolder("random").toPath())) {
+      for (int i = 0; i < 1500; i++) {
+        LocalDateTime start = base.plusMinutes(30L * random.nextInt(2000));
+        String title = "T" + random.nextInt(20);
+        Event event;
+        if (random.nextInt(10) == 0) {
+          event = new Event(title, start.toLocalDate().atStartOfDay(), "d", "l", true);
+        } else {
+          event = timed(title, start, start.plusMinutes(30L * (random.nextInt(100) - 20)));
+        }
+        boolean autoDecline = random.nextBoolean();
+        boolean declinedExpected = false;
+        boolean declinedActual = false;
+        try {
+          expected.addEvent(event, autoDecline);
+        } catch (IllegalStateException e) {
+          declinedExpected = true;
+        }
+        try {
+          calendar.addEvent(event, autoDecline);
+        } catch (IllegalStateException e) {
+          declinedActual = true;
+        }
+        assertEquals(declinedExpected, declinedActual);
+      }
+
+      for (int i = 0; i < 200; i++) {
+        LocalDateTime from = base.plusMinutes(30L * random.nextInt(2200));
+        LocalDateTime to = from.plusHours(random.nextInt(72));
+        assertEquals(describeSorted(expected.getEventsBetween(from, to)),
+            describeSorted(calendar.getEventsBetween(from, to)));
+        assertEquals(describeSorted(expected.getEventsOnDate(from.toLocalDate())),
+            describeSorted(calendar.getEventsOnDate(from.toLocalDate())));
+        assertEquals(expected.isBusyAt(from), calendar.isBusyAt(from));
+      }
+    }
+  }
+}
@@ -0,0 +1,114 @@
+package model;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * JUnit Test case for the PersistentIntervalTree behind calendar views.
+ */
+public class PersistentIntervalTreeTest {
+
+  private static List<String> query(PersistentIntervalTree<String> tree, long lo, long hi) {
+    List<String> out = new ArrayList<>();
+    tree.query(lo, hi, out);
+    return out;
+  }
+
+  private static List<String> all(PersistentIntervalTree<String> tree) {
+    List<String> out = new ArrayList<>();
+    tree.forEach(out::add);
+    return out;
+  }
+
+  @Test
+  public void testEmptyTree() {
+    PersistentIntervalTree<String> tree = PersistentIntervalTree.empty();
+    assertEquals(0, tree.size());
+    assertTrue(query(tree, Long.MIN_VALUE, Long.MAX_VALUE).isEmpty());
+    assertNull(tree.findFirst(0, 10, value -> true));
+  }
+
+  @Test
+  public void testQueryIsInclusiveAndOrderedByLow() {
+    PersistentIntervalTree<String> tree = PersistentIntervalTree.<String>empty()
+        .insert(30, 40, 0, "c")
+        .insert(10, 20, 1, "a")
+        .insert(20, 30, 2, "b");
+
+    assertEquals(Arrays.asList("a", "b", "c"), query(tree, 0, 100));
+    assertEquals(Arrays.asList("a", "b"), query(tree, 20, 20));
+    assertEquals(Arrays.asList("c"), query(tree, 40, 50));
+    assertTrue(query(tree, 41, 50).isEmpty());
+    assertEquals("b", tree.findFirst(15, 35, value -> !value.equals("a")));
+  }
+
+  @Test
+  public void testOlderVersionsAreUnchanged() {
+    PersistentIntervalTree<String> first = PersistentIntervalTree.<String>empty()
+        .insert(10, 20, 0, "a");
+    PersistentIntervalTree<String> second = first.insert(10, 30, 1, "b");
+    PersistentIntervalTree<String> third = second.remove(10, 0);
+
+    assertEquals(Arrays.asList("a"), all(first));
+    assertEquals(Arrays.asList("a", "b"), all(second));
+    assertEquals(Arrays.asList("b"), all(third));
+    assertEquals(Arrays.asList("b"), query(third, 25, 25));
+    assertTrue(query(first, 25, 25).isEmpty());
+  }
+
+  @Test
+  public void testRemovingMissingIntervalReturnsSameTree() {
+    PersistentIntervalTree<String> tree = PersistentIntervalTree.<String>empty()
+        .insert(10, 20, 0, "a");
+    assertSame(tree, tree.remove(10, 1));
+    assertSame(tree, tree.remove(11, 0));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidInterval() {
+    PersistentIntervalTree.<String>empty().insert(20, 10, 0, "bad");
+  }
+
+  @Test
+  public void testMatchesMutableTree() {
+    Random random = new Random(24);
+    IntervalTree<String> reference = new IntervalTree<>();
+    List<IntervalTree.Node<String>> nodes = new ArrayList<>();
+    List<long[]> keys = new ArrayList<>();
+    PersistentIntervalTree<String> tree = PersistentIntervalTree.empty();
+    for (int i = 0; i < 2000; i++) {
+      if (!nodes.isEmpty() && random.nextInt(3) == 0) {
+        int victim = random.nextInt(nodes.size());
+        reference.remove(nodes.remove(victim));
+        long[] key = keys.remove(victim);
+        tree = tree.remove(key[0], key[1]);
+      } else {
+        long low = random.nextInt(1000);
+        long high = low + random.nextInt(50);
+        nodes.add(reference.insert(low, high, "v" + i));
+        keys.add(new long[] {low, i});
+        tree = tree.insert(low, high, i, "v" + i);
+      }
+      assertEquals(reference.size(), tree.size());
+    }
+    for (int q = 0; q < 200; q++) {
+      long lo = random.nextInt(1100);
+      long hi = lo + random.nextInt(30);
+      List<String> expected = new ArrayList<>();
+      reference.query(lo, hi, expected);
+      List<String> actual = query(tree, lo, hi);
+      expected.sort(null);
+      actual.sort(null);
+      assertEquals(expected, actual);
+    }
+  }
+}
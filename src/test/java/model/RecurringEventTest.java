@@ -470,4 +470,141 @@ public class RecurringEventTest {
     }
   }
 
-}
\ No newline at end of file
+  @Test
+  public void testOccurrencesBetweenMatchesGenerateEvents() {
+    // Weekdays from Monday 2025-03-10, 3 * 7 = 21 occurrences, ending Monday 2025-04-07.
+    List<Event> all = occurrenceBasedEvent.generateEvents();
+    List<Event> window = occurrenceBasedEvent.occurrencesBetween(
+        LocalDate.of(2025, 3, 15), LocalDate.of(2025, 3, 21));
+
+    assertEquals(5, window.size());
+    assertEquals(LocalDateTime.of(2025, 3, 17, 9, 0), window.get(0).getStart());
+    assertEquals(LocalDateTime.of(2025, 3, 21, 10, 0), window.get(4).getEnd());
+    for (Event e : window) {
+      assertTrue(all.stream().anyMatch(a -> a.getStart().equals(e.getStart())));
+    }
+
+    // Dates beyond the last occurrence produce nothing.
+    assertTrue(occurrenceBasedEvent.occurrencesBetween(
+        LocalDate.of(2025, 4, 8), LocalDate.of(2025, 5, 1)).isEmpty());
+  }
+
+  @Test
+  public void testGetLastOccurrenceDate() {
+    assertEquals(LocalDate.of(2025, 4, 7), occurrenceBasedEvent.getLastOccurrenceDate());
+    assertEquals(LocalDate.of(2025, 3, 30), dateBasedEvent.getLastOccurrenceDate());
+
+    RecurringEvent none = new RecurringEvent("None", start, end, "", "", true,
+        new HashSet<>(), 5);
+    assertNull(none.getLastOccurrenceDate());
+  }
+
+  @Test
+  public void testFirstOccurrenceOnOrAfter() {
+    // Weekdays from Monday 2025-03-10 until Monday 2025-04-07.
+    assertEquals(LocalDate.of(2025, 3, 10),
+        occurrenceBasedEvent.firstOccurrenceOnOrAfter(LocalDate.of(2025, 1, 1)));
+    assertEquals(LocalDate.of(2025, 3, 17),
+        occurrenceBasedEvent.firstOccurrenceOnOrAfter(LocalDate.of(2025, 3, 15)));
+    assertEquals(LocalDate.of(2025, 4, 7),
+        occurrenceBasedEvent.firstOccurrenceOnOrAfter(LocalDate.of(2025, 4, 5)));
+    assertNull(occurrenceBasedEvent.firstOccurrenceOnOrAfter(LocalDate.of(2025, 4, 8)));
+  }
+
+  @Test
+  public void testOccurrencesBetweenFarIntoLongSeries() {
+    Set<DayOfWeek> tuesdays = new HashSet<>(Arrays.asList(DayOfWeek.TUESDAY));
+    RecurringEvent longSeries = new RecurringEvent("Long", start, end, "", "", true,
+        tuesdays, LocalDate.of(9999, 12, 31));
+
+    List<Event> window = longSeries.occurrencesBetween(
+        LocalDate.of(9000, 1, 1), LocalDate.of(9000, 1, 31));
+    assertEquals(4, window.size());
+    for (Event e : window) {
+      assertEquals(DayOfWeek.TUESDAY, e.getStart().getDayOfWeek());
+      assertEquals(LocalTime.of(9, 0), e.getStart().toLocalTime());
+    }
+    assertEquals(LocalDate.of(9999, 12, 28), longSeries.getLastOccurrenceDate());
+  }
+
+  @Test
+  public void testOccurrencesMatchDayByDayWalk() {
+    java.util.Random random = new java.util.Random(42);
+    DayOfWeek[] days = DayOfWeek.values();
+    for (int round = 0; round < 300; round++) {
+      Set<DayOfWeek> pattern = new HashSet<>();
+      for (DayOfWeek day : days) {
+        if (random.nextInt(3) == 0) {
+          pattern.add(day);
+        }
+      }
+      LocalDateTime first = start.plusDays(random.nextInt(14));
+      RecurringEvent event;
+      if (random.nextBoolean()) {
+        event = new RecurringEvent("R", first, first.plusHours(1), "", "", true, pattern,
+            random.nextInt(4));
+      } else {
+        event = new RecurringEvent("R", first, first.plusHours(1), "", "", true, pattern,
+            first.toLocalDate().plusDays(random.nextInt(60) - 5));
+      }
+
+      List<LocalDate> expected = walk(event);
+      List<Event> generated = event.generateEvents();
+      assertEquals(expected.size(), generated.size());
+      for (int i = 0; i < expected.size(); i++) {
+        assertEquals(expected.get(i), generated.get(i).getStart().toLocalDate());
+      }
+      assertEquals(expected.isEmpty() ? null : expected.get(expected.size() - 1),
+          event.getLastOccurrenceDate());
+
+      LocalDate from = first.toLocalDate().plusDays(random.nextInt(40) - 5);
+      LocalDate to = from.plusDays(random.nextInt(20));
+      int inRange = 0;
+      for (LocalDate date : expected) {
+        if (!date.isBefore(from) && !date.isAfter(to)) {
+          inRange++;
+        }
+      }
+      assertEquals(inRange, event.occurrencesBetween(from, to).size());
+    }
+  }
+
+  @Test
+  public void testCopyHasItsOwnDays() {
+    Set<DayOfWeek> days = new HashSet<>(Arrays.asList(DayOfWeek.MONDAY));
+    RecurringEvent original = new RecurringEvent("Standup",
+        LocalDateTime.of(2025, 3, 10, 9, 0), LocalDateTime.of(2025, 3, 10, 9, 15), "", "",
+        true, days, 4);
+    RecurringEvent copy = new RecurringEvent(original);
+    copy.getRecurrenceDays().add(DayOfWeek.FRIDAY);
+
+    assertEquals(Set.of(DayOfWeek.MONDAY), original.getRecurrenceDays());
+    assertEquals(Set.of(DayOfWeek.MONDAY, DayOfWeek.FRIDAY), copy.getRecurrenceDays());
+  }
+
+  /**
+   * Lists occurrence dates by stepping one day at a time from the start of the series.
+   */
+  private static List<LocalDate> walk(RecurringEvent event) {
+    List<LocalDate> dates = new java.util.ArrayList<>();
+    if (event.getRecurrenceDays().isEmpty()) {
+      return dates;
+    }
+    LocalDate current = event.getStart().toLocalDate();
+    int count = 0;
+    while (true) {
+      if (event.getRecurrenceDays().contains(current.getDayOfWeek())) {
+        dates.add(current);
+        count++;
+        if (event.getOccurrences() != null && count >= event.getOccurrences()) {
+          break;
+        }
+      }
+      if (event.getUntil() != null && !current.isBefore(event.getUntil())) {
+        break;
+      }
+      current = current.plusDays(1);
+    }
+    return dates;
+  }
+}
@@ -0,0 +1,57 @@
+package model;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * JUnit Test case for the StringDictionary class.
+ */
+public class StringDictionaryTest {
+
+  @Test
+  public void testInternReturnsSameIdForEqualStrings() {
+    StringDictionary strings = new StringDictionary();
+    int id = strings.intern("Room A");
+    assertEquals(id, strings.intern(new String("Room A")));
+    assertNotEquals(id, strings.intern("Room B"));
+    assertEquals(2, strings.size());
+    assertEquals("Room A", strings.get(id));
+  }
+
+  @Test
+  public void testNullHasFixedId() {
+    StringDictionary strings = new StringDictionary();
+    assertEquals(StringDictionary.NULL_ID, strings.intern(null));
+    assertEquals(StringDictionary.NULL_ID, strings.find(null));
+    assertNull(strings.get(StringDictionary.NULL_ID));
+    assertEquals(0, strings.size());
+  }
+
+  @Test
+  public void testFindDoesNotAdd() {
+    StringDictionary strings = new StringDictionary();
+    assertEquals(StringDictionary.MISSING_ID, strings.find("Lunch"));
+    assertEquals(0, strings.size());
+    int id = strings.intern("Lunch");
+    assertEquals(id, strings.find("Lunch"));
+  }
+
+  @Test
+  public void testReleasedIdsAreReused() {
+    StringDictionary strings = new StringDictionary();
+    int lunch = strings.intern("Lunch");
+    strings.intern("Lunch");
+    strings.release(lunch);
+    assertEquals(lunch, strings.find("Lunch"));
+    strings.release(lunch);
+    assertEquals(StringDictionary.MISSING_ID, strings.find("Lunch"));
+    assertEquals(0, strings.size());
+
+    int dinner = strings.intern("Dinner");
+    assertEquals(lunch, dinner);
+    assertEquals("Dinner", strings.get(dinner));
+  }
+}
@@ -0,0 +1,46 @@
+package model;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * JUnit Test case for the StringPool class.
+ */
+public class StringPoolTest {
+
+  @Test
+  public void testAcquireReturnsSharedInstance() {
+    StringPool pool = new StringPool();
+    String first = pool.acquire(new String("Room A"));
+    String second = pool.acquire(new String("Room A"));
+    assertSame(first, second);
+    assertEquals(2, pool.references("Room A"));
+    assertEquals(1, pool.size());
+  }
+
+  @Test
+  public void testReleaseDropsUnusedStrings() {
+    StringPool pool = new StringPool();
+    pool.acquire("Lunch");
+    pool.acquire("Lunch");
+    pool.release("Lunch");
+    assertEquals(1, pool.references("Lunch"));
+    pool.release("Lunch");
+    assertEquals(0, pool.references("Lunch"));
+    assertEquals(0, pool.size());
+    // Releasing a string that is not pooled is ignored.
+    pool.release("Lunch");
+    assertEquals(0, pool.size());
+  }
+
+  @Test
+  public void testNullIsNotPooled() {
+    StringPool pool = new StringPool();
+    assertNull(pool.acquire(null));
+    pool.release(null);
+    assertEquals(0, pool.size());
+  }
+}